@@ -15,22 +15,28 @@
  */
 package com.hotels.styx.api;
 
-import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import io.netty.handler.codec.http.DefaultHttpHeaders;
 
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.function.BiConsumer;
 
+import static com.google.common.collect.Iterators.concat;
+import static com.google.common.collect.Iterators.filter;
 import static com.hotels.styx.api.HttpHeader.header;
 import static java.time.ZoneOffset.UTC;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableSet;
 import static java.util.Locale.US;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
@@ -38,6 +44,11 @@ import static java.util.stream.StreamSupport.stream;
 
 /**
  * Represent a collection of {@link HttpHeader}s from a single HTTP message.
+ * <p/>
+ * Headers derived from other headers via {@link #newBuilder()} share their storage. The derived headers
+ * only record a small overlay of removed and added headers on top of the shared base. This makes a header
+ * rewrite proportional to the number of changed headers rather than to the number of all headers.
+ * The overlay is merged into a new base once it grows large.
  */
 public final class HttpHeaders implements Iterable<HttpHeader> {
     private static final DateTimeFormatter RFC1123_DATE_FORMAT = DateTimeFormatter
@@ -45,10 +56,47 @@ public final class HttpHeaders implements Iterable<HttpHeader> {
             .withLocale(US)
             .withZone(UTC);
 
-    private final DefaultHttpHeaders nettyHeaders;
+    private static final int MAX_OVERLAY_SIZE = 16;
+    private static final DefaultHttpHeaders NO_HEADERS = new DefaultHttpHeaders(false);
+
+    private final DefaultHttpHeaders base;
+    private final Set<String> removed;
+    private final DefaultHttpHeaders added;
+
+    private volatile DefaultHttpHeaders merged;
 
     private HttpHeaders(Builder builder) {
-        this.nettyHeaders = builder.nettyHeaders;
+        this.base = builder.base;
+        this.removed = builder.removed;
+        this.added = builder.added;
+    }
+
+    HttpHeaders(DefaultHttpHeaders nettyHeaders) {
+        this.base = requireNonNull(nettyHeaders);
+        this.removed = emptySet();
+        this.added = NO_HEADERS;
+    }
+
+    /**
+     * Returns the underlying Netty headers. They may be shared with this object, and must not be modified.
+     *
+     * @return Netty headers
+     */
+    DefaultHttpHeaders nettyHeaders() {
+        if (!hasOverlay()) {
+            return base;
+        }
+
+        DefaultHttpHeaders merged = this.merged;
+        if (merged == null) {
+            merged = merge(base, removed, added);
+            this.merged = merged;
+        }
+        return merged;
+    }
+
+    private boolean hasOverlay() {
+        return !removed.isEmpty() || !added.isEmpty();
     }
 
     /**
@@ -57,7 +105,7 @@ public final class HttpHeaders implements Iterable<HttpHeader> {
      * @return header names
      */
     public Set<String> names() {
-        return ImmutableSet.copyOf(nettyHeaders.names());
+        return unmodifiableSet(nettyHeaders().names());
     }
 
     /**
@@ -69,7 +117,7 @@ public final class HttpHeaders implements Iterable<HttpHeader> {
      * @return header value if header exists
      */
     public Optional<String> get(CharSequence name) {
-        return Optional.ofNullable(nettyHeaders.get(name));
+        return Optional.ofNullable(get(base, removed, added, name));
     }
 
     /**
@@ -80,7 +128,7 @@ public final class HttpHeaders implements Iterable<HttpHeader> {
      * are found
      */
     public List<String> getAll(CharSequence name) {
-        return ImmutableList.copyOf(nettyHeaders.getAll(name));
+        return unmodifiableList(getAll(base, removed, added, name));
     }
 
     /**
@@ -90,18 +138,42 @@ public final class HttpHeaders implements Iterable<HttpHeader> {
      * @return {@code true} if this map contains a header with the specified {@code name}
      */
     public boolean contains(CharSequence name) {
-        return nettyHeaders.contains(name);
+        return contains(base, removed, added, name);
     }
 
     @Override
     public Iterator<HttpHeader> iterator() {
-        return stream(nettyHeaders.spliterator(), false)
-                .map(header -> header(header.getKey(), header.getValue()))
-                .iterator();
+        Iterator<Map.Entry<String, String>> entries = entries();
+        return new Iterator<HttpHeader>() {
+            @Override
+            public boolean hasNext() {
+                return entries.hasNext();
+            }
+
+            @Override
+            public HttpHeader next() {
+                Map.Entry<String, String> entry = entries.next();
+                return header(entry.getKey(), entry.getValue());
+            }
+        };
     }
 
     public void forEach(BiConsumer<String, String> consumer) {
-        nettyHeaders.forEach(entry -> consumer.accept(entry.getKey(), entry.getValue()));
+        Iterator<Map.Entry<String, String>> entries = entries();
+        while (entries.hasNext()) {
+            Map.Entry<String, String> entry = entries.next();
+            consumer.accept(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private Iterator<Map.Entry<String, String>> entries() {
+        if (!hasOverlay()) {
+            return base.iteratorAsString();
+        }
+        if (removed.isEmpty()) {
+            return concat(base.iteratorAsString(), added.iteratorAsString());
+        }
+        return concat(filter(base.iteratorAsString(), entry -> !removed.contains(entry.getKey())), added.iteratorAsString());
     }
 
     /**
@@ -115,7 +187,7 @@ public final class HttpHeaders implements Iterable<HttpHeader> {
 
     @Override
     public String toString() {
-        return Iterables.toString(nettyHeaders);
+        return Iterables.toString(nettyHeaders());
     }
 
     @Override
@@ -135,28 +207,104 @@ public final class HttpHeaders implements Iterable<HttpHeader> {
         return Objects.equals(toString(), other.toString());
     }
 
+    private static String get(DefaultHttpHeaders base, Set<String> removed, DefaultHttpHeaders added, CharSequence name) {
+        if (!removed.contains(name.toString())) {
+            String value = base.get(name);
+            if (value != null) {
+                return value;
+            }
+        }
+        return added.get(name);
+    }
+
+    private static List<String> getAll(DefaultHttpHeaders base, Set<String> removed, DefaultHttpHeaders added, CharSequence name) {
+        if (removed.contains(name.toString())) {
+            return added.getAll(name);
+        }
+        if (!added.contains(name)) {
+            return base.getAll(name);
+        }
+        List<String> values = new ArrayList<>(base.getAll(name));
+        values.addAll(added.getAll(name));
+        return values;
+    }
+
+    private static boolean contains(DefaultHttpHeaders base, Set<String> removed, DefaultHttpHeaders added, CharSequence name) {
+        return added.contains(name) || (base.contains(name) && !removed.contains(name.toString()));
+    }
+
+    private static DefaultHttpHeaders merge(DefaultHttpHeaders base, Set<String> removed, DefaultHttpHeaders added) {
+        // All values have already been validated when they were first added:
+        DefaultHttpHeaders merged = new DefaultHttpHeaders(false);
+        base.forEach(entry -> {
+            if (!removed.contains(entry.getKey())) {
+                merged.add(entry.getKey(), entry.getValue());
+            }
+        });
+        merged.add(added);
+        return merged;
+    }
+
+    private static Set<String> newNameSet() {
+        return new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    }
+
     /**
      * Builds headers.
+     * <p/>
+     * A builder created from existing headers shares their storage. The modifications are recorded
+     * in a separate overlay, which is copied on the first modification.
      */
     public static class Builder {
-        private final DefaultHttpHeaders nettyHeaders;
+        private DefaultHttpHeaders base;
+        private Set<String> removed;
+        private DefaultHttpHeaders added;
+        private boolean shared;
 
         public Builder() {
-            this.nettyHeaders = new DefaultHttpHeaders(true);
+            this.base = NO_HEADERS;
+            this.removed = emptySet();
+            this.added = new DefaultHttpHeaders(true);
         }
 
         public Builder(HttpHeaders headers) {
-            this.nettyHeaders = new DefaultHttpHeaders(true);
-            this.nettyHeaders.set(headers.nettyHeaders);
+            this.base = headers.base;
+            this.removed = headers.removed;
+            this.added = headers.added;
+            this.shared = true;
         }
 
+        private DefaultHttpHeaders writableHeaders() {
+            if (shared) {
+                DefaultHttpHeaders addedCopy = new DefaultHttpHeaders(true);
+                addedCopy.set(added);
+                this.added = addedCopy;
+                this.shared = false;
+                if (!removed.isEmpty()) {
+                    Set<String> removedCopy = newNameSet();
+                    removedCopy.addAll(removed);
+                    this.removed = removedCopy;
+                }
+            }
+            return added;
+        }
+
+        private void removeFromBase(CharSequence name) {
+            if (base.contains(name)) {
+                writableHeaders();
+                if (removed.isEmpty()) {
+                    this.removed = newNameSet();
+                }
+                removed.add(name.toString());
+            }
+        }
 
         public List<String> getAll(CharSequence name) {
-            return this.nettyHeaders.getAll(name);
+            return HttpHeaders.getAll(base, removed, added, name);
         }
 
         public String get(CharSequence name) {
-            return this.nettyHeaders.get(name);
+            return HttpHeaders.get(base, removed, added, name);
         }
 
         /**
@@ -169,7 +317,7 @@ public final class HttpHeaders implements Iterable<HttpHeader> {
          * @return this builder
          */
         public Builder add(CharSequence name, String value) {
-            this.nettyHeaders.add(name, requireNonNull(value));
+            writableHeaders().add(name, requireNonNull(value));
             return this;
         }
 
@@ -183,7 +331,7 @@ public final class HttpHeaders implements Iterable<HttpHeader> {
          * @return this builder
          */
         public Builder add(CharSequence name, Object value) {
-            this.nettyHeaders.add(name, requireNonNull(value));
+            writableHeaders().add(name, requireNonNull(value));
             return this;
         }
 
@@ -198,7 +346,7 @@ public final class HttpHeaders implements Iterable<HttpHeader> {
          */
         public Builder add(CharSequence name, Iterable values) {
             nonNullValues(values)
-                    .ifPresent(nonNullValues -> this.nettyHeaders.add(name, nonNullValues));
+                    .ifPresent(nonNullValues -> writableHeaders().add(name, nonNullValues));
 
             return this;
         }
@@ -218,7 +366,10 @@ public final class HttpHeaders implements Iterable<HttpHeader> {
          * @return this builder
          */
         public Builder remove(CharSequence name) {
-            this.nettyHeaders.remove(name);
+            if (HttpHeaders.contains(base, removed, added, name)) {
+                removeFromBase(name);
+                writableHeaders().remove(name);
+            }
             return this;
         }
 
@@ -232,7 +383,10 @@ public final class HttpHeaders implements Iterable<HttpHeader> {
          * @return this builder
          */
         public Builder set(CharSequence name, String value) {
-            nettyHeaders.set(name, value);
+            if (!isOnlyValue(name, value)) {
+                removeFromBase(name);
+                writableHeaders().set(name, value);
+            }
             return this;
         }
 
@@ -246,8 +400,7 @@ public final class HttpHeaders implements Iterable<HttpHeader> {
          * @return this builder
          */
         public Builder set(CharSequence name, Instant value) {
-            nettyHeaders.set(name, RFC1123_DATE_FORMAT.format(value));
-            return this;
+            return set(name, RFC1123_DATE_FORMAT.format(value));
         }
 
         /**
@@ -260,7 +413,8 @@ public final class HttpHeaders implements Iterable<HttpHeader> {
          * @return this builder
          */
         public Builder set(CharSequence name, Object value) {
-            nettyHeaders.set(name, value);
+            removeFromBase(name);
+            writableHeaders().set(name, value);
             return this;
         }
 
@@ -275,7 +429,10 @@ public final class HttpHeaders implements Iterable<HttpHeader> {
          */
         public Builder set(CharSequence name, Iterable values) {
             nonNullValues(values)
-                    .ifPresent(nonNullValues -> this.nettyHeaders.set(name, nonNullValues));
+                    .ifPresent(nonNullValues -> {
+                        removeFromBase(name);
+                        writableHeaders().set(name, nonNullValues);
+                    });
 
             return this;
         }
@@ -290,11 +447,31 @@ public final class HttpHeaders implements Iterable<HttpHeader> {
          * @return this builder
          */
         public Builder set(CharSequence name, int value) {
-            nettyHeaders.set(name, value);
+            removeFromBase(name);
+            writableHeaders().set(name, value);
             return this;
         }
 
+        private boolean isOnlyValue(CharSequence name, String value) {
+            if (value == null || !HttpHeaders.contains(base, removed, added, name)) {
+                return false;
+            }
+            List<String> values = getAll(name);
+            return values.size() == 1 && value.equals(values.get(0));
+        }
+
         public HttpHeaders build() {
+            if (base.isEmpty() && removed.isEmpty()) {
+                // Nothing to share. The added headers become the base:
+                this.base = added;
+                this.added = NO_HEADERS;
+            } else if (removed.size() + added.size() > MAX_OVERLAY_SIZE) {
+                this.base = merge(base, removed, added);
+                this.removed = emptySet();
+                this.added = NO_HEADERS;
+            }
+            // Subsequent modifications to this builder must not leak into the built headers:
+            this.shared = true;
             return new HttpHeaders(this);
         }
     }
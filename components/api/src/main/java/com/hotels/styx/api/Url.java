@@ -28,8 +28,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import okhttp3.HttpUrl;
 
 import static java.lang.Integer.parseInt;
@@ -48,6 +46,9 @@ public final class Url implements Comparable<Url> {
     private final String fragment;
     private final Optional<UrlQuery> query;
 
+    // Lazily rendered request target. A benign data race: the computed value is always the same immutable string.
+    private String encoded;
+
     private Url(Builder builder) {
         this.scheme = builder.scheme;
         this.authority = builder.authority;
@@ -240,6 +241,15 @@ public final class Url implements Comparable<Url> {
 
     @Override
     public String toString() {
+        String encoded = this.encoded;
+        if (encoded == null) {
+            encoded = render();
+            this.encoded = encoded;
+        }
+        return encoded;
+    }
+
+    private String render() {
         StringBuilder builder = new StringBuilder();
         if (authority.isPresent()) {
             if (scheme != null) {
@@ -298,7 +308,6 @@ public final class Url implements Comparable<Url> {
      * Authority part of a url string.
      */
     public static final class Authority {
-        private static final Pattern AUTHORITY = Pattern.compile("(?:([^@]+)@)?([^:]+)(?:\\:([\\d]+))?");
         private final String userInfo;
         private final String host;
         private final int port;
@@ -309,16 +318,37 @@ public final class Url implements Comparable<Url> {
             this.port = port;
         }
 
+        /**
+         * Parses {@code [userInfo "@"] host [":" port]} in a single pass. The user-info ends at the first '@',
+         * and must not be empty. The host runs up to the first ':' after that, and must not be empty either.
+         * The port, if present, must consist of decimal digits only.
+         */
         static Optional<Authority> authority(String authority) {
             if (authority != null) {
-                Matcher matcher = AUTHORITY.matcher(authority);
-                if (matcher.matches()) {
-                    return Optional.of(authority(matcher.group(1), matcher.group(2), matcher.group(3)));
-                }
+                int at = authority.indexOf('@');
+                Authority parsed = at > 0 ? hostAndPort(authority.substring(0, at), authority, at + 1) : null;
+                return Optional.ofNullable(parsed != null ? parsed : hostAndPort(null, authority, 0));
             }
             return Optional.empty();
         }
 
+        private static Authority hostAndPort(String userInfo, String authority, int start) {
+            int colon = authority.indexOf(':', start);
+            if (colon < 0) {
+                return start < authority.length() ? authority(userInfo, authority.substring(start), -1) : null;
+            }
+            if (colon == start || colon == authority.length() - 1) {
+                return null;
+            }
+            for (int i = colon + 1; i < authority.length(); i++) {
+                char c = authority.charAt(i);
+                if (c < '0' || c > '9') {
+                    return null;
+                }
+            }
+            return authority(userInfo, authority.substring(start, colon), authority.substring(colon + 1));
+        }
+
         static Authority authority(String userInfo, String host, String port) {
             return authority(userInfo, host, port == null ? -1 : parseInt(port));
         }
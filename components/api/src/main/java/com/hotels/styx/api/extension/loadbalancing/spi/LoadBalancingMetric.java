@@ -20,13 +20,28 @@ package com.hotels.styx.api.extension.loadbalancing.spi;
  */
 public final class LoadBalancingMetric {
     private final int ongoingConnections;
+    private final long latencyEwmaNanos;
 
     public LoadBalancingMetric(int ongoingConnections) {
+        this(ongoingConnections, 0);
+    }
+
+    public LoadBalancingMetric(int ongoingConnections, long latencyEwmaNanos) {
         this.ongoingConnections = ongoingConnections;
+        this.latencyEwmaNanos = latencyEwmaNanos;
     }
 
     public int ongoingConnections() {
         return ongoingConnections;
     }
 
+    /**
+     * Returns the peak exponentially weighted moving average of the host's response latency.
+     *
+     * @return latency average in nanoseconds, or 0 if it is not known
+     */
+    public long latencyEwmaNanos() {
+        return latencyEwmaNanos;
+    }
+
 }
@@ -0,0 +1,40 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.api.extension.retrypolicy.spi;
+
+/**
+ * Limits the rate of retries made against a backend service, so that retries cannot multiply the
+ * load on origins that are already struggling.
+ *
+ * Each request sent to the backend service earns the budget a fraction of a retry, and each retry
+ * spends one. Implementations must be thread safe.
+ *
+ * @see RetryPolicy
+ */
+public interface RetryBudget {
+    /**
+     * Credits the budget for a request that has been sent to the backend service. This is not
+     * called for retries.
+     */
+    void deposit();
+
+    /**
+     * Attempts to spend the budget for one retry.
+     *
+     * @return true if the retry is within the budget
+     */
+    boolean tryWithdraw();
+}
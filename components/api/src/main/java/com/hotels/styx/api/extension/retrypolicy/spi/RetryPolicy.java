@@ -102,5 +102,13 @@ public interface RetryPolicy {
      * whether the request should be retried and specifies the delay before the next retry
      */
     Outcome evaluate(Context context, LoadBalancer loadBalancer, LoadBalancer.Preferences lbContext);
+
+    /**
+     * Notifies the policy that a new request is being sent to the backend service. Retries of
+     * the request are not notified. Policies that limit retries to a proportion of the
+     * request rate, for example with a {@link RetryBudget}, use this to track the request volume.
+     */
+    default void requestSent() {
+    }
 }
 
@@ -30,6 +30,8 @@ import java.util.Set;
 import static com.hotels.styx.api.Id.GENERIC_APP;
 import static com.hotels.styx.api.extension.Origin.checkThatOriginsAreDistinct;
 import static com.hotels.styx.api.extension.service.ConnectionPoolSettings.defaultConnectionPoolSettings;
+import static com.hotels.styx.api.extension.service.HedgingConfig.hedgingDisabled;
+import static com.hotels.styx.api.extension.service.OutlierDetectionConfig.outlierDetectionDisabled;
 import static com.hotels.styx.api.extension.service.StickySessionConfig.stickySessionDisabled;
 import static java.lang.String.format;
 import static java.util.Arrays.asList;
@@ -58,6 +60,8 @@ public final class BackendService implements Identifiable {
     private final Set<Origin> origins;
     private final HealthCheckConfig healthCheckConfig;
     private final StickySessionConfig stickySessionConfig;
+    private final HedgingConfig hedgingConfig;
+    private final OutlierDetectionConfig outlierDetectionConfig;
     private final List<RewriteConfig> rewrites;
     private final int responseTimeoutMillis;
     private final int maxHeaderSize;
@@ -89,6 +93,8 @@ public final class BackendService implements Identifiable {
         this.origins = ImmutableSet.copyOf(builder.origins);
         this.healthCheckConfig = nullIfDisabled(builder.healthCheckConfig);
         this.stickySessionConfig = requireNonNull(builder.stickySessionConfig);
+        this.hedgingConfig = requireNonNull(builder.hedgingConfig);
+        this.outlierDetectionConfig = requireNonNull(builder.outlierDetectionConfig);
         this.rewrites = requireNonNull(builder.rewrites);
         this.responseTimeoutMillis = builder.responseTimeoutMillis == 0
                 ? DEFAULT_RESPONSE_TIMEOUT_MILLIS
@@ -137,6 +143,14 @@ public final class BackendService implements Identifiable {
         return this.stickySessionConfig;
     }
 
+    public HedgingConfig hedgingConfig() {
+        return this.hedgingConfig;
+    }
+
+    public OutlierDetectionConfig outlierDetectionConfig() {
+        return this.outlierDetectionConfig;
+    }
+
     public List<RewriteConfig> rewrites() {
         return this.rewrites;
     }
@@ -168,7 +182,7 @@ public final class BackendService implements Identifiable {
     @Override
     public int hashCode() {
         return Objects.hash(id, path, connectionPoolSettings, origins,
-                healthCheckConfig, stickySessionConfig, rewrites,
+                healthCheckConfig, stickySessionConfig, hedgingConfig, outlierDetectionConfig, rewrites,
                 responseTimeoutMillis, maxHeaderSize);
     }
 
@@ -187,6 +201,8 @@ public final class BackendService implements Identifiable {
                 && Objects.equals(this.origins, other.origins)
                 && Objects.equals(this.healthCheckConfig, other.healthCheckConfig)
                 && Objects.equals(this.stickySessionConfig, other.stickySessionConfig)
+                && Objects.equals(this.hedgingConfig, other.hedgingConfig)
+                && Objects.equals(this.outlierDetectionConfig, other.outlierDetectionConfig)
                 && Objects.equals(this.rewrites, other.rewrites)
                 && Objects.equals(this.tlsSettings, other.tlsSettings)
                 && Objects.equals(this.responseTimeoutMillis, other.responseTimeoutMillis)
@@ -209,6 +225,10 @@ public final class BackendService implements Identifiable {
                 .append(healthCheckConfig)
                 .append(", stickySessionConfig=")
                 .append(stickySessionConfig)
+                .append(", hedgingConfig=")
+                .append(hedgingConfig)
+                .append(", outlierDetectionConfig=")
+                .append(outlierDetectionConfig)
                 .append(", rewrites=")
                 .append(rewrites)
                 .append(", tlsSettings=")
@@ -230,6 +250,8 @@ public final class BackendService implements Identifiable {
         private Set<Origin> origins = emptySet();
         private ConnectionPoolSettings connectionPoolSettings = defaultConnectionPoolSettings();
         private StickySessionConfig stickySessionConfig = stickySessionDisabled();
+        private HedgingConfig hedgingConfig = hedgingDisabled();
+        private OutlierDetectionConfig outlierDetectionConfig = outlierDetectionDisabled();
         private HealthCheckConfig healthCheckConfig;
         private List<RewriteConfig> rewrites = emptyList();
         private int responseTimeoutMillis = DEFAULT_RESPONSE_TIMEOUT_MILLIS;
@@ -245,6 +267,8 @@ public final class BackendService implements Identifiable {
             this.origins = backendService.origins;
             this.connectionPoolSettings = backendService.connectionPoolSettings;
             this.stickySessionConfig = backendService.stickySessionConfig;
+            this.hedgingConfig = backendService.hedgingConfig;
+            this.outlierDetectionConfig = backendService.outlierDetectionConfig;
             this.healthCheckConfig = backendService.healthCheckConfig;
             this.rewrites = backendService.rewrites;
             this.responseTimeoutMillis = backendService.responseTimeoutMillis;
@@ -408,6 +432,28 @@ public final class BackendService implements Identifiable {
             return this;
         }
 
+        /**
+         * Sets hedging configuration.
+         *
+         * @param hedgingConfig hedging configuration
+         * @return this builder
+         */
+        public Builder hedgingConfig(HedgingConfig hedgingConfig) {
+            this.hedgingConfig = requireNonNull(hedgingConfig);
+            return this;
+        }
+
+        /**
+         * Sets outlier detection configuration.
+         *
+         * @param outlierDetectionConfig outlier detection configuration
+         * @return this builder
+         */
+        public Builder outlierDetectionConfig(OutlierDetectionConfig outlierDetectionConfig) {
+            this.outlierDetectionConfig = requireNonNull(outlierDetectionConfig);
+            return this;
+        }
+
         /**
          * Sets health-check configuration.
          *
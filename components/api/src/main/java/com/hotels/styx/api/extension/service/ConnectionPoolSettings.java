@@ -29,6 +29,7 @@ public class ConnectionPoolSettings {
     public static final int DEFAULT_CONNECT_TIMEOUT_MILLIS = 2000;
     public static final int DEFAULT_SOCKET_TIMEOUT_MILLIS = 11000;
     public static final long DEFAULT_CONNECTION_EXPIRATION_SECONDS = -1L;
+    public static final boolean DEFAULT_EVENT_LOOP_AFFINITY = false;
 
     private final int maxConnectionsPerHost;
     private final int maxPendingConnectionsPerHost;
@@ -36,19 +37,22 @@ public class ConnectionPoolSettings {
     private final int socketTimeoutMillis;
     private final int pendingConnectionTimeoutMillis;
     private final long connectionExpirationSeconds;
+    private final boolean eventLoopAffinity;
 
     ConnectionPoolSettings(Integer maxConnectionsPerHost,
                            Integer maxPendingConnectionsPerHost,
                            Integer connectTimeoutMillis,
                            @Deprecated Integer socketTimeoutMillis,
                            Integer pendingConnectionTimeoutMillis,
-                           Long connectionExpirationSeconds) {
+                           Long connectionExpirationSeconds,
+                           Boolean eventLoopAffinity) {
         this.maxConnectionsPerHost = ofNullable(maxConnectionsPerHost).orElse(DEFAULT_MAX_CONNECTIONS_PER_HOST);
         this.maxPendingConnectionsPerHost = ofNullable(maxPendingConnectionsPerHost).orElse(DEFAULT_MAX_PENDING_CONNECTIONS_PER_HOST);
         this.connectTimeoutMillis = ofNullable(connectTimeoutMillis).orElse(DEFAULT_CONNECT_TIMEOUT_MILLIS);
         this.socketTimeoutMillis = ofNullable(socketTimeoutMillis).orElse(DEFAULT_SOCKET_TIMEOUT_MILLIS);
         this.pendingConnectionTimeoutMillis = ofNullable(pendingConnectionTimeoutMillis).orElse(DEFAULT_CONNECT_TIMEOUT_MILLIS);
         this.connectionExpirationSeconds = ofNullable(connectionExpirationSeconds).orElse(DEFAULT_CONNECTION_EXPIRATION_SECONDS);
+        this.eventLoopAffinity = ofNullable(eventLoopAffinity).orElse(DEFAULT_EVENT_LOOP_AFFINITY);
     }
 
     public ConnectionPoolSettings(int maxConnectionsPerHost,
@@ -61,7 +65,8 @@ public class ConnectionPoolSettings {
                 connectTimeoutMillis,
                 DEFAULT_SOCKET_TIMEOUT_MILLIS,
                 pendingConnectionTimeoutMillis,
-                connectionExpirationSeconds);
+                connectionExpirationSeconds,
+                DEFAULT_EVENT_LOOP_AFFINITY);
     }
 
     private ConnectionPoolSettings(Builder builder) {
@@ -71,7 +76,8 @@ public class ConnectionPoolSettings {
                 builder.connectTimeoutMillis,
                 builder.socketTimeoutMillis,
                 builder.pendingConnectionTimeoutMillis,
-                builder.connectionExpirationSeconds
+                builder.connectionExpirationSeconds,
+                builder.eventLoopAffinity
         );
     }
 
@@ -119,10 +125,20 @@ public class ConnectionPoolSettings {
         return connectionExpirationSeconds;
     }
 
+    /**
+     * Returns true if idle connections are pooled per event loop. When enabled, a connection
+     * is preferably borrowed from, and established on, the event loop of the requesting party.
+     *
+     * @return true if connections have an event loop affinity
+     */
+    public boolean eventLoopAffinity() {
+        return eventLoopAffinity;
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(maxConnectionsPerHost, maxPendingConnectionsPerHost, connectTimeoutMillis,
-                socketTimeoutMillis, pendingConnectionTimeoutMillis);
+                socketTimeoutMillis, pendingConnectionTimeoutMillis, eventLoopAffinity);
     }
 
     @Override
@@ -138,7 +154,8 @@ public class ConnectionPoolSettings {
                 && Objects.equals(this.maxPendingConnectionsPerHost, other.maxPendingConnectionsPerHost)
                 && Objects.equals(this.connectTimeoutMillis, other.connectTimeoutMillis)
                 && Objects.equals(this.socketTimeoutMillis, other.socketTimeoutMillis)
-                && Objects.equals(this.pendingConnectionTimeoutMillis, other.pendingConnectionTimeoutMillis);
+                && Objects.equals(this.pendingConnectionTimeoutMillis, other.pendingConnectionTimeoutMillis)
+                && Objects.equals(this.eventLoopAffinity, other.eventLoopAffinity);
     }
 
     @Override
@@ -155,6 +172,8 @@ public class ConnectionPoolSettings {
                 .append(socketTimeoutMillis)
                 .append(", pendingConnectionTimeoutMillis=")
                 .append(pendingConnectionTimeoutMillis)
+                .append(", eventLoopAffinity=")
+                .append(eventLoopAffinity)
                 .append('}')
                 .toString();
     }
@@ -169,6 +188,7 @@ public class ConnectionPoolSettings {
         private int socketTimeoutMillis = DEFAULT_SOCKET_TIMEOUT_MILLIS;
         private int pendingConnectionTimeoutMillis = DEFAULT_CONNECT_TIMEOUT_MILLIS;
         private long connectionExpirationSeconds = DEFAULT_CONNECTION_EXPIRATION_SECONDS;
+        private boolean eventLoopAffinity = DEFAULT_EVENT_LOOP_AFFINITY;
 
         /**
          * Constructs an instance with default settings.
@@ -188,6 +208,7 @@ public class ConnectionPoolSettings {
             this.socketTimeoutMillis = settings.socketTimeoutMillis();
             this.pendingConnectionTimeoutMillis = settings.pendingConnectionTimeoutMillis();
             this.connectionExpirationSeconds = settings.connectionExpirationSeconds();
+            this.eventLoopAffinity = settings.eventLoopAffinity();
         }
 
         /**
@@ -262,6 +283,17 @@ public class ConnectionPoolSettings {
             return this;
         }
 
+        /**
+         * Enables pooling of idle connections per event loop.
+         *
+         * @param eventLoopAffinity true to prefer connections on the requesting event loop
+         * @return this builder
+         */
+        public Builder eventLoopAffinity(boolean eventLoopAffinity) {
+            this.eventLoopAffinity = eventLoopAffinity;
+            return this;
+        }
+
         /**
          * Constructs a new instance with the configured settings.
          *
@@ -0,0 +1,152 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.api.extension.service;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.hash;
+
+/**
+ * A configuration for hedging idempotent requests.
+ * <p>
+ * When hedging is enabled, a GET or HEAD request that has not been answered within the hedging delay
+ * is also sent to another origin. Whichever response arrives first is used, and the other request is
+ * cancelled. The delay is either fixed, or the given percentile of recent response latencies with the
+ * fixed delay as a lower bound.
+ */
+public final class HedgingConfig {
+    public static final int DEFAULT_DELAY_MILLIS = 100;
+
+    private final boolean enabled;
+    private final int delayMillis;
+    private final double percentile;
+
+    private HedgingConfig() {
+        this(false, DEFAULT_DELAY_MILLIS, null);
+    }
+
+    private HedgingConfig(boolean enabled, Integer delayMillis, Double percentile) {
+        this.enabled = enabled;
+        this.delayMillis = Optional.ofNullable(delayMillis).orElse(DEFAULT_DELAY_MILLIS);
+        this.percentile = Optional.ofNullable(percentile).orElse(0.0);
+
+        if (this.delayMillis < 0) {
+            throw new IllegalArgumentException("Hedging delay must be greater than or equal to zero");
+        }
+        if (this.percentile < 0 || this.percentile >= 100) {
+            throw new IllegalArgumentException("Hedging percentile must be between 0 and 100");
+        }
+    }
+
+    private HedgingConfig(Builder builder) {
+        this(builder.enabled, builder.delayMillis, builder.percentile);
+    }
+
+    public static HedgingConfig hedgingDisabled() {
+        return new HedgingConfig();
+    }
+
+    public static Builder newHedgingConfigBuilder() {
+        return new Builder();
+    }
+
+    public boolean hedgingEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The fixed hedging delay, or the lower bound of the delay when a percentile is configured.
+     *
+     * @return delay in milliseconds
+     */
+    public int delayMillis() {
+        return delayMillis;
+    }
+
+    /**
+     * The response latency percentile used as a hedging delay.
+     *
+     * @return percentile, or 0 if the delay is fixed
+     */
+    public double percentile() {
+        return percentile;
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder(64)
+                .append(this.getClass().getSimpleName())
+                .append("{enabled=")
+                .append(enabled)
+                .append(", delayMillis=")
+                .append(delayMillis)
+                .append(", percentile=")
+                .append(percentile)
+                .append('}')
+                .toString();
+    }
+
+    @Override
+    public int hashCode() {
+        return hash(this.enabled, this.delayMillis, this.percentile);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+
+        HedgingConfig that = (HedgingConfig) obj;
+
+        return this.enabled == that.enabled
+                && this.delayMillis == that.delayMillis
+                && Double.compare(this.percentile, that.percentile) == 0;
+    }
+
+    /**
+     * A builder for the {HedgingConfig}.
+     */
+    public static final class Builder {
+        private boolean enabled;
+        private int delayMillis = DEFAULT_DELAY_MILLIS;
+        private double percentile;
+
+        public Builder enabled(boolean enabled) {
+            this.enabled = enabled;
+            return this;
+        }
+
+        public Builder delay(int delay, TimeUnit timeUnit) {
+            this.delayMillis = (int) timeUnit.toMillis(delay);
+            return this;
+        }
+
+        public Builder percentile(double percentile) {
+            this.percentile = percentile;
+            return this;
+        }
+
+        public HedgingConfig build() {
+            return new HedgingConfig(this);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.api.extension.service;
+
+import static java.util.Objects.hash;
+
+/**
+ * A configuration for passive outlier detection.
+ * <p>
+ * When outlier detection is enabled, the outcome of every request proxied to an origin is tracked.
+ * An origin that fails a number of consecutive requests, or whose error rate over an interval exceeds
+ * a threshold, is temporarily ejected from load balancing. Each repeated ejection doubles the ejection
+ * time, up to a maximum. At most a given percentage of the origins can be ejected at the same time.
+ */
+public final class OutlierDetectionConfig {
+    public static final int DEFAULT_CONSECUTIVE_ERRORS = 5;
+    public static final int DEFAULT_ERROR_RATE_PERCENT = 50;
+    public static final int DEFAULT_MINIMUM_REQUESTS = 20;
+    public static final int DEFAULT_INTERVAL_MILLIS = 10_000;
+    public static final int DEFAULT_BASE_EJECTION_TIME_MILLIS = 30_000;
+    public static final int DEFAULT_MAX_EJECTION_TIME_MILLIS = 300_000;
+    public static final int DEFAULT_MAX_EJECTION_PERCENT = 50;
+
+    private final boolean enabled;
+    private final int consecutiveErrors;
+    private final int errorRatePercent;
+    private final int minimumRequests;
+    private final int intervalMillis;
+    private final int baseEjectionTimeMillis;
+    private final int maxEjectionTimeMillis;
+    private final int maxEjectionPercent;
+
+    private OutlierDetectionConfig() {
+        this(new Builder());
+    }
+
+    private OutlierDetectionConfig(Builder builder) {
+        this.enabled = builder.enabled;
+        this.consecutiveErrors = builder.consecutiveErrors;
+        this.errorRatePercent = builder.errorRatePercent;
+        this.minimumRequests = builder.minimumRequests;
+        this.intervalMillis = builder.intervalMillis;
+        this.baseEjectionTimeMillis = builder.baseEjectionTimeMillis;
+        this.maxEjectionTimeMillis = builder.maxEjectionTimeMillis;
+        this.maxEjectionPercent = builder.maxEjectionPercent;
+
+        if (this.consecutiveErrors < 0 || this.minimumRequests < 0) {
+            throw new IllegalArgumentException("Outlier detection error and request counts must be greater than or equal to zero");
+        }
+        if (this.errorRatePercent < 0 || this.errorRatePercent > 100 || this.maxEjectionPercent < 0 || this.maxEjectionPercent > 100) {
+            throw new IllegalArgumentException("Outlier detection percentages must be between 0 and 100");
+        }
+        if (this.intervalMillis <= 0 || this.baseEjectionTimeMillis <= 0 || this.maxEjectionTimeMillis < this.baseEjectionTimeMillis) {
+            throw new IllegalArgumentException("Outlier detection interval and ejection times must be positive, "
+                    + "and the maximum ejection time must not be less than the base ejection time");
+        }
+    }
+
+    public static OutlierDetectionConfig outlierDetectionDisabled() {
+        return new OutlierDetectionConfig();
+    }
+
+    public static Builder newOutlierDetectionConfigBuilder() {
+        return new Builder();
+    }
+
+    public boolean outlierDetectionEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The number of consecutive failed requests that ejects an origin.
+     *
+     * @return consecutive errors, or 0 if origins are not ejected for consecutive errors
+     */
+    public int consecutiveErrors() {
+        return consecutiveErrors;
+    }
+
+    /**
+     * The percentage of failed requests within an interval that ejects an origin.
+     *
+     * @return error rate percentage, or 0 if origins are not ejected for their error rate
+     */
+    public int errorRatePercent() {
+        return errorRatePercent;
+    }
+
+    /**
+     * The number of requests an origin must receive within an interval before its error rate is considered.
+     *
+     * @return minimum number of requests
+     */
+    public int minimumRequests() {
+        return minimumRequests;
+    }
+
+    public int intervalMillis() {
+        return intervalMillis;
+    }
+
+    public int baseEjectionTimeMillis() {
+        return baseEjectionTimeMillis;
+    }
+
+    public int maxEjectionTimeMillis() {
+        return maxEjectionTimeMillis;
+    }
+
+    public int maxEjectionPercent() {
+        return maxEjectionPercent;
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder(224)
+                .append(this.getClass().getSimpleName())
+                .append("{enabled=")
+                .append(enabled)
+                .append(", consecutiveErrors=")
+                .append(consecutiveErrors)
+                .append(", errorRatePercent=")
+                .append(errorRatePercent)
+                .append(", minimumRequests=")
+                .append(minimumRequests)
+                .append(", intervalMillis=")
+                .append(intervalMillis)
+                .append(", baseEjectionTimeMillis=")
+                .append(baseEjectionTimeMillis)
+                .append(", maxEjectionTimeMillis=")
+                .append(maxEjectionTimeMillis)
+                .append(", maxEjectionPercent=")
+                .append(maxEjectionPercent)
+                .append('}')
+                .toString();
+    }
+
+    @Override
+    public int hashCode() {
+        return hash(this.enabled, this.consecutiveErrors, this.errorRatePercent, this.minimumRequests, this.intervalMillis,
+                this.baseEjectionTimeMillis, this.maxEjectionTimeMillis, this.maxEjectionPercent);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+
+        OutlierDetectionConfig that = (OutlierDetectionConfig) obj;
+
+        return this.enabled == that.enabled
+                && this.consecutiveErrors == that.consecutiveErrors
+                && this.errorRatePercent == that.errorRatePercent
+                && this.minimumRequests == that.minimumRequests
+                && this.intervalMillis == that.intervalMillis
+                && this.baseEjectionTimeMillis == that.baseEjectionTimeMillis
+                && this.maxEjectionTimeMillis == that.maxEjectionTimeMillis
+                && this.maxEjectionPercent == that.maxEjectionPercent;
+    }
+
+    /**
+     * A builder for the {OutlierDetectionConfig}.
+     */
+    public static final class Builder {
+        private boolean enabled;
+        private int consecutiveErrors = DEFAULT_CONSECUTIVE_ERRORS;
+        private int errorRatePercent = DEFAULT_ERROR_RATE_PERCENT;
+        private int minimumRequests = DEFAULT_MINIMUM_REQUESTS;
+        private int intervalMillis = DEFAULT_INTERVAL_MILLIS;
+        private int baseEjectionTimeMillis = DEFAULT_BASE_EJECTION_TIME_MILLIS;
+        private int maxEjectionTimeMillis = DEFAULT_MAX_EJECTION_TIME_MILLIS;
+        private int maxEjectionPercent = DEFAULT_MAX_EJECTION_PERCENT;
+
+        public Builder enabled(boolean enabled) {
+            this.enabled = enabled;
+            return this;
+        }
+
+        public Builder consecutiveErrors(int consecutiveErrors) {
+            this.consecutiveErrors = consecutiveErrors;
+            return this;
+        }
+
+        public Builder errorRatePercent(int errorRatePercent) {
+            this.errorRatePercent = errorRatePercent;
+            return this;
+        }
+
+        public Builder minimumRequests(int minimumRequests) {
+            this.minimumRequests = minimumRequests;
+            return this;
+        }
+
+        public Builder intervalMillis(int intervalMillis) {
+            this.intervalMillis = intervalMillis;
+            return this;
+        }
+
+        public Builder baseEjectionTimeMillis(int baseEjectionTimeMillis) {
+            this.baseEjectionTimeMillis = baseEjectionTimeMillis;
+            return this;
+        }
+
+        public Builder maxEjectionTimeMillis(int maxEjectionTimeMillis) {
+            this.maxEjectionTimeMillis = maxEjectionTimeMillis;
+            return this;
+        }
+
+        public Builder maxEjectionPercent(int maxEjectionPercent) {
+            this.maxEjectionPercent = maxEjectionPercent;
+            return this;
+        }
+
+        public OutlierDetectionConfig build() {
+            return new OutlierDetectionConfig(this);
+        }
+    }
+}
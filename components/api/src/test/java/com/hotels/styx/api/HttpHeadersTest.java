@@ -158,4 +158,73 @@ public class HttpHeadersTest {
 
         assertThat(headers.get("foo"), isValue("Thu, 10 Sep 2015 12:02:28 GMT"));
     }
+
+    @Test
+    public void modifyingDerivedBuilderDoesNotAffectOriginalHeaders() {
+        HttpHeaders modified = headers.newBuilder()
+                .set("header1", "changed")
+                .remove("header2")
+                .add("header3", "val3")
+                .build();
+
+        assertThat(headers, contains(header("header1", "val1"), header("header2", "val2a"), header("header2", "val2b")));
+        assertThat(modified, contains(header("header1", "changed"), header("header3", "val3")));
+    }
+
+    @Test
+    public void modifyingBuilderAfterBuildDoesNotAffectBuiltHeaders() {
+        Builder builder = new HttpHeaders.Builder().add("header1", "val1");
+        HttpHeaders built = builder.build();
+
+        builder.add("header1", "val2");
+
+        assertThat(built.getAll("header1"), contains("val1"));
+        assertThat(builder.build().getAll("header1"), contains("val1", "val2"));
+    }
+
+    @Test
+    public void unmodifiedBuilderPreservesHeaders() {
+        HttpHeaders rebuilt = headers.newBuilder()
+                .set("header1", "val1")
+                .remove("absent")
+                .build();
+
+        assertThat(rebuilt, is(headers));
+    }
+
+    @Test
+    public void derivedHeadersCombineSharedAndAddedValues() {
+        HttpHeaders derived = headers.newBuilder()
+                .add("header2", "val2c")
+                .remove("Header1")
+                .build();
+
+        assertThat(derived.getAll("header2"), contains("val2a", "val2b", "val2c"));
+        assertThat(derived.get("header1"), isAbsent());
+        assertThat(derived.contains("header1"), is(false));
+        assertThat(derived.names(), contains("header2"));
+        assertThat(derived, contains(header("header2", "val2a"), header("header2", "val2b"), header("header2", "val2c")));
+    }
+
+    @Test
+    public void headersCanBeRewrittenRepeatedly() {
+        HttpHeaders current = headers;
+        for (int i = 0; i < 50; i++) {
+            current = current.newBuilder()
+                    .set("header1", "val" + i)
+                    .add("counter", String.valueOf(i))
+                    .build();
+        }
+
+        assertThat(current.getAll("header1"), contains("val49"));
+        assertThat(current.getAll("counter").size(), is(50));
+        assertThat(current.getAll("counter").get(49), is("49"));
+        assertThat(current.getAll("header2"), contains("val2a", "val2b"));
+    }
+
+    @Test
+    public void returnsUnmodifiableValues() {
+        assertThrows(UnsupportedOperationException.class, () -> headers.getAll("header2").add("val2c"));
+        assertThrows(UnsupportedOperationException.class, () -> headers.names().add("header3"));
+    }
 }
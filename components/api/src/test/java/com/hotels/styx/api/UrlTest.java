@@ -24,6 +24,9 @@ import org.junit.jupiter.params.provider.MethodSource;
 import java.net.URL;
 import java.nio.charset.CharacterCodingException;
 import java.util.Optional;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 import static com.hotels.styx.api.Url.Authority.authority;
@@ -31,6 +34,7 @@ import static com.hotels.styx.api.Url.Builder.url;
 import static com.hotels.styx.support.matchers.IsOptional.isAbsent;
 import static com.hotels.styx.support.matchers.IsOptional.isValue;
 import static com.hotels.styx.support.matchers.MapMatcher.isMap;
+import static java.lang.Integer.parseInt;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -321,4 +325,59 @@ public class UrlTest {
 
         assertThat(url.getRawQuery().isPresent(), is(false));
     }
+
+    @Test
+    public void rendersRequestTargetOnlyOnce() {
+        Url url = url("http://example.com/landing?foo=bar#frag").build();
+
+        assertThat(url.toString(), is("http://example.com/landing?foo=bar#frag"));
+        assertThat(url.encodedUri() == url.toString(), is(true));
+    }
+
+    @ParameterizedTest
+    @MethodSource("authorities")
+    public void parsesAuthorities(String authority, String userInfo, String host, int port) {
+        assertThat(Url.Authority.authority(authority), isValue(authority(userInfo, host, port)));
+    }
+
+    private static Stream<Arguments> authorities() {
+        return Stream.of(
+                Arguments.of("example.com", null, "example.com", -1),
+                Arguments.of("example.com:8080", null, "example.com", 8080),
+                Arguments.of("user@example.com:8080", "user", "example.com", 8080),
+                Arguments.of("user:secret@example.com", "user:secret", "example.com", -1),
+                Arguments.of("a@b@c", "a", "b@c", -1),
+                Arguments.of("@example.com", null, "@example.com", -1),
+                Arguments.of("user@", null, "user@", -1)
+        );
+    }
+
+    @Test
+    public void rejectsMalformedAuthorities() {
+        for (String authority : asList("", ":8080", "example.com:", "example.com:80a", "example.com:80:80", "[::1]:8080")) {
+            assertThat(authority, Url.Authority.authority(authority), isAbsent());
+        }
+    }
+
+    @Test
+    public void parsesAuthoritiesLikeTheReferenceGrammar() {
+        Pattern reference = Pattern.compile("(?:([^@]+)@)?([^:]+)(?::(\\d+))?");
+        char[] alphabet = "ab1@:.".toCharArray();
+        Random random = new Random(3986);
+
+        for (int n = 0; n < 20_000; n++) {
+            StringBuilder authority = new StringBuilder();
+            int length = random.nextInt(8);
+            for (int i = 0; i < length; i++) {
+                authority.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+
+            Matcher matcher = reference.matcher(authority);
+            Optional<Url.Authority> expected = matcher.matches()
+                    ? Optional.of(authority(matcher.group(1), matcher.group(2), matcher.group(3) == null ? -1 : parseInt(matcher.group(3))))
+                    : Optional.empty();
+
+            assertThat(authority.toString(), Url.Authority.authority(authority.toString()), is(expected));
+        }
+    }
 }
@@ -47,4 +47,18 @@ public class ConnectionPoolSettingsTest {
         assertThat(newConfig.maxPendingConnectionsPerHost(), is(equalTo(8)));
         assertThat(config.connectionExpirationSeconds(), is(equalTo(1L)));
     }
+
+    @Test
+    public void eventLoopAffinityIsDisabledByDefault() {
+        assertThat(ConnectionPoolSettings.defaultConnectionPoolSettings().eventLoopAffinity(), is(false));
+    }
+
+    @Test
+    public void inheritsEventLoopAffinity() {
+        ConnectionPoolSettings config = new ConnectionPoolSettings.Builder()
+                .eventLoopAffinity(true)
+                .build();
+
+        assertThat(new ConnectionPoolSettings.Builder(config).build().eventLoopAffinity(), is(true));
+    }
 }
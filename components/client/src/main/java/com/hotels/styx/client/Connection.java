@@ -23,6 +23,7 @@ import reactor.core.publisher.Mono;
 
 import java.io.Closeable;
 import java.util.EventListener;
+import java.util.concurrent.Executor;
 
 /**
  * A connection to an origin.
@@ -41,6 +42,19 @@ public interface Connection extends Closeable {
          * @return the newly created connection
          */
         Mono<Connection> createConnection(Origin origin, ConnectionSettings connectionSettings);
+
+        /**
+         * Creates a {@link Connection} that is preferably bound to the given executor.
+         * Factories that cannot honour the preference create the connection as usual.
+         *
+         * @param origin             origin to connect to
+         * @param connectionSettings connection pool configuration
+         * @param executor           preferred executor, or null if there is no preference
+         * @return the newly created connection
+         */
+        default Mono<Connection> createConnection(Origin origin, ConnectionSettings connectionSettings, Executor executor) {
+            return createConnection(origin, connectionSettings);
+        }
     }
 
     /**
@@ -65,6 +79,15 @@ public interface Connection extends Closeable {
      */
     Origin getOrigin();
 
+    /**
+     * Returns the executor that this connection's I/O events are processed on.
+     *
+     * @return the executor, or null if the connection is not bound to an executor
+     */
+    default Executor executor() {
+        return null;
+    }
+
     /**
      * Register a listener connection state events.
      *
@@ -0,0 +1,204 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.client;
+
+import com.hotels.styx.api.HttpMethod;
+import com.hotels.styx.api.Id;
+import com.hotels.styx.api.LiveHttpRequest;
+import com.hotels.styx.api.LiveHttpResponse;
+import com.hotels.styx.api.extension.service.HedgingConfig;
+import com.hotels.styx.api.metrics.SlidingWindowHistogram;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+import static com.hotels.styx.api.HttpMethod.GET;
+import static com.hotels.styx.api.HttpMethod.HEAD;
+import static com.hotels.styx.api.Metrics.APPID_TAG;
+import static java.lang.Math.max;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Decides whether, and after which delay, a request is hedged. Also records the hedging metrics:
+ * <ul>
+ *     <li>{@code hedging.requests}: requests that could be hedged</li>
+ *     <li>{@code hedging.sent}: hedged attempts sent, i.e. the hedge rate</li>
+ *     <li>{@code hedging.won}: hedged attempts that answered before the original attempt</li>
+ * </ul>
+ */
+final class Hedging {
+    private static final long DELAY_REFRESH_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final HedgingConfig config;
+    private final LongSupplier clock;
+    private final SlidingWindowHistogram latencies;
+    private final AtomicLong nextDelayRefresh = new AtomicLong();
+    private final Counter requests;
+    private final Counter sent;
+    private final Counter won;
+
+    private volatile long delayMillis;
+
+    Hedging(Id appId, HedgingConfig config, MeterRegistry meterRegistry) {
+        this(appId, config, meterRegistry, System::nanoTime);
+    }
+
+    Hedging(Id appId, HedgingConfig config, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.config = requireNonNull(config);
+        this.clock = requireNonNull(clock);
+        this.latencies = config.percentile() > 0
+                ? new SlidingWindowHistogram.Builder().autoResize(true).build()
+                : null;
+        this.delayMillis = config.delayMillis();
+
+        Tags tags = Tags.of(APPID_TAG, appId.toString());
+        this.requests = meterRegistry.counter("hedging.requests", tags);
+        this.sent = meterRegistry.counter("hedging.sent", tags);
+        this.won = meterRegistry.counter("hedging.won", tags);
+    }
+
+    /**
+     * Returns true for idempotent requests without a body. Only these can be safely sent twice.
+     *
+     * @param request a request
+     * @return true if the request can be hedged
+     */
+    boolean appliesTo(LiveHttpRequest request) {
+        HttpMethod method = request.method();
+        return (method.equals(GET) || method.equals(HEAD))
+                && !request.chunked()
+                && request.contentLength().orElse(0L) == 0;
+    }
+
+    long delayMillis() {
+        if (latencies != null) {
+            long now = clock.getAsLong();
+            long next = nextDelayRefresh.get();
+            if (now - next >= 0 && nextDelayRefresh.compareAndSet(next, now + DELAY_REFRESH_INTERVAL_NANOS)) {
+                delayMillis = max(config.delayMillis(), (long) latencies.getValueAtPercentile(config.percentile()));
+            }
+        }
+        return delayMillis;
+    }
+
+    /**
+     * Samples the time-to-response of the original attempt of a request, that the hedging delay percentile
+     * is computed from. The latency of whichever attempt wins would be biased low, as the slow attempts
+     * are exactly the ones that a hedge wins from. An original attempt that is cancelled, because the hedge
+     * won, is sampled with the time it had waited by then. That is a lower bound of its latency, but already
+     * above the hedging delay, so it still counts towards the tail of the distribution.
+     *
+     * @param attempt original attempt
+     * @return the attempt, timed
+     */
+    Flux<LiveHttpResponse> timeOriginalAttempt(Flux<LiveHttpResponse> attempt) {
+        if (latencies == null) {
+            return attempt;
+        }
+
+        return Flux.defer(() -> {
+            long startNanos = clock.getAsLong();
+            AtomicBoolean recorded = new AtomicBoolean();
+            Runnable recordLatency = () -> {
+                if (recorded.compareAndSet(false, true)) {
+                    latencies.recordValue((clock.getAsLong() - startNanos) / 1_000_000);
+                }
+            };
+
+            return attempt
+                    .doOnNext(response -> recordLatency.run())
+                    .doOnCancel(recordLatency);
+        });
+    }
+
+    void requestReceived() {
+        requests.increment();
+    }
+
+    void hedgeSent() {
+        sent.increment();
+    }
+
+    void hedgeWon() {
+        won.increment();
+    }
+
+    /**
+     * Coordinates the attempts of one hedged request. The first response to arrive is passed on. A response
+     * that arrives later is consumed, so that its connection is released. The failure of an attempt is only
+     * passed on when no other attempt is outstanding, and then it is the failure of the original attempt if
+     * that attempt failed.
+     */
+    static final class Attempts {
+        private final AtomicBoolean answered = new AtomicBoolean();
+        private final AtomicInteger outstanding = new AtomicInteger(1);
+        private final AtomicReference<Throwable> originalFailure = new AtomicReference<>();
+
+        Flux<LiveHttpResponse> original(Flux<LiveHttpResponse> attempt) {
+            return attempt
+                    .filter(this::wins)
+                    .onErrorResume(cause -> {
+                        originalFailure.compareAndSet(null, cause);
+                        return failed(cause);
+                    });
+        }
+
+        /**
+         * Registers a hedge, unless every attempt has failed already.
+         *
+         * @return true if the hedge can be sent
+         */
+        boolean startHedge() {
+            int current = outstanding.get();
+            while (current > 0) {
+                if (outstanding.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+                current = outstanding.get();
+            }
+            return false;
+        }
+
+        Flux<LiveHttpResponse> hedge(Flux<LiveHttpResponse> attempt) {
+            return attempt
+                    .filter(this::wins)
+                    .onErrorResume(this::failed);
+        }
+
+        private boolean wins(LiveHttpResponse response) {
+            if (answered.compareAndSet(false, true)) {
+                return true;
+            }
+            response.consume();
+            return false;
+        }
+
+        private Flux<LiveHttpResponse> failed(Throwable cause) {
+            if (outstanding.decrementAndGet() > 0) {
+                return Flux.empty();
+            }
+            Throwable failure = originalFailure.get();
+            return Flux.error(failure != null ? failure : cause);
+        }
+    }
+}
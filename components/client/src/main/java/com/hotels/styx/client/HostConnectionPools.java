@@ -0,0 +1,167 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.client;
+
+import com.hotels.styx.api.LiveHttpRequest;
+import com.hotels.styx.api.LiveHttpResponse;
+import com.hotels.styx.api.ResponseEventListener;
+import com.hotels.styx.api.extension.Origin;
+import com.hotels.styx.api.extension.service.ConnectionPoolSettings;
+import com.hotels.styx.client.connectionpool.ConnectionPool;
+import com.hotels.styx.client.connectionpool.SimpleConnectionPool;
+import com.hotels.styx.client.netty.connectionpool.NettyConnectionFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.handler.ssl.SslContext;
+import reactor.core.publisher.Mono;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Keep-alive connection pools for {@link StyxHttpClient}, one for each remote host and TLS configuration.
+ * <p>
+ * Counts the connections opened, and the requests that were sent over an already open connection,
+ * for each host, so that the connection reuse rate can be monitored.
+ */
+final class HostConnectionPools implements Closeable {
+    static final String CONNECTIONS_OPENED = "httpclient.connections.opened";
+    static final String CONNECTIONS_REUSED = "httpclient.connections.reused";
+    static final String HOST_TAG = "host";
+
+    private final ConcurrentMap<PoolKey, HostPool> pools = new ConcurrentHashMap<>();
+    private final Set<Connection> unusedConnections = ConcurrentHashMap.newKeySet();
+    private final NettyConnectionFactory connectionFactory;
+    private final ConnectionPoolSettings poolSettings;
+    private final MeterRegistry meterRegistry;
+
+    HostConnectionPools(NettyConnectionFactory connectionFactory, ConnectionPoolSettings poolSettings, MeterRegistry meterRegistry) {
+        this.connectionFactory = requireNonNull(connectionFactory);
+        this.poolSettings = requireNonNull(poolSettings);
+        this.meterRegistry = requireNonNull(meterRegistry);
+    }
+
+    Mono<LiveHttpResponse> send(Origin origin, SslContext sslContext, LiveHttpRequest request) {
+        HostPool hostPool = pools.computeIfAbsent(new PoolKey(origin.hostAndPortString(), sslContext), key -> newPool(origin, sslContext));
+        ConnectionPool pool = hostPool.pool;
+
+        return Mono.from(pool.borrowConnection())
+                .flatMap(connection -> {
+                    if (!unusedConnections.remove(connection)) {
+                        hostPool.connectionsReused.increment();
+                    }
+
+                    return Mono.from(ResponseEventListener.from(connection.write(request))
+                            .whenCancelled(() -> pool.closeConnection(connection))
+                            .whenResponseError(cause -> pool.closeConnection(connection))
+                            .whenContentError(cause -> pool.closeConnection(connection))
+                            .whenCompleted(response -> pool.returnConnection(connection))
+                            .apply());
+                });
+    }
+
+    /**
+     * Closes the pools of the hosts that are not in the given set, along with their connections and metrics.
+     *
+     * @param hostAndPorts hosts whose pools are kept, as {@code host:port}
+     */
+    void retainHosts(Set<String> hostAndPorts) {
+        for (Map.Entry<PoolKey, HostPool> entry : pools.entrySet()) {
+            if (!hostAndPorts.contains(entry.getKey().hostAndPort) && pools.remove(entry.getKey(), entry.getValue())) {
+                close(entry.getValue());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        pools.values().forEach(this::close);
+        pools.clear();
+    }
+
+    private void close(HostPool hostPool) {
+        hostPool.pool.close();
+        // The pools of one host share its counters. They are only closed together, so the counters can go:
+        meterRegistry.remove(hostPool.connectionsOpened);
+        meterRegistry.remove(hostPool.connectionsReused);
+    }
+
+    private HostPool newPool(Origin origin, SslContext sslContext) {
+        String host = origin.hostAndPortString();
+        Counter connectionsOpened = meterRegistry.counter(CONNECTIONS_OPENED, HOST_TAG, host);
+        Counter connectionsReused = meterRegistry.counter(CONNECTIONS_REUSED, HOST_TAG, host);
+
+        Connection.Factory factory = (target, connectionSettings) ->
+                connectionFactory.createConnection(target, connectionSettings, sslContext)
+                        .doOnNext(connection -> {
+                            connectionsOpened.increment();
+                            unusedConnections.add(connection);
+                            connection.addConnectionListener(unusedConnections::remove);
+                        });
+
+        return new HostPool(new SimpleConnectionPool(origin, poolSettings, factory), connectionsOpened, connectionsReused);
+    }
+
+    private static final class HostPool {
+        private final ConnectionPool pool;
+        private final Counter connectionsOpened;
+        private final Counter connectionsReused;
+
+        HostPool(ConnectionPool pool, Counter connectionsOpened, Counter connectionsReused) {
+            this.pool = pool;
+            this.connectionsOpened = connectionsOpened;
+            this.connectionsReused = connectionsReused;
+        }
+    }
+
+    /**
+     * Identifies a pool by host and TLS configuration. {@link com.hotels.styx.client.ssl.SslContextFactory} creates
+     * one SSL context for each set of TLS settings, so the contexts are compared by identity. A {@code null} context
+     * means plain HTTP.
+     */
+    private static final class PoolKey {
+        private final String hostAndPort;
+        private final SslContext sslContext;
+
+        PoolKey(String hostAndPort, SslContext sslContext) {
+            this.hostAndPort = hostAndPort;
+            this.sslContext = sslContext;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            PoolKey other = (PoolKey) o;
+            return hostAndPort.equals(other.hostAndPort) && sslContext == other.sslContext;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(hostAndPort, System.identityHashCode(sslContext));
+        }
+    }
+}
@@ -16,6 +16,7 @@
 package com.hotels.styx.client;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.eventbus.EventBus;
@@ -46,12 +47,12 @@ import org.slf4j.Logger;
 
 import javax.annotation.concurrent.ThreadSafe;
 import java.io.Closeable;
-import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.hotels.styx.api.extension.RemoteHost.remoteHost;
 import static com.hotels.styx.api.Metrics.APPID_TAG;
 import static com.hotels.styx.api.Metrics.ORIGINID_TAG;
@@ -101,6 +102,7 @@ public final class OriginsInventory
     private final AtomicBoolean closed = new AtomicBoolean(false);
 
     private Map<Id, MonitoredOrigin> origins = emptyMap();
+    private volatile Pools pools = Pools.EMPTY;
 
 
     /**
@@ -181,7 +183,7 @@ public final class OriginsInventory
     @Subscribe
     @Override
     public void onCommand(GetOriginsInventorySnapshot getOriginsInventorySnapshot) {
-        notifyStateChange();
+        announce(pools);
     }
 
     @Override
@@ -378,7 +380,7 @@ public final class OriginsInventory
 
     @Override
     public Iterable<RemoteHost> snapshot() {
-        return pools(ACTIVE);
+        return pools.active;
     }
 
     @Override
@@ -393,19 +395,22 @@ public final class OriginsInventory
     }
 
     private void notifyStateChange() {
-        OriginsSnapshot event = new OriginsSnapshot(appId, pools(ACTIVE), pools(INACTIVE), pools(DISABLED));
+        Pools newPools = new Pools(pools(ACTIVE), pools(INACTIVE), pools(DISABLED));
+        this.pools = newPools;
+        announce(newPools);
+    }
+
+    private void announce(Pools pools) {
+        OriginsSnapshot event = new OriginsSnapshot(appId, pools.active, pools.inactive, pools.disabled);
         inventoryListeners.announce().originsChanged(event);
         eventBus.post(event);
     }
 
-    private Collection<RemoteHost> pools(OriginState state) {
+    private List<RemoteHost> pools(OriginState state) {
         return origins.values().stream()
                 .filter(origin -> origin.state().equals(state))
-                .map(origin -> {
-                    HttpHandler hostClient = (request, context) -> new Eventual<>(origin.hostClient.sendRequest(request, context));
-                    return remoteHost(origin.origin, hostClient, origin.hostClient);
-                })
-                .collect(toList());
+                .map(origin -> origin.remoteHost)
+                .collect(toImmutableList());
     }
 
     int originCount(OriginState state) {
@@ -415,6 +420,24 @@ public final class OriginsInventory
                 .count();
     }
 
+    /**
+     * Remote hosts of each origin state. A new instance is published after each state transition,
+     * so that the load balancers can read the active hosts without copying.
+     */
+    private static final class Pools {
+        private static final Pools EMPTY = new Pools(ImmutableList.of(), ImmutableList.of(), ImmutableList.of());
+
+        private final List<RemoteHost> active;
+        private final List<RemoteHost> inactive;
+        private final List<RemoteHost> disabled;
+
+        private Pools(List<RemoteHost> active, List<RemoteHost> inactive, List<RemoteHost> disabled) {
+            this.active = active;
+            this.inactive = inactive;
+            this.disabled = disabled;
+        }
+    }
+
     private static class UnhealthyEvent {
     }
 
@@ -429,6 +452,7 @@ public final class OriginsInventory
         private final ConnectionPool connectionPool;
         private final StateMachine<OriginState> machine;
         private final StyxHostHttpClient hostClient;
+        private final RemoteHost remoteHost;
 
         private Gauge statusGauge;
 
@@ -437,6 +461,9 @@ public final class OriginsInventory
             this.connectionPool = hostConnectionPoolFactory.create(origin);
             this.hostClient = hostClientFactory.create(connectionPool);
 
+            HttpHandler handler = (request, context) -> new Eventual<>(hostClient.sendRequest(request, context));
+            this.remoteHost = remoteHost(origin, handler, hostClient);
+
             this.machine = new StateMachine.Builder<OriginState>()
                     .initialState(ACTIVE)
                     .onInappropriateEvent((state, event) -> state)
@@ -0,0 +1,326 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.client;
+
+import com.hotels.styx.api.Id;
+import com.hotels.styx.api.extension.ActiveOrigins;
+import com.hotels.styx.api.extension.Origin;
+import com.hotels.styx.api.extension.RemoteHost;
+import com.hotels.styx.api.extension.service.OutlierDetectionConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static com.hotels.styx.api.Metrics.APPID_TAG;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Passive outlier detection. Tracks the outcome of the requests proxied to each origin, and temporarily
+ * ejects the origins that fail too many of them from load balancing.
+ * <p>
+ * A request fails when the origin responds with a 5xx status, or when no response is received at all.
+ * An origin is ejected when it fails a number of consecutive requests, or when its error rate over an
+ * interval is too high. An ejected origin is reinstated when its ejection time has elapsed. The ejection
+ * time doubles with every repeated ejection, and halves again with every interval that the origin is not
+ * an outlier. No more than the configured percentage of origins is ejected at the same time, and when every
+ * origin is ejected, load is balanced across all of them.
+ * <p>
+ * Origins are ejected by wrapping the {@link ActiveOrigins} that the load balancer chooses from. All the
+ * counters are atomic, so that requests are neither serialised nor blocked by the detection. Metrics:
+ * <ul>
+ *     <li>{@code outlierdetection.ejections}: origins ejected</li>
+ *     <li>{@code outlierdetection.ejected}: origins currently ejected</li>
+ * </ul>
+ */
+public final class OutlierDetector {
+    private static final Logger LOG = getLogger(OutlierDetector.class);
+
+    // The failures and the requests of an interval are kept in the upper and the lower half of a single long.
+    private static final long FAILURE = 1L << 32;
+    private static final long REQUESTS_MASK = FAILURE - 1;
+    private static final int MAX_BACKOFF_SHIFT = 20;
+    private static final String EJECTED_GAUGE = "outlierdetection.ejected";
+
+    private final Id appId;
+    private final OutlierDetectionConfig config;
+    private final long intervalNanos;
+    private final LongSupplier clock;
+    private final ConcurrentMap<Id, HostState> hosts = new ConcurrentHashMap<>();
+    private final AtomicInteger ejectedCount = new AtomicInteger();
+    private final Counter ejections;
+
+    private volatile int poolSize;
+
+    public OutlierDetector(Id appId, OutlierDetectionConfig config, MeterRegistry meterRegistry) {
+        this(appId, config, meterRegistry, System::nanoTime);
+    }
+
+    OutlierDetector(Id appId, OutlierDetectionConfig config, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.appId = requireNonNull(appId);
+        this.config = requireNonNull(config);
+        this.intervalNanos = MILLISECONDS.toNanos(config.intervalMillis());
+        this.clock = requireNonNull(clock);
+
+        Tags tags = Tags.of(APPID_TAG, appId.toString());
+        this.ejections = meterRegistry.counter("outlierdetection.ejections", tags);
+        registerEjectedGauge(meterRegistry, tags);
+    }
+
+    /*
+     * A new detector is created whenever the client of an application is rebuilt. The gauge of the
+     * detector it replaces is removed first, as the registry would otherwise keep reporting that one.
+     */
+    private void registerEjectedGauge(MeterRegistry meterRegistry, Tags tags) {
+        Gauge previous = meterRegistry.find(EJECTED_GAUGE).tags(tags).gauge();
+        if (previous != null) {
+            meterRegistry.remove(previous);
+        }
+        Gauge.builder(EJECTED_GAUGE, this, OutlierDetector::ejectedOrigins)
+                .tags(tags)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns a view of the active origins, that leaves out the ejected origins.
+     *
+     * @param activeOrigins active origins
+     * @return active origins that have not been ejected
+     */
+    public ActiveOrigins activeOrigins(ActiveOrigins activeOrigins) {
+        requireNonNull(activeOrigins);
+
+        return new ActiveOrigins() {
+            @Override
+            public Iterable<RemoteHost> snapshot() {
+                return available(activeOrigins.snapshot());
+            }
+
+            @Override
+            public String getApplicationId() {
+                return activeOrigins.getApplicationId();
+            }
+
+            @Override
+            public List<Origin> origins() {
+                return activeOrigins.origins();
+            }
+        };
+    }
+
+    /**
+     * Leaves the ejected origins out of a snapshot of remote hosts. The snapshot is returned as it is
+     * when no origin is ejected, or when all of them are.
+     *
+     * @param snapshot remote hosts
+     * @return remote hosts that have not been ejected
+     */
+    Iterable<RemoteHost> available(Iterable<RemoteHost> snapshot) {
+        if (snapshot instanceof Collection) {
+            int size = ((Collection<?>) snapshot).size();
+            if (size != poolSize) {
+                poolSize = size;
+            }
+        }
+
+        if (ejectedCount.get() == 0) {
+            return snapshot;
+        }
+
+        List<RemoteHost> available = new ArrayList<>();
+        for (RemoteHost host : snapshot) {
+            if (!isEjected(host.id())) {
+                available.add(host);
+            }
+        }
+        return available.isEmpty() ? snapshot : available;
+    }
+
+    /**
+     * Returns true if an origin is currently ejected.
+     *
+     * @param originId origin ID
+     * @return true if the origin is ejected
+     */
+    public boolean isEjected(Id originId) {
+        HostState host = hosts.get(originId);
+        return host != null && host.isEjected(clock.getAsLong());
+    }
+
+    /**
+     * Number of origins currently ejected.
+     *
+     * @return ejected origins
+     */
+    public int ejectedOrigins() {
+        releaseExpiredEjections();
+        return ejectedCount.get();
+    }
+
+    public void requestSucceeded(RemoteHost host) {
+        hostState(host.id()).record(false, clock.getAsLong());
+    }
+
+    public void requestFailed(RemoteHost host) {
+        hostState(host.id()).record(true, clock.getAsLong());
+    }
+
+    private HostState hostState(Id originId) {
+        HostState host = hosts.get(originId);
+        return host != null
+                ? host
+                : hosts.computeIfAbsent(originId, id -> new HostState(id, clock.getAsLong() + intervalNanos));
+    }
+
+    /*
+     * Ejections are otherwise only expired when the ejected origin is looked up. An origin that has
+     * left the pool is never looked up again, so the ejection it holds must be expired from here.
+     */
+    private boolean reserveEjection() {
+        if (tryReserveEjection()) {
+            return true;
+        }
+        releaseExpiredEjections();
+        return tryReserveEjection();
+    }
+
+    private void releaseExpiredEjections() {
+        long now = clock.getAsLong();
+        for (HostState host : hosts.values()) {
+            host.isEjected(now);
+        }
+    }
+
+    private boolean tryReserveEjection() {
+        int maxEjections = maxEjections();
+        int current;
+        do {
+            current = ejectedCount.get();
+            if (current >= maxEjections) {
+                return false;
+            }
+        } while (!ejectedCount.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private int maxEjections() {
+        if (config.maxEjectionPercent() == 0) {
+            return 0;
+        }
+        int size = poolSize > 0 ? poolSize : hosts.size();
+        return max(1, size * config.maxEjectionPercent() / 100);
+    }
+
+    private boolean isErrorRateOutlier(long counts) {
+        long requests = counts & REQUESTS_MASK;
+        long failures = counts >>> 32;
+
+        return config.errorRatePercent() > 0
+                && requests > 0
+                && requests >= config.minimumRequests()
+                && failures * 100 >= requests * config.errorRatePercent();
+    }
+
+    private final class HostState {
+        private final Id originId;
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private final AtomicLong intervalCounts = new AtomicLong();
+        private final AtomicLong intervalEnd;
+        private final AtomicInteger backOff = new AtomicInteger();
+        private final AtomicBoolean ejected = new AtomicBoolean();
+        private volatile long ejectedUntil;
+
+        HostState(Id originId, long intervalEnd) {
+            this.originId = originId;
+            this.intervalEnd = new AtomicLong(intervalEnd);
+        }
+
+        void record(boolean failed, long now) {
+            intervalCounts.addAndGet(failed ? FAILURE + 1 : 1);
+
+            boolean outlier = false;
+            if (failed) {
+                outlier = config.consecutiveErrors() > 0 && consecutiveFailures.incrementAndGet() >= config.consecutiveErrors();
+            } else if (consecutiveFailures.get() != 0) {
+                consecutiveFailures.set(0);
+            }
+
+            long end = intervalEnd.get();
+            if (now - end >= 0 && intervalEnd.compareAndSet(end, now + intervalNanos)) {
+                if (isErrorRateOutlier(intervalCounts.getAndSet(0))) {
+                    outlier = true;
+                } else if (!outlier && !ejected.get() && backOff.get() > 0) {
+                    backOff.decrementAndGet();
+                }
+            }
+
+            if (outlier) {
+                eject(now);
+            }
+        }
+
+        boolean isEjected(long now) {
+            if (!ejected.get()) {
+                return false;
+            }
+            if (now - ejectedUntil < 0) {
+                return true;
+            }
+            if (ejected.compareAndSet(true, false)) {
+                consecutiveFailures.set(0);
+                intervalCounts.set(0);
+                ejectedCount.decrementAndGet();
+                LOG.info("Origin reinstated by outlier detection. Origin={}:{}", appId, originId);
+            }
+            return false;
+        }
+
+        private void eject(long now) {
+            if (ejected.get() || !reserveEjection()) {
+                return;
+            }
+
+            long ejectionMillis = min(config.maxEjectionTimeMillis(), (long) config.baseEjectionTimeMillis() << min(backOff.get(), MAX_BACKOFF_SHIFT));
+            ejectedUntil = now + MILLISECONDS.toNanos(ejectionMillis);
+
+            if (!ejected.compareAndSet(false, true)) {
+                ejectedCount.decrementAndGet();
+                return;
+            }
+
+            backOff.incrementAndGet();
+            consecutiveFailures.set(0);
+            intervalCounts.set(0);
+            ejections.increment();
+            LOG.warn("Origin ejected by outlier detection. Origin={}:{}, ejectionTimeMillis={}", new Object[]{appId, originId, ejectionMillis});
+        }
+    }
+}
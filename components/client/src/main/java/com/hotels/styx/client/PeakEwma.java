@@ -0,0 +1,99 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.client;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * A peak exponentially weighted moving average of latency.
+ *
+ * A latency sample above the current average replaces it outright, so that a slowing host is
+ * penalised immediately. Lower samples are blended in with a weight that depends on the time
+ * elapsed since the previous sample. When no samples arrive, the average decays towards zero,
+ * which lets a host that was penalised for a latency spike win traffic back.
+ *
+ * The average and its timestamp are published together as an immutable value, and updated with
+ * a compare-and-set loop, so that recording a sample takes no lock.
+ */
+final class PeakEwma {
+    private final double decayNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicReference<Sample> sample;
+
+    PeakEwma(long decayTime, TimeUnit unit) {
+        this(decayTime, unit, System::nanoTime);
+    }
+
+    @VisibleForTesting
+    PeakEwma(long decayTime, TimeUnit unit, LongSupplier nanoClock) {
+        this.decayNanos = unit.toNanos(decayTime);
+        this.nanoClock = nanoClock;
+        this.sample = new AtomicReference<>(new Sample(0, nanoClock.getAsLong()));
+    }
+
+    /**
+     * Records a latency sample.
+     *
+     * @param latencyNanos latency in nanoseconds
+     */
+    void observe(long latencyNanos) {
+        long now = nanoClock.getAsLong();
+
+        Sample current;
+        Sample next;
+        do {
+            current = sample.get();
+            next = current.next(latencyNanos, now, decayNanos);
+        } while (!sample.compareAndSet(current, next));
+    }
+
+    /**
+     * Returns the current average, decayed for the time elapsed since the last sample.
+     *
+     * @return latency average in nanoseconds
+     */
+    long valueNanos() {
+        Sample current = sample.get();
+        return (long) (current.cost * weight(nanoClock.getAsLong() - current.stampNanos, decayNanos));
+    }
+
+    private static double weight(long elapsedNanos, double decayNanos) {
+        return Math.exp(-Math.max(0, elapsedNanos) / decayNanos);
+    }
+
+    private static final class Sample {
+        private final double cost;
+        private final long stampNanos;
+
+        private Sample(double cost, long stampNanos) {
+            this.cost = cost;
+            this.stampNanos = stampNanos;
+        }
+
+        private Sample next(long latencyNanos, long now, double decayNanos) {
+            if (latencyNanos > cost) {
+                return new Sample(latencyNanos, now);
+            }
+
+            double w = weight(now - stampNanos, decayNanos);
+            return new Sample(cost * w + latencyNanos * (1 - w), now);
+        }
+    }
+}
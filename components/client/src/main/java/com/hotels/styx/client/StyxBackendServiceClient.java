@@ -16,6 +16,7 @@
 package com.hotels.styx.client;
 
 import com.google.common.collect.ImmutableList;
+import com.hotels.styx.api.ByteStream;
 import com.hotels.styx.api.HttpInterceptor;
 import com.hotels.styx.api.HttpResponseStatus;
 import com.hotels.styx.api.Id;
@@ -28,6 +29,7 @@ import com.hotels.styx.api.extension.Origin;
 import com.hotels.styx.api.extension.RemoteHost;
 import com.hotels.styx.api.extension.loadbalancing.spi.LoadBalancer;
 import com.hotels.styx.api.extension.retrypolicy.spi.RetryPolicy;
+import com.hotels.styx.api.extension.service.HedgingConfig;
 import com.hotels.styx.api.extension.service.RewriteRule;
 import com.hotels.styx.api.extension.service.StickySessionConfig;
 import com.hotels.styx.client.OriginStatsFactory.CachingOriginStatsFactory;
@@ -38,7 +40,9 @@ import io.micrometer.core.instrument.Tags;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -49,11 +53,13 @@ import static com.google.common.collect.Lists.newArrayList;
 import static com.hotels.styx.api.HttpHeaderNames.CONTENT_LENGTH;
 import static com.hotels.styx.api.HttpHeaderNames.TRANSFER_ENCODING;
 import static com.hotels.styx.api.HttpMethod.HEAD;
+import static com.hotels.styx.api.extension.service.HedgingConfig.hedgingDisabled;
 import static com.hotels.styx.api.extension.service.StickySessionConfig.stickySessionDisabled;
 import static com.hotels.styx.client.StyxHeaderConfig.ORIGIN_ID_DEFAULT;
 import static com.hotels.styx.client.stickysession.StickySessionCookie.newStickySessionCookie;
 import static java.lang.String.valueOf;
 import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
 import static java.util.Objects.nonNull;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.joining;
@@ -76,6 +82,8 @@ public final class StyxBackendServiceClient implements BackendServiceClient {
     private final String originsRestrictionCookieName;
     private final StickySessionConfig stickySessionConfig;
     private final CharSequence originIdHeader;
+    private final Hedging hedging;
+    private final OutlierDetector outlierDetector;
 
     private StyxBackendServiceClient(Builder builder) {
         this.id = requireNonNull(builder.backendServiceId);
@@ -95,11 +103,21 @@ public final class StyxBackendServiceClient implements BackendServiceClient {
         this.meterRegistry = builder.meterRegistry;
         this.originsRestrictionCookieName = builder.originsRestrictionCookieName;
         this.originIdHeader = builder.originIdHeader;
+        this.hedging = builder.hedgingConfig.hedgingEnabled()
+                ? new Hedging(id, builder.hedgingConfig, requireNonNull(builder.meterRegistry))
+                : null;
+        this.outlierDetector = builder.outlierDetector;
     }
 
     @Override
     public Publisher<LiveHttpResponse> sendRequest(LiveHttpRequest request, HttpInterceptor.Context context) {
-        return sendRequest(rewriteUrl(request), new ArrayList<>(), 0, context);
+        LiveHttpRequest rewrittenRequest = rewriteUrl(request);
+        retryPolicy.requestSent();
+
+        if (hedging != null && hedging.appliesTo(rewrittenRequest)) {
+            return sendHedgedRequest(rewrittenRequest, context);
+        }
+        return sendRequest(rewrittenRequest, new ArrayList<>(), 0, context);
     }
 
     /**
@@ -143,29 +161,88 @@ public final class StyxBackendServiceClient implements BackendServiceClient {
 
         Optional<RemoteHost> remoteHost = selectOrigin(request);
         if (remoteHost.isPresent()) {
-            RemoteHost host = remoteHost.get();
-            List<RemoteHost> newPreviousOrigins = newArrayList(previousOrigins);
-            newPreviousOrigins.add(remoteHost.get());
-
-            return ResponseEventListener.from(host.hostClient().handle(request, context)
-                    .map(response -> addStickySessionIdentifier(response, host.origin())))
-                    .whenResponseError(cause -> logError(request, cause))
-                    .whenCancelled(() -> originStatsFactory.originStats(host.origin()).requestCancelled())
-                    .apply()
-                    .doOnNext(this::recordErrorStatusMetrics)
-                    .map(response -> removeUnexpectedResponseBody(request, response))
-                    .map(StyxBackendServiceClient::removeRedundantContentLengthHeader)
-                    .onErrorResume(cause -> {
-                        RetryPolicyContext retryContext = new RetryPolicyContext(this.id, attempt + 1, cause, request, previousOrigins);
-                        return retry(request, retryContext, newPreviousOrigins, attempt + 1, cause, context);
-                    })
-                    .map(response -> addOriginId(host.id(), response));
+            return sendRequest(request, remoteHost.get(), previousOrigins, attempt, context);
         } else {
             RetryPolicyContext retryContext = new RetryPolicyContext(this.id, attempt + 1, null, request, previousOrigins);
             return retry(request, retryContext, previousOrigins, attempt + 1, new NoAvailableHostsException(this.id), context);
         }
     }
 
+    private Flux<LiveHttpResponse> sendRequest(LiveHttpRequest request, RemoteHost host, List<RemoteHost> previousOrigins, int attempt, HttpInterceptor.Context context) {
+        List<RemoteHost> newPreviousOrigins = newArrayList(previousOrigins);
+        newPreviousOrigins.add(host);
+
+        return sendToHost(request, host, context)
+                .onErrorResume(cause -> {
+                    RetryPolicyContext retryContext = new RetryPolicyContext(this.id, attempt + 1, cause, request, previousOrigins);
+                    return retry(request, retryContext, newPreviousOrigins, attempt + 1, cause, context);
+                })
+                .map(response -> addOriginId(host.id(), response));
+    }
+
+    private Flux<LiveHttpResponse> sendToHost(LiveHttpRequest request, RemoteHost host, HttpInterceptor.Context context) {
+        return ResponseEventListener.from(host.hostClient().handle(request, context)
+                .map(response -> addStickySessionIdentifier(response, host.origin())))
+                .whenResponseError(cause -> logError(request, cause))
+                .whenCancelled(() -> originStatsFactory.originStats(host.origin()).requestCancelled())
+                .apply()
+                .doOnNext(response -> recordOutcome(host, response))
+                .doOnError(cause -> recordFailure(host))
+                .doOnNext(this::recordErrorStatusMetrics)
+                .map(response -> removeUnexpectedResponseBody(request, response))
+                .map(StyxBackendServiceClient::removeRedundantContentLengthHeader);
+    }
+
+    /*
+     * Sends the request to the origin chosen by the load balancer. If no response has arrived after
+     * the hedging delay, the request is also sent to another origin. The first response wins, and
+     * the other attempt is cancelled. The request fails only when the original attempt, with its
+     * retries, and the hedge have both failed. A hedge is not retried.
+     */
+    private Publisher<LiveHttpResponse> sendHedgedRequest(LiveHttpRequest request, HttpInterceptor.Context context) {
+        Optional<RemoteHost> remoteHost = selectOrigin(request);
+        if (!remoteHost.isPresent()) {
+            return sendRequest(request, new ArrayList<>(), 0, context);
+        }
+
+        RemoteHost primary = remoteHost.get();
+        hedging.requestReceived();
+        Hedging.Attempts attempts = new Hedging.Attempts();
+
+        Flux<LiveHttpResponse> first = attempts.original(
+                hedging.timeOriginalAttempt(sendRequest(request, primary, new ArrayList<>(), 0, context)));
+
+        Flux<LiveHttpResponse> hedge = Mono.delay(Duration.ofMillis(hedging.delayMillis()))
+                .flatMapMany(tick -> selectHedgeOrigin(primary)
+                        .filter(host -> attempts.startHedge())
+                        .map(host -> {
+                            hedging.hedgeSent();
+                            LiveHttpRequest hedgedRequest = request.newBuilder()
+                                    .body(it -> new ByteStream(Flux.empty()))
+                                    .build();
+
+                            return attempts.hedge(sendToHost(hedgedRequest, host, context)
+                                    .map(response -> addOriginId(host.id(), response)))
+                                    .doOnNext(response -> hedging.hedgeWon());
+                        })
+                        .orElse(Flux.empty()));
+
+        return Flux.merge(first, hedge).next();
+    }
+
+    private Optional<RemoteHost> selectHedgeOrigin(RemoteHost primary) {
+        LoadBalancer.Preferences preferences = avoiding(singletonList(primary));
+
+        // Not all load balancers honour the origins to avoid.
+        for (int i = 0; i < MAX_RETRY_ATTEMPTS; i++) {
+            Optional<RemoteHost> host = loadBalancer.choose(preferences);
+            if (!host.isPresent() || !host.get().id().equals(primary.id())) {
+                return host;
+            }
+        }
+        return Optional.empty();
+    }
+
     private LiveHttpResponse addOriginId(Id originId, LiveHttpResponse response) {
         return response.newBuilder()
                 .header(originIdHeader, originId)
@@ -179,7 +256,17 @@ public final class StyxBackendServiceClient implements BackendServiceClient {
             int attempt,
             Throwable cause,
             HttpInterceptor.Context context) {
-        LoadBalancer.Preferences lbContext = new LoadBalancer.Preferences() {
+        LoadBalancer.Preferences lbContext = avoiding(previousOrigins);
+
+        if (this.retryPolicy.evaluate(retryContext, loadBalancer, lbContext).shouldRetry()) {
+            return Flux.from(sendRequest(request, previousOrigins, attempt, context));
+        } else {
+            return Flux.error(cause);
+        }
+    }
+
+    private static LoadBalancer.Preferences avoiding(List<RemoteHost> previousOrigins) {
+        return new LoadBalancer.Preferences() {
             @Override
             public Optional<String> preferredOrigins() {
                 return Optional.empty();
@@ -192,12 +279,6 @@ public final class StyxBackendServiceClient implements BackendServiceClient {
                         .collect(Collectors.toList());
             }
         };
-
-        if (this.retryPolicy.evaluate(retryContext, loadBalancer, lbContext).shouldRetry()) {
-            return Flux.from(sendRequest(request, previousOrigins, attempt, context));
-        } else {
-            return Flux.error(cause);
-        }
     }
 
     private static final class RetryPolicyContext implements RetryPolicy.Context {
@@ -294,6 +375,22 @@ public final class StyxBackendServiceClient implements BackendServiceClient {
         }
     }
 
+    private void recordOutcome(RemoteHost host, LiveHttpResponse response) {
+        if (outlierDetector != null) {
+            if (response.status().code() >= 500) {
+                outlierDetector.requestFailed(host);
+            } else {
+                outlierDetector.requestSucceeded(host);
+            }
+        }
+    }
+
+    private void recordFailure(RemoteHost host) {
+        if (outlierDetector != null) {
+            outlierDetector.requestFailed(host);
+        }
+    }
+
     private Optional<RemoteHost> selectOrigin(LiveHttpRequest rewrittenRequest) {
         LoadBalancer.Preferences preferences = new LoadBalancer.Preferences() {
             @Override
@@ -339,6 +436,8 @@ public final class StyxBackendServiceClient implements BackendServiceClient {
         sb.append(id);
         sb.append(", stickySessionConfig=");
         sb.append(stickySessionConfig);
+        sb.append(", hedging=");
+        sb.append(hedging != null);
         sb.append(", retryPolicy=");
         sb.append(retryPolicy);
         sb.append(", rewriteRuleset=");
@@ -361,7 +460,9 @@ public final class StyxBackendServiceClient implements BackendServiceClient {
         private OriginStatsFactory originStatsFactory;
         private String originsRestrictionCookieName;
         private StickySessionConfig stickySessionConfig = stickySessionDisabled();
+        private HedgingConfig hedgingConfig = hedgingDisabled();
         private CharSequence originIdHeader = ORIGIN_ID_DEFAULT;
+        private OutlierDetector outlierDetector;
 
         public Builder(Id backendServiceId) {
             this.backendServiceId = requireNonNull(backendServiceId);
@@ -372,6 +473,23 @@ public final class StyxBackendServiceClient implements BackendServiceClient {
             return this;
         }
 
+        public Builder hedgingConfig(HedgingConfig hedgingConfig) {
+            this.hedgingConfig = requireNonNull(hedgingConfig);
+            return this;
+        }
+
+        /**
+         * Sets the outlier detector that the outcome of each request is reported to. The load balancer
+         * should choose from the active origins filtered by the same detector.
+         *
+         * @param outlierDetector outlier detector
+         * @return this builder
+         */
+        public Builder outlierDetector(OutlierDetector outlierDetector) {
+            this.outlierDetector = requireNonNull(outlierDetector);
+            return this;
+        }
+
         public Builder meterRegistry(MeterRegistry meterRegistry) {
             this.meterRegistry = requireNonNull(meterRegistry);
             return this;
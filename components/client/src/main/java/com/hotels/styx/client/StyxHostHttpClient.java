@@ -26,14 +26,21 @@ import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
  * A Styx HTTP Client for proxying to an individual origin host.
+ *
+ * Besides the ongoing connections, the load balancing metric carries a peak EWMA of the time
+ * until the origin responds with headers, or fails.
  */
 public class StyxHostHttpClient implements LoadBalancingMetricSupplier {
     public static final String ORIGINID_CONTEXT_KEY = "styx.originid";
 
+    private static final long LATENCY_DECAY_SECONDS = 10;
+
     private final ConnectionPool pool;
+    private final PeakEwma latency = new PeakEwma(LATENCY_DECAY_SECONDS, SECONDS);
 
     StyxHostHttpClient(ConnectionPool pool) {
         this.pool = requireNonNull(pool);
@@ -47,12 +54,17 @@ public class StyxHostHttpClient implements LoadBalancingMetricSupplier {
         if (context != null) {
             context.add(ORIGINID_CONTEXT_KEY, pool.getOrigin().id());
         }
-        return Flux.from(pool.borrowConnection())
+        return Flux.from(pool.borrowConnection(context != null ? context.executor() : null))
                 .flatMap(connection -> {
+                    long startNanos = System.nanoTime();
 
                     return ResponseEventListener.from(connection.write(request))
+                            .whenHeadersComplete(() -> latency.observe(System.nanoTime() - startNanos))
                             .whenCancelled(() -> pool.closeConnection(connection))
-                            .whenResponseError(cause -> pool.closeConnection(connection))
+                            .whenResponseError(cause -> {
+                                latency.observe(System.nanoTime() - startNanos);
+                                pool.closeConnection(connection);
+                            })
                             .whenContentError(cause -> pool.closeConnection(connection))
                             .whenCompleted(response -> pool.returnConnection(connection))
                             .apply();
@@ -65,7 +77,7 @@ public class StyxHostHttpClient implements LoadBalancingMetricSupplier {
 
     @Override
     public LoadBalancingMetric loadBalancingMetric() {
-        return new LoadBalancingMetric(this.pool.stats().busyConnectionCount() + pool.stats().pendingConnectionCount());
+        return new LoadBalancingMetric(this.pool.stats().busyConnectionCount() + pool.stats().pendingConnectionCount(), latency.valueNanos());
     }
 
     /**
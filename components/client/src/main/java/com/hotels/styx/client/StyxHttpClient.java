@@ -25,12 +25,17 @@ import com.hotels.styx.api.LiveHttpResponse;
 import com.hotels.styx.api.Url;
 import com.hotels.styx.api.exceptions.ResponseTimeoutException;
 import com.hotels.styx.api.extension.Origin;
+import com.hotels.styx.api.extension.service.ConnectionPoolSettings;
 import com.hotels.styx.api.extension.service.TlsSettings;
 import com.hotels.styx.client.netty.connectionpool.NettyConnectionFactory;
 import com.hotels.styx.client.ssl.SslContextFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.netty.handler.ssl.SslContext;
 import reactor.core.publisher.Mono;
 
+import java.io.Closeable;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
@@ -42,20 +47,24 @@ import static com.hotels.styx.client.HttpConfig.newHttpConfigBuilder;
 import static com.hotels.styx.client.HttpRequestOperationFactory.Builder.httpRequestOperationFactoryBuilder;
 import static com.hotels.styx.common.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.toSet;
 
 /**
  * A client that uses netty as transport.
  */
-public final class StyxHttpClient implements HttpClient {
+public final class StyxHttpClient implements HttpClient, Closeable {
     private static final int DEFAULT_HTTPS_PORT = 443;
     private static final int DEFAULT_HTTP_PORT = 80;
 
     private final Builder transactionParameters;
     private final NettyConnectionFactory connectionFactory;
+    private final HostConnectionPools connectionPools;
 
-    private StyxHttpClient(NettyConnectionFactory connectionFactory, Builder parameters) {
+    private StyxHttpClient(NettyConnectionFactory connectionFactory, HostConnectionPools connectionPools, Builder parameters) {
         this.transactionParameters = parameters;
         this.connectionFactory = connectionFactory;
+        this.connectionPools = connectionPools;
     }
 
     /**
@@ -64,7 +73,7 @@ public final class StyxHttpClient implements HttpClient {
      * @return a {@HttpClient.Transaction} instance that allows fluent method chaining
      */
     public HttpClient.Transaction secure() {
-        return new StyxHttpClientTransaction(connectionFactory, this.transactionParameters.copy().secure(true));
+        return new StyxHttpClientTransaction(connectionFactory, connectionPools, this.transactionParameters.copy().secure(true));
     }
 
     /**
@@ -77,7 +86,7 @@ public final class StyxHttpClient implements HttpClient {
      * @return a {@HttpClient.Transaction} instance that allows fluent method chaining
      */
     public HttpClient.Transaction secure(boolean secure) {
-        return new StyxHttpClientTransaction(connectionFactory, this.transactionParameters.copy().secure(secure));
+        return new StyxHttpClientTransaction(connectionFactory, connectionPools, this.transactionParameters.copy().secure(secure));
     }
 
     /**
@@ -89,12 +98,12 @@ public final class StyxHttpClient implements HttpClient {
         return new StreamingTransaction() {
             @Override
             public CompletableFuture<LiveHttpResponse> send(LiveHttpRequest request) {
-                return sendRequestInternal(connectionFactory, request, transactionParameters).toFuture();
+                return sendRequestInternal(connectionFactory, connectionPools, request, transactionParameters).toFuture();
             }
 
             @Override
             public CompletableFuture<LiveHttpResponse> send(HttpRequest request) {
-                return sendRequestInternal(connectionFactory, request.stream(), transactionParameters).toFuture();
+                return sendRequestInternal(connectionFactory, connectionPools, request.stream(), transactionParameters).toFuture();
             }
         };
     }
@@ -106,18 +115,55 @@ public final class StyxHttpClient implements HttpClient {
      * @return a {@link CompletableFuture} of response
      */
     public CompletableFuture<HttpResponse> send(HttpRequest request) {
-        return sendRequestInternal(connectionFactory, request.stream(), this.transactionParameters)
+        return sendRequestInternal(connectionFactory, connectionPools, request.stream(), this.transactionParameters)
                 .flatMap(response -> Mono.from(response.aggregate(this.transactionParameters.maxResponseSize())))
                 .toFuture();
     }
 
+    /**
+     * Closes the pooled connections to any host other than the given origins, if this client is in pooled mode.
+     * A client that sends requests to a changing set of origins uses this to release the connections to the
+     * origins that have been removed.
+     *
+     * @param origins origins whose pooled connections are kept
+     */
+    public void retainConnectionPools(Collection<Origin> origins) {
+        if (connectionPools != null) {
+            connectionPools.retainHosts(origins.stream()
+                    .map(Origin::hostAndPortString)
+                    .collect(toSet()));
+        }
+    }
+
+    /**
+     * Closes the pooled connections, if this client is in pooled mode.
+     */
+    @Override
+    public void close() {
+        if (connectionPools != null) {
+            connectionPools.close();
+        }
+    }
+
     @VisibleForTesting
     static Mono<LiveHttpResponse> sendRequestInternal(NettyConnectionFactory connectionFactory, LiveHttpRequest request, Builder params) {
+        return sendRequestInternal(connectionFactory, null, request, params);
+    }
+
+    static Mono<LiveHttpResponse> sendRequestInternal(
+            NettyConnectionFactory connectionFactory,
+            HostConnectionPools connectionPools,
+            LiveHttpRequest request,
+            Builder params) {
         LiveHttpRequest networkRequest = addUserAgent(params.userAgent(), request);
         Origin origin = originFromRequest(networkRequest, params.https());
 
         SslContext sslContext = getSslContext(params.https(), params.tlsSettings());
 
+        if (connectionPools != null) {
+            return connectionPools.send(origin, sslContext, networkRequest);
+        }
+
         return connectionFactory.createConnection(
                 origin,
                 new ConnectionSettings(params.connectTimeoutMillis()),
@@ -190,6 +236,8 @@ public final class StyxHttpClient implements HttpClient {
         private boolean isHttps;
         private String userAgent;
         private NettyExecutor executor = DEFAULT_EXECUTOR;
+        private ConnectionPoolSettings connectionPoolSettings;
+        private MeterRegistry meterRegistry;
 
         public Builder() {
         }
@@ -324,6 +372,32 @@ public final class StyxHttpClient implements HttpClient {
             return this;
         }
 
+        /**
+         * Enables the pooled mode, where keep-alive connections are reused for subsequent
+         * requests to the same host. Connections are pooled separately for each host, port and protocol.
+         * The TCP connection timeout is set by {@link #connectTimeout(int, TimeUnit)}.
+         * <p>
+         * A pooled client should be closed when it is no longer needed.
+         *
+         * @param connectionPoolSettings connection pool settings for each host
+         * @return this {@link Builder}
+         */
+        public Builder connectionPoolSettings(ConnectionPoolSettings connectionPoolSettings) {
+            this.connectionPoolSettings = requireNonNull(connectionPoolSettings);
+            return this;
+        }
+
+        /**
+         * Sets the registry for the connection reuse metrics of the pooled mode.
+         *
+         * @param meterRegistry meter registry
+         * @return this {@link Builder}
+         */
+        public Builder meterRegistry(MeterRegistry meterRegistry) {
+            this.meterRegistry = requireNonNull(meterRegistry);
+            return this;
+        }
+
         /**
          * Construct a client instance.
          *
@@ -339,7 +413,22 @@ public final class StyxHttpClient implements HttpClient {
                     .executor(executor)
                     .build();
 
-            return new StyxHttpClient(connectionFactory, this.copy());
+            return new StyxHttpClient(connectionFactory, connectionPools(connectionFactory), this.copy());
+        }
+
+        private HostConnectionPools connectionPools(NettyConnectionFactory connectionFactory) {
+            if (connectionPoolSettings == null) {
+                return null;
+            }
+
+            ConnectionPoolSettings poolSettings = new ConnectionPoolSettings.Builder(connectionPoolSettings)
+                    .connectTimeout(connectTimeoutMillis, MILLISECONDS)
+                    .build();
+
+            return new HostConnectionPools(
+                    connectionFactory,
+                    poolSettings,
+                    meterRegistry != null ? meterRegistry : new SimpleMeterRegistry());
         }
 
     }
@@ -27,10 +27,12 @@ import java.util.concurrent.CompletableFuture;
 class StyxHttpClientTransaction implements HttpClient.Transaction {
     private final StyxHttpClient.Builder transactionParameters;
     private final NettyConnectionFactory connectionFactory;
+    private final HostConnectionPools connectionPools;
 
-    public StyxHttpClientTransaction(NettyConnectionFactory connectionFactory, StyxHttpClient.Builder transactionParameters) {
+    public StyxHttpClientTransaction(NettyConnectionFactory connectionFactory, HostConnectionPools connectionPools, StyxHttpClient.Builder transactionParameters) {
         this.transactionParameters = transactionParameters;
         this.connectionFactory = connectionFactory;
+        this.connectionPools = connectionPools;
     }
 
     /**
@@ -64,12 +66,12 @@ class StyxHttpClientTransaction implements HttpClient.Transaction {
         return new HttpClient.StreamingTransaction() {
             @Override
             public CompletableFuture<LiveHttpResponse> send(LiveHttpRequest request) {
-                return StyxHttpClient.sendRequestInternal(connectionFactory, request, transactionParameters).toFuture();
+                return StyxHttpClient.sendRequestInternal(connectionFactory, connectionPools, request, transactionParameters).toFuture();
             }
 
             @Override
             public CompletableFuture<LiveHttpResponse> send(HttpRequest request) {
-                return StyxHttpClient.sendRequestInternal(connectionFactory, request.stream(), transactionParameters).toFuture();
+                return StyxHttpClient.sendRequestInternal(connectionFactory, connectionPools, request.stream(), transactionParameters).toFuture();
             }
         };
     }
@@ -82,7 +84,7 @@ class StyxHttpClientTransaction implements HttpClient.Transaction {
      */
     @Override
     public CompletableFuture<HttpResponse> send(HttpRequest request) {
-        return StyxHttpClient.sendRequestInternal(connectionFactory, request.stream(), transactionParameters)
+        return StyxHttpClient.sendRequestInternal(connectionFactory, connectionPools, request.stream(), transactionParameters)
                 .flatMap(response -> Mono.from(response.aggregate(transactionParameters.maxResponseSize())))
                 .toFuture();
     }
@@ -21,6 +21,7 @@ import com.hotels.styx.client.Connection;
 import org.reactivestreams.Publisher;
 
 import java.io.Closeable;
+import java.util.concurrent.Executor;
 
 /**
  * A pool of connections.
@@ -124,6 +125,17 @@ public interface ConnectionPool extends Closeable {
      */
     Publisher<Connection> borrowConnection();
 
+    /**
+     * Borrow a connection from the host, preferring a connection that is bound to
+     * the given executor. Pools without an executor affinity ignore the preference.
+     *
+     * @param executor preferred executor, or null if there is no preference
+     * @return the borrowed connection
+     */
+    default Publisher<Connection> borrowConnection(Executor executor) {
+        return borrowConnection();
+    }
+
     /**
      * Returns back the connection to the host's pool. May close the connection if the
      * pool is down or the last exception on the connection is determined to be
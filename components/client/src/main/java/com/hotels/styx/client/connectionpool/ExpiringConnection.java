@@ -23,6 +23,7 @@ import com.hotels.styx.api.extension.Origin;
 import com.hotels.styx.client.Connection;
 import reactor.core.publisher.Flux;
 
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 
 import static java.util.Objects.requireNonNull;
@@ -62,6 +63,11 @@ class ExpiringConnection implements Connection {
         return nettyConnection.getOrigin();
     }
 
+    @Override
+    public Executor executor() {
+        return nettyConnection.executor();
+    }
+
     @Override
     public void addConnectionListener(Listener listener) {
         nettyConnection.addConnectionListener(listener);
@@ -21,6 +21,7 @@ import com.hotels.styx.client.Connection;
 import com.hotels.styx.client.ConnectionSettings;
 import reactor.core.publisher.Mono;
 
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 
 import static java.util.Objects.requireNonNull;
@@ -47,6 +48,13 @@ public class ExpiringConnectionFactory implements Connection.Factory {
                 .map(this::decorate);
     }
 
+    @Override
+    public Mono<Connection> createConnection(Origin origin, ConnectionSettings connectionSettings, Executor executor) {
+        return connectionFactory
+                .createConnection(origin, connectionSettings, executor)
+                .map(this::decorate);
+    }
+
     private Connection decorate(Connection conn) {
         return new ExpiringConnection(conn, connectionExpirationSeconds, SYSTEM_TICKER);
     }
@@ -26,8 +26,12 @@ import reactor.core.publisher.Mono;
 import reactor.core.publisher.MonoSink;
 
 import java.time.Duration;
+import java.util.Iterator;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.Objects.nonNull;
@@ -36,6 +40,11 @@ import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * A connection pool implementation.
+ *
+ * When event loop affinity is enabled in the pool settings, idle connections are kept in a separate
+ * queue for each event loop. A borrower is then preferably handed a connection that lives on its own
+ * event loop, and new connections are established on that loop. Connections from other loops are
+ * only handed out when the borrower's own queue is empty.
  */
 public class SimpleConnectionPool implements ConnectionPool, Connection.Listener {
     private static final Logger LOG = getLogger(SimpleConnectionPool.class);
@@ -46,8 +55,10 @@ public class SimpleConnectionPool implements ConnectionPool, Connection.Listener
     private final Connection.Factory connectionFactory;
     private final Origin origin;
 
-    private final ConcurrentLinkedDeque<MonoSink<Connection>> waitingSubscribers;
+    private final WaitingSubscribers<Connection> waitingSubscribers;
+    private final boolean eventLoopAffinity;
     private final Queue<Connection> availableConnections;
+    private final ConcurrentMap<Executor, Queue<Connection>> availableConnectionsByExecutor;
     private final AtomicInteger borrowedCount = new AtomicInteger();
     private final SimpleConnectionPool.ConnectionPoolStats stats = new SimpleConnectionPool.ConnectionPoolStats();
     private final AtomicInteger connectionAttempts = new AtomicInteger();
@@ -63,8 +74,10 @@ public class SimpleConnectionPool implements ConnectionPool, Connection.Listener
         this.poolSettings = requireNonNull(poolSettings);
         this.connectionSettings = new ConnectionSettings(poolSettings.connectTimeoutMillis());
         this.connectionFactory = requireNonNull(connectionFactory);
+        this.eventLoopAffinity = poolSettings.eventLoopAffinity();
         this.availableConnections = new ConcurrentLinkedDeque<>();
-        this.waitingSubscribers = new ConcurrentLinkedDeque<>();
+        this.availableConnectionsByExecutor = new ConcurrentHashMap<>();
+        this.waitingSubscribers = new WaitingSubscribers<>(poolSettings.maxPendingConnectionsPerHost());
         this.active = true;
     }
 
@@ -74,16 +87,21 @@ public class SimpleConnectionPool implements ConnectionPool, Connection.Listener
 
     @Override
     public Publisher<Connection> borrowConnection() {
+        return borrowConnection(null);
+    }
+
+    @Override
+    public Publisher<Connection> borrowConnection(Executor executor) {
         if (active) {
             return Mono.<Connection>create(sink -> {
-                Connection connection = dequeue();
+                Connection connection = dequeue(executor);
                 if (connection != null) {
                     attemptBorrowConnection(sink, connection);
                 } else {
-                    if (waitingSubscribers.size() < poolSettings.maxPendingConnectionsPerHost()) {
-                        this.waitingSubscribers.add(sink);
-                        sink.onDispose(() -> waitingSubscribers.remove(sink));
-                        newConnection();
+                    WaitingSubscribers.Waiter<Connection> waiter = waitingSubscribers.offer(sink);
+                    if (waiter != null) {
+                        sink.onDispose(waiter::cancel);
+                        newConnection(executor);
                     } else {
                         sink.error(new MaxPendingConnectionsExceededException(
                                 origin,
@@ -99,7 +117,7 @@ public class SimpleConnectionPool implements ConnectionPool, Connection.Listener
         }
     }
 
-    private void newConnection() {
+    private void newConnection(Executor executor) {
         int borrowed = borrowedCount.get();
         int inEstablishment = connectionsInEstablishment.getAndIncrement();
 
@@ -109,7 +127,7 @@ public class SimpleConnectionPool implements ConnectionPool, Connection.Listener
         }
 
         connectionAttempts.incrementAndGet();
-        newConnection(MAX_ATTEMPTS)
+        newConnection(MAX_ATTEMPTS, executor)
                 .doOnNext(it -> it.addConnectionListener(SimpleConnectionPool.this))
                 .subscribe(
                         connection -> {
@@ -123,30 +141,73 @@ public class SimpleConnectionPool implements ConnectionPool, Connection.Listener
                 );
     }
 
-    private Mono<Connection> newConnection(int attempts) {
+    private Mono<Connection> newConnection(int attempts, Executor executor) {
         if (attempts > 0) {
-            return this.connectionFactory.createConnection(this.origin, this.connectionSettings)
-                    .onErrorResume(cause -> newConnection(attempts - 1));
+            return createConnection(executor)
+                    .onErrorResume(cause -> newConnection(attempts - 1, executor));
         } else {
             return Mono.error(new RuntimeException("Unable to create connection"));
         }
     }
 
+    private Mono<Connection> createConnection(Executor executor) {
+        if (eventLoopAffinity && executor != null) {
+            return this.connectionFactory.createConnection(this.origin, this.connectionSettings, executor);
+        } else {
+            return this.connectionFactory.createConnection(this.origin, this.connectionSettings);
+        }
+    }
+
     @VisibleForTesting
     Connection dequeue() {
-        Connection connection = availableConnections.poll();
+        return eventLoopAffinity ? dequeueFromAnyExecutor() : poll(availableConnections);
+    }
+
+    private Connection dequeue(Executor executor) {
+        if (!eventLoopAffinity || executor == null) {
+            return dequeue();
+        }
+
+        Connection connection = poll(availableConnections(executor));
+        return connection != null ? connection : dequeueFromAnyExecutor();
+    }
+
+    private Connection dequeueFromAnyExecutor() {
+        Connection connection = poll(availableConnections);
+
+        Iterator<Queue<Connection>> queues = availableConnectionsByExecutor.values().iterator();
+        while (connection == null && queues.hasNext()) {
+            connection = poll(queues.next());
+        }
+
+        return connection;
+    }
+
+    private static Connection poll(Queue<Connection> queue) {
+        Connection connection = queue.poll();
 
         while (nonNull(connection) && !connection.isConnected()) {
-            connection = availableConnections.poll();
+            connection = queue.poll();
         }
 
         return connection;
     }
 
+    private Queue<Connection> availableConnections(Executor executor) {
+        if (!eventLoopAffinity || executor == null) {
+            return availableConnections;
+        }
+
+        Queue<Connection> queue = availableConnectionsByExecutor.get(executor);
+        return queue != null
+                ? queue
+                : availableConnectionsByExecutor.computeIfAbsent(executor, key -> new ConcurrentLinkedDeque<>());
+    }
+
     private void queueNewConnection(Connection connection) {
         MonoSink<Connection> subscriber = waitingSubscribers.poll();
         if (subscriber == null) {
-            availableConnections.add(connection);
+            availableConnections(connection.executor()).add(connection);
         } else {
             attemptBorrowConnection(subscriber, connection);
         }
@@ -181,7 +242,7 @@ public class SimpleConnectionPool implements ConnectionPool, Connection.Listener
         borrowedCount.decrementAndGet();
         doCloseConnection(connection);
         if (active) {
-            newConnection();
+            newConnection(null);
         }
         return true;
     }
@@ -202,14 +263,19 @@ public class SimpleConnectionPool implements ConnectionPool, Connection.Listener
     @Override
     public void connectionClosed(Connection connection) {
         terminatedConnections.incrementAndGet();
-        availableConnections.remove(connection);
+        availableConnections(connection.executor()).remove(connection);
     }
 
     @Override
     public void close() {
         active = false;
+        closeAvailableConnections(availableConnections);
+        availableConnectionsByExecutor.values().forEach(this::closeAvailableConnections);
+    }
+
+    private void closeAvailableConnections(Queue<Connection> queue) {
         Connection con;
-        while ((con = availableConnections.poll()) != null) {
+        while ((con = queue.poll()) != null) {
             if (con.isConnected()) {
                 doCloseConnection(con);
             }
@@ -225,7 +291,11 @@ public class SimpleConnectionPool implements ConnectionPool, Connection.Listener
 
         @Override
         public int availableConnectionCount() {
-            return availableConnections.size();
+            int count = availableConnections.size();
+            for (Queue<Connection> queue : availableConnectionsByExecutor.values()) {
+                count += queue.size();
+            }
+            return count;
         }
 
         @Override
@@ -26,6 +26,7 @@ import org.reactivestreams.Publisher;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 
 import static com.hotels.styx.api.Metrics.name;
@@ -58,6 +59,11 @@ class StatsReportingConnectionPool implements ConnectionPool {
         return connectionPool.borrowConnection();
     }
 
+    @Override
+    public Publisher<Connection> borrowConnection(Executor executor) {
+        return connectionPool.borrowConnection(executor);
+    }
+
     @Override
     public boolean returnConnection(Connection connection) {
         return connectionPool.returnConnection(connection);
@@ -0,0 +1,144 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.client.connectionpool;
+
+import reactor.core.publisher.MonoSink;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A bounded FIFO queue of subscribers waiting for a connection.
+ *
+ * The number of waiting subscribers is tracked separately from the underlying queue, so that
+ * {@link #size()} is a constant time operation. Cancelled subscribers are only marked as such,
+ * and are skipped over when the queue is polled. The cancelled entries are purged in bulk once
+ * their number exceeds the queue capacity.
+ *
+ * @param <T> type of the awaited object
+ */
+final class WaitingSubscribers<T> {
+    private final Queue<Waiter<T>> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicInteger cancelled = new AtomicInteger();
+    private final int capacity;
+
+    WaitingSubscribers(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Adds a subscriber at the tail of the queue, provided that the queue is not full.
+     *
+     * @param sink a waiting subscriber
+     * @return a handle for cancelling the subscriber, or null if the queue is full
+     */
+    Waiter<T> offer(MonoSink<T> sink) {
+        int current;
+        do {
+            current = size.get();
+            if (current >= capacity) {
+                return null;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+
+        Waiter<T> waiter = new Waiter<>(this, sink);
+        queue.add(waiter);
+        return waiter;
+    }
+
+    /**
+     * Removes the longest waiting subscriber that has not been cancelled.
+     *
+     * @return a subscriber, or null if there are no waiting subscribers
+     */
+    MonoSink<T> poll() {
+        Waiter<T> waiter = queue.poll();
+        while (waiter != null) {
+            if (waiter.claim()) {
+                size.decrementAndGet();
+                return waiter.sink;
+            }
+            cancelled.decrementAndGet();
+            waiter = queue.poll();
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of waiting subscribers.
+     *
+     * @return number of waiting subscribers
+     */
+    int size() {
+        return size.get();
+    }
+
+    private void cancelled() {
+        size.decrementAndGet();
+        if (cancelled.incrementAndGet() > capacity) {
+            purge();
+        }
+    }
+
+    private void purge() {
+        queue.removeIf(waiter -> {
+            if (waiter.isDone()) {
+                cancelled.decrementAndGet();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * A queue entry for a waiting subscriber.
+     *
+     * @param <T> type of the awaited object
+     */
+    static final class Waiter<T> {
+        private final AtomicBoolean done = new AtomicBoolean();
+        private final WaitingSubscribers<T> owner;
+        private final MonoSink<T> sink;
+
+        private Waiter(WaitingSubscribers<T> owner, MonoSink<T> sink) {
+            this.owner = owner;
+            this.sink = requireNonNull(sink);
+        }
+
+        /**
+         * Removes the subscriber from the queue. Has no effect if the subscriber has already
+         * been handed out or cancelled.
+         */
+        void cancel() {
+            if (claim()) {
+                owner.cancelled();
+            }
+        }
+
+        private boolean claim() {
+            return done.compareAndSet(false, true);
+        }
+
+        private boolean isDone() {
+            return done.get();
+        }
+    }
+}
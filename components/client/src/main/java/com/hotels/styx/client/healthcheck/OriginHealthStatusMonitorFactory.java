@@ -22,6 +22,8 @@ import com.hotels.styx.client.HttpClient;
 import com.hotels.styx.client.healthcheck.monitors.AnomalyExcludingOriginHealthStatusMonitor;
 import com.hotels.styx.client.healthcheck.monitors.NoOriginHealthStatusMonitor;
 import com.hotels.styx.client.healthcheck.monitors.ScheduledOriginHealthStatusMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
 
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Supplier;
@@ -37,6 +39,11 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
 public final class OriginHealthStatusMonitorFactory {
 
     public OriginHealthStatusMonitor create(Id id, HealthCheckConfig healthCheckConfig, Supplier<OriginHealthCheckFunction> healthCheckFunction, HttpClient client) {
+        return create(id, healthCheckConfig, healthCheckFunction, client, new CompositeMeterRegistry());
+    }
+
+    public OriginHealthStatusMonitor create(Id id, HealthCheckConfig healthCheckConfig, Supplier<OriginHealthCheckFunction> healthCheckFunction, HttpClient client,
+                                            MeterRegistry meterRegistry) {
         if (healthCheckConfig == null || !healthCheckConfig.isEnabled()) {
             return new NoOriginHealthStatusMonitor();
         }
@@ -50,7 +57,8 @@ public final class OriginHealthStatusMonitorFactory {
                 executorService,
                 healthCheckFunction.get(),
                 new Schedule(healthCheckConfig.intervalMillis(), MILLISECONDS),
-                client);
+                client,
+                new ProbeScheduler(executorService, healthCheckConfig.intervalMillis(), ProbeScheduler.UNLIMITED, meterRegistry, id.toString()));
 
         return new AnomalyExcludingOriginHealthStatusMonitor(healthStatusMonitor, healthCheckConfig.healthyThreshold(), healthCheckConfig.unhealthyThreshold());
     }
@@ -0,0 +1,173 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.client.healthcheck;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import static com.hotels.styx.api.Metrics.APPID_TAG;
+import static com.hotels.styx.common.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Spreads the health check probes of a round across the health check period, instead of firing them all at once.
+ * <p>
+ * Every monitored object is given a fixed phase offset within the period, derived from a hash of its key.
+ * Probes therefore run at the same point in each period, and a large number of objects is probed at an even
+ * rate. The number of probes in flight can be bounded. A probe that would exceed the bound is skipped for
+ * the round, and is tried again in the next one.
+ * <p>
+ * Lateness is the time between the point at which a probe was due and the point at which it started.
+ * It is recorded as the {@code origin.healthcheck.lateness} timer. Skipped probes are counted by the
+ * {@code origin.healthcheck.skipped} counter.
+ */
+public final class ProbeScheduler {
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private static final ProbeScheduler IMMEDIATE = new ProbeScheduler();
+
+    private final ScheduledExecutorService executor;
+    private final long spreadMillis;
+    private final int maxConcurrentProbes;
+    private final Timer lateness;
+    private final Counter skipped;
+    private final LongSupplier clock;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * Construct an instance.
+     *
+     * @param executor            executor that runs the delayed probes
+     * @param spreadMillis        length of the window the probes are spread across, normally the health check period
+     * @param maxConcurrentProbes maximum number of probes in flight, or {@link #UNLIMITED}
+     * @param meterRegistry       meter registry
+     * @param appId               application whose probes are scheduled
+     */
+    public ProbeScheduler(ScheduledExecutorService executor, long spreadMillis, int maxConcurrentProbes, MeterRegistry meterRegistry, String appId) {
+        this(executor, spreadMillis, maxConcurrentProbes, meterRegistry, appId, System::nanoTime);
+    }
+
+    ProbeScheduler(ScheduledExecutorService executor, long spreadMillis, int maxConcurrentProbes, MeterRegistry meterRegistry, String appId,
+                   LongSupplier clock) {
+        checkArgument(spreadMillis >= 0, "spreadMillis " + spreadMillis + " < 0");
+        checkArgument(maxConcurrentProbes > 0, "maxConcurrentProbes " + maxConcurrentProbes + " < 1");
+        this.executor = requireNonNull(executor);
+        this.spreadMillis = spreadMillis;
+        this.maxConcurrentProbes = maxConcurrentProbes;
+        this.lateness = Timer.builder("origin.healthcheck.lateness").tag(APPID_TAG, appId).register(meterRegistry);
+        this.skipped = Counter.builder("origin.healthcheck.skipped").tag(APPID_TAG, appId).register(meterRegistry);
+        this.clock = requireNonNull(clock);
+    }
+
+    private ProbeScheduler() {
+        this.executor = null;
+        this.spreadMillis = 0;
+        this.maxConcurrentProbes = UNLIMITED;
+        this.lateness = null;
+        this.skipped = null;
+        this.clock = System::nanoTime;
+    }
+
+    /**
+     * Returns a scheduler that runs every probe straight away, on the calling thread, without any bound.
+     *
+     * @return a scheduler that does not spread probes
+     */
+    public static ProbeScheduler immediate() {
+        return IMMEDIATE;
+    }
+
+    /**
+     * Schedules a probe at the phase offset of the given key. The probe is handed a callback, that it must
+     * run exactly once when it completes, so that its slot can be given to another probe.
+     *
+     * @param key   identity of the monitored object
+     * @param probe probe to run
+     */
+    public void schedule(Object key, Consumer<Runnable> probe) {
+        long offset = phaseOffsetMillis(key, spreadMillis);
+        if (offset == 0) {
+            run(probe, clock.getAsLong());
+        } else {
+            long due = clock.getAsLong() + MILLISECONDS.toNanos(offset);
+            executor.schedule(() -> run(probe, due), offset, MILLISECONDS);
+        }
+    }
+
+    /**
+     * Number of probes that have started, but not yet completed.
+     *
+     * @return probes in flight
+     */
+    public int probesInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Phase offset of an object: a stable point within the spread window, in milliseconds.
+     *
+     * @param key          identity of the monitored object
+     * @param spreadMillis length of the spread window
+     * @return offset from the start of the window
+     */
+    static long phaseOffsetMillis(Object key, long spreadMillis) {
+        if (spreadMillis <= 0) {
+            return 0;
+        }
+        // Scramble the hash code so that keys with similar hash codes, such as "app-01" and "app-02",
+        // are not bunched together (MurmurHash3 finalizer):
+        long hash = key.hashCode() * 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return Math.floorMod(hash, spreadMillis);
+    }
+
+    private void run(Consumer<Runnable> probe, long due) {
+        if (lateness != null) {
+            lateness.record(Math.max(0, clock.getAsLong() - due), NANOSECONDS);
+        }
+
+        if (inFlight.incrementAndGet() > maxConcurrentProbes) {
+            inFlight.decrementAndGet();
+            skipped.increment();
+            return;
+        }
+
+        AtomicBoolean completed = new AtomicBoolean();
+        Runnable done = () -> {
+            if (completed.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+            }
+        };
+
+        try {
+            probe.accept(done);
+        } catch (RuntimeException e) {
+            done.run();
+            throw e;
+        }
+    }
+}
@@ -22,6 +22,7 @@ import com.hotels.styx.api.extension.service.spi.AbstractStyxService;
 import com.hotels.styx.client.HttpClient;
 import com.hotels.styx.client.healthcheck.OriginHealthCheckFunction;
 import com.hotels.styx.client.healthcheck.OriginHealthStatusMonitor;
+import com.hotels.styx.client.healthcheck.ProbeScheduler;
 import com.hotels.styx.client.healthcheck.Schedule;
 
 import javax.annotation.concurrent.ThreadSafe;
@@ -50,6 +51,7 @@ public class ScheduledOriginHealthStatusMonitor extends AbstractStyxService impl
     private final OriginHealthCheckFunction healthCheckingFunction;
     private final Schedule schedule;
     private final HttpClient client;
+    private final ProbeScheduler probeScheduler;
 
     private final Set<Origin> origins;
 
@@ -65,11 +67,29 @@ public class ScheduledOriginHealthStatusMonitor extends AbstractStyxService impl
                                               OriginHealthCheckFunction healthCheckingFunction,
                                               Schedule schedule,
                                               HttpClient client) {
+        this(hostHealthMonitorExecutor, healthCheckingFunction, schedule, client, ProbeScheduler.immediate());
+    }
+
+    /**
+     * Construct an instance that spreads the health-checks of each round with a probe scheduler.
+     *
+     * @param hostHealthMonitorExecutor service that will execute health-checks on a schedule
+     * @param healthCheckingFunction function that performs health-checks
+     * @param schedule schedule to follow for health-checking
+     * @param client client that will perform the health-check
+     * @param probeScheduler scheduler that spreads the health-checks across the period
+     */
+    public ScheduledOriginHealthStatusMonitor(ScheduledExecutorService hostHealthMonitorExecutor,
+                                              OriginHealthCheckFunction healthCheckingFunction,
+                                              Schedule schedule,
+                                              HttpClient client,
+                                              ProbeScheduler probeScheduler) {
         super("ScheduledOriginHealthStatusMonitor");
         this.hostHealthMonitorExecutor = requireNonNull(hostHealthMonitorExecutor);
         this.healthCheckingFunction = requireNonNull(healthCheckingFunction);
         this.schedule = requireNonNull(schedule);
         this.client = requireNonNull(client);
+        this.probeScheduler = requireNonNull(probeScheduler);
 
         this.origins = new ConcurrentSkipListSet<>();
     }
@@ -134,12 +154,19 @@ public class ScheduledOriginHealthStatusMonitor extends AbstractStyxService impl
 
     private void healthCheck(Set<Origin> origins) {
         for (Origin origin : origins) {
-            healthCheckOriginAndAnnounceListeners(origin);
+            probeScheduler.schedule(origin.id(), done -> {
+                if (status() == RUNNING && this.origins.contains(origin)) {
+                    healthCheckOriginAndAnnounceListeners(origin, done);
+                } else {
+                    done.run();
+                }
+            });
         }
     }
 
-    private void healthCheckOriginAndAnnounceListeners(Origin origin) {
+    private void healthCheckOriginAndAnnounceListeners(Origin origin, Runnable done) {
         healthCheckingFunction.check(client, origin, state -> {
+            done.run();
             switch (state) {
                 case HEALTHY:
                     announceOriginHealthy(origin);
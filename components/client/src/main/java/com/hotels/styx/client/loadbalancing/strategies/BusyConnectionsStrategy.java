@@ -25,16 +25,18 @@ import com.hotels.styx.api.configuration.Configuration;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.RandomAccess;
+import java.util.concurrent.ThreadLocalRandom;
 
-import static java.util.Collections.shuffle;
-import static java.util.Comparator.comparingInt;
+import static com.google.common.collect.Lists.newArrayList;
 import static java.util.Objects.requireNonNull;
-import static java.util.stream.StreamSupport.stream;
 
 
 /**
  * A load balancing strategy that returns the origin with least ongoing connections.
+ *
+ * The origins are scanned in a single pass. Ties between the least busy origins are broken
+ * randomly by reservoir sampling, so that each of them is equally likely to be chosen.
  */
 public class BusyConnectionsStrategy implements LoadBalancer {
     private final ActiveOrigins activeOrigins;
@@ -55,12 +57,37 @@ public class BusyConnectionsStrategy implements LoadBalancer {
 
     @Override
     public Optional<RemoteHost> choose(LoadBalancer.Preferences preferences) {
-        List<RemoteHost> snapshot = stream(activeOrigins.snapshot().spliterator(), false)
-                .collect(Collectors.toList());
+        List<RemoteHost> hosts = asList(activeOrigins.snapshot());
 
-        shuffle(snapshot);
+        RemoteHost chosen = null;
+        int least = Integer.MAX_VALUE;
+        int ties = 0;
 
-        return snapshot.stream()
-                .min(comparingInt(host -> host.metric().ongoingConnections()));
+        for (int i = 0; i < hosts.size(); i++) {
+            RemoteHost host = hosts.get(i);
+            int ongoing = host.metric().ongoingConnections();
+
+            if (chosen == null || ongoing < least) {
+                chosen = host;
+                least = ongoing;
+                ties = 1;
+            } else if (ongoing == least) {
+                ties++;
+                if (ThreadLocalRandom.current().nextInt(ties) == 0) {
+                    chosen = host;
+                }
+            }
+        }
+
+        return Optional.ofNullable(chosen);
+    }
+
+    // The origins inventory publishes its active hosts as an immutable random access list,
+    // which is read in place. Any other snapshot is copied.
+    private static List<RemoteHost> asList(Iterable<RemoteHost> snapshot) {
+        if (snapshot instanceof List && snapshot instanceof RandomAccess) {
+            return (List<RemoteHost>) snapshot;
+        }
+        return newArrayList(snapshot);
     }
 }
@@ -0,0 +1,73 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.client.loadbalancing.strategies;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.hotels.styx.api.Environment;
+import com.hotels.styx.api.configuration.Configuration;
+import com.hotels.styx.api.extension.ActiveOrigins;
+import com.hotels.styx.api.extension.RemoteHost;
+import com.hotels.styx.api.extension.loadbalancing.spi.LoadBalancer;
+import com.hotels.styx.api.extension.loadbalancing.spi.LoadBalancerFactory;
+import com.hotels.styx.api.extension.loadbalancing.spi.LoadBalancingMetric;
+
+import java.util.Random;
+
+/**
+ * A load balancing strategy that selects two hosts randomly and chooses the one with the lower cost.
+ *
+ * The cost of a host is the peak EWMA of its response latency, multiplied by the number of its
+ * ongoing connections plus one. A host that has ongoing connections but no latency samples yet is
+ * given a high cost, so that the load balancer does not pile requests on it.
+ */
+public class PeakEwmaStrategy extends PowerOfTwoStrategy {
+    private static final double PENALTY = Long.MAX_VALUE >> 16;
+
+    @VisibleForTesting
+    PeakEwmaStrategy(ActiveOrigins activeOrigins, Random rng) {
+        super(activeOrigins, rng);
+    }
+
+    public PeakEwmaStrategy(ActiveOrigins activeOrigins) {
+        super(activeOrigins);
+    }
+
+    /**
+     * A load balancing strategy that favours the origin with the lowest latency weighted by load.
+     */
+    public static class Factory implements LoadBalancerFactory {
+        @Override
+        public LoadBalancer create(Environment environment, Configuration strategyConfiguration, ActiveOrigins activeOrigins) {
+            return new PeakEwmaStrategy(activeOrigins);
+        }
+    }
+
+    @Override
+    protected RemoteHost betterOf(RemoteHost host1, RemoteHost host2) {
+        return cost(host1.metric()) < cost(host2.metric()) ? host1 : host2;
+    }
+
+    @VisibleForTesting
+    static double cost(LoadBalancingMetric metric) {
+        long latency = metric.latencyEwmaNanos();
+        int ongoing = metric.ongoingConnections();
+
+        if (latency == 0 && ongoing != 0) {
+            return PENALTY + ongoing;
+        }
+        return (double) latency * (ongoing + 1);
+    }
+}
@@ -24,10 +24,12 @@ import com.hotels.styx.api.extension.loadbalancing.spi.LoadBalancer;
 import com.hotels.styx.api.extension.loadbalancing.spi.LoadBalancerFactory;
 import com.hotels.styx.api.configuration.Configuration;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Random;
+import java.util.RandomAccess;
 
-import static com.google.common.collect.Iterables.toArray;
+import static com.google.common.collect.Lists.newArrayList;
 import static java.util.Objects.requireNonNull;
 
 
@@ -61,26 +63,35 @@ public class PowerOfTwoStrategy implements LoadBalancer {
 
     @Override
     public Optional<RemoteHost> choose(LoadBalancer.Preferences preferences) {
-        RemoteHost[] hosts = toArray(activeOrigins.snapshot(), RemoteHost.class);
+        List<RemoteHost> hosts = asList(activeOrigins.snapshot());
 
-        if (hosts.length == 0) {
+        if (hosts.isEmpty()) {
             return Optional.empty();
-        } else if (hosts.length == 1) {
-            return Optional.of(hosts[0]);
+        } else if (hosts.size() == 1) {
+            return Optional.of(hosts.get(0));
         } else {
-            int i1 = rng.nextInt(hosts.length);
-            int i2 = drawFromRemaining(hosts.length, i1);
+            int i1 = rng.nextInt(hosts.size());
+            int i2 = drawFromRemaining(hosts.size(), i1);
 
-            return Optional.of(betterOf(hosts[i1], hosts[i2]));
+            return Optional.of(betterOf(hosts.get(i1), hosts.get(i2)));
         }
     }
 
+    // The origins inventory publishes its active hosts as an immutable random access list,
+    // which is read in place. Any other snapshot is copied.
+    private static List<RemoteHost> asList(Iterable<RemoteHost> snapshot) {
+        if (snapshot instanceof List && snapshot instanceof RandomAccess) {
+            return (List<RemoteHost>) snapshot;
+        }
+        return newArrayList(snapshot);
+    }
+
     private int drawFromRemaining(int bound, int otherIndex) {
         int i = rng.nextInt(bound - 1);
         return (i < otherIndex) ? i : i + 1;
     }
 
-    private RemoteHost betterOf(RemoteHost host1, RemoteHost host2) {
+    protected RemoteHost betterOf(RemoteHost host1, RemoteHost host2) {
         return host1.metric().ongoingConnections() < host2.metric().ongoingConnections() ? host1 : host2;
     }
 
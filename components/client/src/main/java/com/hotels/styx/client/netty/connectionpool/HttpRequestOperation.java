@@ -32,7 +32,9 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelPipeline;
+import io.netty.channel.EventLoop;
 import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
 import io.netty.handler.codec.http.DefaultHttpRequest;
 import io.netty.handler.codec.http.HttpObject;
 import io.netty.handler.timeout.IdleStateHandler;
@@ -41,12 +43,11 @@ import reactor.core.publisher.BaseSubscriber;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxSink;
 
-import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static com.hotels.styx.api.Headers.toNettyHeaders;
 import static com.hotels.styx.api.HttpHeaderNames.HOST;
 import static io.netty.handler.codec.http.LastHttpContent.EMPTY_LAST_CONTENT;
 import static java.lang.String.format;
@@ -64,10 +65,7 @@ public class HttpRequestOperation {
     private final LiveHttpRequest request;
     private final Optional<OriginStatsFactory> originStatsFactory;
     private final int responseTimeoutMillis;
-    private final AtomicInteger terminationCount = new AtomicInteger(0);
-    private final AtomicInteger executeCount = new AtomicInteger(0);
     private final boolean requestLoggingEnabled;
-    private volatile long requestTime;
     private final HttpRequestMessageLogger httpRequestMessageLogger;
 
     /**
@@ -88,15 +86,15 @@ public class HttpRequestOperation {
 
     @VisibleForTesting
     static DefaultHttpRequest toNettyRequest(LiveHttpRequest request) {
+        return toNettyRequest(request, toNettyHeaders(request.headers()));
+    }
+
+    // The headers are shared with the Styx request as-is. Neither Styx nor the HTTP encoder modifies them.
+    private static DefaultHttpRequest toNettyRequest(LiveHttpRequest request, io.netty.handler.codec.http.HttpHeaders headers) {
         HttpVersion version = request.version();
         HttpMethod method = request.method();
         String url = request.url().toString();
-        DefaultHttpRequest nettyRequest = new DefaultHttpRequest(toNettyVersion(version), toNettyMethod(method), url, true);
-
-        request.headers().forEach((name, value) ->
-                nettyRequest.headers().add(name, value));
-
-        return nettyRequest;
+        return new DefaultHttpRequest(toNettyVersion(version), toNettyMethod(method), url, headers);
     }
 
     private static io.netty.handler.codec.http.HttpMethod toNettyMethod(HttpMethod method) {
@@ -115,14 +113,14 @@ public class HttpRequestOperation {
 
     public Flux<LiveHttpResponse> execute(NettyConnection nettyConnection) {
         AtomicReference<RequestBodyChunkSubscriber> requestRequestBodyChunkSubscriber = new AtomicReference<>();
-        requestTime = System.currentTimeMillis();
-        executeCount.incrementAndGet();
+        AtomicReference<FluxSink<LiveHttpResponse>> responseSink = new AtomicReference<>();
 
         Flux<LiveHttpResponse> responseFlux = Flux.create(sink -> {
             if (nettyConnection.isConnected()) {
                 RequestBodyChunkSubscriber bodyChunkSubscriber = new RequestBodyChunkSubscriber(request, nettyConnection);
                 requestRequestBodyChunkSubscriber.set(bodyChunkSubscriber);
-                addProxyBridgeHandlers(nettyConnection, sink);
+                responseSink.set(sink);
+                armProxyBridgeHandlers(nettyConnection, sink);
                 new WriteRequestToOrigin(sink, nettyConnection, request, bodyChunkSubscriber)
                         .write();
                 if (requestLoggingEnabled) {
@@ -142,7 +140,7 @@ public class HttpRequestOperation {
         return responseFlux.map(response ->
                         Requests.doFinally(response, cause -> {
                             if (nettyConnection.isConnected()) {
-                                removeProxyBridgeHandlers(nettyConnection);
+                                disarmProxyBridgeHandlers(nettyConnection, responseSink.get());
                                 if (requestIsOngoing(requestRequestBodyChunkSubscriber.get())) {
                                     LOGGER.warn("Origin responded too quickly to an ongoing request, or it was cancelled. Connection={}, Request={}.",
                                             new Object[]{nettyConnection.channel(), this.request});
@@ -153,33 +151,59 @@ public class HttpRequestOperation {
                         }));
     }
 
-    private void addProxyBridgeHandlers(NettyConnection nettyConnection, FluxSink<LiveHttpResponse> sink) {
-        Origin origin = nettyConnection.getOrigin();
+    private void armProxyBridgeHandlers(NettyConnection nettyConnection, FluxSink<LiveHttpResponse> sink) {
         Channel channel = nettyConnection.channel();
-        channel.pipeline().addLast(IDLE_HANDLER_NAME, new IdleStateHandler(0, 0, responseTimeoutMillis, MILLISECONDS));
+        NettyToStyxResponsePropagator propagator = (NettyToStyxResponsePropagator) channel.pipeline().get(NettyToStyxResponsePropagator.NAME);
+
+        if (propagator == null || propagator.idleTimeoutMillis() != responseTimeoutMillis) {
+            propagator = installProxyBridgeHandlers(nettyConnection);
+        }
+
+        // Arming is queued on the event loop ahead of the request write, so that the
+        // propagator is always armed by the time a response arrives.
+        NettyToStyxResponsePropagator armedPropagator = propagator;
+        runInEventLoop(channel, () -> armedPropagator.arm(sink, request));
+    }
+
+    private NettyToStyxResponsePropagator installProxyBridgeHandlers(NettyConnection nettyConnection) {
+        Origin origin = nettyConnection.getOrigin();
+        ChannelPipeline pipeline = nettyConnection.channel().pipeline();
+
+        removeIfPresent(pipeline, IDLE_HANDLER_NAME);
+        removeIfPresent(pipeline, RequestsToOriginMetricsCollector.NAME);
+        removeIfPresent(pipeline, NettyToStyxResponsePropagator.NAME);
+
+        pipeline.addLast(IDLE_HANDLER_NAME, new IdleStateHandler(0, 0, responseTimeoutMillis, MILLISECONDS));
         originStatsFactory.ifPresent(
-                originStatsFactory -> channel.pipeline()
+                originStatsFactory -> pipeline
                         .addLast(RequestsToOriginMetricsCollector.NAME,
                                 new RequestsToOriginMetricsCollector(originStatsFactory.originStats(origin))));
-        channel.pipeline().addLast(
-                NettyToStyxResponsePropagator.NAME,
-                new NettyToStyxResponsePropagator(sink, origin, responseTimeoutMillis, MILLISECONDS, request));
+        NettyToStyxResponsePropagator propagator = new NettyToStyxResponsePropagator(origin, responseTimeoutMillis, MILLISECONDS);
+        pipeline.addLast(NettyToStyxResponsePropagator.NAME, propagator);
+        return propagator;
+    }
+
+    private static void removeIfPresent(ChannelPipeline pipeline, String name) {
+        if (pipeline.get(name) != null) {
+            pipeline.remove(name);
+        }
     }
 
-    private void removeProxyBridgeHandlers(NettyConnection connection) {
-        ChannelPipeline pipeline = connection.channel().pipeline();
-        terminationCount.incrementAndGet();
+    private static void disarmProxyBridgeHandlers(NettyConnection connection, FluxSink<LiveHttpResponse> sink) {
+        Channel channel = connection.channel();
+        NettyToStyxResponsePropagator propagator = (NettyToStyxResponsePropagator) channel.pipeline().get(NettyToStyxResponsePropagator.NAME);
 
-        try {
-            pipeline.remove(IDLE_HANDLER_NAME);
-            if (originStatsFactory.isPresent()) {
-                pipeline.remove(RequestsToOriginMetricsCollector.NAME);
-            }
-            pipeline.remove(NettyToStyxResponsePropagator.NAME);
-        } catch (NoSuchElementException cause) {
-            long elapsedTime = System.currentTimeMillis() - requestTime;
-            LOGGER.error("Failed to remove pipeline handlers from pooled connection. elapsedTime={}, request={}, terminationCount={}, executionCount={}, cause={}",
-                    new Object[]{elapsedTime, request, terminationCount.get(), executeCount.get(), cause});
+        if (propagator != null && sink != null) {
+            runInEventLoop(channel, () -> propagator.disarm(sink));
+        }
+    }
+
+    private static void runInEventLoop(Channel channel, Runnable task) {
+        EventLoop eventLoop = channel.eventLoop();
+        if (eventLoop.inEventLoop()) {
+            task.run();
+        } else {
+            eventLoop.execute(task);
         }
     }
 
@@ -253,12 +277,14 @@ public class HttpRequestOperation {
         }
 
         private io.netty.handler.codec.http.HttpRequest makeRequest(LiveHttpRequest request) {
-            DefaultHttpRequest nettyRequest = toNettyRequest(request);
-            Optional<String> host = request.header(HOST);
-            if (!host.isPresent()) {
-                nettyRequest.headers().set(HOST, nettyConnection.getOrigin().hostAndPortString());
+            io.netty.handler.codec.http.HttpHeaders headers = toNettyHeaders(request.headers());
+            if (!headers.contains(HOST)) {
+                // Copy, so that the Styx request headers remain unchanged:
+                headers = new DefaultHttpHeaders(false)
+                        .set(headers)
+                        .set(HOST, nettyConnection.getOrigin().hostAndPortString());
             }
-            return nettyRequest;
+            return toNettyRequest(request, headers);
         }
     }
 
@@ -32,6 +32,7 @@ import io.netty.util.AttributeKey;
 import reactor.core.publisher.Flux;
 
 import java.util.Optional;
+import java.util.concurrent.Executor;
 
 import static java.util.Objects.requireNonNull;
 
@@ -111,6 +112,11 @@ public class NettyConnection implements Connection {
         return this.origin;
     }
 
+    @Override
+    public Executor executor() {
+        return channel.eventLoop();
+    }
+
     @Override
     public void addConnectionListener(Listener listener) {
         this.listeners.addListener(listener);
@@ -30,10 +30,12 @@ import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoop;
 import io.netty.handler.ssl.SslContext;
 import reactor.core.publisher.Mono;
 
 import java.util.Optional;
+import java.util.concurrent.Executor;
 
 import static com.hotels.styx.client.HttpConfig.defaultHttpConfig;
 import static com.hotels.styx.client.HttpRequestOperationFactory.Builder.httpRequestOperationFactoryBuilder;
@@ -70,9 +72,28 @@ public class NettyConnectionFactory implements Connection.Factory {
         return createConnection(origin, connectionSettings, sslContext);
     }
 
+    /**
+     * Creates a connection whose channel is registered with the given executor, provided that it is
+     * a netty event loop. Otherwise the channel is registered with an event loop from this factory's
+     * own executor.
+     *
+     * @param origin             origin to connect to
+     * @param connectionSettings connection settings
+     * @param executor           preferred executor
+     * @return the newly created connection
+     */
+    @Override
+    public Mono<Connection> createConnection(Origin origin, ConnectionSettings connectionSettings, Executor executor) {
+        return createConnection(origin, connectionSettings, sslContext, executor);
+    }
+
     public Mono<Connection> createConnection(Origin origin, ConnectionSettings connectionSettings, SslContext sslContext) {
+        return createConnection(origin, connectionSettings, sslContext, null);
+    }
+
+    private Mono<Connection> createConnection(Origin origin, ConnectionSettings connectionSettings, SslContext sslContext, Executor executor) {
         return Mono.create(sink -> {
-            ChannelFuture channelFuture = openConnection(origin, connectionSettings);
+            ChannelFuture channelFuture = openConnection(origin, connectionSettings, executor);
 
             channelFuture.addListener(future -> {
                 if (future.isSuccess()) {
@@ -85,8 +106,11 @@ public class NettyConnectionFactory implements Connection.Factory {
         });
     }
 
-    private ChannelFuture openConnection(Origin origin, ConnectionSettings connectionSettings) {
+    private ChannelFuture openConnection(Origin origin, ConnectionSettings connectionSettings, Executor executor) {
         bootstrap(connectionSettings);
+        if (executor instanceof EventLoop) {
+            return bootstrap.clone((EventLoop) executor).connect(origin.host(), origin.port());
+        }
         return bootstrap.connect(origin.host(), origin.port());
     }
 
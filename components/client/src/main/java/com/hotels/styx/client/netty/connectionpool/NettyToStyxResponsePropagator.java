@@ -40,7 +40,6 @@ import org.reactivestreams.Subscriber;
 import org.slf4j.Logger;
 import reactor.core.publisher.FluxSink;
 
-import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -54,23 +53,20 @@ import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * A netty channel handler that reads from a channel and pass the message to a {@link Subscriber}.
+ *
+ * The handler is installed once per origin connection, and it is armed with a response sink for
+ * each request sent over the connection. While disarmed, i.e. when the connection sits idle in a
+ * connection pool, the channel events are passed on to the next handler.
  */
 final class NettyToStyxResponsePropagator extends SimpleChannelInboundHandler {
     public static final String NAME = NettyToStyxResponsePropagator.class.getSimpleName();
     private static final Logger LOGGER = getLogger(NettyToStyxResponsePropagator.class);
 
-    private final AtomicBoolean responseCompleted = new AtomicBoolean(false);
-    private final AtomicBoolean responseReceived = new AtomicBoolean(false);
-    private final FluxSink<LiveHttpResponse> sink;
-    private final LiveHttpRequest request;
-
     private final Origin origin;
     private final Long idleTimeoutMillis;
-    private Optional<FlowControllingHttpContentProducer> contentProducer = Optional.empty();
 
-    // `toBeClosed` doesn't have to be volatile because all Netty events are guaranteed
-    // to be delivered from the same thread.
-    private boolean toBeClosed;
+    // Only accessed from the channel event loop, apart from `isArmedFor` checks.
+    private volatile Exchange exchange;
 
     NettyToStyxResponsePropagator(FluxSink<LiveHttpResponse> sink, Origin origin) {
         this(sink, origin, 5L, TimeUnit.SECONDS, null);
@@ -81,15 +77,53 @@ final class NettyToStyxResponsePropagator extends SimpleChannelInboundHandler {
                                   long idleTimeout,
                                   TimeUnit timeUnit,
                                   LiveHttpRequest request) {
-        this.sink = sink;
+        this(origin, idleTimeout, timeUnit);
+        arm(sink, request);
+    }
+
+    NettyToStyxResponsePropagator(Origin origin, long idleTimeout, TimeUnit timeUnit) {
         this.origin = origin;
         this.idleTimeoutMillis = timeUnit.toMillis(idleTimeout);
-        this.request = request;
+    }
+
+    /**
+     * Starts propagating channel events to a new response sink.
+     *
+     * @param sink    response sink
+     * @param request request that was sent to the origin
+     */
+    void arm(FluxSink<LiveHttpResponse> sink, LiveHttpRequest request) {
+        this.exchange = new Exchange(sink, request);
+    }
+
+    /**
+     * Stops propagating channel events, provided that the handler is still armed for the given sink.
+     *
+     * @param sink response sink
+     */
+    void disarm(FluxSink<LiveHttpResponse> sink) {
+        if (isArmedFor(sink)) {
+            this.exchange = null;
+        }
+    }
+
+    boolean isArmedFor(FluxSink<LiveHttpResponse> sink) {
+        Exchange current = this.exchange;
+        return current != null && current.sink == sink;
+    }
+
+    long idleTimeoutMillis() {
+        return idleTimeoutMillis;
     }
 
     @Override
     public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
-        getContentProducer(ctx).channelException(toStyxException(cause));
+        Exchange current = this.exchange;
+        if (current == null) {
+            ctx.fireExceptionCaught(cause);
+            return;
+        }
+        current.contentProducer(ctx).channelException(toStyxException(cause));
     }
 
     private RuntimeException toStyxException(Throwable cause) {
@@ -101,25 +135,36 @@ final class NettyToStyxResponsePropagator extends SimpleChannelInboundHandler {
 
     @Override
     public void channelInactive(ChannelHandlerContext ctx) {
+        Exchange current = this.exchange;
+        if (current == null) {
+            ctx.fireChannelInactive();
+            return;
+        }
         TransportLostException cause = new TransportLostException(ctx.channel().remoteAddress(), origin);
-        getContentProducer(ctx).channelInactive(cause);
+        current.contentProducer(ctx).channelInactive(cause);
     }
 
     @Override
     protected void channelRead0(ChannelHandlerContext ctx, Object msg) throws Exception {
-        FlowControllingHttpContentProducer producer = getContentProducer(ctx);
+        Exchange current = this.exchange;
+        if (current == null) {
+            LOGGER.debug("Discarded message received on an idle connection. origin={}, message={}", origin, msg);
+            return;
+        }
+
+        FlowControllingHttpContentProducer producer = current.contentProducer(ctx);
 
         if (msg instanceof io.netty.handler.codec.http.HttpResponse) {
             io.netty.handler.codec.http.HttpResponse nettyResponse = (io.netty.handler.codec.http.HttpResponse) msg;
 
-            if (!responseReceived.compareAndSet(false, true)) {
+            if (!current.responseReceived.compareAndSet(false, true)) {
                 LOGGER.warn("Unexpected additional response received: " + nettyResponse);
                 ctx.channel().close();
                 return;
             }
 
             if (nettyResponse.getDecoderResult().isFailure()) {
-                emitResponseError(new BadHttpResponseException(origin, nettyResponse.getDecoderResult().cause()));
+                current.emitResponseError(new BadHttpResponseException(origin, nettyResponse.getDecoderResult().cause()));
                 return;
             }
 
@@ -132,11 +177,11 @@ final class NettyToStyxResponsePropagator extends SimpleChannelInboundHandler {
             Publisher<Buffer> contentPublisher = new NettyByteStream(eventLoop, producer);
 
             if ("close".equalsIgnoreCase(nettyResponse.headers().get(CONNECTION))) {
-                toBeClosed = true;
+                current.toBeClosed = true;
             }
 
             LiveHttpResponse response = toStyxResponse(nettyResponse, contentPublisher, origin);
-            this.sink.next(response);
+            current.sink.next(response);
         }
         if (msg instanceof HttpContent) {
             ByteBuf content = ((ByteBufHolder) msg).content();
@@ -147,7 +192,7 @@ final class NettyToStyxResponsePropagator extends SimpleChannelInboundHandler {
                 // Note: Netty may send a LastHttpContent as a response to TCP connection close.
                 // In this case channelReadComplete event will _not_ follow the LastHttpContent.
                 producer.lastHttpContent();
-                if (toBeClosed) {
+                if (current.toBeClosed) {
                     ctx.channel().close();
                 }
             }
@@ -157,7 +202,12 @@ final class NettyToStyxResponsePropagator extends SimpleChannelInboundHandler {
     @Override
     public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
         if (evt instanceof IdleStateEvent) {
-            FlowControllingHttpContentProducer producer = getContentProducer(ctx);
+            Exchange current = this.exchange;
+            if (current == null) {
+                // The connection is idle in a pool. Response timeouts do not apply.
+                return;
+            }
+            FlowControllingHttpContentProducer producer = current.contentProducer(ctx);
             producer.tearDownResources(
                 new ResponseTimeoutException(
                     origin,
@@ -173,38 +223,58 @@ final class NettyToStyxResponsePropagator extends SimpleChannelInboundHandler {
         }
     }
 
-    private FlowControllingHttpContentProducer getContentProducer(ChannelHandlerContext ctx) {
-        if (!this.contentProducer.isPresent()) {
-            this.contentProducer = Optional.of(createProducer(ctx, request));
+    /**
+     * State of a single request/response exchange over the connection.
+     */
+    private final class Exchange {
+        private final AtomicBoolean responseCompleted = new AtomicBoolean(false);
+        private final AtomicBoolean responseReceived = new AtomicBoolean(false);
+        private final FluxSink<LiveHttpResponse> sink;
+        private final LiveHttpRequest request;
+        private FlowControllingHttpContentProducer contentProducer;
+
+        // `toBeClosed` doesn't have to be volatile because all Netty events are guaranteed
+        // to be delivered from the same thread.
+        private boolean toBeClosed;
+
+        private Exchange(FluxSink<LiveHttpResponse> sink, LiveHttpRequest request) {
+            this.sink = sink;
+            this.request = request;
         }
-        return this.contentProducer.get();
-    }
 
-    private FlowControllingHttpContentProducer createProducer(ChannelHandlerContext ctx, LiveHttpRequest request) {
-        String requestPrefix = request != null ? format("Request(method=%s, url=%s, id=%s)", request.method(), request.url(), request.id()) : "Request NA";
-        String loggingPrefix = format("Response body. [local: %s, remote: %s]", ctx.channel().localAddress(), ctx.channel().remoteAddress());
-
-        return new FlowControllingHttpContentProducer(
-                () -> ctx.channel().read(),
-                () -> {
-                    ctx.channel().config().setAutoRead(true);
-                    emitResponseCompleted();
-                },
-                this::emitResponseError,
-                format("%s, %s", loggingPrefix, requestPrefix),
-                idleTimeoutMillis,
-                ctx.channel().eventLoop());
-    }
+        private FlowControllingHttpContentProducer contentProducer(ChannelHandlerContext ctx) {
+            if (contentProducer == null) {
+                contentProducer = createProducer(ctx);
+            }
+            return contentProducer;
+        }
 
-    private void emitResponseCompleted() {
-        if (responseCompleted.compareAndSet(false, true)) {
-            sink.complete();
+        private FlowControllingHttpContentProducer createProducer(ChannelHandlerContext ctx) {
+            String requestPrefix = request != null ? format("Request(method=%s, url=%s, id=%s)", request.method(), request.url(), request.id()) : "Request NA";
+            String loggingPrefix = format("Response body. [local: %s, remote: %s]", ctx.channel().localAddress(), ctx.channel().remoteAddress());
+
+            return new FlowControllingHttpContentProducer(
+                    () -> ctx.channel().read(),
+                    () -> {
+                        ctx.channel().config().setAutoRead(true);
+                        emitResponseCompleted();
+                    },
+                    this::emitResponseError,
+                    format("%s, %s", loggingPrefix, requestPrefix),
+                    idleTimeoutMillis,
+                    ctx.channel().eventLoop());
+        }
+
+        private void emitResponseCompleted() {
+            if (responseCompleted.compareAndSet(false, true)) {
+                sink.complete();
+            }
         }
-    }
 
-    private void emitResponseError(Throwable cause) {
-        if (responseCompleted.compareAndSet(false, true)) {
-            this.sink.error(cause);
+        private void emitResponseError(Throwable cause) {
+            if (responseCompleted.compareAndSet(false, true)) {
+                this.sink.error(cause);
+            }
         }
     }
 
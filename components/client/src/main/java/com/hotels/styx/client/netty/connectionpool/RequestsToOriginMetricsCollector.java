@@ -31,6 +31,9 @@ import static java.util.Objects.requireNonNull;
 
 /**
  * A netty channel handler that collects statistics on outbound requests.
+ *
+ * The handler stays in the pipeline for the lifetime of the origin connection. Its timings
+ * are restarted by each outbound request, and cleared once they have been recorded.
  */
 class RequestsToOriginMetricsCollector extends ChannelDuplexHandler {
     public static final String NAME = "outbound-request-stats-handler";
@@ -103,8 +106,13 @@ class RequestsToOriginMetricsCollector extends ChannelDuplexHandler {
 
     @Override
     public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
-        stopAndRecordLatency();
-        stopAndRecordTimeToFirstByte();
+        // Timings are absent when the connection is idle, or the response was already received.
+        if (requestLatencyTiming != null) {
+            stopAndRecordLatency();
+        }
+        if (timeToFirstByteTiming != null) {
+            stopAndRecordTimeToFirstByte();
+        }
         super.exceptionCaught(ctx, cause);
     }
 
@@ -114,6 +122,7 @@ class RequestsToOriginMetricsCollector extends ChannelDuplexHandler {
         // just because it doesn't record metrics
         if (requestLatencyTiming != null) {
             requestLatencyTiming.stop(originStats.requestLatencyTimer());
+            requestLatencyTiming = null;
         } else {
             LOG.warn("Attempted to stop timer and record latency when no timing had begun");
         }
@@ -122,6 +131,7 @@ class RequestsToOriginMetricsCollector extends ChannelDuplexHandler {
     private void stopAndRecordTimeToFirstByte() {
         if (timeToFirstByteTiming != null) {
             timeToFirstByteTiming.stop(originStats.timeToFirstByteTimer());
+            timeToFirstByteTiming = null;
         } else {
             LOG.warn("Attempted to stop timer and record time-to-first-byte when no timing had begun");
         }
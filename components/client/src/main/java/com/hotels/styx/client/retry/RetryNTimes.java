@@ -18,22 +18,51 @@ package com.hotels.styx.client.retry;
 import com.hotels.styx.api.exceptions.IsRetryableException;
 import com.hotels.styx.api.extension.RemoteHost;
 import com.hotels.styx.api.extension.loadbalancing.spi.LoadBalancer;
+import com.hotels.styx.api.extension.retrypolicy.spi.RetryBudget;
 import com.hotels.styx.api.extension.retrypolicy.spi.RetryPolicy;
+import io.micrometer.core.instrument.MeterRegistry;
 
 import java.util.Optional;
 
 import static com.google.common.collect.Sets.newHashSet;
+import static com.hotels.styx.api.Metrics.APPID_TAG;
+import static java.util.Objects.requireNonNull;
 
 /**
  * A {@link RetryPolicy} that tries a configurable <code>maxAttempts</code>.
+ *
+ * Optionally, the retries can be limited by a {@link RetryBudget}. A retry that would exceed the budget
+ * is not made, and it is counted in the <code>retries.budget.exhausted</code> metric.
  */
 public class RetryNTimes extends AbstractRetryPolicy {
+    static final String BUDGET_EXHAUSTED_COUNTER_NAME = "retries.budget.exhausted";
+
+    private final RetryBudget retryBudget;
+    private final MeterRegistry meterRegistry;
+
     public RetryNTimes(int maxAttempts) {
         super(0, maxAttempts);
+        this.retryBudget = null;
+        this.meterRegistry = null;
+    }
+
+    public RetryNTimes(int maxAttempts, RetryBudget retryBudget, MeterRegistry meterRegistry) {
+        super(0, maxAttempts);
+        this.retryBudget = requireNonNull(retryBudget);
+        this.meterRegistry = requireNonNull(meterRegistry);
+    }
+
+    @Override
+    public void requestSent() {
+        if (retryBudget != null) {
+            retryBudget.deposit();
+        }
     }
 
     @Override
     public RetryPolicy.Outcome evaluate(Context context, LoadBalancer loadBalancingStrategy, LoadBalancer.Preferences lbContext) {
+        boolean shouldRetry = isRetryable(context) && withinBudget(context);
+
         return new RetryPolicy.Outcome() {
             @Override
             public long retryIntervalMillis() {
@@ -48,23 +77,37 @@ public class RetryNTimes extends AbstractRetryPolicy {
 
             @Override
             public boolean shouldRetry() {
-                boolean belowMaxRetryAttempts = context.currentRetryCount() < maxAttempts();
-                Optional<Throwable> lastException = context.lastException();
-                return belowMaxRetryAttempts && lastException.isPresent() && lastException.get() instanceof IsRetryableException;
+                return shouldRetry;
             }
 
         };
     }
 
+    private boolean isRetryable(Context context) {
+        boolean belowMaxRetryAttempts = context.currentRetryCount() < maxAttempts();
+        Optional<Throwable> lastException = context.lastException();
+        return belowMaxRetryAttempts && lastException.isPresent() && lastException.get() instanceof IsRetryableException;
+    }
+
+    private boolean withinBudget(Context context) {
+        if (retryBudget == null || retryBudget.tryWithdraw()) {
+            return true;
+        }
+        meterRegistry.counter(BUDGET_EXHAUSTED_COUNTER_NAME, APPID_TAG, String.valueOf(context.appId())).increment();
+        return false;
+    }
+
     @Override
     public String toString() {
-        return new StringBuilder(64)
+        StringBuilder sb = new StringBuilder(160)
                 .append(this.getClass().getSimpleName())
                 .append("{delay=")
                 .append(deltaBackoffMillis())
                 .append(", maxAttempts=")
-                .append(maxAttempts())
-                .append('}')
-                .toString();
+                .append(maxAttempts());
+        if (retryBudget != null) {
+            sb.append(", retryBudget=").append(retryBudget);
+        }
+        return sb.append('}').toString();
     }
 }
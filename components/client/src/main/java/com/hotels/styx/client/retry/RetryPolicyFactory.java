@@ -16,17 +16,35 @@
 package com.hotels.styx.client.retry;
 
 import com.hotels.styx.api.Environment;
+import com.hotels.styx.api.extension.retrypolicy.spi.RetryBudget;
 import com.hotels.styx.api.extension.retrypolicy.spi.RetryPolicy;
 import com.hotels.styx.api.configuration.Configuration;
 
 /**
  * Factory for creating retry policy based on configuration settings.
+ *
+ * A retry budget is applied when <code>budget.ratio</code> is configured.
  */
 public final class RetryPolicyFactory implements com.hotels.styx.api.extension.retrypolicy.spi.RetryPolicyFactory {
+    private static final int DEFAULT_MIN_RETRIES_PER_SECOND = 10;
+    private static final int DEFAULT_MAX_BURST = 100;
+
     @Override
     public RetryPolicy create(Environment environment, Configuration retryPolicyConfiguration) {
         int retriesCount = retryPolicyConfiguration.get("count", Integer.class)
                 .orElse(1);
-        return new RetryNTimes(retriesCount);
+
+        return retryPolicyConfiguration.get("budget.ratio", Double.class)
+                .<RetryPolicy>map(ratio -> new RetryNTimes(retriesCount, retryBudget(ratio, retryPolicyConfiguration), environment.meterRegistry()))
+                .orElseGet(() -> new RetryNTimes(retriesCount));
+    }
+
+    private static RetryBudget retryBudget(double ratio, Configuration configuration) {
+        int minRetriesPerSecond = configuration.get("budget.minRetriesPerSecond", Integer.class)
+                .orElse(DEFAULT_MIN_RETRIES_PER_SECOND);
+        int maxBurst = configuration.get("budget.maxBurst", Integer.class)
+                .orElse(DEFAULT_MAX_BURST);
+
+        return new TokenBucketRetryBudget(ratio, minRetriesPerSecond, maxBurst);
     }
 }
@@ -0,0 +1,143 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.client.retry;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.hotels.styx.api.extension.retrypolicy.spi.RetryBudget;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * A {@link RetryBudget} backed by a token bucket.
+ *
+ * Each request deposits <code>ratio</code> tokens, and each retry withdraws one token. In addition,
+ * the bucket is refilled at <code>minRetriesPerSecond</code>, so that a lightly loaded backend
+ * service can still retry. The balance never exceeds <code>maxBurst</code> tokens, which bounds the
+ * number of retries that can be made in a burst after a quiet period.
+ *
+ * The balance is kept in fixed point units in an atomic long, and it is updated with compare-and-set
+ * loops, so neither deposits nor withdrawals take a lock.
+ */
+public class TokenBucketRetryBudget implements RetryBudget {
+    private static final long UNITS_PER_TOKEN = 1000;
+    private static final long NANOS_PER_SECOND = SECONDS.toNanos(1);
+    private static final long REFILL_INTERVAL_NANOS = MILLISECONDS.toNanos(1);
+
+    private final double ratio;
+    private final int minRetriesPerSecond;
+    private final int maxBurst;
+
+    private final long depositUnits;
+    private final long capacityUnits;
+    private final LongSupplier nanoClock;
+    private final AtomicLong balance;
+    private final AtomicLong lastRefillNanos;
+
+    /**
+     * Creates a retry budget.
+     *
+     * @param ratio               retry tokens earned by each request
+     * @param minRetriesPerSecond retry tokens earned each second regardless of traffic
+     * @param maxBurst            maximum number of retry tokens held in the bucket
+     */
+    public TokenBucketRetryBudget(double ratio, int minRetriesPerSecond, int maxBurst) {
+        this(ratio, minRetriesPerSecond, maxBurst, System::nanoTime);
+    }
+
+    @VisibleForTesting
+    TokenBucketRetryBudget(double ratio, int minRetriesPerSecond, int maxBurst, LongSupplier nanoClock) {
+        checkArgument(ratio >= 0 && ratio <= 1, "ratio must be between 0 and 1. ratio=%s", ratio);
+        checkArgument(minRetriesPerSecond >= 0, "minRetriesPerSecond must not be negative. minRetriesPerSecond=%s", minRetriesPerSecond);
+        checkArgument(maxBurst >= 1, "maxBurst must be at least 1. maxBurst=%s", maxBurst);
+
+        this.ratio = ratio;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        this.maxBurst = maxBurst;
+        this.depositUnits = Math.round(ratio * UNITS_PER_TOKEN);
+        this.capacityUnits = maxBurst * UNITS_PER_TOKEN;
+        this.nanoClock = nanoClock;
+        this.balance = new AtomicLong(Math.min(capacityUnits, minRetriesPerSecond * UNITS_PER_TOKEN));
+        this.lastRefillNanos = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    @Override
+    public void deposit() {
+        add(depositUnits);
+    }
+
+    @Override
+    public boolean tryWithdraw() {
+        refill();
+
+        long current = balance.get();
+        while (current >= UNITS_PER_TOKEN) {
+            if (balance.compareAndSet(current, current - UNITS_PER_TOKEN)) {
+                return true;
+            }
+            current = balance.get();
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of retries currently available.
+     *
+     * @return available retries
+     */
+    public int balance() {
+        return (int) (balance.get() / UNITS_PER_TOKEN);
+    }
+
+    private void refill() {
+        if (minRetriesPerSecond == 0) {
+            return;
+        }
+
+        long now = nanoClock.getAsLong();
+        long last = lastRefillNanos.get();
+        long elapsed = now - last;
+
+        // Only the thread that advances the refill timestamp credits the elapsed time.
+        if (elapsed >= REFILL_INTERVAL_NANOS && lastRefillNanos.compareAndSet(last, now)) {
+            add((long) ((double) elapsed / NANOS_PER_SECOND * minRetriesPerSecond * UNITS_PER_TOKEN));
+        }
+    }
+
+    private void add(long units) {
+        if (units > 0) {
+            balance.accumulateAndGet(units, (current, delta) -> Math.min(capacityUnits, current + delta));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder(96)
+                .append(this.getClass().getSimpleName())
+                .append("{ratio=")
+                .append(ratio)
+                .append(", minRetriesPerSecond=")
+                .append(minRetriesPerSecond)
+                .append(", maxBurst=")
+                .append(maxBurst)
+                .append('}')
+                .toString();
+    }
+}
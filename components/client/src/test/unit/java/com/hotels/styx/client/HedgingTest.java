@@ -0,0 +1,121 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.client;
+
+import com.hotels.styx.api.Buffer;
+import com.hotels.styx.api.ByteStream;
+import com.hotels.styx.api.LiveHttpResponse;
+import com.hotels.styx.api.extension.service.HedgingConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hotels.styx.api.HttpResponseStatus.OK;
+import static com.hotels.styx.api.Id.id;
+import static com.hotels.styx.api.LiveHttpResponse.response;
+import static com.hotels.styx.api.extension.service.HedgingConfig.newHedgingConfigBuilder;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+public class HedgingTest {
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    public void usesPercentileOfOriginalAttemptLatencies() {
+        Hedging hedging = hedging(newHedgingConfigBuilder().enabled(true).delay(0, MILLISECONDS).percentile(50));
+
+        hedging.timeOriginalAttempt(respondAfter(300)).blockLast();
+
+        assertThat(hedging.delayMillis(), is(allOf(greaterThanOrEqualTo(300L), lessThan(310L))));
+    }
+
+    @Test
+    public void recordsLatencyOfOriginalAttemptThatLostToHedge() {
+        Hedging hedging = hedging(newHedgingConfigBuilder().enabled(true).delay(0, MILLISECONDS).percentile(50));
+
+        Flux.first(hedging.timeOriginalAttempt(Flux.never()), respondAfter(500)).blockLast();
+
+        assertThat(hedging.delayMillis(), is(allOf(greaterThanOrEqualTo(500L), lessThan(510L))));
+    }
+
+    @Test
+    public void usesFixedDelayAsLowerBound() {
+        Hedging hedging = hedging(newHedgingConfigBuilder().enabled(true).delay(100, MILLISECONDS).percentile(50));
+
+        hedging.timeOriginalAttempt(respondAfter(20)).blockLast();
+
+        assertThat(hedging.delayMillis(), is(100L));
+    }
+
+    @Test
+    public void consumesResponseThatArrivesAfterTheFirstOne() {
+        Hedging.Attempts attempts = new Hedging.Attempts();
+        AtomicBoolean consumed = new AtomicBoolean();
+        LiveHttpResponse late = response(OK)
+                .body(new ByteStream(Flux.<Buffer>empty().doOnSubscribe(subscription -> consumed.set(true))))
+                .build();
+
+        assertThat(attempts.original(Flux.just(response(OK).build())).count().block(), is(1L));
+        assertThat(attempts.startHedge(), is(true));
+        assertThat(attempts.hedge(Flux.just(late)).count().block(), is(0L));
+        assertThat(consumed.get(), is(true));
+    }
+
+    @Test
+    public void passesOnOriginalFailureWhenTheLastAttemptFails() {
+        Hedging.Attempts attempts = new Hedging.Attempts();
+        RuntimeException originalFailure = new RuntimeException("original");
+
+        assertThat(attempts.startHedge(), is(true));
+
+        StepVerifier.create(attempts.original(Flux.error(originalFailure)))
+                .verifyComplete();
+        StepVerifier.create(attempts.hedge(Flux.error(new RuntimeException("hedge"))))
+                .expectErrorMatches(cause -> cause == originalFailure)
+                .verify();
+    }
+
+    @Test
+    public void doesNotStartHedgeAfterOriginalAttemptFailed() {
+        Hedging.Attempts attempts = new Hedging.Attempts();
+
+        StepVerifier.create(attempts.original(Flux.error(new RuntimeException("original"))))
+                .expectError(RuntimeException.class)
+                .verify();
+
+        assertThat(attempts.startHedge(), is(false));
+    }
+
+    private Hedging hedging(HedgingConfig.Builder config) {
+        return new Hedging(id("app"), config.build(), new SimpleMeterRegistry(), clock::get);
+    }
+
+    private Flux<LiveHttpResponse> respondAfter(long millis) {
+        return Mono.fromSupplier(() -> {
+            clock.addAndGet(MILLISECONDS.toNanos(millis));
+            return response(OK).build();
+        }).flux();
+    }
+}
@@ -20,6 +20,7 @@ import com.google.common.eventbus.EventBus;
 import com.hotels.styx.api.extension.Origin;
 import com.hotels.styx.api.extension.OriginsChangeListener;
 import com.hotels.styx.api.extension.OriginsSnapshot;
+import com.hotels.styx.api.extension.RemoteHost;
 import com.hotels.styx.client.connectionpool.ConnectionPool;
 import com.hotels.styx.client.connectionpool.SimpleConnectionPoolFactory;
 import com.hotels.styx.client.connectionpool.stubs.StubConnectionFactory;
@@ -53,6 +54,8 @@ import static com.hotels.styx.support.matchers.LoggingEventMatcher.loggingEvent;
 import static java.util.Collections.singleton;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
@@ -350,6 +353,30 @@ public class OriginsInventoryTest {
         verify(eventBus, times(3)).post(any(OriginsSnapshot.class));
     }
 
+    @Test
+    public void republishesActiveSnapshotOnlyOnStateTransitions() {
+        inventory.setOrigins(ORIGIN_1, ORIGIN_2);
+        Iterable<RemoteHost> snapshot = inventory.snapshot();
+
+        inventory.originHealthy(ORIGIN_1);
+        assertThat(inventory.snapshot(), is(sameInstance(snapshot)));
+
+        inventory.originUnhealthy(ORIGIN_1);
+        assertThat(inventory.snapshot(), is(not(sameInstance(snapshot))));
+        assertThat(inventory.snapshot().iterator().next().origin(), is(ORIGIN_2));
+    }
+
+    @Test
+    public void reusesRemoteHostsAcrossSnapshots() {
+        inventory.setOrigins(ORIGIN_1);
+        RemoteHost host = inventory.snapshot().iterator().next();
+
+        inventory.originUnhealthy(ORIGIN_1);
+        inventory.originHealthy(ORIGIN_1);
+
+        assertThat(inventory.snapshot().iterator().next(), is(sameInstance(host)));
+    }
+
     @Test
     public void reportingUpRepeatedlyDoesNotAffectCurrentActiveOrigins() {
         inventory.setOrigins(ORIGIN_1);
@@ -0,0 +1,245 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.client;
+
+import com.hotels.styx.api.HttpHandler;
+import com.hotels.styx.api.extension.RemoteHost;
+import com.hotels.styx.api.extension.loadbalancing.spi.LoadBalancingMetricSupplier;
+import com.hotels.styx.api.extension.service.OutlierDetectionConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hotels.styx.api.Id.id;
+import static com.hotels.styx.api.extension.Origin.newOriginBuilder;
+import static com.hotels.styx.api.extension.RemoteHost.remoteHost;
+import static com.hotels.styx.api.extension.service.OutlierDetectionConfig.newOutlierDetectionConfigBuilder;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+
+public class OutlierDetectorTest {
+    private final RemoteHost host1 = host("app-01");
+    private final RemoteHost host2 = host("app-02");
+    private final RemoteHost host3 = host("app-03");
+    private final RemoteHost host4 = host("app-04");
+    private final Iterable<RemoteHost> hosts = asList(host1, host2, host3, host4);
+
+    private MeterRegistry meterRegistry;
+    private AtomicLong clock;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new AtomicLong();
+    }
+
+    @Test
+    public void ejectsOriginAfterConsecutiveErrors() {
+        OutlierDetector detector = detector(config().consecutiveErrors(3));
+
+        detector.requestFailed(host1);
+        detector.requestFailed(host1);
+        assertThat(detector.isEjected(host1.id()), is(false));
+
+        detector.requestFailed(host1);
+        assertThat(detector.isEjected(host1.id()), is(true));
+        assertThat(detector.isEjected(host2.id()), is(false));
+    }
+
+    @Test
+    public void successfulRequestResetsConsecutiveErrors() {
+        OutlierDetector detector = detector(config().consecutiveErrors(3));
+
+        detector.requestFailed(host1);
+        detector.requestFailed(host1);
+        detector.requestSucceeded(host1);
+        detector.requestFailed(host1);
+        detector.requestFailed(host1);
+
+        assertThat(detector.isEjected(host1.id()), is(false));
+    }
+
+    @Test
+    public void reinstatesOriginAfterEjectionTime() {
+        OutlierDetector detector = detector(config().consecutiveErrors(1).baseEjectionTimeMillis(1000));
+
+        detector.requestFailed(host1);
+
+        advance(999);
+        assertThat(detector.isEjected(host1.id()), is(true));
+
+        advance(1);
+        assertThat(detector.isEjected(host1.id()), is(false));
+        assertThat(detector.ejectedOrigins(), is(0));
+    }
+
+    @Test
+    public void doublesEjectionTimeForRepeatedEjectionsUpToMaximum() {
+        OutlierDetector detector = detector(config().consecutiveErrors(1).baseEjectionTimeMillis(1000).maxEjectionTimeMillis(3000));
+
+        detector.requestFailed(host1);
+        advance(1000);
+        assertThat(detector.isEjected(host1.id()), is(false));
+
+        detector.requestFailed(host1);
+        advance(1999);
+        assertThat(detector.isEjected(host1.id()), is(true));
+        advance(1);
+        assertThat(detector.isEjected(host1.id()), is(false));
+
+        detector.requestFailed(host1);
+        advance(2999);
+        assertThat(detector.isEjected(host1.id()), is(true));
+        advance(1);
+        assertThat(detector.isEjected(host1.id()), is(false));
+    }
+
+    @Test
+    public void ejectsOriginWithHighErrorRate() {
+        OutlierDetector detector = detector(config().consecutiveErrors(0).errorRatePercent(50).minimumRequests(4).intervalMillis(1000));
+
+        detector.requestFailed(host1);
+        detector.requestSucceeded(host1);
+        detector.requestFailed(host1);
+        assertThat(detector.isEjected(host1.id()), is(false));
+
+        advance(1000);
+        detector.requestSucceeded(host1);
+
+        assertThat(detector.isEjected(host1.id()), is(true));
+    }
+
+    @Test
+    public void doesNotConsiderErrorRateBelowMinimumRequests() {
+        OutlierDetector detector = detector(config().consecutiveErrors(0).errorRatePercent(50).minimumRequests(4).intervalMillis(1000));
+
+        detector.requestFailed(host1);
+        detector.requestFailed(host1);
+
+        advance(1000);
+        detector.requestFailed(host1);
+
+        assertThat(detector.isEjected(host1.id()), is(false));
+    }
+
+    @Test
+    public void limitsEjectionsToMaximumPercentage() {
+        OutlierDetector detector = detector(config().consecutiveErrors(1).maxEjectionPercent(50));
+        detector.available(hosts);
+
+        hosts.forEach(detector::requestFailed);
+
+        assertThat(detector.ejectedOrigins(), is(2));
+        assertThat(detector.available(hosts), contains(host3, host4));
+    }
+
+    @Test
+    public void expiresEjectionOfOriginThatLeftThePool() {
+        OutlierDetector detector = detector(config().consecutiveErrors(1).baseEjectionTimeMillis(1000).maxEjectionPercent(50));
+        Iterable<RemoteHost> before = asList(host1, host2);
+        Iterable<RemoteHost> after = asList(host2, host3);
+
+        detector.available(before);
+        detector.requestFailed(host1);
+        assertThat(detector.isEjected(host1.id()), is(true));
+
+        detector.available(after);
+        advance(1000);
+        detector.requestFailed(host2);
+
+        assertThat(detector.isEjected(host2.id()), is(true));
+        assertThat(detector.available(after), contains(host3));
+    }
+
+    @Test
+    public void leavesEjectedOriginsOutOfActiveOrigins() {
+        OutlierDetector detector = detector(config().consecutiveErrors(1));
+
+        assertThat(detector.available(hosts), is(sameInstance(hosts)));
+
+        detector.requestFailed(host2);
+
+        assertThat(detector.available(hosts), contains(host1, host3, host4));
+    }
+
+    @Test
+    public void returnsAllOriginsWhenAllAreEjected() {
+        OutlierDetector detector = detector(config().consecutiveErrors(1).maxEjectionPercent(100));
+        Iterable<RemoteHost> single = asList(host1);
+
+        detector.available(single);
+        detector.requestFailed(host1);
+
+        assertThat(detector.isEjected(host1.id()), is(true));
+        assertThat(detector.available(single), is(sameInstance(single)));
+    }
+
+    @Test
+    public void recordsEjectionMetrics() {
+        OutlierDetector detector = detector(config().consecutiveErrors(1).baseEjectionTimeMillis(1000));
+        detector.available(hosts);
+
+        detector.requestFailed(host1);
+
+        assertThat(meterRegistry.get("outlierdetection.ejections").tag("appId", "app").counter().count(), is(1.0));
+        assertThat(meterRegistry.get("outlierdetection.ejected").tag("appId", "app").gauge().value(), is(1.0));
+
+        advance(1000);
+        detector.isEjected(host1.id());
+
+        assertThat(meterRegistry.get("outlierdetection.ejected").tag("appId", "app").gauge().value(), is(0.0));
+    }
+
+    @Test
+    public void reportsEjectionsOfReplacementDetector() {
+        detector(config().consecutiveErrors(1)).requestFailed(host1);
+        OutlierDetector replacement = detector(config().consecutiveErrors(1).maxEjectionPercent(100));
+
+        assertThat(meterRegistry.get("outlierdetection.ejected").tag("appId", "app").gauge().value(), is(0.0));
+
+        replacement.requestFailed(host1);
+        replacement.requestFailed(host2);
+
+        assertThat(meterRegistry.get("outlierdetection.ejected").tag("appId", "app").gauge().value(), is(2.0));
+    }
+
+    private OutlierDetector detector(OutlierDetectionConfig.Builder config) {
+        return new OutlierDetector(id("app"), config.build(), meterRegistry, clock::get);
+    }
+
+    private static OutlierDetectionConfig.Builder config() {
+        return newOutlierDetectionConfigBuilder().enabled(true);
+    }
+
+    private void advance(long millis) {
+        clock.addAndGet(MILLISECONDS.toNanos(millis));
+    }
+
+    private static RemoteHost host(String originId) {
+        return remoteHost(
+                newOriginBuilder("localhost", 9090).applicationId("app").id(originId).build(),
+                mock(HttpHandler.class),
+                mock(LoadBalancingMetricSupplier.class));
+    }
+}
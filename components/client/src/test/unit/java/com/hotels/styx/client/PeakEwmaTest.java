@@ -0,0 +1,66 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+public class PeakEwmaTest {
+    private final AtomicLong clock = new AtomicLong();
+    private final PeakEwma ewma = new PeakEwma(10, SECONDS, clock::get);
+
+    @Test
+    public void isZeroBeforeAnySamples() {
+        assertThat(ewma.valueNanos(), is(0L));
+    }
+
+    @Test
+    public void jumpsToPeakLatency() {
+        ewma.observe(MILLISECONDS.toNanos(10));
+        ewma.observe(MILLISECONDS.toNanos(500));
+
+        assertThat(ewma.valueNanos(), is(MILLISECONDS.toNanos(500)));
+    }
+
+    @Test
+    public void blendsLowerLatenciesOverTime() {
+        ewma.observe(MILLISECONDS.toNanos(500));
+
+        clock.addAndGet(SECONDS.toNanos(10));
+        ewma.observe(MILLISECONDS.toNanos(100));
+
+        long expected = (long) (MILLISECONDS.toNanos(500) * Math.exp(-1) + MILLISECONDS.toNanos(100) * (1 - Math.exp(-1)));
+        assertThat(ewma.valueNanos(), allOf(greaterThan(expected - 1000), lessThan(expected + 1000)));
+    }
+
+    @Test
+    public void decaysWhenIdle() {
+        ewma.observe(MILLISECONDS.toNanos(500));
+
+        clock.addAndGet(SECONDS.toNanos(60));
+
+        assertThat(ewma.valueNanos(), lessThan(MILLISECONDS.toNanos(2)));
+    }
+}
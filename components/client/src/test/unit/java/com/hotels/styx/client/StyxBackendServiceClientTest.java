@@ -29,6 +29,8 @@ import com.hotels.styx.api.extension.RemoteHost;
 import com.hotels.styx.api.extension.loadbalancing.spi.LoadBalancer;
 import com.hotels.styx.api.extension.retrypolicy.spi.RetryPolicy;
 import com.hotels.styx.api.extension.service.BackendService;
+import com.hotels.styx.api.extension.service.HedgingConfig;
+import com.hotels.styx.api.extension.service.OutlierDetectionConfig;
 import com.hotels.styx.api.extension.service.StickySessionConfig;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
@@ -44,6 +46,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
 import java.util.Optional;
 
 import static com.hotels.styx.api.HttpHeaderNames.CHUNKED;
@@ -56,15 +59,20 @@ import static com.hotels.styx.api.HttpResponseStatus.OK;
 import static com.hotels.styx.api.HttpResponseStatus.UNAUTHORIZED;
 import static com.hotels.styx.api.Id.GENERIC_APP;
 import static com.hotels.styx.api.LiveHttpRequest.get;
+import static com.hotels.styx.api.LiveHttpRequest.post;
 import static com.hotels.styx.api.LiveHttpResponse.response;
 import static com.hotels.styx.api.RequestCookie.requestCookie;
 import static com.hotels.styx.api.extension.Origin.newOriginBuilder;
 import static com.hotels.styx.api.extension.RemoteHost.remoteHost;
+import static com.hotels.styx.api.extension.service.HedgingConfig.newHedgingConfigBuilder;
+import static com.hotels.styx.api.extension.service.OutlierDetectionConfig.newOutlierDetectionConfigBuilder;
 import static com.hotels.styx.api.extension.service.StickySessionConfig.stickySessionDisabled;
+import static com.hotels.styx.client.StyxHeaderConfig.ORIGIN_ID_DEFAULT;
 import static com.hotels.styx.client.applications.metrics.OriginMetrics.CANCELLATION_COUNTER_NAME;
 import static com.hotels.styx.support.Support.requestContext;
 import static java.util.Arrays.asList;
 import static java.util.Arrays.stream;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.is;
@@ -444,6 +452,216 @@ public class StyxBackendServiceClientTest {
         assertThat(argPreferences.getValue().preferredOrigins(), is(Optional.of("Origin-Y")));
     }
 
+    @Test
+    public void hedgesSlowRequestToAnotherOrigin() {
+        StyxHostHttpClient slowClient = mockHostClient(Flux.never());
+        StyxHostHttpClient fastClient = mockHostClient(Flux.just(response(OK).build()));
+
+        StyxBackendServiceClient styxHttpClient = new StyxBackendServiceClient.Builder(backendService.id())
+                .meterRegistry(meterRegistry)
+                .hedgingConfig(hedgingAfter(10))
+                .loadBalancer(
+                        mockLoadBalancer(
+                                Optional.of(remoteHost(ORIGIN_1, toHandler(slowClient), slowClient)),
+                                Optional.of(remoteHost(ORIGIN_2, toHandler(fastClient), fastClient))
+                        ))
+                .build();
+
+        LiveHttpResponse response = Mono.from(styxHttpClient.sendRequest(SOME_REQ, requestContext())).block();
+
+        assertThat(response.status(), is(OK));
+        assertThat(response.header(ORIGIN_ID_DEFAULT).get(), is("app-02"));
+        verify(fastClient).sendRequest(any(LiveHttpRequest.class), any(Context.class));
+        assertThat(meterRegistry.find("hedging.sent").counter().count(), is(1.0));
+        assertThat(meterRegistry.find("hedging.won").counter().count(), is(1.0));
+    }
+
+    @Test
+    public void doesNotHedgeRequestsAnsweredWithinDelay() {
+        StyxHostHttpClient firstClient = mockHostClient(Flux.just(response(OK).build()));
+        StyxHostHttpClient secondClient = mockHostClient(Flux.just(response(OK).build()));
+
+        StyxBackendServiceClient styxHttpClient = new StyxBackendServiceClient.Builder(backendService.id())
+                .meterRegistry(meterRegistry)
+                .hedgingConfig(hedgingAfter(1000))
+                .loadBalancer(
+                        mockLoadBalancer(
+                                Optional.of(remoteHost(ORIGIN_1, toHandler(firstClient), firstClient)),
+                                Optional.of(remoteHost(ORIGIN_2, toHandler(secondClient), secondClient))
+                        ))
+                .build();
+
+        LiveHttpResponse response = Mono.from(styxHttpClient.sendRequest(SOME_REQ, requestContext())).block();
+
+        assertThat(response.header(ORIGIN_ID_DEFAULT).get(), is("app-01"));
+        verify(secondClient, never()).sendRequest(any(LiveHttpRequest.class), any(Context.class));
+        assertThat(meterRegistry.find("hedging.requests").counter().count(), is(1.0));
+        assertThat(meterRegistry.find("hedging.sent").counter().count(), is(0.0));
+    }
+
+    @Test
+    public void doesNotEvaluateRetryPolicyForFailedHedges() {
+        RetryPolicy retryPolicy = mockRetryPolicy(true);
+        StyxHostHttpClient slowClient = mockHostClient(Mono.delay(Duration.ofMillis(100)).map(x -> response(OK).build()));
+        StyxHostHttpClient failingClient = mockHostClient(Flux.error(new OriginUnreachableException(ORIGIN_2, new RuntimeException("An error occurred"))));
+
+        StyxBackendServiceClient styxHttpClient = new StyxBackendServiceClient.Builder(backendService.id())
+                .meterRegistry(meterRegistry)
+                .retryPolicy(retryPolicy)
+                .hedgingConfig(hedgingAfter(10))
+                .loadBalancer(
+                        mockLoadBalancer(
+                                Optional.of(remoteHost(ORIGIN_1, toHandler(slowClient), slowClient)),
+                                Optional.of(remoteHost(ORIGIN_2, toHandler(failingClient), failingClient))
+                        ))
+                .build();
+
+        LiveHttpResponse response = Mono.from(styxHttpClient.sendRequest(SOME_REQ, requestContext())).block();
+
+        assertThat(response.header(ORIGIN_ID_DEFAULT).get(), is("app-01"));
+        verify(failingClient).sendRequest(any(LiveHttpRequest.class), any(Context.class));
+        verify(retryPolicy, never()).evaluate(any(RetryPolicy.Context.class), any(LoadBalancer.class), any(LoadBalancer.Preferences.class));
+    }
+
+    @Test
+    public void waitsForHedgeWhenOriginalAttemptFails() {
+        StyxHostHttpClient failingClient = mockHostClient(Mono.delay(Duration.ofMillis(50))
+                .flatMap(x -> Mono.error(new OriginUnreachableException(ORIGIN_1, new RuntimeException("An error occurred")))));
+        StyxHostHttpClient slowClient = mockHostClient(Mono.delay(Duration.ofMillis(100)).map(x -> response(OK).build()));
+
+        StyxBackendServiceClient styxHttpClient = new StyxBackendServiceClient.Builder(backendService.id())
+                .meterRegistry(meterRegistry)
+                .retryPolicy(mockRetryPolicy(false))
+                .hedgingConfig(hedgingAfter(10))
+                .loadBalancer(
+                        mockLoadBalancer(
+                                Optional.of(remoteHost(ORIGIN_1, toHandler(failingClient), failingClient)),
+                                Optional.of(remoteHost(ORIGIN_2, toHandler(slowClient), slowClient))
+                        ))
+                .build();
+
+        LiveHttpResponse response = Mono.from(styxHttpClient.sendRequest(SOME_REQ, requestContext())).block();
+
+        assertThat(response.status(), is(OK));
+        assertThat(response.header(ORIGIN_ID_DEFAULT).get(), is("app-02"));
+        assertThat(meterRegistry.find("hedging.won").counter().count(), is(1.0));
+    }
+
+    @Test
+    public void failsWithOriginalFailureWhenHedgeFailsToo() {
+        OriginUnreachableException originalFailure = new OriginUnreachableException(ORIGIN_1, new RuntimeException("An error occurred"));
+        StyxHostHttpClient failingClient = mockHostClient(Mono.delay(Duration.ofMillis(50)).flatMap(x -> Mono.error(originalFailure)));
+        StyxHostHttpClient secondFailingClient = mockHostClient(Flux.error(new OriginUnreachableException(ORIGIN_2, new RuntimeException("An error occurred"))));
+
+        StyxBackendServiceClient styxHttpClient = new StyxBackendServiceClient.Builder(backendService.id())
+                .meterRegistry(meterRegistry)
+                .retryPolicy(mockRetryPolicy(false))
+                .hedgingConfig(hedgingAfter(10))
+                .loadBalancer(
+                        mockLoadBalancer(
+                                Optional.of(remoteHost(ORIGIN_1, toHandler(failingClient), failingClient)),
+                                Optional.of(remoteHost(ORIGIN_2, toHandler(secondFailingClient), secondFailingClient))
+                        ))
+                .build();
+
+        StepVerifier.create(styxHttpClient.sendRequest(SOME_REQ, requestContext()))
+                .expectErrorMatches(cause -> cause == originalFailure)
+                .verify();
+
+        verify(secondFailingClient).sendRequest(any(LiveHttpRequest.class), any(Context.class));
+    }
+
+    @Test
+    public void failsWithoutHedgingWhenOriginalAttemptFailsWithinDelay() {
+        StyxHostHttpClient failingClient = mockHostClient(Flux.error(new OriginUnreachableException(ORIGIN_1, new RuntimeException("An error occurred"))));
+        StyxHostHttpClient secondClient = mockHostClient(Flux.just(response(OK).build()));
+
+        StyxBackendServiceClient styxHttpClient = new StyxBackendServiceClient.Builder(backendService.id())
+                .meterRegistry(meterRegistry)
+                .retryPolicy(mockRetryPolicy(false))
+                .hedgingConfig(hedgingAfter(1000))
+                .loadBalancer(
+                        mockLoadBalancer(
+                                Optional.of(remoteHost(ORIGIN_1, toHandler(failingClient), failingClient)),
+                                Optional.of(remoteHost(ORIGIN_2, toHandler(secondClient), secondClient))
+                        ))
+                .build();
+
+        StepVerifier.create(styxHttpClient.sendRequest(SOME_REQ, requestContext()))
+                .expectError(OriginUnreachableException.class)
+                .verify(Duration.ofMillis(500));
+
+        verify(secondClient, never()).sendRequest(any(LiveHttpRequest.class), any(Context.class));
+    }
+
+    @Test
+    public void doesNotHedgeNonIdempotentRequests() {
+        StyxHostHttpClient slowClient = mockHostClient(Mono.delay(Duration.ofMillis(50)).map(x -> response(OK).build()));
+        StyxHostHttpClient secondClient = mockHostClient(Flux.just(response(OK).build()));
+
+        StyxBackendServiceClient styxHttpClient = new StyxBackendServiceClient.Builder(backendService.id())
+                .meterRegistry(meterRegistry)
+                .hedgingConfig(hedgingAfter(0))
+                .loadBalancer(
+                        mockLoadBalancer(
+                                Optional.of(remoteHost(ORIGIN_1, toHandler(slowClient), slowClient)),
+                                Optional.of(remoteHost(ORIGIN_2, toHandler(secondClient), secondClient))
+                        ))
+                .build();
+
+        LiveHttpResponse response = Mono.from(styxHttpClient.sendRequest(post("/").build(), requestContext())).block();
+
+        assertThat(response.header(ORIGIN_ID_DEFAULT).get(), is("app-01"));
+        verify(secondClient, never()).sendRequest(any(LiveHttpRequest.class), any(Context.class));
+    }
+
+    @Test
+    public void reportsServerErrorsToOutlierDetector() {
+        StyxHostHttpClient hostClient = mockHostClient(Flux.just(response(INTERNAL_SERVER_ERROR).build()));
+        OutlierDetector outlierDetector = new OutlierDetector(backendService.id(), ejectAfterOneError(), meterRegistry);
+
+        StyxBackendServiceClient styxHttpClient = new StyxBackendServiceClient.Builder(backendService.id())
+                .meterRegistry(meterRegistry)
+                .outlierDetector(outlierDetector)
+                .loadBalancer(mockLoadBalancer(Optional.of(remoteHost(ORIGIN_1, toHandler(hostClient), hostClient))))
+                .build();
+
+        LiveHttpResponse response = Mono.from(styxHttpClient.sendRequest(SOME_REQ, requestContext())).block();
+
+        assertThat(response.status(), is(INTERNAL_SERVER_ERROR));
+        assertThat(outlierDetector.isEjected(ORIGIN_1.id()), is(true));
+    }
+
+    @Test
+    public void doesNotEjectOriginsThatRespondWithoutServerErrors() {
+        StyxHostHttpClient hostClient = mockHostClient(Flux.just(response(BAD_REQUEST).build()));
+        OutlierDetector outlierDetector = new OutlierDetector(backendService.id(), ejectAfterOneError(), meterRegistry);
+
+        StyxBackendServiceClient styxHttpClient = new StyxBackendServiceClient.Builder(backendService.id())
+                .meterRegistry(meterRegistry)
+                .outlierDetector(outlierDetector)
+                .loadBalancer(mockLoadBalancer(Optional.of(remoteHost(ORIGIN_1, toHandler(hostClient), hostClient))))
+                .build();
+
+        Mono.from(styxHttpClient.sendRequest(SOME_REQ, requestContext())).block();
+
+        assertThat(outlierDetector.isEjected(ORIGIN_1.id()), is(false));
+    }
+
+    private static OutlierDetectionConfig ejectAfterOneError() {
+        return newOutlierDetectionConfigBuilder()
+                .enabled(true)
+                .consecutiveErrors(1)
+                .build();
+    }
+
+    private static HedgingConfig hedgingAfter(int delayMillis) {
+        return newHedgingConfigBuilder()
+                .enabled(true)
+                .delay(delayMillis, MILLISECONDS)
+                .build();
+    }
+
     private HttpHandler toHandler(StyxHostHttpClient hostClient) {
         return (request, ctx) -> new Eventual<>(hostClient.sendRequest(request, ctx));
     }
@@ -79,7 +79,7 @@ public class StyxHostHttpClientTest {
                 .expectComplete()
                 .verify();
 
-        verify(pool).borrowConnection();
+        verify(pool).borrowConnection(any());
         verify(connection).write(any(LiveHttpRequest.class));
         verify(pool).returnConnection(any(Connection.class));
         verify(context).add(ORIGINID_CONTEXT_KEY, Id.id("mockorigin"));
@@ -241,7 +241,7 @@ public class StyxHostHttpClientTest {
 
     ConnectionPool mockPool(Connection connection) {
         ConnectionPool pool = mock(ConnectionPool.class);
-        when(pool.borrowConnection()).thenReturn(Flux.just(connection));
+        when(pool.borrowConnection(any())).thenReturn(Flux.just(connection));
         Origin origin = mockOrigin("mockorigin");
         when(pool.getOrigin()).thenReturn(origin);
         return pool;
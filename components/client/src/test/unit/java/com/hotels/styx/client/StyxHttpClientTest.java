@@ -22,8 +22,11 @@ import com.hotels.styx.api.HttpResponse;
 import com.hotels.styx.api.LiveHttpResponse;
 import com.hotels.styx.api.exceptions.ResponseTimeoutException;
 import com.hotels.styx.api.extension.Origin;
+import com.hotels.styx.api.extension.service.ConnectionPoolSettings;
 import com.hotels.styx.api.extension.service.TlsSettings;
 import com.hotels.styx.client.netty.connectionpool.NettyConnectionFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.netty.handler.ssl.SslContext;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -43,14 +46,19 @@ import static com.hotels.styx.api.HttpHeaderNames.HOST;
 import static com.hotels.styx.api.HttpHeaderNames.USER_AGENT;
 import static com.hotels.styx.api.HttpRequest.get;
 import static com.hotels.styx.api.HttpResponseStatus.OK;
+import static com.hotels.styx.api.extension.Origin.newOriginBuilder;
 import static com.hotels.styx.common.StyxFutures.await;
 import static com.hotels.styx.support.server.UrlMatchingStrategies.urlStartingWith;
 import static java.lang.String.format;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
@@ -411,6 +419,121 @@ public class StyxHttpClientTest {
         assertThat(originCaptor.getValue().port(), is(443));
     }
 
+    /*
+     * StyxHttpClient
+     * - Reuses keep-alive connections in pooled mode
+     */
+    @Test
+    public void reusesConnectionsInPooledMode() throws ExecutionException, InterruptedException {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        StyxHttpClient client = new StyxHttpClient.Builder()
+                .connectionPoolSettings(new ConnectionPoolSettings.Builder().build())
+                .meterRegistry(meterRegistry)
+                .build();
+
+        try {
+            for (int i = 0; i < 3; i++) {
+                assertThat(client.send(httpRequest).get().status(), is(OK));
+            }
+
+            assertThat(connectionsOpened(meterRegistry, server.port()), is(1.0));
+            assertThat(connectionsReused(meterRegistry, server.port()), is(2.0));
+        } finally {
+            client.close();
+        }
+
+        assertThat(meterRegistry.find("httpclient.connections.opened").counter(), is(nullValue()));
+        assertThat(meterRegistry.find("httpclient.connections.reused").counter(), is(nullValue()));
+    }
+
+    /*
+     * StyxHttpClient
+     * - Pools secure and insecure connections separately
+     */
+    @Test
+    public void poolsConnectionsSeparatelyForEachProtocol() throws ExecutionException, InterruptedException {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        StyxHttpClient client = new StyxHttpClient.Builder()
+                .connectionPoolSettings(new ConnectionPoolSettings.Builder().build())
+                .meterRegistry(meterRegistry)
+                .build();
+
+        try {
+            assertThat(client.send(httpRequest).get().status(), is(OK));
+            assertThat(client.secure().send(secureRequest).get().status(), is(OK));
+            assertThat(client.secure().send(secureRequest).get().status(), is(OK));
+
+            assertThat(connectionsOpened(meterRegistry, server.port()), is(1.0));
+            assertThat(connectionsReused(meterRegistry, server.port()), is(0.0));
+            assertThat(connectionsOpened(meterRegistry, server.httpsPort()), is(1.0));
+            assertThat(connectionsReused(meterRegistry, server.httpsPort()), is(1.0));
+        } finally {
+            client.close();
+        }
+    }
+
+    /*
+     * StyxHttpClient
+     * - Pools connections separately for each TLS configuration
+     */
+    @Test
+    public void poolsConnectionsSeparatelyForEachTlsConfiguration() {
+        NettyConnectionFactory connectionFactory = mockConnectionFactory();
+        HostConnectionPools pools = new HostConnectionPools(connectionFactory, new ConnectionPoolSettings.Builder().build(), new SimpleMeterRegistry());
+        Origin origin = newOriginBuilder("localhost", server.httpsPort()).build();
+        SslContext first = mock(SslContext.class);
+        SslContext second = mock(SslContext.class);
+
+        try {
+            pools.send(origin, first, secureRequest.stream()).subscribe(response -> { }, cause -> { });
+            pools.send(origin, second, secureRequest.stream()).subscribe(response -> { }, cause -> { });
+        } finally {
+            pools.close();
+        }
+
+        verify(connectionFactory).createConnection(any(Origin.class), any(ConnectionSettings.class), eq(first));
+        verify(connectionFactory).createConnection(any(Origin.class), any(ConnectionSettings.class), eq(second));
+    }
+
+    /*
+     * StyxHttpClient
+     * - Closes the connection pools of the hosts that are not retained
+     */
+    @Test
+    public void closesConnectionPoolsOfRemovedHosts() throws ExecutionException, InterruptedException {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        StyxHttpClient client = new StyxHttpClient.Builder()
+                .connectionPoolSettings(new ConnectionPoolSettings.Builder().build())
+                .meterRegistry(meterRegistry)
+                .build();
+
+        try {
+            assertThat(client.send(httpRequest).get().status(), is(OK));
+
+            client.retainConnectionPools(singletonList(newOriginBuilder("localhost", server.port()).build()));
+            assertThat(client.send(httpRequest).get().status(), is(OK));
+            assertThat(connectionsOpened(meterRegistry, server.port()), is(1.0));
+            assertThat(connectionsReused(meterRegistry, server.port()), is(1.0));
+
+            client.retainConnectionPools(emptyList());
+            assertThat(meterRegistry.find("httpclient.connections.opened").counter(), is(nullValue()));
+
+            assertThat(client.send(httpRequest).get().status(), is(OK));
+            assertThat(connectionsOpened(meterRegistry, server.port()), is(1.0));
+            assertThat(connectionsReused(meterRegistry, server.port()), is(0.0));
+        } finally {
+            client.close();
+        }
+    }
+
+    private static double connectionsOpened(MeterRegistry meterRegistry, int port) {
+        return meterRegistry.get("httpclient.connections.opened").tag("host", "localhost:" + port).counter().count();
+    }
+
+    private static double connectionsReused(MeterRegistry meterRegistry, int port) {
+        return meterRegistry.get("httpclient.connections.reused").tag("host", "localhost:" + port).counter().count();
+    }
+
     private static NettyConnectionFactory mockConnectionFactory() {
         NettyConnectionFactory factory = mock(NettyConnectionFactory.class);
         when(factory.createConnection(any(Origin.class), any(ConnectionSettings.class), nullable(SslContext.class)))
@@ -24,9 +24,14 @@ import com.hotels.styx.support.MultithreadedStressTester;
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.stream.Collectors.toList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.number.OrderingComparison.greaterThanOrEqualTo;
@@ -62,6 +67,35 @@ public class SimpleConnectionPoolStressTest {
         assertThat("final available connection count", pool.stats().availableConnectionCount(), is(greaterThanOrEqualTo(0)));
     }
 
+    @Test
+    public void handsConnectionsOverToThousandsOfWaitingSubscribers() throws Exception {
+        SimpleConnectionPool pool = new SimpleConnectionPool(
+                origin,
+                new ConnectionPoolSettings.Builder(settings)
+                        .maxPendingConnectionsPerHost(2000)
+                        .pendingConnectionTimeout(30, SECONDS)
+                        .build(),
+                new StubConnectionFactory());
+
+        List<CompletableFuture<Connection>> borrowers = IntStream.range(0, 1500)
+                .mapToObj(i -> Mono.from(pool.borrowConnection()).toFuture())
+                .collect(toList());
+
+        assertThat("initial pending connection count", pool.stats().pendingConnectionCount(), is(1490));
+
+        for (CompletableFuture<Connection> borrower : borrowers) {
+            releaseConnection(pool, borrower.get(5, SECONDS));
+        }
+
+        assertThat("final pending connection count", pool.stats().pendingConnectionCount(), is(0));
+        assertThat("final busy connection count", pool.stats().busyConnectionCount(), is(0));
+        assertThat("final available connection count", pool.stats().availableConnectionCount(), is(10));
+    }
+
+    private void releaseConnection(SimpleConnectionPool pool, Connection connection) {
+        pool.returnConnection(connection);
+    }
+
     private void closeConnection(Connection connection) {
         pool.closeConnection(connection);
     }
@@ -35,6 +35,7 @@ import reactor.test.publisher.TestPublisher;
 import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeoutException;
 
 import static com.hotels.styx.api.extension.Origin.newOriginBuilder;
@@ -45,6 +46,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
@@ -1000,4 +1002,71 @@ public class SimpleConnectionPoolTest {
     }
 
 
+    @Test
+    public void prefersConnectionsBoundToBorrowersExecutor() {
+        Executor executor1 = mock(Executor.class);
+        Executor executor2 = mock(Executor.class);
+        when(connection1.executor()).thenReturn(executor1);
+        when(connection2.executor()).thenReturn(executor2);
+        when(connectionFactory.createConnection(any(Origin.class), any(ConnectionSettings.class), eq(executor1)))
+                .thenReturn(Mono.just(connection1));
+        when(connectionFactory.createConnection(any(Origin.class), any(ConnectionSettings.class), eq(executor2)))
+                .thenReturn(Mono.just(connection2));
+
+        ConnectionPoolSettings settings = new ConnectionPoolSettings.Builder()
+                .eventLoopAffinity(true)
+                .build();
+        SimpleConnectionPool pool = new SimpleConnectionPool(origin, settings, connectionFactory);
+
+        StepVerifier.create(pool.borrowConnection(executor1))
+                .expectNext(connection1)
+                .verifyComplete();
+        StepVerifier.create(pool.borrowConnection(executor2))
+                .expectNext(connection2)
+                .verifyComplete();
+
+        pool.returnConnection(connection1);
+        pool.returnConnection(connection2);
+        assertEquals(pool.stats().availableConnectionCount(), 2);
+
+        StepVerifier.create(pool.borrowConnection(executor2))
+                .expectNext(connection2)
+                .verifyComplete();
+
+        // Falls back to a connection bound to another executor:
+        StepVerifier.create(pool.borrowConnection(executor2))
+                .expectNext(connection1)
+                .verifyComplete();
+
+        assertEquals(pool.stats().connectionAttempts(), 2);
+        assertEquals(pool.stats().availableConnectionCount(), 0);
+    }
+
+    @Test
+    public void closesConnectionsBoundToAllExecutorsWhenPoolIsClosed() {
+        Executor executor1 = mock(Executor.class);
+        Executor executor2 = mock(Executor.class);
+        when(connection1.executor()).thenReturn(executor1);
+        when(connection2.executor()).thenReturn(executor2);
+        when(connectionFactory.createConnection(any(Origin.class), any(ConnectionSettings.class), eq(executor1)))
+                .thenReturn(Mono.just(connection1));
+        when(connectionFactory.createConnection(any(Origin.class), any(ConnectionSettings.class), eq(executor2)))
+                .thenReturn(Mono.just(connection2));
+
+        ConnectionPoolSettings settings = new ConnectionPoolSettings.Builder()
+                .eventLoopAffinity(true)
+                .build();
+        SimpleConnectionPool pool = new SimpleConnectionPool(origin, settings, connectionFactory);
+
+        Mono.from(pool.borrowConnection(executor1)).block();
+        Mono.from(pool.borrowConnection(executor2)).block();
+        pool.returnConnection(connection1);
+        pool.returnConnection(connection2);
+
+        pool.close();
+
+        verify(connection1).close();
+        verify(connection2).close();
+        assertEquals(pool.stats().availableConnectionCount(), 0);
+    }
 }
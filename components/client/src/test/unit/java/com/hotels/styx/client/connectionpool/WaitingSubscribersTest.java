@@ -0,0 +1,105 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.client.connectionpool;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.MonoSink;
+
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+
+public class WaitingSubscribersTest {
+
+    @Test
+    public void pollsSubscribersInArrivalOrder() {
+        WaitingSubscribers<String> subscribers = new WaitingSubscribers<>(10);
+        MonoSink<String> sink1 = mockSink();
+        MonoSink<String> sink2 = mockSink();
+
+        subscribers.offer(sink1);
+        subscribers.offer(sink2);
+
+        assertThat(subscribers.size(), is(2));
+        assertThat(subscribers.poll(), is(sameInstance(sink1)));
+        assertThat(subscribers.poll(), is(sameInstance(sink2)));
+        assertThat(subscribers.poll(), is(nullValue()));
+        assertThat(subscribers.size(), is(0));
+    }
+
+    @Test
+    public void rejectsSubscribersWhenFull() {
+        WaitingSubscribers<String> subscribers = new WaitingSubscribers<>(2);
+
+        assertThat(subscribers.offer(mockSink()), is(notNullValue()));
+        assertThat(subscribers.offer(mockSink()), is(notNullValue()));
+        assertThat(subscribers.offer(mockSink()), is(nullValue()));
+        assertThat(subscribers.size(), is(2));
+
+        subscribers.poll();
+
+        assertThat(subscribers.offer(mockSink()), is(notNullValue()));
+    }
+
+    @Test
+    public void skipsCancelledSubscribers() {
+        WaitingSubscribers<String> subscribers = new WaitingSubscribers<>(10);
+        MonoSink<String> sink2 = mockSink();
+
+        WaitingSubscribers.Waiter<String> waiter1 = subscribers.offer(mockSink());
+        subscribers.offer(sink2);
+
+        waiter1.cancel();
+
+        assertThat(subscribers.size(), is(1));
+        assertThat(subscribers.poll(), is(sameInstance(sink2)));
+        assertThat(subscribers.size(), is(0));
+    }
+
+    @Test
+    public void cancellingAnAlreadyPolledSubscriberHasNoEffect() {
+        WaitingSubscribers<String> subscribers = new WaitingSubscribers<>(10);
+
+        WaitingSubscribers.Waiter<String> waiter1 = subscribers.offer(mockSink());
+        subscribers.offer(mockSink());
+
+        subscribers.poll();
+        waiter1.cancel();
+        waiter1.cancel();
+
+        assertThat(subscribers.size(), is(1));
+    }
+
+    @Test
+    public void cancelledSubscribersFreeUpCapacity() {
+        WaitingSubscribers<String> subscribers = new WaitingSubscribers<>(5);
+
+        IntStream.range(0, 100).forEach(i -> subscribers.offer(mockSink()).cancel());
+
+        assertThat(subscribers.size(), is(0));
+        assertThat(subscribers.poll(), is(nullValue()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static MonoSink<String> mockSink() {
+        return mock(MonoSink.class);
+    }
+}
@@ -0,0 +1,165 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.client.healthcheck;
+
+import com.hotels.styx.support.DeterministicScheduler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hotels.styx.client.healthcheck.ProbeScheduler.phaseOffsetMillis;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ProbeSchedulerTest {
+    private DeterministicScheduler executor;
+    private MeterRegistry meterRegistry;
+    private AtomicLong clock;
+
+    @BeforeEach
+    public void setUp() {
+        executor = new DeterministicScheduler();
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new AtomicLong();
+    }
+
+    @Test
+    public void immediateSchedulerRunsProbesOnTheCallingThread() {
+        AtomicInteger probed = new AtomicInteger();
+
+        ProbeScheduler.immediate().schedule("app-01", done -> {
+            probed.incrementAndGet();
+            done.run();
+        });
+
+        assertThat(probed.get(), is(1));
+        assertThat(ProbeScheduler.immediate().probesInFlight(), is(0));
+    }
+
+    @Test
+    public void phaseOffsetsAreStableAndWithinTheWindow() {
+        for (int i = 0; i < 1000; i++) {
+            String key = "app-" + i;
+            long offset = phaseOffsetMillis(key, 5000);
+
+            assertThat(offset, greaterThanOrEqualTo(0L));
+            assertThat(offset, lessThan(5000L));
+            assertThat(phaseOffsetMillis(key, 5000), is(offset));
+        }
+
+        assertThat(phaseOffsetMillis("app-01", 0), is(0L));
+    }
+
+    @Test
+    public void phaseOffsetsAreSpreadAcrossTheWindow() {
+        int[] buckets = new int[10];
+        for (int i = 0; i < 1000; i++) {
+            buckets[(int) (phaseOffsetMillis("app-" + i, 1000) / 100)]++;
+        }
+
+        for (int bucket : buckets) {
+            assertThat(bucket, greaterThan(50));
+        }
+    }
+
+    @Test
+    public void delaysProbesUntilTheirPhaseOffset() {
+        String key = keyWithNonZeroOffset(1000);
+        long offset = phaseOffsetMillis(key, 1000);
+        AtomicInteger probed = new AtomicInteger();
+
+        scheduler(ProbeScheduler.UNLIMITED).schedule(key, done -> {
+            probed.incrementAndGet();
+            done.run();
+        });
+
+        executor.tick(offset - 1, MILLISECONDS);
+        assertThat(probed.get(), is(0));
+
+        executor.tick(1, MILLISECONDS);
+        assertThat(probed.get(), is(1));
+    }
+
+    @Test
+    public void skipsProbesThatExceedTheConcurrencyLimit() {
+        ProbeScheduler scheduler = scheduler(2);
+        List<Runnable> pending = new ArrayList<>();
+        AtomicInteger probed = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            scheduler.schedule("app-" + i, done -> {
+                probed.incrementAndGet();
+                pending.add(done);
+            });
+        }
+        executor.tick(1000, MILLISECONDS);
+
+        assertThat(probed.get(), is(2));
+        assertThat(scheduler.probesInFlight(), is(2));
+        assertThat(meterRegistry.counter("origin.healthcheck.skipped", "appId", "app").count(), is(3.0));
+
+        pending.forEach(Runnable::run);
+        pending.forEach(Runnable::run);
+        assertThat(scheduler.probesInFlight(), is(0));
+    }
+
+    @Test
+    public void releasesTheSlotOfAFailingProbe() {
+        ProbeScheduler scheduler = new ProbeScheduler(executor, 0, 1, meterRegistry, "app", clock::get);
+
+        assertThrows(IllegalStateException.class, () -> scheduler.schedule("app-01", done -> {
+            throw new IllegalStateException("probe failed");
+        }));
+
+        assertThat(scheduler.probesInFlight(), is(0));
+    }
+
+    @Test
+    public void recordsProbeLateness() {
+        String key = keyWithNonZeroOffset(1000);
+
+        scheduler(ProbeScheduler.UNLIMITED).schedule(key, done -> done.run());
+
+        clock.addAndGet(MILLISECONDS.toNanos(phaseOffsetMillis(key, 1000) + 25));
+        executor.tick(1000, MILLISECONDS);
+
+        assertThat(meterRegistry.timer("origin.healthcheck.lateness", "appId", "app").count(), is(1L));
+        assertThat(meterRegistry.timer("origin.healthcheck.lateness", "appId", "app").totalTime(MILLISECONDS), is(25.0));
+    }
+
+    private ProbeScheduler scheduler(int maxConcurrentProbes) {
+        return new ProbeScheduler(executor, 1000, maxConcurrentProbes, meterRegistry, "app", clock::get);
+    }
+
+    private static String keyWithNonZeroOffset(long spreadMillis) {
+        int i = 0;
+        while (phaseOffsetMillis("app-" + i, spreadMillis) < 2) {
+            i++;
+        }
+        return "app-" + i;
+    }
+}
@@ -24,6 +24,7 @@ import com.hotels.styx.api.extension.loadbalancing.spi.LoadBalancingMetricSuppli
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 
@@ -63,6 +64,34 @@ public class BusyConnectionsStrategyTest {
         assertThat(count(hostThree, results), greaterThan(10L));
     }
 
+    @Test
+    public void tieBreaksOnlyBetweenLeastBusyOrigins() {
+        RemoteHost hostOne = remoteHost(ORIGIN_ONE, mock(HttpHandler.class), lbMetrics(1));
+        RemoteHost hostTwo = remoteHost(ORIGIN_TWO, mock(HttpHandler.class), lbMetrics(5));
+        RemoteHost hostThree = remoteHost(ORIGIN_THREE, mock(HttpHandler.class), lbMetrics(1));
+
+        when(activeOrigins.snapshot()).thenReturn(asList(hostOne, hostTwo, hostThree));
+
+        List<RemoteHost> results = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            results.add(strategy.choose(null).get());
+        }
+
+        assertThat(count(hostOne, results), greaterThan(60L));
+        assertThat(count(hostTwo, results), is(0L));
+        assertThat(count(hostThree, results), greaterThan(60L));
+    }
+
+    @Test
+    public void acceptsSnapshotsThatAreNotLists() {
+        RemoteHost hostOne = remoteHost(ORIGIN_ONE, mock(HttpHandler.class), lbMetrics(4));
+        RemoteHost hostTwo = remoteHost(ORIGIN_TWO, mock(HttpHandler.class), lbMetrics(3));
+
+        when(activeOrigins.snapshot()).thenReturn(new LinkedHashSet<>(asList(hostOne, hostTwo)));
+
+        assertThat(strategy.choose(null), is(Optional.of(hostTwo)));
+    }
+
     @Test
     public void favoursOriginsWithLessBusyConnectionCount() {
         RemoteHost hostOne = remoteHost(ORIGIN_ONE, mock(HttpHandler.class), lbMetrics(4));
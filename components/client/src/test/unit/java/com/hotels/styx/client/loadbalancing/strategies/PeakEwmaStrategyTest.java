@@ -0,0 +1,86 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.client.loadbalancing.strategies;
+
+import com.hotels.styx.api.HttpHandler;
+import com.hotels.styx.api.extension.ActiveOrigins;
+import com.hotels.styx.api.extension.RemoteHost;
+import com.hotels.styx.api.extension.loadbalancing.spi.LoadBalancer;
+import com.hotels.styx.api.extension.loadbalancing.spi.LoadBalancingMetric;
+import com.hotels.styx.api.extension.loadbalancing.spi.LoadBalancingMetricSupplier;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.Random;
+
+import static com.hotels.styx.api.extension.Origin.newOriginBuilder;
+import static com.hotels.styx.api.extension.RemoteHost.remoteHost;
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PeakEwmaStrategyTest {
+    @Test
+    public void prefersFasterOriginOverLessBusyOne() {
+        RemoteHost slow = host("slow", 1, 500_000_000);
+        RemoteHost fast = host("fast", 3, 10_000_000);
+
+        assertThat(chooseFrom(slow, fast), is(fast));
+        assertThat(chooseFrom(fast, slow), is(fast));
+    }
+
+    @Test
+    public void prefersLessBusyOriginWhenLatenciesAreEqual() {
+        RemoteHost busy = host("busy", 5, 10_000_000);
+        RemoteHost idle = host("idle", 1, 10_000_000);
+
+        assertThat(chooseFrom(busy, idle), is(idle));
+        assertThat(chooseFrom(idle, busy), is(idle));
+    }
+
+    @Test
+    public void penalisesBusyOriginsWithoutLatencySamples() {
+        assertThat(PeakEwmaStrategy.cost(new LoadBalancingMetric(1, 0)), is(greaterThan(PeakEwmaStrategy.cost(new LoadBalancingMetric(100, 1_000_000_000)))));
+        assertThat(PeakEwmaStrategy.cost(new LoadBalancingMetric(0, 0)), is(0.0));
+    }
+
+    @Test
+    public void returnsEmptyWhenNoOriginsAreAvailable() {
+        ActiveOrigins activeOrigins = mock(ActiveOrigins.class);
+        when(activeOrigins.snapshot()).thenReturn(asList());
+
+        PeakEwmaStrategy loadBalancer = new PeakEwmaStrategy(activeOrigins, new Random(5));
+
+        assertThat(loadBalancer.choose(mock(LoadBalancer.Preferences.class)), is(Optional.empty()));
+    }
+
+    private static RemoteHost chooseFrom(RemoteHost first, RemoteHost second) {
+        ActiveOrigins activeOrigins = mock(ActiveOrigins.class);
+        when(activeOrigins.snapshot()).thenReturn(asList(first, second));
+
+        return new PeakEwmaStrategy(activeOrigins, new Random(5))
+                .choose(mock(LoadBalancer.Preferences.class))
+                .get();
+    }
+
+    private static RemoteHost host(String id, int ongoing, long latencyNanos) {
+        LoadBalancingMetricSupplier metrics = () -> new LoadBalancingMetric(ongoing, latencyNanos);
+        return remoteHost(newOriginBuilder("localhost", 8000).id(id).build(), mock(HttpHandler.class), metrics);
+    }
+}
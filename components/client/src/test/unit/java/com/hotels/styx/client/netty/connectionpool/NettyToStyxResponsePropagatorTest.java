@@ -303,6 +303,50 @@ public class NettyToStyxResponsePropagatorTest {
         assertThat(channel.isActive(), is(false));
     }
 
+    @Test
+    public void ignoresChannelEventsWhenDisarmed() {
+        NettyToStyxResponsePropagator handler = new NettyToStyxResponsePropagator(responseSubscriber, SOME_ORIGIN);
+        EmbeddedChannel channel = new EmbeddedChannel(handler);
+
+        handler.disarm(responseSubscriber);
+
+        channel.pipeline().fireUserEventTriggered(ALL_IDLE_STATE_EVENT);
+        channel.pipeline().fireChannelInactive();
+
+        verify(responseSubscriber, never()).error(any());
+        verify(responseSubscriber, never()).next(any());
+    }
+
+    @Test
+    public void propagatesResponseToRearmedSink() {
+        FluxSink<LiveHttpResponse> secondSubscriber = mock(FluxSink.class);
+        NettyToStyxResponsePropagator handler = new NettyToStyxResponsePropagator(responseSubscriber, SOME_ORIGIN);
+        EmbeddedChannel channel = new EmbeddedChannel(handler);
+
+        channel.writeInbound(httpResponseHeaders);
+        channel.writeInbound(EMPTY_LAST_CONTENT);
+        verifyNextCalledOnResponseSubscriber();
+
+        handler.disarm(responseSubscriber);
+        handler.arm(secondSubscriber, null);
+
+        channel.writeInbound(new DefaultHttpResponse(HTTP_1_1, OK));
+
+        verify(secondSubscriber).next(any(LiveHttpResponse.class));
+        verify(responseSubscriber, never()).error(any());
+    }
+
+    @Test
+    public void disarmingWithStaleSinkHasNoEffect() {
+        FluxSink<LiveHttpResponse> secondSubscriber = mock(FluxSink.class);
+        NettyToStyxResponsePropagator handler = new NettyToStyxResponsePropagator(responseSubscriber, SOME_ORIGIN);
+
+        handler.arm(secondSubscriber, null);
+        handler.disarm(responseSubscriber);
+
+        assertThat(handler.isArmedFor(secondSubscriber), is(true));
+    }
+
     private static io.netty.handler.codec.http.HttpResponse newCorruptedResponse() {
         io.netty.handler.codec.http.HttpResponse corruptedResponse = new DefaultHttpResponse(HTTP_1_1, OK);
         corruptedResponse.setDecoderResult(DecoderResult.failure(new RuntimeException("decoding failed")));
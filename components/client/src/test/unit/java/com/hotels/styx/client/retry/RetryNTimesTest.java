@@ -22,11 +22,14 @@ import com.hotels.styx.api.extension.RemoteHost;
 import com.hotels.styx.api.extension.loadbalancing.spi.LoadBalancer;
 import com.hotels.styx.api.extension.loadbalancing.spi.LoadBalancingMetricSupplier;
 import com.hotels.styx.api.extension.retrypolicy.spi.RetryPolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.Collections;
 
+import static com.hotels.styx.api.Id.id;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -106,6 +109,32 @@ public class RetryNTimesTest {
         assertThat(retryOutcome.nextOrigin().isPresent(), equalTo(false));
     }
 
+    @Test
+    public void shouldNotRetryWhenBudgetIsExhausted() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        when(retryPolicyContext.appId()).thenReturn(id("app"));
+        when(retryPolicyContext.lastException()).thenReturn(of(new RetryableTestException()));
+
+        RetryNTimes retryPolicy = new RetryNTimes(1, new TokenBucketRetryBudget(0.5, 0, 10), meterRegistry);
+        retryPolicy.requestSent();
+        retryPolicy.requestSent();
+
+        assertThat(retryPolicy.evaluate(retryPolicyContext, loadBalancer, null).shouldRetry(), equalTo(true));
+        assertThat(retryPolicy.evaluate(retryPolicyContext, loadBalancer, null).shouldRetry(), equalTo(false));
+        assertThat(meterRegistry.get("retries.budget.exhausted").tag("appId", "app").counter().count(), equalTo(1.0));
+    }
+
+    @Test
+    public void doesNotSpendBudgetOnNonRetryableFailures() {
+        TokenBucketRetryBudget budget = new TokenBucketRetryBudget(1.0, 0, 10);
+        budget.deposit();
+        when(retryPolicyContext.lastException()).thenReturn(of(new RuntimeException()));
+
+        new RetryNTimes(1, budget, new SimpleMeterRegistry()).evaluate(retryPolicyContext, loadBalancer, null);
+
+        assertThat(budget.balance(), equalTo(1));
+    }
+
     private final static class RetryableTestException extends RuntimeException implements IsRetryableException {
 
     }
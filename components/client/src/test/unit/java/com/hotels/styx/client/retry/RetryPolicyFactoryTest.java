@@ -19,13 +19,16 @@ import com.hotels.styx.api.Environment;
 import com.hotels.styx.api.configuration.Configuration;
 import com.hotels.styx.api.configuration.Configuration.MapBackedConfiguration;
 import com.hotels.styx.api.extension.retrypolicy.spi.RetryPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 
 import static com.hotels.styx.api.configuration.Configuration.EMPTY_CONFIGURATION;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class RetryPolicyFactoryTest {
     private final Environment environment = mock(Environment.class);
@@ -40,6 +43,19 @@ public class RetryPolicyFactoryTest {
         assertThat(((RetryNTimes) retryPolicy).maxAttempts(), is(2));
     }
 
+    @Test
+    public void appliesRetryBudgetWhenConfigured() {
+        when(environment.meterRegistry()).thenReturn(new SimpleMeterRegistry());
+        Configuration configuration = new MapBackedConfiguration()
+                .set("count", 2)
+                .set("budget.ratio", 0.2)
+                .set("budget.maxBurst", 50);
+
+        RetryPolicy retryPolicy = new RetryPolicyFactory().create(environment, configuration);
+
+        assertThat(retryPolicy.toString(), containsString("TokenBucketRetryBudget{ratio=0.2, minRetriesPerSecond=10, maxBurst=50}"));
+    }
+
     @Test
     public void usesDefaultCountOf1IfNotSpecified() {
         RetryPolicy retryPolicy = new RetryPolicyFactory().create(environment, EMPTY_CONFIGURATION);
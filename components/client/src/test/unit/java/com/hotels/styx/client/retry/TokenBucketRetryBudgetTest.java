@@ -0,0 +1,85 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.client.retry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TokenBucketRetryBudgetTest {
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    public void startsWithOneSecondOfMinimumRetries() {
+        TokenBucketRetryBudget budget = new TokenBucketRetryBudget(0.1, 2, 100, clock::get);
+
+        assertThat(budget.tryWithdraw(), is(true));
+        assertThat(budget.tryWithdraw(), is(true));
+        assertThat(budget.tryWithdraw(), is(false));
+    }
+
+    @Test
+    public void earnsRetriesInProportionToRequests() {
+        TokenBucketRetryBudget budget = new TokenBucketRetryBudget(0.1, 0, 100, clock::get);
+
+        for (int i = 0; i < 25; i++) {
+            budget.deposit();
+        }
+
+        assertThat(budget.balance(), is(2));
+        assertThat(budget.tryWithdraw(), is(true));
+        assertThat(budget.tryWithdraw(), is(true));
+        assertThat(budget.tryWithdraw(), is(false));
+    }
+
+    @Test
+    public void refillsAtMinimumRateOverTime() {
+        TokenBucketRetryBudget budget = new TokenBucketRetryBudget(0.1, 10, 100, clock::get);
+        drain(budget);
+
+        clock.addAndGet(MILLISECONDS.toNanos(300));
+
+        assertThat(budget.tryWithdraw(), is(true));
+        assertThat(budget.balance(), is(2));
+    }
+
+    @Test
+    public void balanceIsCappedAtMaxBurst() {
+        TokenBucketRetryBudget budget = new TokenBucketRetryBudget(1.0, 0, 5, clock::get);
+
+        for (int i = 0; i < 100; i++) {
+            budget.deposit();
+        }
+
+        assertThat(budget.balance(), is(5));
+    }
+
+    @Test
+    public void rejectsInvalidRatio() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketRetryBudget(1.5, 10, 100));
+    }
+
+    private static void drain(TokenBucketRetryBudget budget) {
+        while (budget.tryWithdraw()) {
+            // keep withdrawing
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.api;
+
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+
+/**
+ * Conversions between Styx HttpHeaders and Netty HttpHeaders objects.
+ */
+public final class Headers {
+    private Headers() {
+    }
+
+    /**
+     * Builds Styx HttpHeaders from Netty HttpHeaders.
+     *
+     * If possible, the Netty headers are wrapped rather than copied. The caller hands the ownership
+     * of the Netty headers over to Styx, and must not modify them afterwards.
+     *
+     * @param nettyHeaders Netty headers
+     * @return Styx headers
+     */
+    public static HttpHeaders toStyxHeaders(io.netty.handler.codec.http.HttpHeaders nettyHeaders) {
+        if (nettyHeaders instanceof DefaultHttpHeaders) {
+            return new HttpHeaders((DefaultHttpHeaders) nettyHeaders);
+        }
+
+        DefaultHttpHeaders copy = new DefaultHttpHeaders(true);
+        copy.set(nettyHeaders);
+        return new HttpHeaders(copy);
+    }
+
+    /**
+     * Returns Netty HttpHeaders corresponding to Styx HttpHeaders.
+     *
+     * The returned object is shared with the Styx headers, and must not be modified.
+     *
+     * @param headers Styx headers
+     * @return Netty headers
+     */
+    public static io.netty.handler.codec.http.HttpHeaders toNettyHeaders(HttpHeaders headers) {
+        return headers.nettyHeaders();
+    }
+}
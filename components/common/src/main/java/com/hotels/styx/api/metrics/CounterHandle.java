@@ -0,0 +1,64 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.api.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A handle to a counter that is looked up from the registry on first use only.
+ * <p>
+ * Hot-path components can hold handles rather than looking the counters up for each event.
+ * The counter is not registered until it is first used. Therefore holding a handle does not
+ * create a metric that is never updated.
+ */
+public final class CounterHandle {
+    private final MeterRegistry registry;
+    private final String name;
+    private final Tags tags;
+    private volatile Counter counter;
+
+    private CounterHandle(MeterRegistry registry, String name, Tags tags) {
+        this.registry = requireNonNull(registry);
+        this.name = requireNonNull(name);
+        this.tags = requireNonNull(tags);
+    }
+
+    public static CounterHandle counterHandle(MeterRegistry registry, String name) {
+        return new CounterHandle(registry, name, Tags.empty());
+    }
+
+    public static CounterHandle counterHandle(MeterRegistry registry, String name, Tags tags) {
+        return new CounterHandle(registry, name, tags);
+    }
+
+    public void increment() {
+        counter().increment();
+    }
+
+    public Counter counter() {
+        Counter counter = this.counter;
+        if (counter == null) {
+            // The registry returns the same counter for concurrent lookups:
+            counter = registry.counter(name, tags);
+            this.counter = counter;
+        }
+        return counter;
+    }
+}
@@ -18,57 +18,92 @@ package com.hotels.styx.api.metrics;
 import com.hotels.styx.api.Clock;
 import com.hotels.styx.api.Clocks;
 import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static com.hotels.styx.common.Preconditions.checkArgument;
-import static java.lang.System.currentTimeMillis;
+import static java.lang.Math.min;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
  * Implements an HDR histogram with a sliding window behaviour. The sliding
  * window size is fixed to 10 seconds and window granularity is one second.
+ * <p>
+ * Recording a value never blocks: writers only ever call {@link Recorder#recordValue(long)}. Values are
+ * recorded into HdrHistogram {@link Recorder}s, which are striped by the recording thread. A single stripe
+ * is used until writers are seen to contend for it, and more stripes are added as contention is observed,
+ * up to the configured number of stripes. The stripes are merged when the histogram is read. Reads are
+ * serialised between themselves.
+ * <p>
+ * The window is a fixed ring of intervals, allocated up front. Writers move an interval on to a newer time
+ * interval by advancing its number. Readers discard the values of an interval whose number has dropped out
+ * of the window, so that the recorders and histograms are only allocated once, and not again as time passes.
  */
 public final class SlidingWindowHistogram {
     private static final int DEFAULT_NUMBER_OF_INTERVALS = 10;
+    private static final int DEFAULT_NUMBER_OF_STRIPES = min(Runtime.getRuntime().availableProcessors(), 8);
+    // Keeps the writer counts of different stripes on different cache lines:
+    private static final int STRIPE_PADDING = 16;
+
     private final Clock clock;
     private final Histogram aggregateHistogram;
-    private final IntervalBucket[] window;
+    private final Histogram drainedHistogram;
+    private final Interval[] window;
+    private final AtomicIntegerArray writers;
+    private final AtomicInteger activeStripes = new AtomicInteger(1);
 
     private final int numberOfIntervals;
     private final long intervalDurationMillis;
-    private long lastUpdateTime;
+    private final int numberOfStripes;
+    private final long lowestDiscernibleValue;
+    private final long highestTrackableValue;
+    private final int numberOfSignificantDigits;
+    private final boolean autoResize;
 
     private SlidingWindowHistogram(Builder builder) {
         this.numberOfIntervals = builder.numberOfIntervals;
         this.intervalDurationMillis = builder.intervalDurationMillis;
+        this.numberOfStripes = builder.numberOfStripes;
         this.clock = builder.clock;
-
-        this.aggregateHistogram = new Histogram(builder.lowestDiscernibleValue, builder.highestTrackableValue, builder.numberOfSignificantDigits);
-        if (builder.autoResize) {
-            this.aggregateHistogram.setAutoResize(true);
-        }
-
-        this.window = new IntervalBucket[this.numberOfIntervals];
+        this.lowestDiscernibleValue = builder.lowestDiscernibleValue;
+        this.highestTrackableValue = builder.highestTrackableValue;
+        this.numberOfSignificantDigits = builder.numberOfSignificantDigits;
+        this.autoResize = builder.autoResize;
+
+        this.aggregateHistogram = newHistogram();
+        this.drainedHistogram = newHistogram();
+        this.writers = new AtomicIntegerArray(this.numberOfStripes * STRIPE_PADDING);
+        this.window = new Interval[this.numberOfIntervals];
         for (int i = 0; i < this.numberOfIntervals; i++) {
-            this.window[i] = new IntervalBucket(this.aggregateHistogram, builder.lowestDiscernibleValue,
-                    builder.highestTrackableValue, builder.numberOfSignificantDigits, builder.autoResize);
+            this.window[i] = new Interval();
         }
-
-        this.lastUpdateTime = currentTimeMillis();
     }
 
-    public synchronized void recordValue(long msValue) {
+    public void recordValue(long msValue) {
         checkArgument(msValue >= 0, "Recorded value must be a positive number.");
 
-        long currentTime = clock.tickMillis();
-        purgeOldHistograms(currentTime);
-
-        int bucket = bucketFromTime(currentTime);
-        window[bucket].recordValue(msValue);
-
-        lastUpdateTime = currentTime;
+        long intervalNumber = intervalNumber(clock.tickMillis());
+        Interval interval = window[bucketFromIntervalNumber(intervalNumber)];
+        // A late writer may observe a newer interval. The value is then counted towards the newer interval:
+        interval.advanceTo(intervalNumber);
+
+        int stripes = activeStripes.get();
+        int stripe = (int) (Thread.currentThread().getId() % stripes);
+        int slot = stripe * STRIPE_PADDING;
+        try {
+            if (writers.getAndIncrement(slot) > 0 && stripes < numberOfStripes) {
+                activeStripes.compareAndSet(stripes, stripes + 1);
+            }
+            interval.recorder(stripe).recordValue(msValue);
+        } finally {
+            writers.decrementAndGet(slot);
+        }
     }
 
     public synchronized double getMean() {
@@ -96,87 +131,101 @@ public final class SlidingWindowHistogram {
     }
 
     private Histogram getAggregateHistogram() {
-        long currentTime = clock.tickMillis();
-        purgeOldHistograms(currentTime);
-
-        aggregateHistograms();
-        return aggregateHistogram;
-    }
+        long oldestIntervalInWindow = intervalNumber(clock.tickMillis()) - numberOfIntervals + 1;
 
-    private boolean timePassed(long currentTime) {
-        return intervalNumber(lastUpdateTime) < intervalNumber(currentTime);
-    }
-
-    private void purgeOldHistograms(long currentTime) {
-        if (timePassed(currentTime)) {
-            int i = 0;
-            long startTime = Math.min(lastUpdateTime + intervalDurationMillis, currentTime);
-            for (long t = startTime; i < numberOfIntervals && t <= currentTime; i++, t += intervalDurationMillis) {
-                int bucket = bucketFromTime(t);
-                window[bucket].reset();
+        aggregateHistogram.reset();
+        for (Interval interval : window) {
+            Histogram histogram = interval.drain(oldestIntervalInWindow);
+            if (histogram != null) {
+                aggregateHistogram.add(histogram);
             }
         }
+        return aggregateHistogram;
     }
 
-    private int bucketFromTime(long timeMs) {
-        return (int) (intervalNumber(timeMs) % numberOfIntervals);
+    private int bucketFromIntervalNumber(long intervalNumber) {
+        return (int) (intervalNumber % numberOfIntervals);
     }
 
     private long intervalNumber(long timeMs) {
         return timeMs / intervalDurationMillis;
     }
 
-    private void aggregateHistograms() {
-        for (int i = 0; i < numberOfIntervals; i++) {
-            window[i].aggregate();
+    private Histogram newHistogram() {
+        Histogram histogram = new Histogram(lowestDiscernibleValue, highestTrackableValue, numberOfSignificantDigits);
+        if (autoResize) {
+            histogram.setAutoResize(true);
         }
+        return histogram;
     }
 
-    private static class IntervalBucket {
-        private final Histogram aggregateHistogram;
-        private final Histogram intervalHistogram;
-        private IntervalState state;
+    private Recorder newRecorder() {
+        return autoResize
+                ? new Recorder(numberOfSignificantDigits)
+                : new Recorder(lowestDiscernibleValue, highestTrackableValue, numberOfSignificantDigits);
+    }
 
-        public IntervalBucket(Histogram aggregateHistogram, long lowestDiscernibleValue, long highestTrackableValue, int numberOfSignificantDigits, Boolean autoResize) {
-            this.aggregateHistogram = aggregateHistogram;
-            this.intervalHistogram = new Histogram(lowestDiscernibleValue, highestTrackableValue, numberOfSignificantDigits);
-            if (autoResize) {
-                this.intervalHistogram.setAutoResize(true);
+    /**
+     * Values recorded during one time interval. The recorders are written concurrently. The accumulated
+     * histogram is only accessed by readers, while holding the histogram lock.
+     * <p>
+     * Writers move the interval on to a newer time interval by advancing its number, without touching the
+     * values it still holds. Readers drain the recorders and discard the values when the interval number has
+     * dropped out of the window. The values of the previous time interval are discarded this way as long as
+     * the histogram is read at least once before the interval is reused, a full window later. Otherwise, the
+     * values recorded since the last read are counted towards the newer time interval.
+     */
+    private final class Interval {
+        private final AtomicReferenceArray<Recorder> recorders = new AtomicReferenceArray<>(numberOfStripes);
+        private final AtomicLong number = new AtomicLong(-1);
+        private Histogram accumulated;
+        private long accumulatedNumber = -1;
+
+        void advanceTo(long newNumber) {
+            long current = number.get();
+            while (current < newNumber && !number.compareAndSet(current, newNumber)) {
+                current = number.get();
             }
-            this.state = IntervalState.EMPTY;
         }
 
-        public void recordValue(long msValue) {
-            intervalHistogram.recordValue(msValue);
-            if (this.state == IntervalState.AGGREGATED) {
-                aggregateHistogram.recordValue(msValue);
-            } else {
-                this.state = IntervalState.UPDATED;
+        Recorder recorder(int stripe) {
+            Recorder recorder = recorders.get(stripe);
+            if (recorder == null) {
+                recorders.compareAndSet(stripe, null, newRecorder());
+                recorder = recorders.get(stripe);
             }
+            return recorder;
         }
 
-        public void reset() {
-            if (this.state == IntervalState.AGGREGATED) {
-                aggregateHistogram.subtract(this.intervalHistogram);
+        Histogram drain(long oldestIntervalInWindow) {
+            long intervalNumber = number.get();
+            boolean expired = intervalNumber < oldestIntervalInWindow;
+            if (intervalNumber != accumulatedNumber) {
+                if (accumulated != null) {
+                    accumulated.reset();
+                }
+                accumulatedNumber = intervalNumber;
             }
-            this.intervalHistogram.reset();
-            this.state = IntervalState.EMPTY;
+            for (int i = 0; i < numberOfStripes; i++) {
+                Recorder recorder = recorders.get(i);
+                if (recorder != null) {
+                    recorder.getIntervalHistogramInto(drainedHistogram);
+                    if (!expired) {
+                        accumulated().add(drainedHistogram);
+                    }
+                }
+            }
+            return expired ? null : accumulated;
         }
 
-        public void aggregate() {
-            if (this.state == IntervalState.UPDATED) {
-                aggregateHistogram.add(this.intervalHistogram);
-                this.state = IntervalState.AGGREGATED;
+        private Histogram accumulated() {
+            if (accumulated == null) {
+                accumulated = newHistogram();
             }
+            return accumulated;
         }
     }
 
-    private enum IntervalState {
-        AGGREGATED,
-        UPDATED,
-        EMPTY
-    }
-
     /**
      * A builder object for constructing SlidingWindowHistogram instances.
      */
@@ -186,6 +235,7 @@ public final class SlidingWindowHistogram {
         private long lowestDiscernibleValue = 1;
         private long highestTrackableValue = 2;
         private int numberOfSignificantDigits = 2;
+        private int numberOfStripes = DEFAULT_NUMBER_OF_STRIPES;
         private Clock clock = Clocks.systemClock();
         private Boolean autoResize = false;
 
@@ -214,6 +264,12 @@ public final class SlidingWindowHistogram {
             return this;
         }
 
+        public Builder numberOfStripes(int numberOfStripes) {
+            checkArgument(numberOfStripes > 0, "Number of stripes must be positive.");
+            this.numberOfStripes = numberOfStripes;
+            return this;
+        }
+
         public Builder clock(Clock clock) {
             this.clock = requireNonNull(clock);
             return this;
@@ -34,12 +34,14 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
  * A {@link Reservoir} backed by a {@link SlidingWindowHistogram}.
+ * <p>
+ * Updates do not block. Only the snapshot creation is synchronised.
  */
 public class SlidingWindowHistogramReservoir implements Reservoir {
     private final SlidingWindowHistogram histogram;
     private final Clock clock;
     private volatile HistogramSnapshot snapshot;
-    private boolean updated = true;
+    private volatile boolean updated = true;
     private long snapshotCreationTime;
 
     public SlidingWindowHistogramReservoir() {
@@ -66,7 +68,7 @@ public class SlidingWindowHistogramReservoir implements Reservoir {
     }
 
     @Override
-    public synchronized void update(long value) {
+    public void update(long value) {
         updated = true;
         histogram.recordValue(value);
     }
@@ -74,8 +76,9 @@ public class SlidingWindowHistogramReservoir implements Reservoir {
     @Override
     public synchronized Snapshot getSnapshot() {
         if (updated || snapshotExpired(clock.tickMillis())) {
-            snapshot = new HistogramSnapshot(histogram);
+            // Cleared first, so that concurrent updates are not missed by the next snapshot:
             updated = false;
+            snapshot = new HistogramSnapshot(histogram);
             snapshotCreationTime = clock.tickMillis();
         }
         return snapshot;
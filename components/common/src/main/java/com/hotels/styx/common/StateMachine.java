@@ -17,9 +17,10 @@ package com.hotels.styx.common;
 
 import org.slf4j.Logger;
 
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
-import java.util.Objects;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -28,24 +29,26 @@ import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * A general-purpose state-machine.
+ * <p>
+ * The transitions are held in an immutable {@link Definition}. A definition can be built once, and shared
+ * between all state-machine instances of the same kind. The instances only carry their current state,
+ * and a context object that is passed into the transition functions.
  *
  * @param <S> state type
  */
 public final class StateMachine<S> {
     private static final Logger LOGGER = getLogger(StateMachine.class);
 
-    private final Map<Key<S>, Function<Object, S>> transitions;
-    private final BiFunction<S, Object, S> inappropriateEventHandler;
-    private final StateChangeListener<S> stateChangeListener;
+    private final Definition<S, Object> definition;
+    private final Object context;
 
     private volatile S currentState;
 
-    private StateMachine(S initialState, Map<Key<S>, Function<Object, S>> transitions,
-            BiFunction<S, Object, S> inappropriateEventHandler, StateChangeListener<S> stateChangeListener) {
-        this.currentState = requireNonNull(initialState);
-        this.transitions = requireNonNull(transitions);
-        this.inappropriateEventHandler = requireNonNull(inappropriateEventHandler);
-        this.stateChangeListener = requireNonNull(stateChangeListener);
+    @SuppressWarnings("unchecked")
+    private StateMachine(Definition<S, ?> definition, Object context) {
+        this.definition = (Definition<S, Object>) requireNonNull(definition);
+        this.context = context;
+        this.currentState = definition.initialState;
     }
 
     /**
@@ -64,11 +67,13 @@ public final class StateMachine<S> {
      * @param loggingPrefix a prefix to prepend to the beginning of log lines
      */
     public void handle(Object event, String loggingPrefix) {
-        Function<Object, S> transition = transitions.get(new Key<>(currentState, event.getClass()));
+        BiFunction<Object, Object, S> transition = definition.transition(currentState, event.getClass());
 
         S oldState = currentState;
-        currentState = transition == null ? inappropriateEventHandler.apply(oldState, event) : transition.apply(event);
-        stateChangeListener.onStateChange(oldState, currentState, event);
+        currentState = transition == null
+                ? definition.inappropriateEventHandler.apply(context, oldState, event)
+                : transition.apply(context, event);
+        definition.stateChangeListener.onStateChange(oldState, currentState, event);
     }
 
     /**
@@ -80,31 +85,132 @@ public final class StateMachine<S> {
         this.handle(event, "");
     }
 
-    private static final class Key<S> {
-        private final S state;
-        private final Class<?> eventClass;
+    /**
+     * Handles an event that has no transition associated with the current state.
+     *
+     * @param <C> context type
+     * @param <S> state type
+     * @param <E> event type
+     */
+    public interface InappropriateEventHandler<C, S, E> {
+        S apply(C context, S state, E event);
+    }
 
-        private Key(S state, Class<?> eventClass) {
-            this.state = state;
-            this.eventClass = eventClass;
+    /**
+     * An immutable state-machine definition. Transitions are looked up by the state, and by an
+     * index of the event type, without allocating any objects.
+     *
+     * @param <S> state type
+     * @param <C> type of the context object that is passed into the transition functions
+     */
+    public static final class Definition<S, C> {
+        private final S initialState;
+        private final Map<S, BiFunction<C, Object, S>[]> transitionsByState;
+        private final Map<Class<?>, Integer> eventTypeIds;
+        private final InappropriateEventHandler<C, S, Object> inappropriateEventHandler;
+        private final StateChangeListener<S> stateChangeListener;
+
+        private Definition(S initialState, Map<S, BiFunction<C, Object, S>[]> transitionsByState, Map<Class<?>, Integer> eventTypeIds,
+                           InappropriateEventHandler<C, S, Object> inappropriateEventHandler, StateChangeListener<S> stateChangeListener) {
+            this.initialState = requireNonNull(initialState);
+            this.transitionsByState = requireNonNull(transitionsByState);
+            this.eventTypeIds = requireNonNull(eventTypeIds);
+            this.inappropriateEventHandler = requireNonNull(inappropriateEventHandler);
+            this.stateChangeListener = requireNonNull(stateChangeListener);
         }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) {
-                return true;
-            }
-            if (o == null || getClass() != o.getClass()) {
-                return false;
-            }
-            Key<?> key = (Key<?>) o;
-            return Objects.equals(state, key.state)
-                    && Objects.equals(eventClass, key.eventClass);
+        /**
+         * Creates a new state-machine in the initial state.
+         *
+         * @param context an object that is passed into the transition functions
+         * @return a new state-machine
+         */
+        public StateMachine<S> newStateMachine(C context) {
+            return new StateMachine<>(this, context);
         }
 
-        @Override
-        public int hashCode() {
-            return Objects.hash(state, eventClass);
+        private BiFunction<C, Object, S> transition(S state, Class<?> eventClass) {
+            BiFunction<C, Object, S>[] transitions = transitionsByState.get(state);
+            Integer eventTypeId = eventTypeIds.get(eventClass);
+            return transitions == null || eventTypeId == null ? null : transitions[eventTypeId];
+        }
+    }
+
+    /**
+     * Builder for a state-machine {@link Definition}, whose transitions operate on a context object.
+     *
+     * @param <S> state type
+     * @param <C> context type
+     */
+    public static final class DefinitionBuilder<S extends Enum<S>, C> {
+        private final Class<S> stateClass;
+        private final TransitionTable<S, C> transitions = new TransitionTable<>();
+        private InappropriateEventHandler<C, S, Object> inappropriateEventHandler;
+        private S initialState;
+        private StateChangeListener<S> stateChangeListener = (oldState, newState, event) -> {
+        };
+
+        public DefinitionBuilder(Class<S> stateClass) {
+            this.stateClass = requireNonNull(stateClass);
+        }
+
+        /**
+         * Sets the state that the state-machines should start in.
+         *
+         * @param initialState initial state
+         * @return this builder
+         */
+        public DefinitionBuilder<S, C> initialState(S initialState) {
+            this.initialState = initialState;
+            return this;
+        }
+
+        /**
+         * Associates a state and event type with a function that returns a new state and possibly side-effects.
+         *
+         * @param state      state to transition from
+         * @param eventClass event class
+         * @param mapper     function that returns the new state
+         * @param <E>        event type
+         * @return this builder
+         */
+        @SuppressWarnings("unchecked")
+        public <E> DefinitionBuilder<S, C> transition(S state, Class<E> eventClass, BiFunction<C, E, S> mapper) {
+            transitions.put(state, eventClass, (context, event) -> mapper.apply(context, (E) event));
+            return this;
+        }
+
+        /**
+         * Determines how to handle an inappropriate event. That is, an event that has no transition associated with the current state.
+         *
+         * @param handler function that returns the new state
+         * @param <E>     event type
+         * @return this builder
+         */
+        @SuppressWarnings("unchecked")
+        public <E> DefinitionBuilder<S, C> onInappropriateEvent(InappropriateEventHandler<C, S, E> handler) {
+            this.inappropriateEventHandler = (context, state, event) -> handler.apply(context, state, (E) event);
+            return this;
+        }
+
+        /**
+         * Add state-change-listener to be informed about state changes, including due to inappropriate events.
+         *
+         * @param stateChangeListener state-change-listener
+         * @return this builder
+         */
+        public DefinitionBuilder<S, C> onStateChange(StateChangeListener<S> stateChangeListener) {
+            this.stateChangeListener = requireNonNull(stateChangeListener);
+            return this;
+        }
+
+        /**
+         * Builds an immutable state-machine definition.
+         *
+         * @return a state-machine definition
+         */
+        public Definition<S, C> build() {
+            return transitions.toDefinition(new EnumMap<>(stateClass), initialState, inappropriateEventHandler, stateChangeListener);
         }
     }
 
@@ -114,7 +220,7 @@ public final class StateMachine<S> {
      * @param <S> state type
      */
     public static final class Builder<S> {
-        private final Map<Key<S>, Function<Object, S>> stateEventHandlers = new HashMap<>();
+        private final TransitionTable<S, Object> transitions = new TransitionTable<>();
         private BiFunction<S, Object, S> inappropriateEventHandler;
         private S initialState;
         private StateChangeListener<S> stateChangeListener = (oldState, newState, event) -> {
@@ -142,7 +248,7 @@ public final class StateMachine<S> {
          */
         @SuppressWarnings("unchecked")
         public <E> Builder<S> transition(S state, Class<E> eventClass, Function<E, S> mapper) {
-            this.stateEventHandlers.put(new Key<>(state, eventClass), event -> mapper.apply((E) event));
+            transitions.put(state, eventClass, (context, event) -> mapper.apply((E) event));
             return this;
         }
 
@@ -176,7 +282,10 @@ public final class StateMachine<S> {
          * @return a new state-machine
          */
         public StateMachine<S> build() {
-            return new StateMachine<>(initialState, stateEventHandlers, inappropriateEventHandler, stateChangeListener);
+            BiFunction<S, Object, S> inappropriateEventHandler = requireNonNull(this.inappropriateEventHandler);
+            return transitions.toDefinition(new HashMap<>(), initialState,
+                    (context, state, event) -> inappropriateEventHandler.apply(state, event), stateChangeListener)
+                    .newStateMachine(null);
         }
 
         public Builder<S> debugTransitions(String messagePrefix) {
@@ -185,4 +294,30 @@ public final class StateMachine<S> {
             });
         }
     }
+
+    /*
+     * Collects the transitions, and assigns a dense index to each event type.
+     */
+    private static final class TransitionTable<S, C> {
+        private final Map<Class<?>, Integer> eventTypeIds = new IdentityHashMap<>();
+        private final Map<S, Map<Integer, BiFunction<C, Object, S>>> transitions = new HashMap<>();
+
+        void put(S state, Class<?> eventClass, BiFunction<C, Object, S> transition) {
+            Integer eventTypeId = eventTypeIds.computeIfAbsent(eventClass, key -> eventTypeIds.size());
+            transitions.computeIfAbsent(state, key -> new HashMap<>()).put(eventTypeId, transition);
+        }
+
+        @SuppressWarnings("unchecked")
+        Definition<S, C> toDefinition(Map<S, BiFunction<C, Object, S>[]> transitionsByState, S initialState,
+                                      InappropriateEventHandler<C, S, Object> inappropriateEventHandler, StateChangeListener<S> stateChangeListener) {
+            int numberOfEventTypes = eventTypeIds.size();
+            transitions.forEach((state, transitionsForState) -> {
+                BiFunction<C, Object, S>[] row = new BiFunction[numberOfEventTypes];
+                transitionsForState.forEach((eventTypeId, transition) -> row[eventTypeId] = transition);
+                transitionsByState.put(state, row);
+            });
+            return new Definition<>(initialState, transitionsByState, new IdentityHashMap<>(eventTypeIds),
+                    inappropriateEventHandler, stateChangeListener);
+        }
+    }
 }
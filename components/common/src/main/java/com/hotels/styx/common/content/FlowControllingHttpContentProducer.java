@@ -53,7 +53,62 @@ public class FlowControllingHttpContentProducer {
     private static final Logger LOGGER = LoggerFactory.getLogger(FlowControllingHttpContentProducer.class);
     private static final int MAX_DEPTH = 1;
 
-    private StateMachine<ProducerState> stateMachine;
+    private static final StateMachine.Definition<ProducerState, FlowControllingHttpContentProducer> STATE_MACHINE =
+            new StateMachine.DefinitionBuilder<ProducerState, FlowControllingHttpContentProducer>(ProducerState.class)
+                .initialState(BUFFERING)
+
+                .transition(BUFFERING, RxBackpressureRequestEvent.class, FlowControllingHttpContentProducer::rxBackpressureRequestInBuffering)
+                .transition(BUFFERING, ContentChunkEvent.class, FlowControllingHttpContentProducer::contentChunkInBuffering)
+                .transition(BUFFERING, TearDownEvent.class, FlowControllingHttpContentProducer::releaseAndTerminate)
+                .transition(BUFFERING, ChannelInactiveEvent.class, FlowControllingHttpContentProducer::releaseAndTerminate)
+                .transition(BUFFERING, ChannelExceptionEvent.class, FlowControllingHttpContentProducer::releaseAndTerminate)
+                .transition(BUFFERING, ContentSubscribedEvent.class, FlowControllingHttpContentProducer::contentSubscribedInBuffering)
+                .transition(BUFFERING, ContentEndEvent.class, FlowControllingHttpContentProducer::contentEndEventWhileBuffering)
+
+                .transition(BUFFERING_COMPLETED, RxBackpressureRequestEvent.class, FlowControllingHttpContentProducer::rxBackpressureRequestInBufferingCompleted)
+                .transition(BUFFERING_COMPLETED, ContentChunkEvent.class, FlowControllingHttpContentProducer::spuriousContentChunkEvent)
+                .transition(BUFFERING_COMPLETED, TearDownEvent.class, FlowControllingHttpContentProducer::releaseAndTerminate)
+                .transition(BUFFERING_COMPLETED, ChannelInactiveEvent.class, (producer, e) -> BUFFERING_COMPLETED)
+                .transition(BUFFERING_COMPLETED, ChannelExceptionEvent.class, (producer, s) -> BUFFERING_COMPLETED)
+                .transition(BUFFERING_COMPLETED, ContentSubscribedEvent.class, FlowControllingHttpContentProducer::contentSubscribedInBufferingCompleted)
+                .transition(BUFFERING_COMPLETED, ContentEndEvent.class, FlowControllingHttpContentProducer::contentEndEventWhileBufferingCompleted)
+
+                .transition(STREAMING, RxBackpressureRequestEvent.class, FlowControllingHttpContentProducer::rxBackpressureRequestEventInStreaming)
+                .transition(STREAMING, ContentChunkEvent.class, FlowControllingHttpContentProducer::contentChunkInStreaming)
+                .transition(STREAMING, TearDownEvent.class, (producer, e) -> producer.emitErrorAndTerminate(e.cause()))
+                .transition(STREAMING, ChannelInactiveEvent.class, (producer, e) -> producer.emitErrorAndTerminate(e.cause()))
+                .transition(STREAMING, ChannelExceptionEvent.class, (producer, e) -> producer.emitErrorAndTerminate(e.cause()))
+                .transition(STREAMING, ContentSubscribedEvent.class, FlowControllingHttpContentProducer::contentSubscribedEventWhileStreaming)
+                .transition(STREAMING, ContentEndEvent.class, FlowControllingHttpContentProducer::contentEndEventWhileStreaming)
+                .transition(STREAMING, UnsubscribeEvent.class, FlowControllingHttpContentProducer::emitErrorAndTerminateOnPrematureUnsubscription)
+
+                .transition(EMITTING_BUFFERED_CONTENT, RxBackpressureRequestEvent.class, FlowControllingHttpContentProducer::rxBackpressureRequestInEmittingBufferedContent)
+                .transition(EMITTING_BUFFERED_CONTENT, ContentChunkEvent.class, FlowControllingHttpContentProducer::spuriousContentChunkEvent)
+                .transition(EMITTING_BUFFERED_CONTENT, TearDownEvent.class, (producer, s) -> producer.emitErrorAndTerminate(s.cause()))
+                .transition(EMITTING_BUFFERED_CONTENT, ChannelInactiveEvent.class, (producer, e) -> EMITTING_BUFFERED_CONTENT)
+                .transition(EMITTING_BUFFERED_CONTENT, ChannelExceptionEvent.class, (producer, s) -> EMITTING_BUFFERED_CONTENT)
+                .transition(EMITTING_BUFFERED_CONTENT, ContentSubscribedEvent.class, FlowControllingHttpContentProducer::contentSubscribedEventWhileEmittingBufferedContent)
+                .transition(EMITTING_BUFFERED_CONTENT, ContentEndEvent.class, FlowControllingHttpContentProducer::contentEndEventWhileEmittingBufferedContent)
+                .transition(EMITTING_BUFFERED_CONTENT, UnsubscribeEvent.class, FlowControllingHttpContentProducer::emitErrorAndTerminateOnPrematureUnsubscription)
+
+                .transition(COMPLETED, ContentChunkEvent.class, FlowControllingHttpContentProducer::spuriousContentChunkEvent)
+                .transition(COMPLETED, UnsubscribeEvent.class, (producer, ev) -> COMPLETED)
+                .transition(COMPLETED, RxBackpressureRequestEvent.class, (producer, ev) -> COMPLETED)
+                .transition(COMPLETED, ContentSubscribedEvent.class, FlowControllingHttpContentProducer::contentSubscribedInCompletedState)
+                .transition(COMPLETED, TearDownEvent.class, (producer, ev) -> COMPLETED)
+
+                .transition(TERMINATED, ContentChunkEvent.class, FlowControllingHttpContentProducer::spuriousContentChunkEvent)
+                .transition(TERMINATED, ContentSubscribedEvent.class, FlowControllingHttpContentProducer::contentSubscribedInTerminatedState)
+                .transition(TERMINATED, RxBackpressureRequestEvent.class, (producer, ev) -> TERMINATED)
+                .transition(TERMINATED, TearDownEvent.class, (producer, ev) -> TERMINATED)
+
+                .onInappropriateEvent((producer, state, event) -> {
+                    LOGGER.warn(producer.warningMessage("Inappropriate event=" + event));
+                    return state;
+                })
+                .build();
+
+    private final StateMachine<ProducerState> stateMachine;
     private final String loggingPrefix;
 
     private final Runnable askForMore;
@@ -95,59 +150,7 @@ public class FlowControllingHttpContentProducer {
         this.onTerminateAction = requireNonNull(onTerminateAction);
         this.loggingPrefix = loggingPrefix;
 
-        this.stateMachine = new StateMachine.Builder<ProducerState>()
-                .initialState(BUFFERING)
-
-                .transition(BUFFERING, RxBackpressureRequestEvent.class, this::rxBackpressureRequestInBuffering)
-                .transition(BUFFERING, ContentChunkEvent.class, this::contentChunkInBuffering)
-                .transition(BUFFERING, TearDownEvent.class, this::releaseAndTerminate)
-                .transition(BUFFERING, ChannelInactiveEvent.class, this::releaseAndTerminate)
-                .transition(BUFFERING, ChannelExceptionEvent.class, this::releaseAndTerminate)
-                .transition(BUFFERING, ContentSubscribedEvent.class, this::contentSubscribedInBuffering)
-                .transition(BUFFERING, ContentEndEvent.class, this::contentEndEventWhileBuffering)
-
-                .transition(BUFFERING_COMPLETED, RxBackpressureRequestEvent.class, this::rxBackpressureRequestInBufferingCompleted)
-                .transition(BUFFERING_COMPLETED, ContentChunkEvent.class, this::spuriousContentChunkEvent)
-                .transition(BUFFERING_COMPLETED, TearDownEvent.class, this::releaseAndTerminate)
-                .transition(BUFFERING_COMPLETED, ChannelInactiveEvent.class, e -> BUFFERING_COMPLETED)
-                .transition(BUFFERING_COMPLETED, ChannelExceptionEvent.class, s -> BUFFERING_COMPLETED)
-                .transition(BUFFERING_COMPLETED, ContentSubscribedEvent.class, this::contentSubscribedInBufferingCompleted)
-                .transition(BUFFERING_COMPLETED, ContentEndEvent.class, this::contentEndEventWhileBufferingCompleted)
-
-                .transition(STREAMING, RxBackpressureRequestEvent.class, this::rxBackpressureRequestEventInStreaming)
-                .transition(STREAMING, ContentChunkEvent.class, this::contentChunkInStreaming)
-                .transition(STREAMING, TearDownEvent.class, e -> emitErrorAndTerminate(e.cause()))
-                .transition(STREAMING, ChannelInactiveEvent.class, e -> emitErrorAndTerminate(e.cause()))
-                .transition(STREAMING, ChannelExceptionEvent.class, e -> emitErrorAndTerminate(e.cause()))
-                .transition(STREAMING, ContentSubscribedEvent.class, this::contentSubscribedEventWhileStreaming)
-                .transition(STREAMING, ContentEndEvent.class, this::contentEndEventWhileStreaming)
-                .transition(STREAMING, UnsubscribeEvent.class, this::emitErrorAndTerminateOnPrematureUnsubscription)
-
-                .transition(EMITTING_BUFFERED_CONTENT, RxBackpressureRequestEvent.class, this::rxBackpressureRequestInEmittingBufferedContent)
-                .transition(EMITTING_BUFFERED_CONTENT, ContentChunkEvent.class, this::spuriousContentChunkEvent)
-                .transition(EMITTING_BUFFERED_CONTENT, TearDownEvent.class, s -> emitErrorAndTerminate(s.cause()))
-                .transition(EMITTING_BUFFERED_CONTENT, ChannelInactiveEvent.class, e -> EMITTING_BUFFERED_CONTENT)
-                .transition(EMITTING_BUFFERED_CONTENT, ChannelExceptionEvent.class, s -> EMITTING_BUFFERED_CONTENT)
-                .transition(EMITTING_BUFFERED_CONTENT, ContentSubscribedEvent.class, this::contentSubscribedEventWhileEmittingBufferedContent)
-                .transition(EMITTING_BUFFERED_CONTENT, ContentEndEvent.class, this::contentEndEventWhileEmittingBufferedContent)
-                .transition(EMITTING_BUFFERED_CONTENT, UnsubscribeEvent.class, this::emitErrorAndTerminateOnPrematureUnsubscription)
-
-                .transition(COMPLETED, ContentChunkEvent.class, this::spuriousContentChunkEvent)
-                .transition(COMPLETED, UnsubscribeEvent.class, ev -> COMPLETED)
-                .transition(COMPLETED, RxBackpressureRequestEvent.class, ev -> COMPLETED)
-                .transition(COMPLETED, ContentSubscribedEvent.class, this::contentSubscribedInCompletedState)
-                .transition(COMPLETED, TearDownEvent.class, ev -> COMPLETED)
-
-                .transition(TERMINATED, ContentChunkEvent.class, this::spuriousContentChunkEvent)
-                .transition(TERMINATED, ContentSubscribedEvent.class, this::contentSubscribedInTerminatedState)
-                .transition(TERMINATED, RxBackpressureRequestEvent.class, ev -> TERMINATED)
-                .transition(TERMINATED, TearDownEvent.class, ev -> TERMINATED)
-
-                .onInappropriateEvent((state, event) -> {
-                    LOGGER.warn(warningMessage("Inappropriate event=" + event));
-                    return state;
-                })
-                .build();
+        this.stateMachine = STATE_MACHINE.newStateMachine(this);
 
 
         timer = new FlowControllerTimer(inactivityTimeoutMs, eventLoop, this);
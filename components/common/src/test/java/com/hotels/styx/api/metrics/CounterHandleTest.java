@@ -0,0 +1,50 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.api.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static com.hotels.styx.api.metrics.CounterHandle.counterHandle;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class CounterHandleTest {
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    public void registersCounterOnFirstUse() {
+        CounterHandle handle = counterHandle(registry, "my.counter", Tags.of("tag", "value"));
+        assertThat(registry.find("my.counter").counter(), is(nullValue()));
+
+        handle.increment();
+        handle.increment();
+
+        assertThat(registry.find("my.counter").tags("tag", "value").counter().count(), is(2.0));
+    }
+
+    @Test
+    public void resolvesTheRegisteredCounter() {
+        CounterHandle handle = counterHandle(registry, "my.counter");
+
+        assertThat(handle.counter(), is(sameInstance(registry.counter("my.counter"))));
+        assertThat(handle.counter(), is(sameInstance(handle.counter())));
+    }
+}
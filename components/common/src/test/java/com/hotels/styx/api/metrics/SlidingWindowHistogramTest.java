@@ -21,6 +21,9 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
 import java.util.stream.Stream;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
@@ -237,6 +240,76 @@ public class SlidingWindowHistogramTest {
         assertThat(histogram.getMean(), is(closeTo(20, 1.0)));
     }
 
+    @Test
+    public void reusesIntervalsWithoutCarryingOverValues() {
+        int intervalSize = 100;
+
+        SlidingWindowHistogram histogram = newHistogram(2, intervalSize);
+
+        for (int i = 1; i <= 10; i++) {
+            histogram.recordValue(10 * i);
+            assertThat(histogram.copy().getTotalCount(), is(i == 1 ? 1L : 2L));
+            assertThat(histogram.getMean(), is(closeTo(i == 1 ? 10 : 10 * i - 5, 1.0)));
+            clock.forward(intervalSize);
+        }
+    }
+
+    @Test
+    public void discardsValuesRecordedAfterLastReadOnceTheirIntervalExpires() {
+        int intervalSize = 100;
+
+        SlidingWindowHistogram histogram = newHistogram(2, intervalSize);
+
+        histogram.recordValue(10);
+        assertThat(histogram.getMean(), is(closeTo(10, 1.0)));
+        histogram.recordValue(30);
+
+        clock.forward(2 * intervalSize);
+        assertThat(histogram.getMean(), is(Double.NaN));
+
+        histogram.recordValue(20);
+        assertThat(histogram.copy().getTotalCount(), is(1L));
+        assertThat(histogram.getMean(), is(closeTo(20, 1.0)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("getNumberOfThreads")
+    public void recordsValuesFromConcurrentThreads(int numberOfThreads) throws Exception {
+        int valuesPerThread = 10_000;
+        SlidingWindowHistogram histogram = newHistogram(2, 1000);
+        CyclicBarrier barrier = new CyclicBarrier(numberOfThreads);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < numberOfThreads; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    barrier.await();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+                for (int j = 0; j < valuesPerThread; j++) {
+                    histogram.recordValue(10);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(histogram.copy().getTotalCount(), is((long) numberOfThreads * valuesPerThread));
+        assertThat(histogram.getMean(), is(closeTo(10.0, 1.0)));
+    }
+
+    private static Stream<Arguments> getNumberOfThreads() {
+        return Stream.of(
+            Arguments.of(1),
+            Arguments.of(8),
+            Arguments.of(64)
+        );
+    }
+
     private static Stream<Arguments> getWindowSizeAndInterval() {
         return Stream.of(
             Arguments.of(10, 1000),
@@ -19,6 +19,8 @@ import org.hamcrest.Matchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -87,6 +89,45 @@ public class StateMachineTest {
         verify(mapper).apply(any(TestEvent.class));
     }
 
+    @Test
+    public void sharesDefinitionBetweenStateMachines() {
+        StateMachine.Definition<State, List<Object>> definition = new StateMachine.DefinitionBuilder<State, List<Object>>(State.class)
+                .initialState(STARTED)
+                .transition(STARTED, TestEvent.class, (events, event) -> {
+                    events.add(event);
+                    return EXPECTED_RESULT;
+                })
+                .onInappropriateEvent((events, state, event) -> TEST_FAILED)
+                .build();
+
+        List<Object> events1 = new ArrayList<>();
+        List<Object> events2 = new ArrayList<>();
+        StateMachine<State> stateMachine1 = definition.newStateMachine(events1);
+        StateMachine<State> stateMachine2 = definition.newStateMachine(events2);
+
+        TestEvent event = new TestEvent();
+        stateMachine1.handle(event);
+
+        assertThat(stateMachine1.currentState(), Matchers.is(EXPECTED_RESULT));
+        assertThat(stateMachine2.currentState(), Matchers.is(STARTED));
+        assertThat(events1, Matchers.<Object>contains(event));
+        assertThat(events2, Matchers.empty());
+
+        stateMachine1.handle(new TestEvent());
+        assertThat(stateMachine1.currentState(), Matchers.is(TEST_FAILED));
+    }
+
+    @Test
+    public void handlesEventsWithoutTransitionsInAnyState() {
+        StateMachine<State> stateMachine = stateMachineBuilder
+                .transition(EXPECTED_RESULT, TestEvent.class, event -> EXPECTED_RESULT)
+                .build();
+
+        stateMachine.handle("unknown event type");
+
+        assertThat(stateMachine.currentState(), Matchers.is(TEST_FAILED));
+    }
+
     private static class TestEvent {
 
     }
@@ -35,6 +35,7 @@ import static com.hotels.styx.config.schema.SchemaDsl.field;
 import static com.hotels.styx.config.schema.SchemaDsl.integer;
 import static com.hotels.styx.config.schema.SchemaDsl.list;
 import static com.hotels.styx.config.schema.SchemaDsl.map;
+import static com.hotels.styx.config.schema.SchemaDsl.number;
 import static com.hotels.styx.config.schema.SchemaDsl.object;
 import static com.hotels.styx.config.schema.SchemaDsl.opaque;
 import static com.hotels.styx.config.schema.SchemaDsl.optional;
@@ -67,6 +68,22 @@ public class SchemaTest {
         assertEquals("Unexpected field type. Field 'myNokValue' should be INTEGER, but it is BOOLEAN", e.getMessage());
     }
 
+    @Test
+    public void number_validatesIntegerAndDecimalValues() throws Exception {
+        JsonNode root = YAML_MAPPER.readTree(""
+                + "  myInt: 5 \n"
+                + "  myDecimal: 99.5 \n"
+                + "  myString: '99.9' \n"
+                + "  myNokValue: abc \n");
+
+        number().validate(ImmutableList.of("myInt"), root, root.get("myInt"), NO_EXTENSIONS);
+        number().validate(ImmutableList.of("myDecimal"), root, root.get("myDecimal"), NO_EXTENSIONS);
+        number().validate(ImmutableList.of("myString"), root, root.get("myString"), NO_EXTENSIONS);
+        Exception e = assertThrows(SchemaValidationException.class,
+                () -> number().validate(ImmutableList.of("myNokValue"), root, root.get("myNokValue"), NO_EXTENSIONS));
+        assertEquals("Unexpected field type. Field 'myNokValue' should be NUMBER, but it is STRING", e.getMessage());
+    }
+
     @Test
     public void string_validatesStringValues() throws Exception {
         JsonNode root = YAML_MAPPER.readTree(""
@@ -24,6 +24,7 @@ import com.hotels.styx.server.ConnectorConfig;
 import com.hotels.styx.server.HttpErrorStatusListener;
 import com.hotels.styx.server.HttpsConnectorConfig;
 import com.hotels.styx.server.RequestStatsCollector;
+import com.hotels.styx.server.UniqueIdSupplier;
 import com.hotels.styx.server.netty.NettyServerConfig;
 import com.hotels.styx.server.netty.ServerConnector;
 import com.hotels.styx.server.netty.ServerConnectorFactory;
@@ -54,6 +55,7 @@ import org.slf4j.Logger;
 
 import java.util.Optional;
 
+import static com.hotels.styx.server.UniqueIdSuppliers.uniqueIdSupplier;
 import static com.hotels.styx.server.netty.SslContexts.newSSLContext;
 import static io.netty.handler.timeout.IdleState.ALL_IDLE;
 import static java.util.Objects.requireNonNull;
@@ -109,12 +111,14 @@ public class ProxyConnectorFactory implements ServerConnectorFactory {
         private final ChannelStatisticsHandler channelStatsHandler;
         private final ExcessConnectionRejector excessConnectionRejector;
         private final RequestStatsCollector requestStatsCollector;
+        private final HttpPipelineHandler.CancellationCounters cancellationCounters;
         private final ConfigurableUnwiseCharsEncoder unwiseCharEncoder;
         private final Optional<SslContext> sslContext;
         private final ResponseEnhancer responseEnhancer;
         private final RequestTracker requestTracker;
         private final HttpMessageFormatter httpMessageFormatter;
         private final CharSequence originsHeader;
+        private final UniqueIdSupplier uniqueIdSupplier;
 
         private ProxyConnector(ConnectorConfig config, ProxyConnectorFactory factory) {
             this.config = requireNonNull(config);
@@ -124,6 +128,7 @@ public class ProxyConnectorFactory implements ServerConnectorFactory {
             this.httpErrorStatusListener = requireNonNull(factory.errorStatusListener);
             this.channelStatsHandler = new ChannelStatisticsHandler(meterRegistry, METER_PREFIX);
             this.requestStatsCollector = new RequestStatsCollector(meterRegistry, METER_PREFIX);
+            this.cancellationCounters = new HttpPipelineHandler.CancellationCounters(meterRegistry, METER_PREFIX);
             this.excessConnectionRejector = new ExcessConnectionRejector(new DefaultChannelGroup(GlobalEventExecutor.INSTANCE), serverConfig.maxConnectionsCount());
             this.unwiseCharEncoder = new ConfigurableUnwiseCharsEncoder(factory.unwiseCharacters);
             if (isHttps()) {
@@ -134,6 +139,7 @@ public class ProxyConnectorFactory implements ServerConnectorFactory {
             this.requestTracker = factory.requestTracking ? CurrentRequestTracker.INSTANCE : RequestTracker.NO_OP;
             this.httpMessageFormatter = factory.httpMessageFormatter;
             this.originsHeader = factory.originsHeader;
+            this.uniqueIdSupplier = uniqueIdSupplier(serverConfig.requestIdGenerator());
         }
 
         @Override
@@ -167,15 +173,17 @@ public class ProxyConnectorFactory implements ServerConnectorFactory {
                             .responseEnhancer(responseEnhancer)
                             .errorStatusListener(httpErrorStatusListener)
                             .progressListener(requestStatsCollector)
-                            .meterRegistry(meterRegistry)
-                            .meterPrefix(METER_PREFIX)
+                            .cancellationCounters(cancellationCounters)
                             .secure(sslContext.isPresent())
                             .requestTracker(requestTracker)
                             .xOriginsHeader(originsHeader)
                             .build());
 
             if (serverConfig.compressResponses()) {
-                channel.pipeline().addBefore("styx-decoder", "compression", new HttpCompressor());
+                channel.pipeline().addBefore("styx-decoder", "compression", new HttpCompressor(
+                        serverConfig.compressionLevel(),
+                        serverConfig.compressionMinimumSizeBytes(),
+                        serverConfig.compressionContentTypes()));
             }
         }
 
@@ -185,6 +193,7 @@ public class ProxyConnectorFactory implements ServerConnectorFactory {
                     .unwiseCharEncoder(unwiseCharEncoder)
                     .httpMessageFormatter(httpMessageFormatter)
                     .inactivityTimeoutMs(inactivityTimeoutMs)
+                    .uniqueIdSupplier(uniqueIdSupplier)
                     .build();
         }
 
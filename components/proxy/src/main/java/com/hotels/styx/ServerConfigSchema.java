@@ -73,6 +73,9 @@ final class ServerConfigSchema {
                     .rootSchema(object(
                             optional("proxy", object(
                                     optional("compressResponses", bool()),
+                                    optional("compressionLevel", integer()),
+                                    optional("compressionMinimumSizeBytes", integer()),
+                                    optional("compressionContentTypes", list(string())),
                                     field("connectors", serverConnectorsSchema),
                                     optional("bossThreadsCount", integer()),
                                     optional("clientWorkerThreadsCount", integer()),
@@ -91,6 +94,7 @@ final class ServerConfigSchema {
                                     optional("requestTimeoutMillis", integer()),
                                     optional("keepAliveTimeoutMillis", integer()),
                                     optional("maxConnectionsCount", integer()),
+                                    optional("requestIdGenerator", string()),
                                     optional("via", string())
                             )),
                             field("admin", object(
@@ -23,6 +23,8 @@ import com.hotels.styx.api.extension.service.BackendService;
 import com.hotels.styx.api.extension.service.Certificate;
 import com.hotels.styx.api.extension.service.ConnectionPoolSettings;
 import com.hotels.styx.api.extension.service.HealthCheckConfig;
+import com.hotels.styx.api.extension.service.HedgingConfig;
+import com.hotels.styx.api.extension.service.OutlierDetectionConfig;
 import com.hotels.styx.api.extension.service.RewriteConfig;
 import com.hotels.styx.api.extension.service.StickySessionConfig;
 import com.hotels.styx.api.extension.service.TlsSettings;
@@ -30,9 +32,11 @@ import com.hotels.styx.infrastructure.configuration.json.mixins.BackendServiceMi
 import com.hotels.styx.infrastructure.configuration.json.mixins.CertificateMixin;
 import com.hotels.styx.infrastructure.configuration.json.mixins.ConnectionPoolSettingsMixin;
 import com.hotels.styx.infrastructure.configuration.json.mixins.HealthCheckConfigMixin;
+import com.hotels.styx.infrastructure.configuration.json.mixins.HedgingConfigMixin;
 import com.hotels.styx.infrastructure.configuration.json.mixins.IdMixin;
 import com.hotels.styx.infrastructure.configuration.json.mixins.OriginMixin;
 import com.hotels.styx.infrastructure.configuration.json.mixins.OriginsSnapshotMixin;
+import com.hotels.styx.infrastructure.configuration.json.mixins.OutlierDetectionConfigMixin;
 import com.hotels.styx.infrastructure.configuration.json.mixins.RewriteConfigMixin;
 import com.hotels.styx.infrastructure.configuration.json.mixins.StickySessionConfigMixin;
 import com.hotels.styx.infrastructure.configuration.json.mixins.TlsSettingsMixin;
@@ -61,6 +65,8 @@ public final class ObjectMappers {
                 .addMixIn(ConnectionPoolSettings.class, ConnectionPoolSettingsMixin.class)
                 .addMixIn(RewriteConfig.class, RewriteConfigMixin.class)
                 .addMixIn(StickySessionConfig.class, StickySessionConfigMixin.class)
+                .addMixIn(HedgingConfig.class, HedgingConfigMixin.class)
+                .addMixIn(OutlierDetectionConfig.class, OutlierDetectionConfigMixin.class)
                 .addMixIn(TlsSettings.class, TlsSettingsMixin.class)
                 .addMixIn(TlsSettings.Builder.class, TlsSettingsMixin.Builder.class)
                 .addMixIn(Origin.class, OriginMixin.class)
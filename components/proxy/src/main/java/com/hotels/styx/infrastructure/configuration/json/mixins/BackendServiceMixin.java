@@ -23,6 +23,8 @@ import com.hotels.styx.api.extension.Origin;
 import com.hotels.styx.api.extension.service.BackendService;
 import com.hotels.styx.api.extension.service.ConnectionPoolSettings;
 import com.hotels.styx.api.extension.service.HealthCheckConfig;
+import com.hotels.styx.api.extension.service.HedgingConfig;
+import com.hotels.styx.api.extension.service.OutlierDetectionConfig;
 import com.hotels.styx.api.extension.service.RewriteConfig;
 import com.hotels.styx.api.extension.service.StickySessionConfig;
 import com.hotels.styx.api.extension.service.TlsSettings;
@@ -54,6 +56,12 @@ public interface BackendServiceMixin {
     @JsonProperty("stickySession")
     StickySessionConfig stickySessionConfig();
 
+    @JsonProperty("hedging")
+    HedgingConfig hedgingConfig();
+
+    @JsonProperty("outlierDetection")
+    OutlierDetectionConfig outlierDetectionConfig();
+
     @JsonProperty("rewrites")
     List<RewriteConfig> rewrites();
 
@@ -101,6 +109,12 @@ public interface BackendServiceMixin {
         @JsonProperty("stickySession")
         BackendService.Builder stickySessionConfig(StickySessionConfig stickySessionConfig);
 
+        @JsonProperty("hedging")
+        BackendService.Builder hedgingConfig(HedgingConfig hedgingConfig);
+
+        @JsonProperty("outlierDetection")
+        BackendService.Builder outlierDetectionConfig(OutlierDetectionConfig outlierDetectionConfig);
+
         @JsonProperty("healthCheck")
         BackendService.Builder healthCheckConfig(HealthCheckConfig healthCheckConfig);
     }
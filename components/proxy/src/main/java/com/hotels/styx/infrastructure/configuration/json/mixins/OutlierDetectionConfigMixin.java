@@ -0,0 +1,59 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.infrastructure.configuration.json.mixins;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Jackson annotations for {@link com.hotels.styx.api.extension.service.OutlierDetectionConfig}.
+ */
+public abstract class OutlierDetectionConfigMixin {
+    @JsonCreator
+    OutlierDetectionConfigMixin(@JsonProperty("enabled") boolean enabled,
+                                @JsonProperty("consecutiveErrors") Integer consecutiveErrors,
+                                @JsonProperty("errorRatePercent") Integer errorRatePercent,
+                                @JsonProperty("minimumRequests") Integer minimumRequests,
+                                @JsonProperty("intervalMillis") Integer intervalMillis,
+                                @JsonProperty("baseEjectionTimeMillis") Integer baseEjectionTimeMillis,
+                                @JsonProperty("maxEjectionTimeMillis") Integer maxEjectionTimeMillis,
+                                @JsonProperty("maxEjectionPercent") Integer maxEjectionPercent) {
+    }
+
+    @JsonProperty("enabled")
+    public abstract boolean outlierDetectionEnabled();
+
+    @JsonProperty("consecutiveErrors")
+    public abstract int consecutiveErrors();
+
+    @JsonProperty("errorRatePercent")
+    public abstract int errorRatePercent();
+
+    @JsonProperty("minimumRequests")
+    public abstract int minimumRequests();
+
+    @JsonProperty("intervalMillis")
+    public abstract int intervalMillis();
+
+    @JsonProperty("baseEjectionTimeMillis")
+    public abstract int baseEjectionTimeMillis();
+
+    @JsonProperty("maxEjectionTimeMillis")
+    public abstract int maxEjectionTimeMillis();
+
+    @JsonProperty("maxEjectionPercent")
+    public abstract int maxEjectionPercent();
+}
@@ -15,6 +15,7 @@
  */
 package com.hotels.styx.proxy;
 
+import com.google.common.collect.ImmutableSet;
 import com.hotels.styx.Environment;
 import com.hotels.styx.NettyExecutor;
 import com.hotels.styx.api.Eventual;
@@ -23,6 +24,8 @@ import com.hotels.styx.api.HttpInterceptor;
 import com.hotels.styx.api.Id;
 import com.hotels.styx.api.LiveHttpRequest;
 import com.hotels.styx.api.LiveHttpResponse;
+import com.hotels.styx.api.extension.Origin;
+import com.hotels.styx.api.extension.OriginsSnapshot;
 import com.hotels.styx.api.extension.service.BackendService;
 import com.hotels.styx.api.extension.service.ConnectionPoolSettings;
 import com.hotels.styx.api.extension.service.HealthCheckConfig;
@@ -48,6 +51,7 @@ import org.slf4j.Logger;
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 
@@ -66,6 +70,12 @@ import static org.slf4j.LoggerFactory.getLogger;
 public class BackendServicesRouter implements HttpRouter, Registry.ChangeListener<BackendService> {
     private static final Logger LOG = getLogger(BackendServicesRouter.class);
 
+    // Health checks are sent one at a time over a keep-alive connection to each origin.
+    private static final ConnectionPoolSettings HEALTH_CHECK_POOL_SETTINGS = new ConnectionPoolSettings.Builder()
+            .maxConnectionsPerHost(1)
+            .maxPendingConnectionsPerHost(4)
+            .build();
+
     private final BackendServiceClientFactory clientFactory;
     private final Environment environment;
     private final NettyExecutor executor;
@@ -130,7 +140,8 @@ public class BackendServicesRouter implements HttpRouter, Registry.ChangeListene
                     .meterRegistry(environment.meterRegistry())
                     .build();
 
-            OriginHealthStatusMonitor healthStatusMonitor = healthStatusMonitor(backendService);
+            StyxHttpClient healthCheckClient = healthCheckClient(backendService);
+            OriginHealthStatusMonitor healthStatusMonitor = healthStatusMonitor(backendService, healthCheckClient);
 
             OriginsInventory inventory = new OriginsInventory.Builder(backendService.id())
                     .eventBus(environment.eventBus())
@@ -140,10 +151,12 @@ public class BackendServicesRouter implements HttpRouter, Registry.ChangeListene
                     .initialOrigins(backendService.origins())
                     .hostClientFactory(StyxHostHttpClient::create)
                     .build();
+            inventory.addOriginsChangeListener(snapshot -> healthCheckClient.retainConnectionPools(allOrigins(snapshot)));
 
             pipeline = new ProxyToClientPipeline(newClientHandler(backendService, inventory, originStatsFactory), () -> {
                 inventory.close();
                 healthStatusMonitor.stop();
+                healthCheckClient.close();
             });
 
             routes.put(backendService.path(), pipeline);
@@ -151,7 +164,11 @@ public class BackendServicesRouter implements HttpRouter, Registry.ChangeListene
         });
     }
 
-    private OriginHealthStatusMonitor healthStatusMonitor(BackendService backendService) {
+    private static Set<Origin> allOrigins(OriginsSnapshot snapshot) {
+        return ImmutableSet.copyOf(concat(snapshot.activeOrigins(), snapshot.inactiveOrigins(), snapshot.disabledOrigins()));
+    }
+
+    private OriginHealthStatusMonitor healthStatusMonitor(BackendService backendService, StyxHttpClient healthCheckClient) {
         return new OriginHealthStatusMonitorFactory()
                         .create(backendService.id(),
                                 backendService.healthCheckConfig(),
@@ -159,13 +176,16 @@ public class BackendServicesRouter implements HttpRouter, Registry.ChangeListene
                                         backendService.id(),
                                         environment.meterRegistry(),
                                         backendService.healthCheckConfig()),
-                                healthCheckClient(backendService));
+                                healthCheckClient,
+                                environment.meterRegistry());
     }
 
     private StyxHttpClient healthCheckClient(BackendService backendService) {
         StyxHttpClient.Builder builder = new StyxHttpClient.Builder()
                 .connectTimeout(backendService.connectionPoolConfig().connectTimeoutMillis(), MILLISECONDS)
-                .userAgent("Styx/" + environment.buildInfo().releaseVersion());
+                .userAgent("Styx/" + environment.buildInfo().releaseVersion())
+                .connectionPoolSettings(HEALTH_CHECK_POOL_SETTINGS)
+                .meterRegistry(environment.meterRegistry());
 
         backendService.tlsSettings().ifPresent(builder::tlsSettings);
 
@@ -15,16 +15,24 @@
  */
 package com.hotels.styx.proxy;
 
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.compression.ZlibWrapper;
 import io.netty.handler.codec.http.HttpContentCompressor;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpUtil;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import static java.util.Collections.unmodifiableSet;
 
 /**
  * Compress HTTP responses if the encoding type is compressable.
- * List of compressable encoding types:
+ * List of compressable encoding types, unless configured otherwise:
  * "text/plain",
  * "text/html",
  * "text/xml",
@@ -36,8 +44,16 @@ import java.util.Collection;
  * "application/javascript",
  * "application/x-javascript",
  * "application/json"
+ *
+ * Content type parameters, such as a charset, are ignored when matching. Responses that already carry
+ * a Content-Encoding, or that declare a Content-Length below the configured minimum size, are passed
+ * through as they are.
+ *
+ * Response bodies are encoded by a {@link PooledDeflaterEncoder}, which reuses the deflaters of the event loop
+ * instead of allocating one for each response.
  */
 public class HttpCompressor extends HttpContentCompressor {
+    private static final int DEFAULT_COMPRESSION_LEVEL = 6;
 
     private static final Collection<String> ENCODING_TYPES = Arrays.asList(
             "text/plain",
@@ -52,19 +68,78 @@ public class HttpCompressor extends HttpContentCompressor {
             "application/x-javascript",
             "application/json");
 
+    private final Set<String> encodingTypes;
+    private final int minimumSizeBytes;
+    private final int compressionLevel;
+    private ChannelHandlerContext ctx;
+
+    public HttpCompressor() {
+        this(DEFAULT_COMPRESSION_LEVEL, 0, ENCODING_TYPES);
+    }
+
+    /**
+     * Constructs a compressor.
+     *
+     * @param compressionLevel gzip/deflate compression level, between 0 (no compression) and 9 (best compression)
+     * @param minimumSizeBytes responses declaring a smaller content length are not compressed
+     * @param encodingTypes    compressable content types, or an empty collection for the default types
+     */
+    public HttpCompressor(int compressionLevel, int minimumSizeBytes, Collection<String> encodingTypes) {
+        super(compressionLevel);
+        this.compressionLevel = compressionLevel;
+        this.minimumSizeBytes = minimumSizeBytes;
+        this.encodingTypes = lowerCase(encodingTypes.isEmpty() ? ENCODING_TYPES : encodingTypes);
+    }
+
+    private static Set<String> lowerCase(Collection<String> types) {
+        Set<String> set = new HashSet<>();
+        for (String type : types) {
+            set.add(type.trim().toLowerCase());
+        }
+        return unmodifiableSet(set);
+    }
 
     private boolean shouldCompress(String contentType) {
-        return ENCODING_TYPES.contains(contentType != null ? contentType.toLowerCase() : "");
+        if (contentType == null) {
+            return false;
+        }
+
+        int parameters = contentType.indexOf(';');
+        String mediaType = parameters < 0 ? contentType : contentType.substring(0, parameters);
+        return encodingTypes.contains(mediaType.trim().toLowerCase());
+    }
+
+    private boolean largeEnough(HttpResponse response) {
+        if (minimumSizeBytes <= 0) {
+            return true;
+        }
+
+        long contentLength = HttpUtil.getContentLength(response, -1L);
+        return contentLength < 0 || contentLength >= minimumSizeBytes;
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+        super.handlerAdded(ctx);
+        this.ctx = ctx;
     }
 
     @Override
-    protected Result beginEncode(HttpResponse response, String acceptEncoding) throws Exception {
+    protected Result beginEncode(HttpResponse response, String acceptEncoding) {
         String contentType = response.headers().get(HttpHeaderNames.CONTENT_TYPE);
 
-        if (shouldCompress(contentType)) {
-            return super.beginEncode(response, acceptEncoding);
-        } else {
+        if (!shouldCompress(contentType) || !largeEnough(response) || response.headers().contains(HttpHeaderNames.CONTENT_ENCODING)) {
             return null;
         }
+
+        ZlibWrapper wrapper = determineWrapper(acceptEncoding);
+        if (wrapper == null) {
+            return null;
+        }
+
+        return new Result(
+                wrapper == ZlibWrapper.GZIP ? "gzip" : "deflate",
+                new EmbeddedChannel(ctx.channel().id(), ctx.channel().metadata().hasDisconnect(), ctx.channel().config(),
+                        new PooledDeflaterEncoder(wrapper, compressionLevel)));
     }
 }
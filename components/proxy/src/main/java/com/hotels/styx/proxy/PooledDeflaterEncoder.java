@@ -0,0 +1,261 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.proxy;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.compression.ZlibEncoder;
+import io.netty.handler.codec.compression.ZlibWrapper;
+import io.netty.util.concurrent.FastThreadLocal;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import static com.hotels.styx.common.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A gzip/deflate encoder for the response body encoders of {@link HttpCompressor}.
+ * <p>
+ * Unlike Netty's {@code JdkZlibEncoder}, which allocates a {@link Deflater} for each response and ends it
+ * afterwards, this encoder borrows its deflater from a pool kept by the current thread, and returns it, reset,
+ * once the body has been encoded. Each event loop thereby reuses the native zlib state of a few deflaters for all
+ * the responses it compresses.
+ * <p>
+ * The encoder is meant for the embedded channels of an {@link io.netty.handler.codec.http.HttpContentEncoder},
+ * which are only used from the event loop of the connection they belong to.
+ */
+final class PooledDeflaterEncoder extends ZlibEncoder {
+    // Deflaters kept idle for reuse, per thread, compression level and wrapper:
+    private static final int MAX_IDLE_DEFLATERS = 8;
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+    private static final DeflaterPool[] POOLS = new DeflaterPool[20];
+
+    static {
+        for (int level = 0; level <= 9; level++) {
+            POOLS[2 * level] = new DeflaterPool(level, false);
+            POOLS[2 * level + 1] = new DeflaterPool(level, true);
+        }
+    }
+
+    private final ZlibWrapper wrapper;
+    private final DeflaterPool pool;
+    private final CRC32 crc = new CRC32();
+    private Deflater deflater;
+    private boolean writeHeader = true;
+    private volatile boolean finished;
+    private volatile ChannelHandlerContext ctx;
+
+    /**
+     * Constructs an encoder.
+     *
+     * @param wrapper          {@link ZlibWrapper#GZIP} or {@link ZlibWrapper#ZLIB}
+     * @param compressionLevel compression level, between 0 (no compression) and 9 (best compression)
+     */
+    PooledDeflaterEncoder(ZlibWrapper wrapper, int compressionLevel) {
+        this.wrapper = requireNonNull(wrapper);
+        checkArgument(wrapper == ZlibWrapper.GZIP || wrapper == ZlibWrapper.ZLIB, "Unsupported wrapper " + wrapper);
+        checkArgument(compressionLevel >= 0 && compressionLevel <= 9, "Compression level must be between 0 and 9, but was " + compressionLevel);
+
+        this.pool = pool(wrapper, compressionLevel);
+        this.deflater = pool.acquire();
+    }
+
+    static DeflaterPool pool(ZlibWrapper wrapper, int compressionLevel) {
+        return POOLS[2 * compressionLevel + (wrapper == ZlibWrapper.GZIP ? 1 : 0)];
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) {
+        this.ctx = ctx;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return finished;
+    }
+
+    @Override
+    public ChannelFuture close() {
+        return close(ctx().newPromise());
+    }
+
+    @Override
+    public ChannelFuture close(ChannelPromise promise) {
+        return finishEncode(ctx(), promise);
+    }
+
+    @Override
+    public void close(ChannelHandlerContext ctx, ChannelPromise promise) {
+        finishEncode(ctx, ctx.newPromise()).addListener(future -> ctx.close(promise));
+    }
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, ByteBuf uncompressed, ByteBuf out) {
+        if (finished) {
+            out.writeBytes(uncompressed);
+            return;
+        }
+
+        int length = uncompressed.readableBytes();
+        if (length == 0) {
+            return;
+        }
+
+        byte[] input;
+        int offset;
+        if (uncompressed.hasArray()) {
+            input = uncompressed.array();
+            offset = uncompressed.arrayOffset() + uncompressed.readerIndex();
+            uncompressed.skipBytes(length);
+        } else {
+            input = new byte[length];
+            uncompressed.readBytes(input);
+            offset = 0;
+        }
+
+        if (writeHeader) {
+            writeHeader = false;
+            if (wrapper == ZlibWrapper.GZIP) {
+                out.writeBytes(GZIP_HEADER);
+            }
+        }
+
+        if (wrapper == ZlibWrapper.GZIP) {
+            crc.update(input, offset, length);
+        }
+
+        deflater.setInput(input, offset, length);
+        while (true) {
+            deflate(out);
+            if (deflater.needsInput()) {
+                break;
+            }
+            if (!out.isWritable()) {
+                out.ensureWritable(out.writerIndex());
+            }
+        }
+    }
+
+    @Override
+    protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, ByteBuf msg, boolean preferDirect) {
+        // The deflater writes to the backing array, so the buffer is always a heap buffer:
+        int sizeEstimate = (int) Math.ceil(msg.readableBytes() * 1.001) + 12;
+        if (writeHeader && wrapper == ZlibWrapper.GZIP) {
+            sizeEstimate += GZIP_HEADER.length;
+        }
+        return ctx.alloc().heapBuffer(sizeEstimate);
+    }
+
+    private ChannelFuture finishEncode(ChannelHandlerContext ctx, ChannelPromise promise) {
+        if (finished) {
+            promise.setSuccess();
+            return promise;
+        }
+        finished = true;
+
+        ByteBuf footer = ctx.alloc().heapBuffer();
+        if (writeHeader && wrapper == ZlibWrapper.GZIP) {
+            writeHeader = false;
+            footer.writeBytes(GZIP_HEADER);
+        }
+
+        deflater.finish();
+        while (!deflater.finished()) {
+            deflate(footer);
+            if (!footer.isWritable()) {
+                ctx.write(footer);
+                footer = ctx.alloc().heapBuffer();
+            }
+        }
+
+        if (wrapper == ZlibWrapper.GZIP) {
+            int crcValue = (int) crc.getValue();
+            int uncompressedBytes = deflater.getTotalIn();
+            footer.writeIntLE(crcValue);
+            footer.writeIntLE(uncompressedBytes);
+        }
+
+        pool.release(deflater);
+        deflater = null;
+        return ctx.writeAndFlush(footer, promise);
+    }
+
+    private void deflate(ByteBuf out) {
+        int bytes;
+        do {
+            int writerIndex = out.writerIndex();
+            bytes = deflater.deflate(out.array(), out.arrayOffset() + writerIndex, out.writableBytes(), Deflater.SYNC_FLUSH);
+            out.writerIndex(writerIndex + bytes);
+        } while (bytes > 0);
+    }
+
+    private ChannelHandlerContext ctx() {
+        ChannelHandlerContext ctx = this.ctx;
+        if (ctx == null) {
+            throw new IllegalStateException("not added to a pipeline");
+        }
+        return ctx;
+    }
+
+    /**
+     * Idle deflaters of one compression level and wrapper, kept by each thread.
+     */
+    static final class DeflaterPool {
+        private final int compressionLevel;
+        private final boolean nowrap;
+        private final FastThreadLocal<Deque<Deflater>> idle = new FastThreadLocal<Deque<Deflater>>() {
+            @Override
+            protected Deque<Deflater> initialValue() {
+                return new ArrayDeque<>();
+            }
+
+            @Override
+            protected void onRemoval(Deque<Deflater> deflaters) {
+                deflaters.forEach(Deflater::end);
+                deflaters.clear();
+            }
+        };
+
+        private DeflaterPool(int compressionLevel, boolean nowrap) {
+            this.compressionLevel = compressionLevel;
+            this.nowrap = nowrap;
+        }
+
+        Deflater acquire() {
+            Deflater deflater = idle.get().poll();
+            return deflater != null ? deflater : new Deflater(compressionLevel, nowrap);
+        }
+
+        void release(Deflater deflater) {
+            Deque<Deflater> deflaters = idle.get();
+            if (deflaters.size() < MAX_IDLE_DEFLATERS) {
+                deflater.reset();
+                deflaters.push(deflater);
+            } else {
+                deflater.end();
+            }
+        }
+
+        int idleDeflaters() {
+            return idle.get().size();
+        }
+    }
+}
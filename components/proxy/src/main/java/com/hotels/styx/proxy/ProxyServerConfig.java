@@ -22,6 +22,7 @@ import com.hotels.styx.server.HttpConnectorConfig;
 import com.hotels.styx.server.HttpsConnectorConfig;
 import com.hotels.styx.server.netty.NettyServerConfig;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -145,6 +146,30 @@ public class ProxyServerConfig extends NettyServerConfig {
             return this;
         }
 
+        @JsonProperty("compressionLevel")
+        public Builder setCompressionLevel(Integer compressionLevel) {
+            builder.setCompressionLevel(compressionLevel);
+            return this;
+        }
+
+        @JsonProperty("compressionMinimumSizeBytes")
+        public Builder setCompressionMinimumSizeBytes(Integer compressionMinimumSizeBytes) {
+            builder.setCompressionMinimumSizeBytes(compressionMinimumSizeBytes);
+            return this;
+        }
+
+        @JsonProperty("compressionContentTypes")
+        public Builder setCompressionContentTypes(List<String> compressionContentTypes) {
+            builder.setCompressionContentTypes(compressionContentTypes);
+            return this;
+        }
+
+        @JsonProperty("requestIdGenerator")
+        public Builder setRequestIdGenerator(String requestIdGenerator) {
+            builder.setRequestIdGenerator(requestIdGenerator);
+            return this;
+        }
+
         @JsonProperty("via")
         public Builder setVia(final String via) {
             this.via = via;
@@ -17,6 +17,7 @@ package com.hotels.styx.proxy;
 
 import com.hotels.styx.Environment;
 import com.hotels.styx.api.configuration.Configuration;
+import com.hotels.styx.api.extension.ActiveOrigins;
 import com.hotels.styx.api.extension.loadbalancing.spi.LoadBalancer;
 import com.hotels.styx.api.extension.retrypolicy.spi.RetryPolicy;
 import com.hotels.styx.api.extension.service.BackendService;
@@ -24,6 +25,7 @@ import com.hotels.styx.client.BackendServiceClient;
 import com.hotels.styx.client.OriginRestrictionLoadBalancingStrategy;
 import com.hotels.styx.client.OriginStatsFactory;
 import com.hotels.styx.client.OriginsInventory;
+import com.hotels.styx.client.OutlierDetector;
 import com.hotels.styx.client.StyxBackendServiceClient;
 import com.hotels.styx.client.loadbalancing.strategies.BusyConnectionsStrategy;
 import com.hotels.styx.client.retry.RetryNTimes;
@@ -57,9 +59,16 @@ public class StyxBackendServiceClientFactory implements BackendServiceClientFact
         RetryPolicy retryPolicy = loadRetryPolicy(styxConfig, environment, "retrypolicy.policy.factory", RetryPolicy.class)
                 .orElseGet(() -> defaultRetryPolicy(environment));
 
+        OutlierDetector outlierDetector = backendService.outlierDetectionConfig().outlierDetectionEnabled()
+                ? new OutlierDetector(backendService.id(), backendService.outlierDetectionConfig(), environment.meterRegistry())
+                : null;
+        ActiveOrigins activeOrigins = outlierDetector != null
+                ? outlierDetector.activeOrigins(originsInventory)
+                : originsInventory;
+
         LoadBalancer configuredLbStrategy = loadLoadBalancer(
-                styxConfig, environment, "loadBalancing.strategy.factory", LoadBalancer.class, originsInventory)
-                .orElseGet(() -> new BusyConnectionsStrategy(originsInventory));
+                styxConfig, environment, "loadBalancing.strategy.factory", LoadBalancer.class, activeOrigins)
+                .orElseGet(() -> new BusyConnectionsStrategy(activeOrigins));
 
         // TODO: Ensure that listeners are also unregistered:
         // We are going to revamp how we handle origins, https://github.com/HotelsDotCom/styx/issues/197
@@ -68,31 +77,36 @@ public class StyxBackendServiceClientFactory implements BackendServiceClientFact
         LoadBalancer loadBalancingStrategy = decorateLoadBalancer(
                 configuredLbStrategy,
                 stickySessionEnabled,
-                originsInventory,
+                activeOrigins,
                 originRestrictionCookie
         );
 
-        return new StyxBackendServiceClient.Builder(backendService.id())
+        StyxBackendServiceClient.Builder builder = new StyxBackendServiceClient.Builder(backendService.id())
                 .loadBalancer(loadBalancingStrategy)
                 .stickySessionConfig(backendService.stickySessionConfig())
+                .hedgingConfig(backendService.hedgingConfig())
                 .meterRegistry(environment.meterRegistry())
                 .retryPolicy(retryPolicy)
                 .rewriteRules(backendService.rewrites())
                 .originStatsFactory(originStatsFactory)
                 .originsRestrictionCookieName(originRestrictionCookie)
-                .originIdHeader(environment.styxConfig().styxHeaderConfig().originIdHeaderName())
-                .build();
+                .originIdHeader(environment.styxConfig().styxHeaderConfig().originIdHeaderName());
+
+        if (outlierDetector != null) {
+            builder.outlierDetector(outlierDetector);
+        }
+        return builder.build();
     }
 
-    private LoadBalancer decorateLoadBalancer(LoadBalancer configuredLbStrategy, boolean stickySessionEnabled, OriginsInventory originsInventory, String originRestrictionCookie) {
+    private LoadBalancer decorateLoadBalancer(LoadBalancer configuredLbStrategy, boolean stickySessionEnabled, ActiveOrigins activeOrigins, String originRestrictionCookie) {
         if (stickySessionEnabled) {
-            return new StickySessionLoadBalancingStrategy(originsInventory, configuredLbStrategy);
+            return new StickySessionLoadBalancingStrategy(activeOrigins, configuredLbStrategy);
         } else if (originRestrictionCookie == null) {
             LOGGER.info("originRestrictionCookie not specified - origin restriction disabled");
             return configuredLbStrategy;
         } else {
             LOGGER.info("originRestrictionCookie specified as {} - origin restriction will apply when this cookie is sent", originRestrictionCookie);
-            return new OriginRestrictionLoadBalancingStrategy(originsInventory, configuredLbStrategy);
+            return new OriginRestrictionLoadBalancingStrategy(activeOrigins, configuredLbStrategy);
         }
     }
 
@@ -98,12 +98,14 @@ public class HostProxy implements RoutingObject {
                     optional("socketTimeoutMillis", integer()),
                     optional("pendingConnectionTimeoutMillis", integer()),
                     optional("connectionExpirationSeconds", integer()),
+                    optional("eventLoopAffinity", bool()),
                     atLeastOne("maxConnections",
                             "maxPendingConnections",
                             "connectTimeoutMillis",
                             "socketTimeoutMillis",
                             "pendingConnectionTimeoutMillis",
-                            "connectionExpirationSeconds")
+                            "connectionExpirationSeconds",
+                            "eventLoopAffinity")
             )),
             optional("responseTimeoutMillis", integer()),
             optional("maxHeaderSize", integer()),
@@ -29,9 +29,7 @@ import com.hotels.styx.routing.config.RoutingObjectFactory;
 import com.hotels.styx.routing.config.StyxObjectConfiguration;
 import com.hotels.styx.routing.config.StyxObjectDefinition;
 import com.hotels.styx.server.NoServiceConfiguredException;
-import org.jetbrains.annotations.NotNull;
 
-import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
@@ -49,25 +47,30 @@ import static java.util.Objects.requireNonNull;
 /**
  * Makes a routing decision based on a request path prefix.
  * <p>
- * Chooses a destination according to longest matching path prefix.
+ * Chooses a destination according to longest matching path prefix. The prefixes are held in a radix tree,
+ * so the cost of a routing decision depends on the path length rather than on the number of prefixes.
+ * A configuration change builds a new router instance.
  * The destination can be a routing object reference or an inline definition.
  */
 public class PathPrefixRouter implements RoutingObject {
     private final PrefixRoute[] routes;
+    private final PrefixTree<RoutingObject> prefixTree;
 
     PathPrefixRouter(PrefixRoute[] routes) {
         this.routes = routes;
-        Arrays.sort(this.routes);
+        this.prefixTree = new PrefixTree<>();
+        for (PrefixRoute route : routes) {
+            prefixTree.put(route.prefix, route.routingObject);
+        }
     }
 
     @Override
     public Eventual<LiveHttpResponse> handle(LiveHttpRequest request, HttpInterceptor.Context context) {
         String path = request.path();
 
-        for (PrefixRoute route : routes) {
-            if (path.startsWith(route.prefix)) {
-                return route.routingObject.handle(request, context);
-            }
+        RoutingObject routingObject = prefixTree.longestPrefixMatch(path);
+        if (routingObject != null) {
+            return routingObject.handle(request, context);
         }
 
         return Eventual.error(new NoServiceConfiguredException(path));
@@ -82,7 +85,7 @@ public class PathPrefixRouter implements RoutingObject {
         return CompletableFuture.allOf(stopFutures);
     }
 
-    static class PrefixRoute implements Comparable<PrefixRoute> {
+    static class PrefixRoute {
         private final String prefix;
         private final RoutingObject routingObject;
 
@@ -90,17 +93,6 @@ public class PathPrefixRouter implements RoutingObject {
             this.prefix = requireNonNull(prefix);
             this.routingObject = requireNonNull(routingObject);
         }
-
-        @Override
-        public int compareTo(@NotNull PrefixRoute o) {
-            if (prefix.length() > o.prefix.length()) {
-                return -1;
-            } else if (prefix.length() < o.prefix.length()) {
-                return 1;
-            } else {
-                return prefix.compareTo(o.prefix);
-            }
-        }
     }
 
     /**
@@ -0,0 +1,155 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.routing.handlers;
+
+import java.util.Arrays;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A compressed radix tree that maps string prefixes to values.
+ * <p>
+ * The longest prefix lookup compares each character of the looked up string at most once.
+ * Therefore its cost is bounded by the string length, and does not depend on the number of prefixes.
+ * <p>
+ * The tree is populated before it is shared, and is not modified afterwards. It is not thread safe
+ * while being populated.
+ *
+ * @param <T> type of the mapped values
+ */
+final class PrefixTree<T> {
+    private static final char[] NO_KEYS = new char[0];
+
+    private final Node<T> root = new Node<>("");
+
+    /**
+     * Maps a prefix to a value. If the prefix is already mapped, the existing mapping is retained.
+     *
+     * @param prefix a prefix
+     * @param value  a value
+     */
+    void put(String prefix, T value) {
+        requireNonNull(prefix);
+        requireNonNull(value);
+
+        Node<T> node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            char key = prefix.charAt(i);
+            Node<T> child = node.child(key);
+
+            if (child == null) {
+                node.addChild(key, new Node<>(prefix.substring(i), value));
+                return;
+            }
+
+            int common = commonPrefixLength(child.label, prefix, i);
+            if (common < child.label.length()) {
+                Node<T> split = new Node<>(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.addChild(child.label.charAt(0), child);
+                node.replaceChild(key, split);
+                child = split;
+            }
+            node = child;
+            i += common;
+        }
+
+        if (node.value == null) {
+            node.value = value;
+        }
+    }
+
+    /**
+     * Returns the value mapped to the longest prefix of a given string.
+     *
+     * @param string a string
+     * @return the mapped value, or null if no prefix matches
+     */
+    T longestPrefixMatch(String string) {
+        Node<T> node = root;
+        T best = root.value;
+        int i = 0;
+
+        while (i < string.length()) {
+            node = node.child(string.charAt(i));
+            if (node == null || !string.regionMatches(i, node.label, 0, node.label.length())) {
+                break;
+            }
+            i += node.label.length();
+            if (node.value != null) {
+                best = node.value;
+            }
+        }
+        return best;
+    }
+
+    private static int commonPrefixLength(String label, String prefix, int offset) {
+        int max = Math.min(label.length(), prefix.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == prefix.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node<T> {
+        private String label;
+        private T value;
+        private char[] keys = NO_KEYS;
+        private Node<T>[] children = newArray(0);
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node(String label, T value) {
+            this.label = label;
+            this.value = value;
+        }
+
+        Node<T> child(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index >= 0 ? children[index] : null;
+        }
+
+        void addChild(char key, Node<T> child) {
+            int insertionPoint = -(Arrays.binarySearch(keys, key) + 1);
+
+            char[] newKeys = new char[keys.length + 1];
+            Node<T>[] newChildren = newArray(children.length + 1);
+
+            System.arraycopy(keys, 0, newKeys, 0, insertionPoint);
+            System.arraycopy(children, 0, newChildren, 0, insertionPoint);
+            newKeys[insertionPoint] = key;
+            newChildren[insertionPoint] = child;
+            System.arraycopy(keys, insertionPoint, newKeys, insertionPoint + 1, keys.length - insertionPoint);
+            System.arraycopy(children, insertionPoint, newChildren, insertionPoint + 1, children.length - insertionPoint);
+
+            this.keys = newKeys;
+            this.children = newChildren;
+        }
+
+        void replaceChild(char key, Node<T> child) {
+            children[Arrays.binarySearch(keys, key)] = child;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> Node<T>[] newArray(int size) {
+            return (Node<T>[]) new Node[size];
+        }
+    }
+}
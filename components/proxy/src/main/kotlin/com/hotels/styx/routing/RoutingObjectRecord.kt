@@ -16,6 +16,7 @@
 package com.hotels.styx.routing
 
 import com.fasterxml.jackson.databind.JsonNode
+import com.hotels.styx.routing.db.Tagged
 import java.time.LocalDateTime
 import java.time.format.DateTimeFormatter.ISO_DATE_TIME
 
@@ -24,9 +25,9 @@ import java.time.format.DateTimeFormatter.ISO_DATE_TIME
  */
 internal data class RoutingObjectRecord(
         val type: String,
-        val tags: Set<String>,
+        override val tags: Set<String>,
         val config: JsonNode,
-        val routingObject: RoutingMetadataDecorator) {
+        val routingObject: RoutingMetadataDecorator) : Tagged {
     companion object {
         fun create(type: String, tags: Set<String>, config: JsonNode, routingObject: RoutingObject) = RoutingObjectRecord(
                 type,
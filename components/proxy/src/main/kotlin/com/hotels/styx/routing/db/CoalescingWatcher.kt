@@ -0,0 +1,57 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.routing.db
+
+import reactor.core.publisher.FluxSink
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicReference
+
+/**
+ * Delivers object store notifications to a single watcher.
+ *
+ * Notifications are only emitted when the watcher has requested more. Meanwhile the
+ * notifications are merged into one pending notification, so that a watcher that falls
+ * behind skips the intermediate snapshots. When it is ready, it receives the latest
+ * snapshot together with all the changes since its previous notification.
+ */
+internal class CoalescingWatcher<T>(private val sink: FluxSink<ObjectStoreChanges<T>>) : ChangeWatcher<T> {
+    private val pending = AtomicReference<ObjectStoreChanges<T>?>()
+    private val wip = AtomicInteger()
+
+    init {
+        sink.onRequest { drain() }
+    }
+
+    override fun invoke(changes: ObjectStoreChanges<T>) {
+        pending.accumulateAndGet(changes) { previous, next -> previous?.then(next!!) ?: next }
+        drain()
+    }
+
+    private fun drain() {
+        if (wip.getAndIncrement() != 0) {
+            return
+        }
+
+        var missed = 1
+        do {
+            while (sink.requestedFromDownstream() > 0 && !sink.isCancelled) {
+                val next = pending.getAndSet(null) ?: break
+                sink.next(next)
+            }
+            missed = wip.addAndGet(-missed)
+        } while (missed != 0)
+    }
+}
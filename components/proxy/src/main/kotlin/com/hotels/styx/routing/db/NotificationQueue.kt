@@ -17,8 +17,9 @@ package com.hotels.styx.routing.db
 
 import com.hotels.styx.api.configuration.ObjectStore
 import org.pcollections.HashTreePMap
+import org.pcollections.HashTreePSet
 import org.pcollections.PMap
-import reactor.core.publisher.FluxSink
+import org.pcollections.PSet
 import java.util.Optional
 import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.CopyOnWriteArrayList
@@ -56,15 +57,30 @@ internal class NotificationQueue<T>(val watchers: CopyOnWriteArrayList<ChangeWat
 
         if (!inQueue) {
             executor.submit {
-                lock.withLock {
+                val previouslyIssued = issuedSnapshot
+                val issued = lock.withLock {
                     // Preserve invariant:
                     // - (pendingChangeNotification == False) only if (pendingSnapshot <= issuedSnapshot)
                     pendingChangeNotification.set(false)
                     issuedSnapshot = pendingSnapshot
+                    issuedSnapshot
                 }
 
+                // Notifications are only issued from the executor thread. Therefore no other
+                // thread walks back the snapshot history while it is being truncated.
+                val changes = issued.changesSince(previouslyIssued)
+                issued.previous = null
+
+                val notification = ObjectStoreChanges(
+                        newSnapshot(issued),
+                        changes.added,
+                        changes.removed,
+                        changes.modified,
+                        false,
+                        issued.tagIndex)
+
                 watchers.forEach {
-                    it.invoke(newSnapshot(issuedSnapshot))
+                    it.invoke(notification)
                 }
 
                 listeners.forEach {
@@ -77,9 +93,16 @@ internal class NotificationQueue<T>(val watchers: CopyOnWriteArrayList<ChangeWat
         }
     }
 
-    fun publishInitialWatch(sink: FluxSink<ObjectStore<T>>) {
+    fun publishInitialWatch(watcher: ChangeWatcher<T>) {
         executor.submit {
-            sink.next(newSnapshot(issuedSnapshot))
+            val issued = issuedSnapshot
+            watcher.invoke(ObjectStoreChanges(
+                    newSnapshot(issued),
+                    issued.snapshot.keys,
+                    emptySet(),
+                    emptySet(),
+                    true,
+                    issued.tagIndex))
             listeners.forEach {
                 it.value.invoke(InitialWatchNotification(
                         newSnapshot(issuedSnapshot),
@@ -110,11 +133,129 @@ internal class NotificationQueue<T>(val watchers: CopyOnWriteArrayList<ChangeWat
 
 internal fun <T> entrySet(snapshot: PMap<String, T>): Collection<Map.Entry<String, T>> = snapshot.entries
 
-internal data class IndexedSnapshot<T>(val index: Long, val snapshot: PMap<String, T>) {
-    fun map(modification: (PMap<String, T>) -> PMap<String, T>) = IndexedSnapshot(this.index + 1, modification(this.snapshot))
+/**
+ * An immutable version of the object store contents.
+ *
+ * Besides the objects, a snapshot holds a secondary index from tags to the keys of
+ * [Tagged] objects, and the changes that produced it from its predecessor. The
+ * snapshots link back to their predecessors until they are issued to the watchers,
+ * so that the changes between two issued snapshots can be collected.
+ */
+internal class IndexedSnapshot<T>(
+        val index: Long,
+        val snapshot: PMap<String, T>,
+        val tagIndex: PMap<String, PSet<String>> = HashTreePMap.empty(),
+        private val changes: List<KeyChange> = emptyList(),
+        @Volatile var previous: IndexedSnapshot<T>? = null) {
+
+    fun plus(key: String, value: T): IndexedSnapshot<T> {
+        val existing = snapshot[key]
+
+        return IndexedSnapshot(
+                index + 1,
+                snapshot.plus(key, value),
+                reindex(key, tagsOf(existing), tagsOf(value)),
+                listOf(KeyChange(key, existing != null, true)),
+                this)
+    }
+
+    fun minus(key: String): IndexedSnapshot<T> {
+        val existing = snapshot[key]
+
+        return IndexedSnapshot(
+                index + 1,
+                snapshot.minus(key),
+                reindex(key, tagsOf(existing), emptySet()),
+                if (existing != null) listOf(KeyChange(key, true, false)) else emptyList(),
+                this)
+    }
+
+    fun keysWithTag(tag: String): Set<String> = tagIndex[tag] ?: emptySet()
+
+    /**
+     * Collects the changes made after `since`, up to and including this snapshot.
+     */
+    fun changesSince(since: IndexedSnapshot<T>): ChangeSet = changeSetOf(historySince(since))
+
+    /**
+     * Squashes the snapshots made after `base`, up to and including this snapshot,
+     * into a single snapshot that directly follows `base`.
+     */
+    fun squash(base: IndexedSnapshot<T>): IndexedSnapshot<T> =
+            if (this === base) {
+                base
+            } else {
+                IndexedSnapshot(base.index + 1, snapshot, tagIndex, historySince(base), base)
+            }
+
+    private fun historySince(since: IndexedSnapshot<T>): List<KeyChange> {
+        val snapshots = ArrayList<IndexedSnapshot<T>>()
+        var current: IndexedSnapshot<T>? = this
+
+        while (current != null && current.index > since.index) {
+            snapshots.add(current)
+            current = current.previous
+        }
+
+        // Earliest change first:
+        return snapshots.asReversed().flatMap { it.changes }
+    }
+
+    private fun reindex(key: String, oldTags: Set<String>, newTags: Set<String>): PMap<String, PSet<String>> {
+        var index = tagIndex
+
+        oldTags.filter { it !in newTags }.forEach { tag ->
+            val keys = index[tag]?.minus(key)
+            index = if (keys == null || keys.isEmpty()) index.minus(tag) else index.plus(tag, keys)
+        }
+
+        newTags.filter { it !in oldTags }.forEach { tag ->
+            index = index.plus(tag, (index[tag] ?: HashTreePSet.empty()).plus(key))
+        }
+
+        return index
+    }
+
+    private fun tagsOf(value: T?): Set<String> = (value as? Tagged)?.tags ?: emptySet()
+}
+
+internal data class KeyChange(val key: String, val existedBefore: Boolean, val existsAfter: Boolean)
+
+internal data class ChangeSet(val added: Set<String>, val removed: Set<String>, val modified: Set<String>) {
+    fun keyChanges(): List<KeyChange> =
+            added.map { KeyChange(it, false, true) } +
+                    removed.map { KeyChange(it, true, false) } +
+                    modified.map { KeyChange(it, true, true) }
+}
+
+/**
+ * Summarises a chronological history of changes. An object that was both added and
+ * removed within the history is left out.
+ */
+internal fun changeSetOf(history: List<KeyChange>): ChangeSet {
+    val existedBefore = HashMap<String, Boolean>()
+    val existsAfter = HashMap<String, Boolean>()
+    history.forEach {
+        existedBefore.putIfAbsent(it.key, it.existedBefore)
+        existsAfter[it.key] = it.existsAfter
+    }
+
+    val added = HashSet<String>()
+    val removed = HashSet<String>()
+    val modified = HashSet<String>()
+    existsAfter.forEach { (key, exists) ->
+        val existed = existedBefore.getValue(key)
+        when {
+            existed && exists -> modified.add(key)
+            exists -> added.add(key)
+            existed -> removed.add(key)
+        }
+    }
+
+    return ChangeSet(added, removed, modified)
 }
 
-internal typealias ChangeWatcher<T> = (ObjectStore<T>) -> Unit
+internal typealias ChangeWatcher<T> = (ObjectStoreChanges<T>) -> Unit
 
 internal typealias DispatchListener<T> = (DispatchListenerNotification<T>) -> Unit
 
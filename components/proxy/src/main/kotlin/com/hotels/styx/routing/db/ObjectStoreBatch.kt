@@ -0,0 +1,66 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.routing.db
+
+/**
+ * A set of modifications that [StyxObjectStore.batch] applies atomically.
+ *
+ * The modifications are made against a private working copy of the object store.
+ * They become visible to others only when the batch is complete.
+ */
+class ObjectStoreBatch<T> internal constructor(private var working: IndexedSnapshot<T>) {
+
+    /**
+     * Retrieves an object, as modified by this batch so far.
+     *
+     * @property key object name
+     * @return the object, or null if it doesn't exist
+     */
+    fun get(key: String): T? = working.snapshot[key]
+
+    /**
+     * Inserts or replaces an object.
+     *
+     * @property key object name
+     * @property payload the object itself
+     * @return the previous value, or null
+     */
+    fun insert(key: String, payload: T): T? {
+        require(key.isNotEmpty()) { "ObjectStore insert: empty keys are not allowed." }
+
+        val previous = working.snapshot[key]
+        if (previous !== payload) {
+            working = working.plus(key, payload)
+        }
+        return previous
+    }
+
+    /**
+     * Removes an object. Nothing happens if the object doesn't exist.
+     *
+     * @property key object name
+     * @return the removed value, or null
+     */
+    fun remove(key: String): T? {
+        val previous = working.snapshot[key]
+        if (previous != null) {
+            working = working.minus(key)
+        }
+        return previous
+    }
+
+    internal fun result() = working
+}
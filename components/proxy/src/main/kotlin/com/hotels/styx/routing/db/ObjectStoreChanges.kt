@@ -0,0 +1,74 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.routing.db
+
+import com.hotels.styx.api.configuration.ObjectStore
+import org.pcollections.PMap
+import org.pcollections.PSet
+
+/**
+ * An object store snapshot, together with the keys that changed since the previous
+ * notification to the same watcher.
+ *
+ * The first notification after a watch is started is an `initial` one. It lists all
+ * keys in the snapshot as added.
+ *
+ * @property snapshot object store snapshot
+ * @property added keys of objects added since the previous notification
+ * @property removed keys of objects removed since the previous notification
+ * @property modified keys of objects replaced since the previous notification
+ * @property initial true for the first notification of a watch
+ */
+class ObjectStoreChanges<T> internal constructor(
+        val snapshot: ObjectStore<T>,
+        val added: Set<String>,
+        val removed: Set<String>,
+        val modified: Set<String>,
+        val initial: Boolean,
+        private val tagIndex: PMap<String, PSet<String>>) {
+
+    /**
+     * Returns the keys of the objects in this snapshot that carry `tag`.
+     *
+     * @property tag a tag
+     * @return object keys
+     */
+    fun keysWithTag(tag: String): Set<String> = tagIndex[tag] ?: emptySet()
+
+    /**
+     * Returns all keys that were added, removed, or modified.
+     */
+    fun changedKeys(): Sequence<String> = added.asSequence() + removed.asSequence() + modified.asSequence()
+
+    /**
+     * Merges this notification with a later one, for a watcher that has not yet
+     * consumed this one. A merged initial notification lists all objects in the
+     * later snapshot as added.
+     */
+    internal fun then(later: ObjectStoreChanges<T>): ObjectStoreChanges<T> =
+            if (later.initial) {
+                later
+            } else if (initial) {
+                ObjectStoreChanges(later.snapshot, later.snapshotKeys(), emptySet(), emptySet(), true, later.tagIndex)
+            } else {
+                val merged = changeSetOf(changeSet().keyChanges() + later.changeSet().keyChanges())
+                ObjectStoreChanges(later.snapshot, merged.added, merged.removed, merged.modified, false, later.tagIndex)
+            }
+
+    private fun changeSet() = ChangeSet(added, removed, modified)
+
+    private fun snapshotKeys(): Set<String> = snapshot.entrySet().mapTo(HashSet()) { it.key }
+}
@@ -80,11 +80,11 @@ class StyxObjectStore<T> internal constructor(executor: ExecutorService): Object
         require(key.isNotEmpty()) { "ObjectStore insert: empty keys are not allowed." }
 
         var current = objects.get()
-        var new = current.map { it.plus(key, payload) }
+        var new = current.plus(key, payload)
 
         while (!objects.compareAndSet(current, new)) {
             current = objects.get()
-            new = current.map { it.plus(key, payload) }
+            new = current.plus(key, payload)
         }
 
         notificationQueue.publishChange(new)
@@ -135,10 +135,10 @@ class StyxObjectStore<T> internal constructor(executor: ExecutorService): Object
 
             new = if (existingValue !== null && result === null) {
                 //New value is null, removing key
-                current.map { it.minus(key) }
+                current.minus(key)
             } else if (result != existingValue) {
                 // Consumer REPLACES an existing value or ADDS a new value
-                current.map { it.plus(key, result) }
+                current.plus(key, result!!)
             } else {
                 // Consumer KEEPS the existing value
                 current
@@ -169,13 +169,13 @@ class StyxObjectStore<T> internal constructor(executor: ExecutorService): Object
      */
     fun remove(key: String): Optional<T> {
         var current = objects.get()
-        var new = current.map { it.minus(key) }
+        var new = current.minus(key)
 
         // Unnecessarily increments the index when "key" doesn't exist:
         // We will live with this for now.
         while (!objects.compareAndSet(current, new)) {
             current = objects.get()
-            new = current.map { it.minus(key) }
+            new = current.minus(key)
         }
 
         if (current.snapshot != new.snapshot) {
@@ -185,15 +185,65 @@ class StyxObjectStore<T> internal constructor(executor: ExecutorService): Object
         return Optional.ofNullable(current.snapshot[key])
     }
 
+    /**
+     * Applies many modifications atomically, and publishes them as a single
+     * new snapshot.
+     *
+     * The `modifications` function receives an [ObjectStoreBatch] through which it
+     * inserts and removes objects. The modifications become visible together when
+     * `modifications` returns, and the watchers are notified once. If nothing was
+     * changed, the watchers are not notified.
+     *
+     * Like `compute`, the `modifications` may be called more than once if the
+     * object store is modified concurrently. Therefore it should not have side
+     * effects.
+     *
+     * This method is thread safe. It can be called simultaneously from many threads.
+     *
+     * @property modifications a function that modifies the objects
+     */
+    fun batch(modifications: (ObjectStoreBatch<T>) -> Unit) {
+        var current: IndexedSnapshot<T>
+        var new: IndexedSnapshot<T>
+
+        do {
+            current = objects.get()
+            val batch = ObjectStoreBatch(current)
+            modifications(batch)
+            new = batch.result().squash(current)
+        } while (!objects.compareAndSet(current, new))
+
+        if (current !== new) {
+            notificationQueue.publishChange(new)
+        }
+    }
+
     /**
      * Returns a Publisher that emits an event at any modification.
      *
+     * A watcher that falls behind skips the intermediate snapshots, and receives
+     * the latest snapshot when it requests more.
+     *
+     * Watch activates on subscription only.
+     * Watch removed on unsubscription.
+     */
+    fun watch(): Publisher<ObjectStore<T>> = Flux.from(watchChanges()).map { it.snapshot }
+
+    /**
+     * Returns a Publisher that emits the changed keys, together with a new snapshot,
+     * at any modification.
+     *
+     * The first event lists all objects as added. Subsequent events list the keys that
+     * changed since the previous event, so that a watcher can apply the deltas instead
+     * of scanning the whole snapshot. A watcher that falls behind receives the latest
+     * snapshot, and the merged changes, when it requests more.
+     *
      * Watch activates on subscription only.
      * Watch removed on unsubscription.
      */
-    fun watch(): Publisher<ObjectStore<T>> {
-        return Flux.push { sink ->
-            val watcher: ChangeWatcher<T> = { sink.next(it) }
+    fun watchChanges(): Publisher<ObjectStoreChanges<T>> {
+        return Flux.create { sink ->
+            val watcher = CoalescingWatcher(sink)
 
             sink.onDispose {
                 watchers.remove(watcher)
@@ -201,10 +251,20 @@ class StyxObjectStore<T> internal constructor(executor: ExecutorService): Object
 
             watchers.add(watcher)
 
-            notificationQueue.publishInitialWatch(sink)
+            notificationQueue.publishInitialWatch(watcher)
         }
     }
 
+    /**
+     * Returns the keys of all [Tagged] objects that carry `tag`.
+     *
+     * This method is thread safe. It can be called simultaneously from many threads.
+     *
+     * @property tag a tag
+     * @return object keys
+     */
+    fun keysWithTag(tag: String): Set<String> = objects.get().keysWithTag(tag)
+
     internal fun watchers() = watchers.size
 
     private fun objects() = objects.get()
@@ -0,0 +1,26 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.routing.db
+
+/**
+ * An object that carries tags.
+ *
+ * The object store maintains a secondary index from each tag to the keys of the
+ * tagged objects, so that objects with a given tag can be found without a full scan.
+ */
+interface Tagged {
+    val tags: Set<String>
+}
@@ -15,12 +15,13 @@
  */
 package com.hotels.styx.routing.handlers
 
+import com.fasterxml.jackson.annotation.JsonInclude
+import com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL
 import com.fasterxml.jackson.annotation.JsonProperty
 import com.hotels.styx.api.Eventual
 import com.hotels.styx.api.HttpInterceptor
 import com.hotels.styx.api.Id
 import com.hotels.styx.api.LiveHttpRequest
-import com.hotels.styx.api.configuration.ObjectStore
 import com.hotels.styx.api.extension.ActiveOrigins
 import com.hotels.styx.api.extension.Origin
 import com.hotels.styx.api.extension.Origin.newOriginBuilder
@@ -28,8 +29,11 @@ import com.hotels.styx.api.extension.RemoteHost
 import com.hotels.styx.api.extension.RemoteHost.remoteHost
 import com.hotels.styx.api.extension.loadbalancing.spi.LoadBalancer
 import com.hotels.styx.api.extension.loadbalancing.spi.LoadBalancingMetricSupplier
+import com.hotels.styx.api.extension.service.HedgingConfig
+import com.hotels.styx.api.extension.service.OutlierDetectionConfig
 import com.hotels.styx.api.extension.service.StickySessionConfig
 import com.hotels.styx.client.OriginRestrictionLoadBalancingStrategy
+import com.hotels.styx.client.OutlierDetector
 import com.hotels.styx.client.StyxBackendServiceClient
 import com.hotels.styx.client.loadbalancing.strategies.PowerOfTwoStrategy
 import com.hotels.styx.client.stickysession.StickySessionLoadBalancingStrategy
@@ -37,6 +41,7 @@ import com.hotels.styx.config.schema.SchemaDsl.`object`
 import com.hotels.styx.config.schema.SchemaDsl.bool
 import com.hotels.styx.config.schema.SchemaDsl.field
 import com.hotels.styx.config.schema.SchemaDsl.integer
+import com.hotels.styx.config.schema.SchemaDsl.number
 import com.hotels.styx.config.schema.SchemaDsl.optional
 import com.hotels.styx.config.schema.SchemaDsl.string
 import com.hotels.styx.infrastructure.configuration.yaml.JsonNodeConfig
@@ -45,6 +50,7 @@ import com.hotels.styx.routing.RoutingObject
 import com.hotels.styx.routing.RoutingObjectRecord
 import com.hotels.styx.routing.config.RoutingObjectFactory
 import com.hotels.styx.routing.config.StyxObjectDefinition
+import com.hotels.styx.routing.db.ObjectStoreChanges
 import com.hotels.styx.stateTag
 import org.slf4j.LoggerFactory
 import reactor.core.Disposable
@@ -75,6 +81,21 @@ internal class LoadBalancingGroup(val client: StyxBackendServiceClient, val chan
                 optional("stickySession", `object`(
                         field("enabled", bool()),
                         field("timeoutSeconds", integer())
+                )),
+                optional("hedging", `object`(
+                        field("enabled", bool()),
+                        optional("delayMillis", integer()),
+                        optional("percentile", number())
+                )),
+                optional("outlierDetection", `object`(
+                        field("enabled", bool()),
+                        optional("consecutiveErrors", integer()),
+                        optional("errorRatePercent", integer()),
+                        optional("minimumRequests", integer()),
+                        optional("intervalMillis", integer()),
+                        optional("baseEjectionTimeMillis", integer()),
+                        optional("maxEjectionTimeMillis", integer()),
+                        optional("maxEjectionPercent", integer())
                 ))
         )
 
@@ -88,36 +109,44 @@ internal class LoadBalancingGroup(val client: StyxBackendServiceClient, val chan
             val config = JsonNodeConfig(configBlock.config()).`as`(Config::class.java)
 
             val routeDb = context.routeDb()
-            val remoteHosts = AtomicReference<Set<RemoteHost>>(setOf())
+            val remoteHosts = AtomicReference<List<RemoteHost>>(listOf())
+            val members = HashMap<String, RemoteHost>()
 
-            val watch = routeDb.watch()
+            val watch = routeDb.watchChanges()
                     .toFlux()
                     .subscribe(
-                            { routeDatabaseChanged(config.origins, it, remoteHosts) },
+                            { routeDatabaseChanged(config.origins, it, members, remoteHosts) },
                             { watchFailed(appId, it) },
                             { watchCompleted(appId) }
                     )
 
 
+            val activeOrigins = object: ActiveOrigins {
+                override fun  snapshot(): Iterable<RemoteHost> {
+                    return remoteHosts.get();
+                }
+
+                override fun getApplicationId(): String {
+                    return "";
+                }
+
+                override fun origins(): MutableList<Origin> {
+                    return arrayListOf();
+                }
+            }
+
+            val detector = config.outlierDetection
+                    ?.takeIf { it.outlierDetectionEnabled() }
+                    ?.let { OutlierDetector(Id.id(appId), it, context.environment().meterRegistry()) }
+
             val client = StyxBackendServiceClient.Builder(Id.id(appId))
-                    .loadBalancer(loadBalancer(config, object: ActiveOrigins {
-                        override fun  snapshot(): Iterable<RemoteHost> {
-                            return remoteHosts.get();
-                        }
-
-                        override fun getApplicationId(): String {
-                            return "";
-                        }
-
-                        override fun origins(): MutableList<Origin> {
-                            return arrayListOf();
-                        }
-                    }
-                    ))
+                    .loadBalancer(loadBalancer(config, detector?.activeOrigins(activeOrigins) ?: activeOrigins))
                     .meterRegistry(context.environment().meterRegistry())
                     .originIdHeader(context.environment().configuration().styxHeaderConfig().originIdHeaderName())
                     .stickySessionConfig(config.stickySession ?: StickySessionConfig.stickySessionDisabled())
+                    .hedgingConfig(config.hedging ?: HedgingConfig.hedgingDisabled())
                     .originsRestrictionCookieName(config.originRestrictionCookie)
+                    .apply { detector?.let { outlierDetector(it) } }
                     .build()
 
             return LoadBalancingGroup(client, watch)
@@ -134,21 +163,45 @@ internal class LoadBalancingGroup(val client: StyxBackendServiceClient, val chan
             }
         }
 
-        private fun routeDatabaseChanged(appId: String, snapshot: ObjectStore<RoutingObjectRecord>, remoteHosts: AtomicReference<Set<RemoteHost>>) {
-            val newSet = snapshot.entrySet()
-                    .filter { it.value.tags.contains(lbGroupTag(appId)) }
-                    .filter { stateTag.find(it.value.tags)
-                            .let { it == null || it == "active" }
-                    }
-                    .map { toRemoteHost(appId, it) }
-                    .toSet()
+        /*
+         * Applies the route database changes to the group members. Only the changed keys
+         * are examined, and the initial snapshot is read through the tag index. The
+         * members map is only accessed from the notification thread.
+         */
+        private fun routeDatabaseChanged(
+                appId: String,
+                changes: ObjectStoreChanges<RoutingObjectRecord>,
+                members: MutableMap<String, RemoteHost>,
+                remoteHosts: AtomicReference<List<RemoteHost>>) {
+            val tag = lbGroupTag(appId)
+            val keys = if (changes.initial) changes.keysWithTag(tag).asSequence() else changes.changedKeys()
+
+            if (changes.initial) {
+                members.clear()
+            }
+
+            var changed = changes.initial
+            keys.forEach { key ->
+                val record = changes.snapshot.get(key).orElse(null)
+
+                if (record != null && record.tags.contains(tag) && isActive(record)) {
+                    members[key] = toRemoteHost(appId, key, record)
+                    changed = true
+                } else if (members.remove(key) != null) {
+                    changed = true
+                }
+            }
 
-            remoteHosts.set(newSet)
+            if (changed) {
+                remoteHosts.set(members.values.toList())
+            }
         }
 
-        private fun toRemoteHost(appId: String, record: Map.Entry<String, RoutingObjectRecord>): RemoteHost {
-            val routingObject = record.value.routingObject
-            val originName = record.key
+        private fun isActive(record: RoutingObjectRecord) = stateTag.find(record.tags)
+                .let { it == null || it == "active" }
+
+        private fun toRemoteHost(appId: String, originName: String, record: RoutingObjectRecord): RemoteHost {
+            val routingObject = record.routingObject
 
             return remoteHost(
                     // The origin is used to determine remote host hostname or port
@@ -173,7 +226,11 @@ internal class LoadBalancingGroup(val client: StyxBackendServiceClient, val chan
     data class Config(
             @JsonProperty val origins: String,
             @JsonProperty val originRestrictionCookie: String?,
-            @JsonProperty val stickySession: StickySessionConfig?
+            @JsonProperty val stickySession: StickySessionConfig?,
+            @get:JsonInclude(NON_NULL)
+            @JsonProperty val hedging: HedgingConfig? = null,
+            @get:JsonInclude(NON_NULL)
+            @JsonProperty val outlierDetection: OutlierDetectionConfig? = null
     ) {
         val stickySessionConfig: StickySessionConfig
             get() = stickySession ?: StickySessionConfig.stickySessionDisabled()
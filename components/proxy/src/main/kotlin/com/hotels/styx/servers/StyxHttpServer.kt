@@ -46,6 +46,9 @@ object StyxHttpServer {
             field("port", integer()),
             field("handler", string()),
             optional("compressResponses", bool()),
+            optional("compressionLevel", integer()),
+            optional("compressionMinimumSizeBytes", integer()),
+            optional("compressionContentTypes", list(string())),
             optional("tlsSettings", `object`(
                     optional("sslProvider", string()),
                     optional("certificateFile", string()),
@@ -63,6 +66,7 @@ object StyxHttpServer {
             optional("requestTimeoutMillis", integer()),
             optional("keepAliveTimeoutMillis", integer()),
             optional("maxConnectionsCount", integer()),
+            optional("requestIdGenerator", string()),
 
             optional("bossExecutor", string()),
             optional("workerExecutor", string())
@@ -86,6 +90,9 @@ private data class StyxHttpServerConfiguration(
         val port: Int,
         val handler: String,
         val compressResponses: Boolean = false,
+        val compressionLevel: Int = 6,
+        val compressionMinimumSizeBytes: Int = 0,
+        val compressionContentTypes: List<String> = listOf(),
         val tlsSettings: StyxHttpServerTlsSettings?,
 
         val maxInitialLength: Int = 4096,
@@ -95,6 +102,7 @@ private data class StyxHttpServerConfiguration(
         val requestTimeoutMillis: Int = 60000,
         val keepAliveTimeoutMillis: Int = 120000,
         val maxConnectionsCount: Int = 512,
+        val requestIdGenerator: String = "uuid-v1",
 
         val bossExecutor: String = "StyxHttpServer-Global-Boss",
         val workerExecutor: String = "StyxHttpServer-Global-Worker"
@@ -121,12 +129,16 @@ internal class StyxHttpServerFactory : StyxServerFactory {
                         ProxyConnectorFactory(
                                 ProxyServerConfig.Builder()
                                         .setCompressResponses(config.compressResponses)
+                                        .setCompressionLevel(config.compressionLevel)
+                                        .setCompressionMinimumSizeBytes(config.compressionMinimumSizeBytes)
+                                        .setCompressionContentTypes(config.compressionContentTypes)
                                         .setMaxInitialLength(config.maxInitialLength)
                                         .setMaxHeaderSize(config.maxHeaderSize)
                                         .setMaxChunkSize(config.maxChunkSize)
                                         .setRequestTimeoutMillis(config.requestTimeoutMillis)
                                         .setKeepAliveTimeoutMillis(config.keepAliveTimeoutMillis)
                                         .setMaxConnectionsCount(config.maxConnectionsCount)
+                                        .setRequestIdGenerator(config.requestIdGenerator)
                                         .build(),
                                 environment.meterRegistry(),
                                 environment.errorListener(),
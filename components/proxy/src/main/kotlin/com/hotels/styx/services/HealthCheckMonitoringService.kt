@@ -26,6 +26,7 @@ import com.hotels.styx.STATE_UNREACHABLE
 import com.hotels.styx.api.HttpRequest
 import com.hotels.styx.api.extension.service.spi.AbstractStyxService
 import com.hotels.styx.api.extension.service.spi.StyxService
+import com.hotels.styx.client.healthcheck.ProbeScheduler
 import com.hotels.styx.config.schema.SchemaDsl
 import com.hotels.styx.config.schema.SchemaDsl.field
 import com.hotels.styx.config.schema.SchemaDsl.integer
@@ -34,7 +35,6 @@ import com.hotels.styx.config.schema.SchemaDsl.string
 import com.hotels.styx.healthCheckTag
 import com.hotels.styx.infrastructure.configuration.yaml.JsonNodeConfig
 import com.hotels.styx.lbGroupTag
-import com.hotels.styx.routing.RoutingObject
 import com.hotels.styx.routing.RoutingObjectRecord
 import com.hotels.styx.routing.config.RoutingObjectFactory
 import com.hotels.styx.routing.db.StyxObjectStore
@@ -43,7 +43,6 @@ import com.hotels.styx.serviceproviders.ServiceProviderFactory
 import com.hotels.styx.services.HealthCheckMonitoringService.Companion.EXECUTOR
 import com.hotels.styx.stateTag
 import org.slf4j.LoggerFactory
-import reactor.core.publisher.Flux
 import reactor.core.publisher.toMono
 import java.time.Duration
 import java.util.concurrent.CompletableFuture
@@ -61,7 +60,8 @@ internal class HealthCheckMonitoringService(
         activeThreshold: Int,
         inactiveThreshold: Int,
         private val executor: ScheduledExecutorService,
-        workerExecutor: NettyExecutor = healthCheckExecutor) : AbstractStyxService("HealthCheckMonitoringService-$application") {
+        workerExecutor: NettyExecutor = healthCheckExecutor,
+        private val probeScheduler: ProbeScheduler = ProbeScheduler.immediate()) : AbstractStyxService("HealthCheckMonitoringService-$application") {
 
     companion object {
         @JvmField
@@ -71,7 +71,8 @@ internal class HealthCheckMonitoringService(
                 optional("timeoutMillis", integer()),
                 optional("intervalMillis", integer()),
                 optional("healthyThreshold", integer()),
-                optional("unhealthyThreshold", integer())
+                optional("unhealthyThreshold", integer()),
+                optional("maxConcurrentProbes", integer())
         )
 
         internal val EXECUTOR = ScheduledThreadPoolExecutor(2)
@@ -122,51 +123,76 @@ internal class HealthCheckMonitoringService(
     fun isRunning() = futureRef.get()?.let { !it.isCancelled && !it.isDone } == true
 
     internal fun runChecks(application: String, objectStore: StyxObjectStore<RoutingObjectRecord>) {
-        val monitoredObjects = objectStore.entrySet()
-                .map { Pair(it.key, it.value) }
-                .filter { (_, record) -> record.tags.contains(lbGroupTag(application)) }
-                .map { (name, record) ->
-                    val tags = record.tags
-                    val objectHealth = objectHealthFrom(stateTag.find(tags), healthCheckTag.find(tags))
-                    Triple(name, record, objectHealth)
+        objectStore.entrySet()
+                .filter { isMonitored(application, it.value) }
+                .forEach { (name, _) ->
+                    probeScheduler.schedule(name) { done -> probeObject(application, objectStore, name, done) }
                 }
+    }
 
-        val pendingHealthChecks = monitoredObjects
-                .map { (name, record, objectHealth) ->
-                    healthCheck(probe, record.routingObject, objectHealth)
-                            .map { newHealth -> Triple(name, objectHealth, newHealth) }
-                            .doOnNext { (name, currentHealth, newHealth) ->
-                                if (currentHealth != newHealth) {
-                                    markObject(objectStore, name, newHealth)
-                                }
-                            }
+    /*
+     * A probe can run up to a period after its round was scheduled. The object is therefore
+     * looked up again when the probe runs, and the probe result is applied to the health
+     * state the object has when the result arrives.
+     */
+    private fun probeObject(application: String, objectStore: StyxObjectStore<RoutingObjectRecord>, name: String, done: Runnable) {
+        val record = objectStore.get(name).orElse(null)
+
+        if (isStopped() || record == null || !isMonitored(application, record)) {
+            done.run()
+            return
+        }
+
+        probe(record.routingObject)
+                .toMono()
+                .doFinally { done.run() }
+                .subscribe { reachable ->
+                    val newHealth = markObject(application, objectStore, name, reachable)
+                    LOGGER.debug("Health Check Completed: { app: $application, host: $name, result: $newHealth }")
                 }
+    }
 
-        Flux.fromIterable(pendingHealthChecks)
-                .flatMap { it }
-                .collectList()
-                .subscribe {
-                    val details = it.joinToString(", ") { (name, _, health2) ->
-                        "{ app: $application, host: $name, result: $health2 }"
-                    }
+    private fun markObject(application: String, db: StyxObjectStore<RoutingObjectRecord>, name: String, reachable: Boolean): ObjectHealth? {
+        var newHealth: ObjectHealth? = null
 
-                    LOGGER.debug("Health Check Completed: ${details}")
-                }
+        db.compute(name) { previous ->
+            if (previous === null || !isMonitored(application, previous)) {
+                newHealth = null
+                return@compute previous
+            }
+
+            val prevTags = previous.tags
+            val currentHealth = objectHealthFrom(stateTag.find(prevTags), healthCheckTag.find(prevTags))
+            val health = determineObjectState(currentHealth, reachable)
+            newHealth = health
+
+            if (health == currentHealth) {
+                return@compute previous
+            }
+
+            val newTags = reTag(prevTags, health)
+            if (prevTags != newTags)
+                previous.copy(tags = newTags)
+            else
+                previous
+        }
+
+        return newHealth
     }
 
-    private fun healthCheck(probe: Probe, routingObject: RoutingObject, previous: ObjectHealth) =
-            probe(routingObject)
-                    .toMono()
-                    .map { reachable -> determineObjectState(previous, reachable) }
+    private fun isStopped() = futureRef.get()?.isCancelled == true
 }
 
+private fun isMonitored(application: String, record: RoutingObjectRecord) = record.tags.contains(lbGroupTag(application))
+
 internal data class HealthCheckConfiguration(
         @JsonProperty val objects: String,
         @JsonProperty val path: String,
         @JsonProperty val timeoutMillis: Long,
         @JsonProperty val intervalMillis: Long,
         @JsonProperty val healthyThreshod: Int,
-        @JsonProperty val unhealthyThreshold: Int)
+        @JsonProperty val unhealthyThreshold: Int,
+        @JsonProperty val maxConcurrentProbes: Int = ProbeScheduler.UNLIMITED)
 
 private val healthCheckExecutor = NettyExecutor.create("HealthCheckMonitoringService-global", 1)
 
@@ -182,7 +208,8 @@ internal class HealthCheckMonitoringServiceFactory : ServiceProviderFactory {
                 config.healthyThreshod,
                 config.unhealthyThreshold,
                 EXECUTOR,
-                healthCheckExecutor)
+                healthCheckExecutor,
+                ProbeScheduler(EXECUTOR, config.intervalMillis, config.maxConcurrentProbes, context.environment().meterRegistry(), config.objects))
     }
 }
 
@@ -204,20 +231,6 @@ internal fun objectHealthFrom(state: String?, health: Pair<String, Int>?) =
         }
 
 
-private fun markObject(db: StyxObjectStore<RoutingObjectRecord>, name: String, newStatus: ObjectHealth) {
-    db.compute(name) { previous ->
-        if (previous === null) {
-            return@compute null
-        }
-        val prevTags = previous.tags;
-        val newTags = reTag(prevTags, newStatus)
-        if (prevTags != newTags)
-            previous.copy(tags = newTags)
-        else
-            previous
-    }
-}
-
 internal fun reTag(tags: Set<String>, newStatus: ObjectHealth) =
         tags.asSequence()
                 .filterNot { stateTag.match(it) || healthCheckTag.match(it) }
@@ -28,7 +28,6 @@ import com.hotels.styx.api.extension.Origin
 import com.hotels.styx.api.extension.service.BackendService
 import com.hotels.styx.api.extension.service.ConnectionPoolSettings
 import com.hotels.styx.api.extension.service.HealthCheckConfig
-import com.hotels.styx.api.extension.service.StickySessionConfig
 import com.hotels.styx.api.extension.service.TlsSettings
 import com.hotels.styx.infrastructure.configuration.ConfigurationParser
 import com.hotels.styx.infrastructure.configuration.ConfigurationSource.configSource
@@ -178,7 +177,7 @@ internal class OriginsConfigConverter(
             StyxObjectDefinition(
                     "${app.id()}",
                     LOAD_BALANCING_GROUP,
-                    loadBalancingGroupConfig(app.id().toString(), originRestrictionCookie, app.stickySessionConfig()))
+                    loadBalancingGroupConfig(app, originRestrictionCookie))
         } else {
             interceptorPipelineConfig(app, originRestrictionCookie)
         }
@@ -189,10 +188,13 @@ internal class OriginsConfigConverter(
                     && app.healthCheckConfig().isEnabled)
         }
 
-        private fun loadBalancingGroupConfig(origins: String,
-                                             originRestrictionCookie: String?,
-                                             stickySession: StickySessionConfig?): JsonNode = MAPPER.valueToTree(
-                LoadBalancingGroup.Config(origins, originRestrictionCookie, stickySession))
+        private fun loadBalancingGroupConfig(app: BackendService, originRestrictionCookie: String?): JsonNode = MAPPER.valueToTree(
+                LoadBalancingGroup.Config(
+                        app.id().toString(),
+                        originRestrictionCookie,
+                        app.stickySessionConfig(),
+                        app.hedgingConfig().takeIf { it.hedgingEnabled() },
+                        app.outlierDetectionConfig().takeIf { it.outlierDetectionEnabled() }))
 
         internal fun interceptorPipelineConfig(app: BackendService, originRestrictionCookie: String?): StyxObjectDefinition {
             val rewrites = app.rewrites()
@@ -207,7 +209,7 @@ internal class OriginsConfigConverter(
                 """.trimIndent()
                     .replace("__rewrites__", rewrites)
 
-            val lbConfig = MAPPER.writeValueAsString(loadBalancingGroupConfig(app.id().toString(), originRestrictionCookie, app.stickySessionConfig()))
+            val lbConfig = MAPPER.writeValueAsString(loadBalancingGroupConfig(app, originRestrictionCookie))
                     .dropWhile { it == '-' || it == '\n' }
                     .prependIndent("  ")
 
@@ -153,29 +153,36 @@ internal class YamlFileConfigurationService(
     private fun changed(one: JsonNode, another: JsonNode) = !one.equals(another)
 
     internal fun updateRoutingObjects(objectDefs: List<StyxObjectDefinition>) {
-        val previousObjectNames = routeDb.entrySet()
-                .filter { it.value.tags.contains(objectSourceTag) }
-                .map { it.key }
+        val previousObjectNames = routeDb.keysWithTag(objectSourceTag)
 
         val newObjectNames = objectDefs.map { it.name() }
         val removedObjects = previousObjectNames.minus(newObjectNames)
 
-        objectDefs.forEach { objectDef ->
-            routeDb.compute(objectDef.name()) { previous ->
-                if (previous == null || changed(objectDef.config(), previous.config)) {
-                    previous?.routingObject?.stop()
-                    converter.routingObjectRecord(objectDef)
-                } else {
-                    previous
+        // The routing objects are built outside the batch, because the batch
+        // may be retried when the route database is concurrently modified.
+        val newRecords = objectDefs
+                .filter { objectDef ->
+                    routeDb.get(objectDef.name())
+                            .map { changed(objectDef.config(), it.config) }
+                            .orElse(true)
                 }
+                .map { Pair(it.name(), converter.routingObjectRecord(it)) }
+
+        val replacedRecords = mutableListOf<RoutingObjectRecord>()
+
+        routeDb.batch { batch ->
+            replacedRecords.clear()
+
+            newRecords.forEach { (name, record) ->
+                batch.insert(name, record)?.let { replacedRecords.add(it) }
             }
-        }
 
-        removedObjects.forEach {
-            routeDb.remove(it).ifPresent {
-                it.routingObject.stop()
+            removedObjects.forEach {
+                batch.remove(it)?.let { replacedRecords.add(it) }
             }
         }
+
+        replacedRecords.forEach { it.routingObject.stop() }
     }
 
     private fun updateHealthCheckServices(objectDb: StyxObjectStore<ProviderObjectRecord>, objects: List<Pair<String, ProviderObjectRecord>>): Unit {
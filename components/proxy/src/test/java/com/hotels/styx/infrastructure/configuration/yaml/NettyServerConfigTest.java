@@ -21,7 +21,9 @@ import org.junit.jupiter.api.Test;
 
 import static java.util.stream.StreamSupport.stream;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class NettyServerConfigTest {
     @Test
@@ -52,6 +54,29 @@ public class NettyServerConfigTest {
         assertThat(serverConfig.compressResponses(), is(true));
     }
 
+    @Test
+    public void acceptsCompressionLevelsFromZeroToNine() {
+        assertThat(compressionLevel("0"), is(0));
+        assertThat(compressionLevel("9"), is(9));
+    }
+
+    @Test
+    public void rejectsCompressionLevelsOutOfRangeWhenLoaded() {
+        Exception tooHigh = assertThrows(RuntimeException.class, () -> compressionLevel("10"));
+        assertThat(tooHigh.getMessage(), containsString("Compression level must be between 0 and 9, but was 10"));
+
+        Exception negative = assertThrows(RuntimeException.class, () -> compressionLevel("-1"));
+        assertThat(negative.getMessage(), containsString("Compression level must be between 0 and 9, but was -1"));
+    }
+
+    private static int compressionLevel(String level) {
+        String yaml = "" +
+                "proxy:\n" +
+                "  compressionLevel: " + level + "\n";
+
+        return new YamlConfig(yaml).get("proxy", NettyServerConfig.class).get().compressionLevel();
+    }
+
     private HttpsConnectorConfig httpsConnectorConfig(NettyServerConfig serverConfig) {
         return stream(serverConfig.connectors().spliterator(), false)
                 .filter(object -> object instanceof HttpsConnectorConfig)
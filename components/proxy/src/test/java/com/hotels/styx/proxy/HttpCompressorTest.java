@@ -0,0 +1,193 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.proxy;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.LastHttpContent;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.ACCEPT_ENCODING;
+import static io.netty.handler.codec.http.HttpHeaderNames.CONTENT_ENCODING;
+import static io.netty.handler.codec.http.HttpHeaderNames.CONTENT_LENGTH;
+import static io.netty.handler.codec.http.HttpHeaderNames.CONTENT_TYPE;
+import static io.netty.handler.codec.http.HttpMethod.GET;
+import static io.netty.handler.codec.http.HttpResponseStatus.OK;
+import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class HttpCompressorTest {
+
+    @Test
+    public void compressesDefaultContentTypes() {
+        HttpResponse response = exchange(new HttpCompressor(), response("text/html"));
+
+        assertThat(response.headers().get(CONTENT_ENCODING), is("gzip"));
+    }
+
+    @Test
+    public void ignoresContentTypeParameters() {
+        HttpResponse response = exchange(new HttpCompressor(), response("Application/JSON; charset=UTF-8"));
+
+        assertThat(response.headers().get(CONTENT_ENCODING), is("gzip"));
+    }
+
+    @Test
+    public void doesNotCompressOtherContentTypes() {
+        HttpResponse response = exchange(new HttpCompressor(), response("image/jpeg"));
+
+        assertThat(response.headers().get(CONTENT_ENCODING), is(nullValue()));
+    }
+
+    @Test
+    public void compressesConfiguredContentTypes() {
+        HttpCompressor compressor = new HttpCompressor(1, 0, singletonList("image/svg+xml"));
+
+        assertThat(exchange(compressor, response("image/svg+xml")).headers().get(CONTENT_ENCODING), is("gzip"));
+    }
+
+    @Test
+    public void configuredContentTypesReplaceDefaults() {
+        HttpCompressor compressor = new HttpCompressor(1, 0, singletonList("image/svg+xml"));
+
+        assertThat(exchange(compressor, response("text/html")).headers().get(CONTENT_ENCODING), is(nullValue()));
+    }
+
+    @Test
+    public void doesNotCompressResponsesBelowMinimumSize() {
+        HttpCompressor compressor = new HttpCompressor(6, 1024, emptyList());
+        HttpResponse response = response("text/html");
+        response.headers().set(CONTENT_LENGTH, 1023);
+
+        assertThat(exchange(compressor, response).headers().get(CONTENT_ENCODING), is(nullValue()));
+    }
+
+    @Test
+    public void compressesResponsesAtMinimumSize() {
+        HttpCompressor compressor = new HttpCompressor(6, 1024, emptyList());
+        HttpResponse response = response("text/html");
+        response.headers().set(CONTENT_LENGTH, 1024);
+
+        assertThat(exchange(compressor, response).headers().get(CONTENT_ENCODING), is("gzip"));
+    }
+
+    @Test
+    public void compressesResponsesOfUnknownLength() {
+        HttpCompressor compressor = new HttpCompressor(6, 1024, emptyList());
+
+        assertThat(exchange(compressor, response("text/html")).headers().get(CONTENT_ENCODING), is("gzip"));
+    }
+
+    @Test
+    public void doesNotRecompressEncodedResponses() {
+        HttpResponse response = response("text/plain");
+        response.headers().set(CONTENT_ENCODING, "br");
+
+        assertThat(exchange(new HttpCompressor(), response).headers().get(CONTENT_ENCODING), is("br"));
+    }
+
+    @Test
+    public void compressesBodiesOfConsecutiveResponses() throws IOException {
+        EmbeddedChannel channel = new EmbeddedChannel(new HttpCompressor());
+        try {
+            for (String encoding : asList("gzip", "deflate", "gzip", "deflate")) {
+                String body = "Response body compressed with " + encoding;
+
+                assertThat(decompress(encoding, exchangeBody(channel, encoding, body)), is(body));
+            }
+        } finally {
+            channel.finishAndReleaseAll();
+        }
+    }
+
+    private static byte[] exchangeBody(EmbeddedChannel channel, String acceptEncoding, String body) throws IOException {
+        DefaultFullHttpRequest request = new DefaultFullHttpRequest(HTTP_1_1, GET, "/");
+        request.headers().set(ACCEPT_ENCODING, acceptEncoding);
+        channel.writeInbound(request);
+        channel.<DefaultFullHttpRequest>readInbound().release();
+
+        channel.writeOutbound(
+                response("text/plain"),
+                new DefaultHttpContent(Unpooled.copiedBuffer(body, UTF_8)),
+                LastHttpContent.EMPTY_LAST_CONTENT);
+
+        HttpResponse response = channel.readOutbound();
+        assertThat(response.headers().get(CONTENT_ENCODING), is(acceptEncoding));
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        HttpContent content;
+        do {
+            content = channel.readOutbound();
+            ByteBuf bytes = content.content();
+            bytes.readBytes(compressed, bytes.readableBytes());
+            content.release();
+        } while (!(content instanceof LastHttpContent));
+
+        return compressed.toByteArray();
+    }
+
+    static String decompress(String encoding, byte[] compressed) throws IOException {
+        ByteArrayInputStream bytes = new ByteArrayInputStream(compressed);
+        try (InputStream in = "gzip".equals(encoding) ? new GZIPInputStream(bytes) : new InflaterInputStream(bytes)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), UTF_8);
+        }
+    }
+
+    private static HttpResponse response(String contentType) {
+        HttpResponse response = new DefaultHttpResponse(HTTP_1_1, OK);
+        response.headers().set(CONTENT_TYPE, contentType);
+        return response;
+    }
+
+    private static HttpResponse exchange(HttpCompressor compressor, HttpResponse response) {
+        EmbeddedChannel channel = new EmbeddedChannel(compressor);
+        try {
+            DefaultFullHttpRequest request = new DefaultFullHttpRequest(HTTP_1_1, GET, "/");
+            request.headers().set(ACCEPT_ENCODING, "gzip, deflate");
+            channel.writeInbound(request);
+            channel.<DefaultFullHttpRequest>readInbound().release();
+
+            channel.writeOutbound(response, LastHttpContent.EMPTY_LAST_CONTENT);
+            return channel.readOutbound();
+        } finally {
+            channel.finishAndReleaseAll();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.proxy;
+
+import com.hotels.styx.proxy.PooledDeflaterEncoder.DeflaterPool;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.compression.ZlibWrapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static com.hotels.styx.proxy.HttpCompressorTest.decompress;
+import static io.netty.handler.codec.compression.ZlibWrapper.GZIP;
+import static io.netty.handler.codec.compression.ZlibWrapper.ZLIB;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PooledDeflaterEncoderTest {
+
+    @Test
+    public void encodesGzip() throws IOException {
+        assertThat(decompress("gzip", encode(GZIP, 6, "Hello, ", "world")), is("Hello, world"));
+    }
+
+    @Test
+    public void encodesDeflate() throws IOException {
+        assertThat(decompress("deflate", encode(ZLIB, 6, "Hello, ", "world")), is("Hello, world"));
+    }
+
+    @Test
+    public void encodesEmptyBodies() throws IOException {
+        assertThat(decompress("gzip", encode(GZIP, 6)), is(""));
+        assertThat(decompress("deflate", encode(ZLIB, 6)), is(""));
+    }
+
+    @Test
+    public void encodesWithoutCompressionAtLevelZero() throws IOException {
+        assertThat(decompress("gzip", encode(GZIP, 0, "Hello, world")), is("Hello, world"));
+    }
+
+    @Test
+    public void reusesDeflatersOnceBodiesAreEncoded() throws IOException {
+        DeflaterPool pool = PooledDeflaterEncoder.pool(GZIP, 7);
+        encode(GZIP, 7, "first");
+        int idle = pool.idleDeflaters();
+
+        EmbeddedChannel channel = new EmbeddedChannel(new PooledDeflaterEncoder(GZIP, 7));
+        assertThat(pool.idleDeflaters(), is(idle - 1));
+
+        channel.writeOutbound(Unpooled.copiedBuffer("second", UTF_8));
+        assertThat(decompress("gzip", finish(channel)), is("second"));
+        assertThat(pool.idleDeflaters(), is(idle));
+    }
+
+    @Test
+    public void givesConcurrentBodiesTheirOwnDeflaters() throws IOException {
+        EmbeddedChannel first = new EmbeddedChannel(new PooledDeflaterEncoder(ZLIB, 6));
+        EmbeddedChannel second = new EmbeddedChannel(new PooledDeflaterEncoder(ZLIB, 6));
+
+        first.writeOutbound(Unpooled.copiedBuffer("first ", UTF_8));
+        second.writeOutbound(Unpooled.copiedBuffer("second ", UTF_8));
+        first.writeOutbound(Unpooled.copiedBuffer("body", UTF_8));
+        second.writeOutbound(Unpooled.copiedBuffer("body", UTF_8));
+
+        assertThat(decompress("deflate", finish(first)), is("first body"));
+        assertThat(decompress("deflate", finish(second)), is("second body"));
+    }
+
+    @Test
+    public void rejectsCompressionLevelsOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new PooledDeflaterEncoder(GZIP, 10));
+        assertThrows(IllegalArgumentException.class, () -> new PooledDeflaterEncoder(GZIP, -1));
+    }
+
+    private static byte[] encode(ZlibWrapper wrapper, int compressionLevel, String... chunks) throws IOException {
+        EmbeddedChannel channel = new EmbeddedChannel(new PooledDeflaterEncoder(wrapper, compressionLevel));
+        for (String chunk : chunks) {
+            channel.writeOutbound(Unpooled.copiedBuffer(chunk, UTF_8));
+        }
+        return finish(channel);
+    }
+
+    private static byte[] finish(EmbeddedChannel channel) throws IOException {
+        channel.finish();
+
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        for (ByteBuf buf = channel.readOutbound(); buf != null; buf = channel.readOutbound()) {
+            buf.readBytes(encoded, buf.readableBytes());
+            buf.release();
+        }
+        return encoded.toByteArray();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.routing.handlers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class PrefixTreeTest {
+    @Test
+    public void returnsLongestMatchingPrefix() {
+        PrefixTree<String> tree = new PrefixTree<>();
+        tree.put("/", "root");
+        tree.put("/foo", "foo");
+        tree.put("/foo/bar", "foo-bar");
+        tree.put("/fob", "fob");
+
+        assertThat(tree.longestPrefixMatch("/"), is("root"));
+        assertThat(tree.longestPrefixMatch("/fo"), is("root"));
+        assertThat(tree.longestPrefixMatch("/foo"), is("foo"));
+        assertThat(tree.longestPrefixMatch("/foo/ba"), is("foo"));
+        assertThat(tree.longestPrefixMatch("/foo/bar/baz"), is("foo-bar"));
+        assertThat(tree.longestPrefixMatch("/fob/x"), is("fob"));
+        assertThat(tree.longestPrefixMatch("/x"), is("root"));
+    }
+
+    @Test
+    public void returnsNullWhenNothingMatches() {
+        PrefixTree<String> tree = new PrefixTree<>();
+        tree.put("/foo", "foo");
+
+        assertThat(tree.longestPrefixMatch("/bar"), is(nullValue()));
+        assertThat(tree.longestPrefixMatch(""), is(nullValue()));
+    }
+
+    @Test
+    public void emptyPrefixMatchesEverything() {
+        PrefixTree<String> tree = new PrefixTree<>();
+        tree.put("", "default");
+        tree.put("/foo", "foo");
+
+        assertThat(tree.longestPrefixMatch(""), is("default"));
+        assertThat(tree.longestPrefixMatch("/bar"), is("default"));
+        assertThat(tree.longestPrefixMatch("/foo"), is("foo"));
+    }
+
+    @Test
+    public void retainsFirstValueForDuplicatePrefix() {
+        PrefixTree<String> tree = new PrefixTree<>();
+        tree.put("/foo/bar", "first");
+        tree.put("/foo", "foo");
+        tree.put("/foo/bar", "second");
+
+        assertThat(tree.longestPrefixMatch("/foo/bar"), is("first"));
+    }
+
+    @Test
+    public void matchesLinearScanForManyPrefixes() {
+        Random random = new Random(42);
+        List<String> prefixes = new ArrayList<>();
+        PrefixTree<String> tree = new PrefixTree<>();
+
+        for (int i = 0; i < 10_000; i++) {
+            String prefix = randomPath(random);
+            prefixes.add(prefix);
+            tree.put(prefix, prefix);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            String path = randomPath(random) + randomPath(random);
+            assertThat(path, tree.longestPrefixMatch(path), is(linearScan(prefixes, path)));
+        }
+    }
+
+    private static String linearScan(List<String> prefixes, String path) {
+        String best = null;
+        for (String prefix : prefixes) {
+            if (path.startsWith(prefix) && (best == null || prefix.length() > best.length())) {
+                best = prefix;
+            }
+        }
+        return best;
+    }
+
+    private static String randomPath(Random random) {
+        StringBuilder path = new StringBuilder();
+        int segments = 1 + random.nextInt(3);
+        for (int i = 0; i < segments; i++) {
+            path.append('/');
+            int length = random.nextInt(3);
+            for (int j = 0; j < length; j++) {
+                path.append((char) ('a' + random.nextInt(3)));
+            }
+        }
+        return path.toString();
+    }
+}
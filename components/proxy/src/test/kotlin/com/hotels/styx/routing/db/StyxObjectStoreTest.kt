@@ -551,6 +551,175 @@ class StyxObjectStoreTest : FeatureSpec() {
                 }
             }
         }
+
+        feature("Tag index") {
+            scenario("Finds objects by tag") {
+                val db = StyxObjectStore<TaggedRecord>()
+                db.insert("a", TaggedRecord("lbGroup=x", "state=active"))
+                db.insert("b", TaggedRecord("lbGroup=x", "state=inactive"))
+                db.insert("c", TaggedRecord("lbGroup=y"))
+
+                db.keysWithTag("lbGroup=x") shouldBe setOf("a", "b")
+                db.keysWithTag("lbGroup=y") shouldBe setOf("c")
+                db.keysWithTag("state=active") shouldBe setOf("a")
+                db.keysWithTag("lbGroup=z") shouldBe setOf()
+            }
+
+            scenario("Re-indexes modified and removed objects") {
+                val db = StyxObjectStore<TaggedRecord>()
+                db.insert("a", TaggedRecord("lbGroup=x", "state=active"))
+                db.insert("b", TaggedRecord("lbGroup=x", "state=active"))
+
+                db.compute("a") { TaggedRecord("lbGroup=x", "state=inactive") }
+                db.remove("b")
+
+                db.keysWithTag("lbGroup=x") shouldBe setOf("a")
+                db.keysWithTag("state=active") shouldBe setOf()
+                db.keysWithTag("state=inactive") shouldBe setOf("a")
+            }
+        }
+
+        feature("Change sets") {
+            scenario("Initial notification lists all objects as added") {
+                val executor = Executors.newSingleThreadExecutor()
+                val db = StyxObjectStore<TaggedRecord>(executor)
+                db.insert("a", TaggedRecord("lbGroup=x"))
+                db.insert("b", TaggedRecord("lbGroup=y"))
+                executor.submit { }.get()
+
+                StepVerifier.create(db.watchChanges())
+                        .assertNext {
+                            it.initial shouldBe true
+                            it.added shouldBe setOf("a", "b")
+                            it.keysWithTag("lbGroup=x") shouldBe setOf("a")
+                        }
+                        .thenCancel()
+                        .verify(4.seconds)
+
+                executor.shutdown()
+            }
+
+            scenario("Merges the changes made between notifications") {
+                val executor = Executors.newSingleThreadExecutor()
+                val db = StyxObjectStore<String>(executor)
+                val events = CopyOnWriteArrayList<ObjectStoreChanges<String>>()
+
+                db.insert("x", "x")
+                db.insert("y", "y")
+                executor.submit { }.get()
+
+                val watcher = db.watchChanges().toFlux().subscribe { events.add(it) }
+                eventually(1.seconds, AssertionError::class.java) {
+                    events.size shouldBe 1
+                }
+
+                // Holds back the notifications until all changes are made:
+                val latch = CountDownLatch(1)
+                executor.submit { latch.await() }
+
+                db.insert("x", "x2")
+                db.remove("y")
+                db.insert("z", "z")
+                db.insert("w", "w")
+                db.remove("w")
+
+                latch.countDown()
+
+                eventually(1.seconds, AssertionError::class.java) {
+                    events.size shouldBe 2
+                    events[1].initial shouldBe false
+                    events[1].added shouldBe setOf("z")
+                    events[1].removed shouldBe setOf("y")
+                    events[1].modified shouldBe setOf("x")
+                    events[1].snapshot.get("x") shouldBe Optional.of("x2")
+                }
+
+                watcher.dispose()
+                executor.shutdown()
+            }
+        }
+
+        feature("Batch") {
+            scenario("Applies all modifications as a single new snapshot") {
+                val executor = Executors.newSingleThreadExecutor()
+                val db = StyxObjectStore<String>(executor)
+                db.insert("x", "x")
+                db.insert("y", "y")
+                executor.submit { }.get()
+                val index = db.index()
+
+                StepVerifier.create(db.watchChanges())
+                        .expectNextCount(1)
+                        .then {
+                            db.batch {
+                                it.insert("x", "x2")
+                                it.remove("y")
+                                it.insert("z", "z")
+                            }
+                        }
+                        .assertNext {
+                            it.snapshot.index() shouldBe index + 1
+                            it.added shouldBe setOf("z")
+                            it.removed shouldBe setOf("y")
+                            it.modified shouldBe setOf("x")
+                        }
+                        .expectNoEvent(200.milliseconds)
+                        .thenCancel()
+                        .verify(4.seconds)
+
+                db.get("x") shouldBe Optional.of("x2")
+                db.get("y") shouldBe Optional.empty()
+                db.get("z") shouldBe Optional.of("z")
+                executor.shutdown()
+            }
+
+            scenario("Does not notify watchers when nothing changes") {
+                val executor = Executors.newSingleThreadExecutor()
+                val db = StyxObjectStore<String>(executor)
+                db.insert("x", "x")
+                executor.submit { }.get()
+
+                StepVerifier.create(db.watch())
+                        .expectNextCount(1)
+                        .then { db.batch { it.remove("y") } }
+                        .expectNoEvent(200.milliseconds)
+                        .thenCancel()
+                        .verify(4.seconds)
+
+                executor.shutdown()
+            }
+        }
+
+        feature("Coalescing") {
+            scenario("Slow watcher skips intermediate snapshots") {
+                val db = StyxObjectStore<String>()
+
+                StepVerifier.create(db.watchChanges(), 1)
+                        .assertNext { it.initial shouldBe true }
+                        .then {
+                            db.insert("x", "x1")
+                            db.insert("x", "x2")
+                            db.insert("y", "y")
+                            db.remove("y")
+                        }
+                        .expectNoEvent(200.milliseconds)
+                        .thenRequest(1)
+                        .assertNext {
+                            it.snapshot.get("x") shouldBe Optional.of("x2")
+                            it.snapshot.get("y") shouldBe Optional.empty()
+                            it.added shouldBe setOf("x")
+                            it.removed shouldBe setOf()
+                        }
+                        .thenRequest(1)
+                        .expectNoEvent(200.milliseconds)
+                        .thenCancel()
+                        .verify(4.seconds)
+            }
+        }
     }
 
 }
+
+private data class TaggedRecord(override val tags: Set<String>) : Tagged {
+    constructor(vararg tags: String) : this(tags.toSet())
+}
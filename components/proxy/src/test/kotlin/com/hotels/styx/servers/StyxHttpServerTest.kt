@@ -15,6 +15,7 @@
  */
 package com.hotels.styx.servers
 
+import com.fasterxml.jackson.databind.JsonNode
 import com.hotels.styx.InetServer
 import com.hotels.styx.StyxObjectRecord
 import com.hotels.styx.StyxServers.toGuavaService
@@ -52,6 +53,7 @@ import reactor.core.publisher.toFlux
 import reactor.core.publisher.toMono
 import java.nio.charset.Charset
 import java.nio.charset.StandardCharsets.UTF_8
+import java.util.UUID
 import java.util.zip.GZIPInputStream
 
 class StyxHttpServerTest : FeatureSpec({
@@ -334,6 +336,23 @@ class StyxHttpServerTest : FeatureSpec({
         guavaServer.stopAsync().awaitTerminated()
     }
 
+    feature("Request ID generator") {
+        scenario("Gives requests time-based UUIDs by default") {
+            requestIdVersion(configBlock("""
+                port: 0
+                handler: requestId
+              """.trimIndent())) shouldBe 1
+        }
+
+        scenario("Gives requests IDs from the configured generator") {
+            requestIdVersion(configBlock("""
+                port: 0
+                handler: requestId
+                requestIdGenerator: uuid-v7
+              """.trimIndent())) shouldBe 7
+        }
+    }
+
     feature("Uses named executor") {
         val serverConfig = configBlock("""
                 port: 0
@@ -397,6 +416,10 @@ private val routingContext = RoutingObjectFactoryContext(
                 }
             })
 
+            ref("requestId" to RoutingObject { request, _ ->
+                Eventual.of(response(OK).body(request.id().toString(), UTF_8).build().stream())
+            })
+
             ref("aggregator" to RoutingObject { request, _ ->
                 request
                         .aggregate(1024)
@@ -405,6 +428,22 @@ private val routingContext = RoutingObjectFactoryContext(
         },
         executorObjectStore = executorObjects())
 
+private fun requestIdVersion(serverConfig: JsonNode): Int {
+    val server = StyxHttpServerFactory().create("test-01", routingContext.get(), serverConfig, db)
+    val guavaServer = toGuavaService(server)
+    guavaServer.startAsync().awaitRunning()
+
+    try {
+        return StyxHttpClient.Builder().build().send(get("/")
+                .header(HOST, "localhost:${server.inetAddress().port}")
+                .build())
+                .wait()!!
+                .let { UUID.fromString(it.bodyAs(UTF_8)).version() }
+    } finally {
+        guavaServer.stopAsync().awaitTerminated()
+    }
+}
+
 private fun ungzip(content: ByteArray, charset: Charset): String = GZIPInputStream(content.inputStream()).bufferedReader(charset).use { it.readText() }
 
 private val db = StyxObjectStore<StyxObjectRecord<InetServer>>()
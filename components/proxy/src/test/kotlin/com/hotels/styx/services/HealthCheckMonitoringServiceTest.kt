@@ -16,6 +16,15 @@
 package com.hotels.styx.services
 
 import com.hotels.styx.NettyExecutor
+import com.hotels.styx.api.Eventual
+import com.hotels.styx.api.HttpResponse
+import com.hotels.styx.api.HttpResponseStatus.OK
+import com.hotels.styx.api.LiveHttpResponse
+import com.hotels.styx.client.healthcheck.ProbeScheduler
+import com.hotels.styx.routing.RoutingObject
+import com.hotels.styx.support.DeterministicScheduler
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import reactor.core.publisher.MonoProcessor
 import com.hotels.styx.STATE_INACTIVE
 import com.hotels.styx.api.LiveHttpRequest
 import com.hotels.styx.lbGroupTag
@@ -219,6 +228,61 @@ class HealthCheckMonitoringServiceTest : FeatureSpec({
         }
     }
 
+    feature("Health check probes spread across the period") {
+        val scheduledFuture = mockk<ScheduledFuture<Void>>(relaxed = true)
+
+        val executor = mockk<ScheduledExecutorService> {
+            every { scheduleAtFixedRate(any(), any(), any(), any()) } returns scheduledFuture
+        }
+
+        val scheduler = DeterministicScheduler()
+        val probeScheduler = ProbeScheduler(scheduler, 100, ProbeScheduler.UNLIMITED, SimpleMeterRegistry(), "aaa")
+
+        val responses = listOf(MonoProcessor.create<LiveHttpResponse>(), MonoProcessor.create<LiveHttpResponse>())
+        val handler = mockk<RoutingObject> {
+            every { handle(any(), any()) } returnsMany responses.map { Eventual(it) }
+        }
+
+        val objectStore = StyxObjectStore<RoutingObjectRecord>()
+                .apply {
+                    record("aaa-01", "X", setOf(lbGroupTag("aaa"), "state=unreachable"), mockk(), handler)
+                }
+
+        val monitor = HealthCheckMonitoringService(objectStore, "aaa", "/healthCheck.txt", 100.milliseconds, 3, 3, executor, workerExecutor, probeScheduler)
+
+        scenario("Applies a probe result that arrives after the next round has started") {
+            monitor.runChecks("aaa", objectStore)
+            scheduler.tick(100, MILLISECONDS)
+
+            monitor.runChecks("aaa", objectStore)
+            scheduler.tick(100, MILLISECONDS)
+
+            verify(exactly = 2) { handler.handle(any(), any()) }
+
+            responses[0].onNext(HttpResponse.response(OK).build().stream())
+            responses[1].onNext(HttpResponse.response(OK).build().stream())
+
+            withClue(tagClue(objectStore, "aaa-01")) {
+                objectStore.get("aaa-01").get().tags
+                        .filter { isStateOrHealthCheckTag(it) }
+                        .shouldContainExactlyInAnyOrder("state=unreachable", "healthCheck=on;probes-OK:2")
+            }
+        }
+
+        scenario("Skips the probe of an object removed before the probe runs") {
+            objectStore.apply {
+                record("aaa-02", "X", setOf(lbGroupTag("aaa"), "state=unreachable"), mockk(), handler)
+            }
+
+            monitor.runChecks("aaa", objectStore)
+            objectStore.remove("aaa-01")
+            objectStore.insert("aaa-02", objectStore.get("aaa-02").get().copy(tags = setOf("state=unreachable")))
+            scheduler.tick(100, MILLISECONDS)
+
+            verify(exactly = 2) { handler.handle(any(), any()) }
+        }
+    }
+
     feature("retagging") {
         scenario("Re-tag an active object") {
             reTag(setOf(lbGroupTag("aaa"), "state=active", "healthCheck=on;probes-FAIL:0"), ObjectActive(1))
@@ -70,6 +70,36 @@ class OriginsConfigConverterTest : StringSpec({
                 }
     }
 
+    "Passes hedging configuration to the LoadBalancingGroup" {
+        val config = """
+            ---
+            - id: "app"
+              path: "/"
+              hedging:
+                enabled: true
+                delayMillis: 50
+                percentile: 99.5
+              origins:
+              - { id: "app1", host: "localhost:9090" }
+            - id: "appWithoutHedging"
+              path: "/b"
+              origins:
+              - { id: "appB-1", host: "localhost:9091" }
+            """.trimIndent()
+
+        OriginsConfigConverter(serviceDb, ctx, "")
+                .routingObjects(deserialiseOrigins(config))
+                .let {
+                    it[1].name() shouldBe "app"
+                    it[1].config()["hedging"]["enabled"].booleanValue() shouldBe true
+                    it[1].config()["hedging"]["delayMillis"].intValue() shouldBe 50
+                    it[1].config()["hedging"]["percentile"].doubleValue() shouldBe 99.5
+
+                    it[3].name() shouldBe "appWithoutHedging"
+                    it[3].config().has("hedging") shouldBe false
+                }
+    }
+
     "Translates one rewrite rules" {
         val config = """
             ---
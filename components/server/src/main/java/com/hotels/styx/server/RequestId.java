@@ -0,0 +1,95 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.server;
+
+/**
+ * A 128-bit request ID held in binary form.
+ * <p>
+ * The textual form is only rendered when it is first needed, for example when the ID is logged or
+ * copied into a header. It has the same 36 character layout as a UUID.
+ */
+public final class RequestId {
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final long mostSignificantBits;
+    private final long leastSignificantBits;
+
+    // Racy single-check caching is safe here: Strings are immutable, and rendering is idempotent.
+    private String text;
+
+    public RequestId(long mostSignificantBits, long leastSignificantBits) {
+        this.mostSignificantBits = mostSignificantBits;
+        this.leastSignificantBits = leastSignificantBits;
+    }
+
+    public long mostSignificantBits() {
+        return mostSignificantBits;
+    }
+
+    public long leastSignificantBits() {
+        return leastSignificantBits;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        RequestId other = (RequestId) o;
+        return mostSignificantBits == other.mostSignificantBits && leastSignificantBits == other.leastSignificantBits;
+    }
+
+    @Override
+    public int hashCode() {
+        long bits = mostSignificantBits ^ leastSignificantBits;
+        return (int) (bits >> 32) ^ (int) bits;
+    }
+
+    @Override
+    public String toString() {
+        String rendered = text;
+        if (rendered == null) {
+            rendered = render();
+            text = rendered;
+        }
+        return rendered;
+    }
+
+    private String render() {
+        char[] chars = new char[36];
+        hex(chars, 0, mostSignificantBits >>> 32, 8);
+        chars[8] = '-';
+        hex(chars, 9, mostSignificantBits >>> 16, 4);
+        chars[13] = '-';
+        hex(chars, 14, mostSignificantBits, 4);
+        chars[18] = '-';
+        hex(chars, 19, leastSignificantBits >>> 48, 4);
+        chars[23] = '-';
+        hex(chars, 24, leastSignificantBits, 12);
+        return new String(chars);
+    }
+
+    private static void hex(char[] chars, int offset, long value, int digits) {
+        long remaining = value;
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            chars[i] = HEX_DIGITS[(int) remaining & 0xF];
+            remaining >>>= 4;
+        }
+    }
+}
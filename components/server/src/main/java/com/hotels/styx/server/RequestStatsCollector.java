@@ -15,6 +15,7 @@
  */
 package com.hotels.styx.server;
 
+import com.hotels.styx.api.metrics.CounterHandle;
 import com.hotels.styx.api.metrics.MeterFactory;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -25,6 +26,7 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import static com.hotels.styx.api.Metrics.name;
+import static com.hotels.styx.api.metrics.CounterHandle.counterHandle;
 import static java.lang.String.valueOf;
 
 /**
@@ -43,8 +45,13 @@ public class RequestStatsCollector implements RequestProgressListener {
 
     public static final String STATUS_CLASS_UNRECOGNISED = "unrecognised";
 
+    private static final int MIN_STATUS_CODE = 100;
+    private static final int MAX_STATUS_CODE = 599;
+
     private final MeterRegistry registry;
-    private final String prefix;
+
+    private final CounterHandle[] statusCounters = new CounterHandle[MAX_STATUS_CODE - MIN_STATUS_CODE + 1];
+    private final CounterHandle unrecognisedStatusCounter;
 
     private final Timer latencyTimer;
     private final Counter requestsIncoming;
@@ -61,7 +68,14 @@ public class RequestStatsCollector implements RequestProgressListener {
      */
     public RequestStatsCollector(MeterRegistry registry, String prefix) {
         this.registry = registry;
-        this.prefix = prefix;
+
+        String statusCounterName = name(prefix, RESPONSE_STATUS);
+        for (int code = MIN_STATUS_CODE; code <= MAX_STATUS_CODE; code++) {
+            statusCounters[code - MIN_STATUS_CODE] = counterHandle(registry, statusCounterName,
+                    Tags.of(STATUS_CLASS_TAG, code / 100 + "xx").and(STATUS_TAG, valueOf(code)));
+        }
+        this.unrecognisedStatusCounter = counterHandle(registry, statusCounterName,
+                Tags.of(STATUS_CLASS_TAG, STATUS_CLASS_UNRECOGNISED).and(STATUS_TAG, STATUS_CLASS_UNRECOGNISED));
 
         registry.gauge(name(prefix, REQUEST_OUTSTANDING), ongoingRequests, Map::size);
         this.latencyTimer = MeterFactory.timer(registry, name(prefix, REQUEST_LATENCY));
@@ -98,15 +112,10 @@ public class RequestStatsCollector implements RequestProgressListener {
     }
 
     private void updateResponseStatusCounter(int code) {
-        Tags statusTags;
-        if (code >= 100 && code < 600) {
-            statusTags = Tags.of(STATUS_CLASS_TAG, code / 100 + "xx")
-                    .and(STATUS_TAG, valueOf(code));
+        if (code >= MIN_STATUS_CODE && code <= MAX_STATUS_CODE) {
+            statusCounters[code - MIN_STATUS_CODE].increment();
         } else {
-            statusTags = Tags.of(STATUS_CLASS_TAG, STATUS_CLASS_UNRECOGNISED)
-                    .and(STATUS_TAG, STATUS_CLASS_UNRECOGNISED);
+            unrecognisedStatusCounter.increment();
         }
-
-        registry.counter(name(prefix, RESPONSE_STATUS), statusTags).increment();
     }
 }
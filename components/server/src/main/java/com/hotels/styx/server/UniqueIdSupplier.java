@@ -22,4 +22,14 @@ import java.util.function.Supplier;
  * A Unique id provider.
  */
 public interface UniqueIdSupplier extends Supplier<String> {
+
+    /**
+     * Returns a new unique id for a request. Implementations may return an object that renders
+     * its textual form lazily, in {@code toString()}. By default this is the same as {@link #get()}.
+     *
+     * @return a new unique id
+     */
+    default Object nextId() {
+        return get();
+    }
 }
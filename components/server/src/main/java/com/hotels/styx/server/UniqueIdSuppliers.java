@@ -18,6 +18,14 @@ package com.hotels.styx.server;
 import com.fasterxml.uuid.EthernetAddress;
 import com.fasterxml.uuid.Generators;
 import com.fasterxml.uuid.NoArgGenerator;
+import io.netty.util.concurrent.FastThreadLocal;
+
+import java.security.SecureRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static java.lang.System.currentTimeMillis;
 
 /**
  * Useful unique id suppliers.
@@ -30,6 +38,43 @@ public final class UniqueIdSuppliers {
      */
     public static final UniqueIdSupplier UUID_VERSION_ONE_SUPPLIER = () -> TIME_BASED_GENERATOR.generate().toString();
 
+    /**
+     * A unique ID supplier that keeps a separate sequence for each thread, so that event loops never contend
+     * with each other. An ID consists of a random 48-bit node identifier chosen at startup, a 16-bit thread
+     * slot, and a 64-bit counter seeded from the wall clock when the thread first asks for an ID.
+     * IDs from one thread are strictly increasing.
+     */
+    public static final UniqueIdSupplier EVENT_LOOP_SEQUENCE_SUPPLIER = new BinaryIdSupplier(EventLoopSequence::next);
+
+    /**
+     * A unique ID supplier which generates UUID Version Seven IDs: a 48-bit Unix timestamp in milliseconds
+     * followed by 74 random bits. It keeps no shared state, and draws its random bits from
+     * {@link ThreadLocalRandom}.
+     */
+    public static final UniqueIdSupplier UUID_VERSION_SEVEN_SUPPLIER = new BinaryIdSupplier(UniqueIdSuppliers::uuidVersionSeven);
+
+    /**
+     * Returns the unique ID supplier configured by name: {@code uuid-v1} for {@link #UUID_VERSION_ONE_SUPPLIER},
+     * {@code uuid-v7} for {@link #UUID_VERSION_SEVEN_SUPPLIER}, or {@code event-loop} for
+     * {@link #EVENT_LOOP_SEQUENCE_SUPPLIER}.
+     *
+     * @param name supplier name
+     * @return the named ID supplier
+     * @throws IllegalArgumentException if no supplier has that name
+     */
+    public static UniqueIdSupplier uniqueIdSupplier(String name) {
+        switch (name) {
+            case "uuid-v1":
+                return UUID_VERSION_ONE_SUPPLIER;
+            case "uuid-v7":
+                return UUID_VERSION_SEVEN_SUPPLIER;
+            case "event-loop":
+                return EVENT_LOOP_SEQUENCE_SUPPLIER;
+            default:
+                throw new IllegalArgumentException("Unknown request ID generator '" + name + "'. Expected one of uuid-v1, uuid-v7, event-loop");
+        }
+    }
+
     /**
      * Returns a supplier whose {@code get()} method returns the {@code uniqueId} passed in.
      *
@@ -39,6 +84,56 @@ public final class UniqueIdSuppliers {
         return () -> uniqueId;
     }
 
+    private static RequestId uuidVersionSeven() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSignificantBits = (currentTimeMillis() << 16) | 0x7000L | (random.nextLong() & 0x0FFFL);
+        long leastSignificantBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new RequestId(mostSignificantBits, leastSignificantBits);
+    }
+
     private UniqueIdSuppliers() {
     }
+
+    private static final class BinaryIdSupplier implements UniqueIdSupplier {
+        private final Supplier<RequestId> ids;
+
+        private BinaryIdSupplier(Supplier<RequestId> ids) {
+            this.ids = ids;
+        }
+
+        @Override
+        public String get() {
+            return ids.get().toString();
+        }
+
+        @Override
+        public Object nextId() {
+            return ids.get();
+        }
+    }
+
+    private static final class EventLoopSequence {
+        private static final long NODE = new SecureRandom().nextLong() << 16;
+        private static final AtomicInteger SLOTS = new AtomicInteger();
+
+        private static final FastThreadLocal<EventLoopSequence> SEQUENCES = new FastThreadLocal<EventLoopSequence>() {
+            @Override
+            protected EventLoopSequence initialValue() {
+                return new EventLoopSequence(NODE | (SLOTS.getAndIncrement() & 0xFFFFL), currentTimeMillis() << 20);
+            }
+        };
+
+        private final long mostSignificantBits;
+        private long counter;
+
+        private EventLoopSequence(long mostSignificantBits, long counter) {
+            this.mostSignificantBits = mostSignificantBits;
+            this.counter = counter;
+        }
+
+        static RequestId next() {
+            EventLoopSequence sequence = SEQUENCES.get();
+            return new RequestId(sequence.mostSignificantBits, ++sequence.counter);
+        }
+    }
 }
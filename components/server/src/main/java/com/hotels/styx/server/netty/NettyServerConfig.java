@@ -22,12 +22,18 @@ import com.hotels.styx.server.ConnectorConfig;
 import com.hotels.styx.server.HttpConnectorConfig;
 import com.hotels.styx.server.HttpsConnectorConfig;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
+import static com.hotels.styx.common.Preconditions.checkArgument;
+import static com.hotels.styx.server.UniqueIdSuppliers.uniqueIdSupplier;
 import static java.lang.Math.max;
 import static java.lang.Runtime.getRuntime;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.singleton;
+import static java.util.Collections.unmodifiableList;
 import static java.util.stream.Collectors.toList;
 
 /**
@@ -49,6 +55,10 @@ public class NettyServerConfig {
     private int keepAliveTimeoutMillis = 12000;
     private int maxConnectionsCount = 512;
     private boolean compressResponses;
+    private int compressionLevel = 6;
+    private int compressionMinimumSizeBytes;
+    private List<String> compressionContentTypes = emptyList();
+    private String requestIdGenerator = "uuid-v1";
 
     private final Optional<HttpConnectorConfig> httpConnectorConfig;
     private final Optional<HttpsConnectorConfig> httpsConnectorConfig;
@@ -75,6 +85,10 @@ public class NettyServerConfig {
         this.httpConnectorConfig = Optional.ofNullable(builder.httpConnectorConfig);
         this.httpsConnectorConfig = Optional.ofNullable(builder.httpsConnectorConfig);
         this.compressResponses = builder.compressResponses;
+        this.compressionLevel = builder.compressionLevel;
+        this.compressionMinimumSizeBytes = builder.compressionMinimumSizeBytes;
+        this.compressionContentTypes = builder.compressionContentTypes;
+        this.requestIdGenerator = builder.requestIdGenerator;
         this.connectors = connectorsIterable();
     }
 
@@ -184,6 +198,42 @@ public class NettyServerConfig {
         return compressResponses;
     }
 
+    /**
+     * The gzip/deflate compression level, between 0 (no compression) and 9 (best compression). Level 1 is the fastest.
+     *
+     * @return compression level
+     */
+    public int compressionLevel() {
+        return compressionLevel;
+    }
+
+    /**
+     * Responses declaring a smaller content length than this are sent uncompressed.
+     *
+     * @return minimum size in bytes of a compressed response
+     */
+    public int compressionMinimumSizeBytes() {
+        return compressionMinimumSizeBytes;
+    }
+
+    /**
+     * Content types eligible for compression. An empty list means the default set of text types.
+     *
+     * @return compressible content types
+     */
+    public List<String> compressionContentTypes() {
+        return compressionContentTypes;
+    }
+
+    /**
+     * The generator of the unique IDs given to incoming requests: {@code uuid-v1}, {@code uuid-v7} or {@code event-loop}.
+     *
+     * @return request ID generator name
+     */
+    public String requestIdGenerator() {
+        return requestIdGenerator;
+    }
+
     /**
      * Builder.
      *
@@ -203,6 +253,10 @@ public class NettyServerConfig {
         protected HttpConnectorConfig httpConnectorConfig;
         protected HttpsConnectorConfig httpsConnectorConfig;
         protected boolean compressResponses;
+        protected int compressionLevel = 6;
+        protected int compressionMinimumSizeBytes;
+        protected List<String> compressionContentTypes = emptyList();
+        protected String requestIdGenerator = "uuid-v1";
 
         public Builder httpPort(int port) {
             return (T) setHttpConnector(new HttpConnectorConfig(port));
@@ -303,6 +357,43 @@ public class NettyServerConfig {
             return (T) this;
         }
 
+        @JsonProperty("compressionLevel")
+        public T setCompressionLevel(Integer compressionLevel) {
+            if (compressionLevel != null) {
+                // Rejected when the configuration is loaded, rather than by the compressor at the first connection.
+                checkArgument(compressionLevel >= 0 && compressionLevel <= 9,
+                        "Compression level must be between 0 and 9, but was " + compressionLevel);
+                this.compressionLevel = compressionLevel;
+            }
+            return (T) this;
+        }
+
+        @JsonProperty("compressionMinimumSizeBytes")
+        public T setCompressionMinimumSizeBytes(Integer compressionMinimumSizeBytes) {
+            if (compressionMinimumSizeBytes != null) {
+                this.compressionMinimumSizeBytes = compressionMinimumSizeBytes;
+            }
+            return (T) this;
+        }
+
+        @JsonProperty("compressionContentTypes")
+        public T setCompressionContentTypes(List<String> compressionContentTypes) {
+            if (compressionContentTypes != null) {
+                this.compressionContentTypes = unmodifiableList(new ArrayList<>(compressionContentTypes));
+            }
+            return (T) this;
+        }
+
+        @JsonProperty("requestIdGenerator")
+        public T setRequestIdGenerator(String requestIdGenerator) {
+            if (requestIdGenerator != null) {
+                // Rejects unknown generators when the configuration is loaded, rather than at the first connection.
+                uniqueIdSupplier(requestIdGenerator);
+                this.requestIdGenerator = requestIdGenerator;
+            }
+            return (T) this;
+        }
+
         public NettyServerConfig build() {
             return new NettyServerConfig(this);
         }
@@ -40,23 +40,25 @@ import io.netty.handler.codec.http.HttpObject;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.LastHttpContent;
 import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
 
-import java.net.MalformedURLException;
-import java.net.URL;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.Executor;
 
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.collect.Iterables.size;
+import static com.hotels.styx.api.Headers.toStyxHeaders;
 import static com.hotels.styx.api.HttpHeaderNames.EXPECT;
 import static com.hotels.styx.api.HttpHeaderNames.HOST;
 import static com.hotels.styx.server.UniqueIdSuppliers.UUID_VERSION_ONE_SUPPLIER;
 import static com.hotels.styx.server.netty.codec.UnwiseCharsEncoder.IGNORE;
+import static com.hotels.styx.server.netty.codec.UriSyntax.isValidHost;
+import static io.netty.handler.codec.http.HttpHeaderNames.TRANSFER_ENCODING;
+import static io.netty.handler.codec.http.HttpUtil.getContentLength;
 import static io.netty.util.ReferenceCountUtil.retain;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
-import static java.util.stream.StreamSupport.stream;
 
 /**
  * This {@link MessageToMessageDecoder} is responsible for decode {@link io.netty.handler.codec.http.HttpRequest}
@@ -67,6 +69,7 @@ import static java.util.stream.StreamSupport.stream;
 public final class NettyToStyxRequestDecoder extends MessageToMessageDecoder<HttpObject> {
 
     private static final long DEFAULT_INACTIVITY_TIMEOUT_MS = 60000L;
+    private static final ByteStream EMPTY_BODY = new ByteStream(Flux.empty());
     private final UniqueIdSupplier uniqueIdSupplier;
     private final UnwiseCharsEncoder unwiseCharEncoder;
     private HttpMessageFormatter httpMessageFormatter;
@@ -92,29 +95,33 @@ public final class NettyToStyxRequestDecoder extends MessageToMessageDecoder<Htt
 
         try {
             if (msg instanceof HttpRequest) {
-                ctx.channel().config().setAutoRead(false);
-                ctx.channel().read();
-
                 HttpRequest nettyRequest = (HttpRequest) msg;
 
-                this.producer = Optional.of(createProducer(ctx, nettyRequest.uri()));
-                Publisher<Buffer> contentPublisher = new FlowControllingPublisher(queueDrainingExecutor, this.producer.get());
+                if (isBodiless(nettyRequest)) {
+                    this.producer = Optional.empty();
+                    out.add(toStyxRequest(nettyRequest, EMPTY_BODY));
+                } else {
+                    ctx.channel().config().setAutoRead(false);
+                    ctx.channel().read();
 
-                LiveHttpRequest styxRequest = toStyxRequest(nettyRequest, contentPublisher);
-                out.add(styxRequest);
+                    this.producer = Optional.of(createProducer(ctx, nettyRequest.uri()));
+                    Publisher<Buffer> contentPublisher = new FlowControllingPublisher(queueDrainingExecutor, this.producer.get());
 
+                    out.add(toStyxRequest(nettyRequest, contentPublisher));
+                }
             }
-            if (msg instanceof HttpContent) {
-                assert this.producer.isPresent();
-
+            if (msg instanceof HttpContent && this.producer.isPresent()) {
+                FlowControllingHttpContentProducer contentProducer = this.producer.get();
                 ByteBuf content = ((ByteBufHolder) msg).content();
                 if (content.isReadable()) {
                     ByteBuf byteBuf = retain(content);
-                    queueDrainingExecutor.execute(() -> producer.get().newChunk(byteBuf));
+                    queueDrainingExecutor.execute(() -> contentProducer.newChunk(byteBuf));
                 }
                 if (msg instanceof LastHttpContent) {
-                    queueDrainingExecutor.execute(() -> producer.get().lastHttpContent());
+                    queueDrainingExecutor.execute(contentProducer::lastHttpContent);
                 }
+            } else if (msg instanceof HttpContent && ((ByteBufHolder) msg).content().isReadable()) {
+                throw new BadRequestException("Unexpected content for a request without a body");
             }
         } catch (BadRequestException ex) {
             throw ex;
@@ -141,14 +148,23 @@ public final class NettyToStyxRequestDecoder extends MessageToMessageDecoder<Htt
         super.exceptionCaught(ctx, cause);
     }
 
-    private FlowControllingHttpContentProducer createProducer(ChannelHandlerContext ctx, String uri) {
-        String loggingPrefix = format("Request body. %s [remote: %s, local: %s]", uri, ctx.channel().remoteAddress(), ctx.channel().localAddress());
+    /**
+     * A request has no body when it declares neither a Content-Length nor a Transfer-Encoding, or when
+     * its Content-Length is zero. Such requests bypass the flow controlled content producer altogether.
+     */
+    private static boolean isBodiless(HttpRequest request) {
+        if (request instanceof ByteBufHolder) {
+            return !((ByteBufHolder) request).content().isReadable();
+        }
+        return !request.headers().contains(TRANSFER_ENCODING) && getContentLength(request, 0L) == 0;
+    }
 
+    private FlowControllingHttpContentProducer createProducer(ChannelHandlerContext ctx, String uri) {
         return new FlowControllingHttpContentProducer(
                 () -> ctx.channel().read(),
                 () -> ctx.channel().config().setAutoRead(true),
                 cause -> { },
-                format("%s, %s", loggingPrefix, ""),
+                format("Request body. %s [remote: %s, local: %s], ", uri, ctx.channel().remoteAddress(), ctx.channel().localAddress()),
                 inactivityTimeoutMs,
                 ctx.channel().eventLoop());
     }
@@ -162,34 +178,22 @@ public final class NettyToStyxRequestDecoder extends MessageToMessageDecoder<Htt
 
     private static void validateHostHeader(HttpRequest request) {
         Iterable<String> hosts = request.headers().getAll(HOST);
-        if (size(hosts) != 1 || !isValidHostName(getOnlyElement(hosts))) {
+        if (size(hosts) != 1 || !isValidHost(getOnlyElement(hosts))) {
             throw new BadRequestException("Bad Host header. Missing/Mismatch of Host header: " + request);
         }
     }
 
-    private static boolean isValidHostName(String host) {
-        try {
-            new URL("http://" + host);
-        } catch (MalformedURLException e) {
-            return false;
-        }
-        return true;
-    }
-
     @VisibleForTesting
     LiveHttpRequest.Builder makeAStyxRequestFrom(HttpRequest request, Publisher<Buffer> content) {
         Url url = UrlDecoder.decodeUrl(unwiseCharEncoder, request);
-        LiveHttpRequest.Builder requestBuilder = new LiveHttpRequest.Builder()
+        // The decoded Netty request is not used after this point, so its headers are handed over rather than copied:
+        return new LiveHttpRequest.Builder()
                 .method(toStyxMethod(request.method()))
                 .url(url)
                 .version(toStyxVersion(request.protocolVersion()))
-                .id(uniqueIdSupplier.get())
-                .body(new ByteStream(content));
-
-        stream(request.headers().spliterator(), false)
-                .forEach(entry -> requestBuilder.addHeader(entry.getKey(), entry.getValue()));
-
-        return requestBuilder;
+                .id(uniqueIdSupplier.nextId())
+                .headers(toStyxHeaders(request.headers()))
+                .body(content instanceof ByteStream ? (ByteStream) content : new ByteStream(content));
     }
 
     private HttpVersion toStyxVersion(io.netty.handler.codec.http.HttpVersion httpVersion) {
@@ -0,0 +1,241 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.server.netty.codec;
+
+/**
+ * Hand-written URI syntax checks that work directly on a {@link CharSequence}, in a single pass,
+ * without regular expressions or intermediate objects.
+ */
+final class UriSyntax {
+    private static final int IPV6_BYTES = 16;
+    private static final int IPV4_BYTES = 4;
+    private static final int MAX_IPV4_LENGTH = 15;
+
+    private UriSyntax() {
+    }
+
+    /**
+     * Checks the value of a Host header. Accepts exactly the values that {@code new URL("http://" + host)}
+     * accepts, which is how Host headers used to be validated, so that no request that used to be
+     * accepted is now rejected. Only the authority, up to the first '/', '?' or '#', is checked:
+     * an IP literal must be a valid IPv6 address, and a port must be a number no less than -1.
+     *
+     * @param host Host header value
+     * @return true if the value is syntactically valid
+     */
+    static boolean isValidHost(CharSequence host) {
+        int end = authorityEnd(host);
+
+        int at = indexOf(host, '@', 0, end);
+        if (at >= 0 && indexOf(host, '@', at + 1, end) >= 0) {
+            // More than one '@': not a server based authority, so there is no host to check.
+            return true;
+        }
+        int start = at + 1;
+
+        if (start < end && host.charAt(start) == '[') {
+            int close = indexOf(host, ']', start, end);
+            if (close - start <= 2 || !isIpv6Address(host, start + 1, close)) {
+                return false;
+            }
+            return close + 1 == end || (host.charAt(close + 1) == ':' && isPort(host, close + 2, end));
+        }
+
+        int colon = indexOf(host, ':', start, end);
+        return colon < 0 || isPort(host, colon + 1, end);
+    }
+
+    private static int authorityEnd(CharSequence host) {
+        int end = host.length();
+        while (end > 0 && host.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        for (int i = 0; i < end; i++) {
+            char c = host.charAt(i);
+            if (c == '/' || c == '?' || c == '#') {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Checks that the characters between {@code start} (inclusive) and {@code end} (exclusive) are a valid
+     * percent-encoded octet: a '%' followed by two hexadecimal digits.
+     */
+    static boolean isPercentEncoded(CharSequence s, int start, int end) {
+        return start + 2 < end && isHexDigit(s.charAt(start + 1)) && isHexDigit(s.charAt(start + 2));
+    }
+
+    static boolean isUnreserved(char c) {
+        return isAlpha(c) || isDigit(c) || c == '-' || c == '.' || c == '_' || c == '~';
+    }
+
+    static boolean isSubDelimiter(char c) {
+        switch (c) {
+            case '!':
+            case '$':
+            case '&':
+            case '\'':
+            case '(':
+            case ')':
+            case '*':
+            case '+':
+            case ',':
+            case ';':
+            case '=':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    static boolean isHexDigit(char c) {
+        return isDigit(c) || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    private static boolean isAlpha(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    // An optional sign followed by decimal digits that fit in an int, no less than -1, or nothing at all.
+    private static boolean isPort(CharSequence s, int start, int end) {
+        if (start == end) {
+            return true;
+        }
+        char sign = s.charAt(start);
+        boolean negative = sign == '-';
+        int digitsStart = negative || sign == '+' ? start + 1 : start;
+        if (digitsStart == end) {
+            return false;
+        }
+
+        long value = 0;
+        for (int i = digitsStart; i < end; i++) {
+            int digit = Character.digit(s.charAt(i), 10);
+            if (digit < 0) {
+                return false;
+            }
+            value = value * 10 + digit;
+            if (value > Integer.MAX_VALUE) {
+                return false;
+            }
+        }
+        return !negative || value <= 1;
+    }
+
+    // An IPv6 address with an optional zone, as accepted by java.net.URL.
+    private static boolean isIpv6Address(CharSequence s, int start, int end) {
+        if (end - start < 2) {
+            return false;
+        }
+        int zone = indexOf(s, '%', start, end);
+        if (zone == end - 1) {
+            return false;
+        }
+        int addressEnd = zone < 0 ? end : zone;
+
+        if (s.charAt(start) == ':' && s.charAt(start + 1) != ':') {
+            return false;
+        }
+        int i = s.charAt(start) == ':' ? start + 1 : start;
+        int bytes = 0;
+        int compression = -1;
+        int token = i;
+        int value = 0;
+        boolean sawDigit = false;
+
+        while (i < addressEnd) {
+            char c = s.charAt(i);
+            i++;
+            if (isHexDigit(c)) {
+                value = value << 4 | Character.digit(c, 16);
+                if (value > 0xffff) {
+                    return false;
+                }
+                sawDigit = true;
+            } else if (c == ':') {
+                token = i;
+                if (!sawDigit) {
+                    if (compression >= 0) {
+                        return false;
+                    }
+                    compression = bytes;
+                } else if (i == addressEnd || bytes + 2 > IPV6_BYTES) {
+                    return false;
+                } else {
+                    bytes += 2;
+                    sawDigit = false;
+                    value = 0;
+                }
+            } else if (c == '.' && bytes + IPV4_BYTES <= IPV6_BYTES) {
+                return isIpv4Address(s, token, addressEnd) && isIpv6Length(bytes + IPV4_BYTES, compression >= 0);
+            } else {
+                return false;
+            }
+        }
+
+        if (sawDigit) {
+            bytes += 2;
+        }
+        return bytes <= IPV6_BYTES && isIpv6Length(bytes, compression >= 0);
+    }
+
+    private static boolean isIpv6Length(int bytes, boolean compressed) {
+        return compressed ? bytes != IPV6_BYTES : bytes == IPV6_BYTES;
+    }
+
+    // Four decimal octets. Unlike RFC 3986, leading zeros are allowed.
+    private static boolean isIpv4Address(CharSequence s, int start, int end) {
+        if (start == end || end - start > MAX_IPV4_LENGTH) {
+            return false;
+        }
+        int dots = 0;
+        long value = 0;
+        boolean newOctet = true;
+
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c == '.') {
+                if (newOctet || value > 0xff || dots == 3) {
+                    return false;
+                }
+                dots++;
+                value = 0;
+                newOctet = true;
+            } else if (isDigit(c)) {
+                value = value * 10 + (c - '0');
+                newOctet = false;
+            } else {
+                return false;
+            }
+        }
+        return dots == 3 && !newOctet && value <= 0xff;
+    }
+
+    private static int indexOf(CharSequence s, char c, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (s.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
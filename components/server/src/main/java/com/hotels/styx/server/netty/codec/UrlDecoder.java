@@ -24,6 +24,9 @@ import okhttp3.HttpUrl;
 
 import static com.hotels.styx.api.HttpHeaderNames.HOST;
 import static com.hotels.styx.api.Url.Builder.url;
+import static com.hotels.styx.server.netty.codec.UriSyntax.isPercentEncoded;
+import static com.hotels.styx.server.netty.codec.UriSyntax.isSubDelimiter;
+import static com.hotels.styx.server.netty.codec.UriSyntax.isUnreserved;
 
 final class UrlDecoder {
     private UrlDecoder() {
@@ -33,20 +36,63 @@ final class UrlDecoder {
         String host = request.headers().get(HOST);
 
         if (request.uri().startsWith("/") && host != null) {
-            String encodedUrl = "http://" + host + unwiseCharEncoder.encode(request.uri());
-            URI uri;
-            try {
-                uri = URI.create(encodedUrl);
-            } catch (IllegalArgumentException e) {
-                uri = HttpUrl.parse(encodedUrl).uri();
-            }
-            return new Url.Builder()
-                    .path(uri.getRawPath())
-                    .rawQuery(uri.getRawQuery())
-                    .fragment(uri.getFragment())
-                    .build();
+            String encodedUri = unwiseCharEncoder.encode(request.uri());
+            Url url = decodeOriginForm(encodedUri);
+            return url != null ? url : parseOriginForm(host, encodedUri);
         } else {
             return url(unwiseCharEncoder.encode(request.uri())).build();
         }
     }
+
+    /**
+     * Splits an RFC 3986 origin-form request target into its path and query in a single pass.
+     * Returns null when the target contains a fragment, or any character that is not allowed
+     * unescaped in a path or query. Such targets are left to the lenient parser.
+     */
+    static Url decodeOriginForm(String target) {
+        int length = target.length();
+        int queryStart = -1;
+
+        int i = 0;
+        while (i < length) {
+            char c = target.charAt(i);
+            if (c == '%') {
+                if (!isPercentEncoded(target, i, length)) {
+                    return null;
+                }
+                i += 3;
+            } else {
+                if (c == '?' && queryStart < 0) {
+                    queryStart = i;
+                } else if (c != '?' && !isPathCharacter(c)) {
+                    return null;
+                }
+                i++;
+            }
+        }
+
+        return new Url.Builder()
+                .path(queryStart < 0 ? target : target.substring(0, queryStart))
+                .rawQuery(queryStart < 0 ? null : target.substring(queryStart + 1))
+                .build();
+    }
+
+    private static boolean isPathCharacter(char c) {
+        return isUnreserved(c) || isSubDelimiter(c) || c == ':' || c == '@' || c == '/';
+    }
+
+    private static Url parseOriginForm(String host, String encodedUri) {
+        String encodedUrl = "http://" + host + encodedUri;
+        URI uri;
+        try {
+            uri = URI.create(encodedUrl);
+        } catch (IllegalArgumentException e) {
+            uri = HttpUrl.parse(encodedUrl).uri();
+        }
+        return new Url.Builder()
+                .path(uri.getRawPath())
+                .rawQuery(uri.getRawQuery())
+                .fragment(uri.getFragment())
+                .build();
+    }
 }
@@ -31,6 +31,7 @@ import com.hotels.styx.api.exceptions.OriginUnreachableException;
 import com.hotels.styx.api.exceptions.ResponseTimeoutException;
 import com.hotels.styx.api.exceptions.StyxException;
 import com.hotels.styx.api.exceptions.TransportLostException;
+import com.hotels.styx.api.metrics.CounterHandle;
 import com.hotels.styx.api.plugins.spi.PluginException;
 import com.hotels.styx.client.BadHttpResponseException;
 import com.hotels.styx.client.StyxClientException;
@@ -77,6 +78,7 @@ import static com.hotels.styx.api.HttpResponseStatus.SERVICE_UNAVAILABLE;
 import static com.hotels.styx.api.HttpVersion.HTTP_1_1;
 import static com.hotels.styx.api.LiveHttpResponse.response;
 import static com.hotels.styx.api.Metrics.name;
+import static com.hotels.styx.api.metrics.CounterHandle.counterHandle;
 import static com.hotels.styx.server.HttpErrorStatusListener.IGNORE_ERROR_STATUS;
 import static com.hotels.styx.server.RequestProgressListener.IGNORE_REQUEST_PROGRESS;
 import static com.hotels.styx.server.netty.connectors.HttpPipelineHandler.State.ACCEPTING_REQUESTS;
@@ -114,13 +116,53 @@ public class HttpPipelineHandler extends SimpleChannelInboundHandler<LiveHttpReq
             .add(INTERNAL_SERVER_ERROR, StyxClientException.class)
             .build();
 
+    private static final StateMachine.Definition<State, HttpPipelineHandler> STATE_MACHINE =
+            new StateMachine.DefinitionBuilder<State, HttpPipelineHandler>(State.class)
+                .initialState(ACCEPTING_REQUESTS)
+
+                .transition(ACCEPTING_REQUESTS, RequestReceivedEvent.class, (handler, event) -> handler.onLegitimateRequest(event.request, event.ctx))
+                .transition(ACCEPTING_REQUESTS, ChannelInactiveEvent.class, (handler, event) -> TERMINATED)
+                .transition(ACCEPTING_REQUESTS, ChannelExceptionEvent.class, (handler, event) -> handler.onChannelExceptionWhenAcceptingRequests(event.ctx, event.cause))
+                .transition(ACCEPTING_REQUESTS, ResponseObservableCompletedEvent.class, (handler, event) -> ACCEPTING_REQUESTS)
+
+                .transition(WAITING_FOR_RESPONSE, ResponseReceivedEvent.class, (handler, event) -> handler.onResponseReceived(event.response, event.ctx))
+                .transition(WAITING_FOR_RESPONSE, RequestReceivedEvent.class, (handler, event) -> handler.onSpuriousRequest(event.request, WAITING_FOR_RESPONSE))
+                .transition(WAITING_FOR_RESPONSE, ChannelInactiveEvent.class, (handler, event) -> handler.onChannelInactive())
+                .transition(WAITING_FOR_RESPONSE, ChannelExceptionEvent.class, (handler, event) -> handler.onChannelExceptionWhenWaitingForResponse(event.ctx, event.cause))
+                .transition(WAITING_FOR_RESPONSE, ResponseObservableErrorEvent.class,
+                        (handler, event) -> handler.onResponseObservableError(event.ctx, event.cause, event.requestId))
+                .transition(WAITING_FOR_RESPONSE, ResponseObservableCompletedEvent.class,
+                        (handler, event) -> handler.onResponseObservableCompletedTooSoon(event.ctx, event.requestId))
+
+                .transition(SENDING_RESPONSE, ResponseSentEvent.class, (handler, event) -> handler.onResponseSent(event.ctx))
+                .transition(SENDING_RESPONSE, ResponseWriteErrorEvent.class, (handler, event) -> handler.onResponseWriteError(event.ctx, event.cause))
+                .transition(SENDING_RESPONSE, ChannelInactiveEvent.class, (handler, event) -> SENDING_RESPONSE_CLIENT_CLOSED)
+                .transition(SENDING_RESPONSE, ChannelExceptionEvent.class, (handler, event) -> handler.onChannelExceptionWhenSendingResponse(event.ctx, event.cause))
+                .transition(SENDING_RESPONSE, ResponseObservableErrorEvent.class, (handler, event) -> handler.logError(SENDING_RESPONSE, event.cause))
+                .transition(SENDING_RESPONSE, ResponseObservableCompletedEvent.class, (handler, event) -> SENDING_RESPONSE)
+                .transition(SENDING_RESPONSE, RequestReceivedEvent.class, (handler, event) -> handler.onPrematureRequest(event.request, event.ctx))
+
+                .transition(SENDING_RESPONSE_CLIENT_CLOSED, ResponseSentEvent.class, (handler, event) -> handler.onResponseSentAfterClientClosed(event.ctx))
+                .transition(SENDING_RESPONSE_CLIENT_CLOSED, ResponseWriteErrorEvent.class, (handler, event) -> handler.onResponseWriteError(event.ctx, event.cause))
+                .transition(SENDING_RESPONSE_CLIENT_CLOSED, ChannelExceptionEvent.class, (handler, event) -> handler.logError(SENDING_RESPONSE_CLIENT_CLOSED, event.cause))
+                .transition(SENDING_RESPONSE_CLIENT_CLOSED, ResponseObservableErrorEvent.class, (handler, event) -> handler.logError(SENDING_RESPONSE_CLIENT_CLOSED, event.cause))
+                .transition(SENDING_RESPONSE_CLIENT_CLOSED, ResponseObservableCompletedEvent.class, (handler, event) -> SENDING_RESPONSE_CLIENT_CLOSED)
+
+                .transition(TERMINATED, ChannelInactiveEvent.class, (handler, event) -> TERMINATED)
+
+                .onInappropriateEvent((handler, state, event) -> {
+                    LOGGER.warn(handler.warningMessage(event.getClass().getSimpleName()));
+                    return state;
+                })
+
+                .build();
+
     private final HttpHandler httpPipeline;
     private final HttpErrorStatusListener httpErrorStatusListener;
     private final HttpResponseWriterFactory responseWriterFactory;
 
     private final RequestProgressListener statsSink;
-    private final MeterRegistry meterRegistry;
-    private final String meterPrefix;
+    private final CancellationCounters counters;
 
     private final StateMachine<State> stateMachine;
     private final ResponseEnhancer responseEnhancer;
@@ -143,53 +185,15 @@ public class HttpPipelineHandler extends SimpleChannelInboundHandler<LiveHttpReq
         this.httpErrorStatusListener = requireNonNull(builder.httpErrorStatusListener);
         this.responseWriterFactory = requireNonNull(builder.responseWriterFactory);
         this.statsSink = requireNonNull(builder.progressListener);
-        this.stateMachine = createStateMachine();
-        this.meterRegistry = builder.meterRegistrySupplier.get();
-        this.meterPrefix = builder.meterPrefix;
+        this.stateMachine = STATE_MACHINE.newStateMachine(this);
+        this.counters = builder.cancellationCounters != null
+                ? builder.cancellationCounters
+                : new CancellationCounters(builder.meterRegistrySupplier.get(), builder.meterPrefix);
         this.secure = builder.secure;
         this.tracker = tracker;
         this.originsHeaderName = builder.originsHeaderName;
     }
 
-    private StateMachine<State> createStateMachine() {
-        return new StateMachine.Builder<State>()
-                .initialState(ACCEPTING_REQUESTS)
-
-                .transition(ACCEPTING_REQUESTS, RequestReceivedEvent.class, event -> onLegitimateRequest(event.request, event.ctx))
-                .transition(ACCEPTING_REQUESTS, ChannelInactiveEvent.class, event -> TERMINATED)
-                .transition(ACCEPTING_REQUESTS, ChannelExceptionEvent.class, event -> onChannelExceptionWhenAcceptingRequests(event.ctx, event.cause))
-                .transition(ACCEPTING_REQUESTS, ResponseObservableCompletedEvent.class, event -> ACCEPTING_REQUESTS)
-
-                .transition(WAITING_FOR_RESPONSE, ResponseReceivedEvent.class, event -> onResponseReceived(event.response, event.ctx))
-                .transition(WAITING_FOR_RESPONSE, RequestReceivedEvent.class, event -> onSpuriousRequest(event.request, WAITING_FOR_RESPONSE))
-                .transition(WAITING_FOR_RESPONSE, ChannelInactiveEvent.class, event -> onChannelInactive())
-                .transition(WAITING_FOR_RESPONSE, ChannelExceptionEvent.class, event -> onChannelExceptionWhenWaitingForResponse(event.ctx, event.cause))
-                .transition(WAITING_FOR_RESPONSE, ResponseObservableErrorEvent.class, event -> onResponseObservableError(event.ctx, event.cause, event.requestId))
-                .transition(WAITING_FOR_RESPONSE, ResponseObservableCompletedEvent.class, event -> onResponseObservableCompletedTooSoon(event.ctx, event.requestId))
-
-                .transition(SENDING_RESPONSE, ResponseSentEvent.class, event -> onResponseSent(event.ctx))
-                .transition(SENDING_RESPONSE, ResponseWriteErrorEvent.class, event -> onResponseWriteError(event.ctx, event.cause))
-                .transition(SENDING_RESPONSE, ChannelInactiveEvent.class, event -> SENDING_RESPONSE_CLIENT_CLOSED)
-                .transition(SENDING_RESPONSE, ChannelExceptionEvent.class, event -> onChannelExceptionWhenSendingResponse(event.ctx, event.cause))
-                .transition(SENDING_RESPONSE, ResponseObservableErrorEvent.class, event -> logError(SENDING_RESPONSE, event.cause))
-                .transition(SENDING_RESPONSE, ResponseObservableCompletedEvent.class, event -> SENDING_RESPONSE)
-                .transition(SENDING_RESPONSE, RequestReceivedEvent.class, event -> onPrematureRequest(event.request, event.ctx))
-
-                .transition(SENDING_RESPONSE_CLIENT_CLOSED, ResponseSentEvent.class, event -> onResponseSentAfterClientClosed(event.ctx))
-                .transition(SENDING_RESPONSE_CLIENT_CLOSED, ResponseWriteErrorEvent.class, event -> onResponseWriteError(event.ctx, event.cause))
-                .transition(SENDING_RESPONSE_CLIENT_CLOSED, ChannelExceptionEvent.class, event -> logError(SENDING_RESPONSE_CLIENT_CLOSED, event.cause))
-                .transition(SENDING_RESPONSE_CLIENT_CLOSED, ResponseObservableErrorEvent.class, event -> logError(SENDING_RESPONSE_CLIENT_CLOSED, event.cause))
-                .transition(SENDING_RESPONSE_CLIENT_CLOSED, ResponseObservableCompletedEvent.class, event -> SENDING_RESPONSE_CLIENT_CLOSED)
-
-                .transition(TERMINATED, ChannelInactiveEvent.class, event -> TERMINATED)
-
-                .onInappropriateEvent((state, event) -> {
-                    LOGGER.warn(warningMessage(event.getClass().getSimpleName()));
-                    return state;
-                })
-
-                .build();
-    }
 
     private State logError(State state, Throwable cause) {
         httpErrorStatusListener.proxyingFailure(ongoingRequest, ongoingResponse, cause);
@@ -238,7 +242,7 @@ public class HttpPipelineHandler extends SimpleChannelInboundHandler<LiveHttpReq
     private State onSpuriousRequest(LiveHttpRequest request, State state) {
         LOGGER.warn(warningMessage("message='Spurious request received while handling another request', spuriousRequest=" + request));
 
-        meterRegistry.counter(name(meterPrefix, "request.cancelled.spuriousRequest")).increment();
+        counters.spuriousRequest.increment();
         statsSink.onTerminate(ongoingRequest.id());
         tracker.endTrack(ongoingRequest);
         cancelSubscription();
@@ -249,7 +253,7 @@ public class HttpPipelineHandler extends SimpleChannelInboundHandler<LiveHttpReq
         if (prematureRequest != null) {
             LOGGER.warn(warningMessage("message='Spurious request received while handling another request', spuriousRequest=%s" + request));
 
-            meterRegistry.counter(name(meterPrefix, "request.cancelled.spuriousRequest")).increment();
+            counters.spuriousRequest.increment();
             cancelSubscription();
             statsSink.onTerminate(ongoingRequest.id());
             tracker.endTrack(ongoingRequest);
@@ -357,7 +361,7 @@ public class HttpPipelineHandler extends SimpleChannelInboundHandler<LiveHttpReq
     }
 
     private State onResponseWriteError(ChannelHandlerContext ctx, Throwable cause) {
-        meterRegistry.counter(name(meterPrefix, "request.cancelled.responseWriteError")).increment();
+        counters.responseWriteError.increment();
         cancelSubscription();
         statsSink.onTerminate(ongoingRequest.id());
         tracker.endTrack(ongoingRequest);
@@ -369,7 +373,7 @@ public class HttpPipelineHandler extends SimpleChannelInboundHandler<LiveHttpReq
     }
 
     private State onChannelInactive() {
-        meterRegistry.counter(name(meterPrefix, "request.cancelled.channelInactive")).increment();
+        counters.channelInactive.increment();
         if (future != null) {
             LOGGER.warn(warningMessage("message=onChannelInactive"));
             future.cancel(false);
@@ -381,7 +385,7 @@ public class HttpPipelineHandler extends SimpleChannelInboundHandler<LiveHttpReq
     }
 
     private State onChannelExceptionWhenSendingResponse(ChannelHandlerContext ctx, Throwable cause) {
-        meterRegistry.counter(name(meterPrefix, "request.cancelled.channelExceptionWhileSendingResponse")).increment();
+        counters.channelExceptionWhileSendingResponse.increment();
         cancelSubscription();
         statsSink.onTerminate(ongoingRequest.id());
         tracker.endTrack(ongoingRequest);
@@ -392,7 +396,7 @@ public class HttpPipelineHandler extends SimpleChannelInboundHandler<LiveHttpReq
     }
 
     private State onChannelExceptionWhenWaitingForResponse(ChannelHandlerContext ctx, Throwable cause) {
-        meterRegistry.counter(name(meterPrefix, "request.cancelled.channelExceptionWhileWaitingForResponse")).increment();
+        counters.channelExceptionWhileWaitingForResponse.increment();
         statsSink.onTerminate(ongoingRequest.id());
         tracker.endTrack(ongoingRequest);
         cancelSubscription();
@@ -458,7 +462,7 @@ public class HttpPipelineHandler extends SimpleChannelInboundHandler<LiveHttpReq
             return this.state();
         }
 
-        meterRegistry.counter(name(meterPrefix, "request.cancelled.responseError")).increment();
+        counters.responseError.increment();
         cancelSubscription();
 
         LOGGER.error(warningMessage(format("message='Error proxying request', requestId=%s cause=%s", requestId, cause)));
@@ -495,7 +499,7 @@ public class HttpPipelineHandler extends SimpleChannelInboundHandler<LiveHttpReq
     }
 
     private State onResponseObservableCompletedTooSoon(ChannelHandlerContext ctx, Object requestId) {
-        meterRegistry.counter(name(meterPrefix, "request.cancelled.observableCompletedTooSoon")).increment();
+        counters.observableCompletedTooSoon.increment();
 
         if (!ongoingRequest.id().equals(requestId)) {
             return this.state();
@@ -660,6 +664,32 @@ public class HttpPipelineHandler extends SimpleChannelInboundHandler<LiveHttpReq
         }
     }
 
+    /**
+     * Counters for requests cancelled by the handler. Creating them once per connector rather than
+     * once per connection keeps the per-connection allocation down, in the same way that
+     * {@link com.hotels.styx.server.RequestStatsCollector} shares its status code counters.
+     */
+    public static final class CancellationCounters {
+        private final CounterHandle spuriousRequest;
+        private final CounterHandle responseWriteError;
+        private final CounterHandle channelInactive;
+        private final CounterHandle channelExceptionWhileSendingResponse;
+        private final CounterHandle channelExceptionWhileWaitingForResponse;
+        private final CounterHandle responseError;
+        private final CounterHandle observableCompletedTooSoon;
+
+        public CancellationCounters(MeterRegistry meterRegistry, String meterPrefix) {
+            requireNonNull(meterRegistry);
+            this.spuriousRequest = counterHandle(meterRegistry, name(meterPrefix, "request.cancelled.spuriousRequest"));
+            this.responseWriteError = counterHandle(meterRegistry, name(meterPrefix, "request.cancelled.responseWriteError"));
+            this.channelInactive = counterHandle(meterRegistry, name(meterPrefix, "request.cancelled.channelInactive"));
+            this.channelExceptionWhileSendingResponse = counterHandle(meterRegistry, name(meterPrefix, "request.cancelled.channelExceptionWhileSendingResponse"));
+            this.channelExceptionWhileWaitingForResponse = counterHandle(meterRegistry, name(meterPrefix, "request.cancelled.channelExceptionWhileWaitingForResponse"));
+            this.responseError = counterHandle(meterRegistry, name(meterPrefix, "request.cancelled.responseError"));
+            this.observableCompletedTooSoon = counterHandle(meterRegistry, name(meterPrefix, "request.cancelled.observableCompletedTooSoon"));
+        }
+    }
+
     /**
      * Builds instances of HttpPipelineHandler.
      */
@@ -672,6 +702,7 @@ public class HttpPipelineHandler extends SimpleChannelInboundHandler<LiveHttpReq
         private HttpResponseWriterFactory responseWriterFactory = HttpResponseWriter::new;
         private Supplier<MeterRegistry> meterRegistrySupplier = CompositeMeterRegistry::new;
         private String meterPrefix;
+        private CancellationCounters cancellationCounters;
         private RequestTracker tracker = RequestTracker.NO_OP;
         private boolean secure;
         private CharSequence originsHeaderName;
@@ -746,6 +777,18 @@ public class HttpPipelineHandler extends SimpleChannelInboundHandler<LiveHttpReq
             return this;
         }
 
+        /**
+         * Sets the request cancellation counters shared by the handlers of all connections.
+         * Takes precedence over the meter registry and prefix. By default, each handler creates its own.
+         *
+         * @param cancellationCounters the cancellation counters
+         * @return this builder
+         */
+        public Builder cancellationCounters(CancellationCounters cancellationCounters) {
+            this.cancellationCounters = requireNonNull(cancellationCounters);
+            return this;
+        }
+
         public Builder secure(boolean secure) {
             this.secure = secure;
             return this;
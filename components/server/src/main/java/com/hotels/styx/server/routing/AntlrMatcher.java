@@ -17,9 +17,11 @@ package com.hotels.styx.server.routing;
 
 import com.hotels.styx.api.HttpInterceptor;
 import com.hotels.styx.api.LiveHttpRequest;
-import com.hotels.styx.api.RequestCookie;
 import com.hotels.styx.server.routing.antlr.AntlrConditionParser;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import static com.hotels.styx.api.HttpHeaderNames.USER_AGENT;
 
 /**
@@ -32,7 +34,7 @@ public final class AntlrMatcher implements Matcher {
             .registerFunction("userAgent", (request, context) -> request.header(USER_AGENT).orElse(""))
             .registerFunction("protocol", (request, context) -> context.isSecure() ? "https" : "http")
             .registerFunction("header", (request, context, input) -> request.header(input).orElse(""))
-            .registerFunction("cookie", (request, context, input) -> request.cookie(input).map(RequestCookie::value).orElse(""))
+            .registerFunction("cookie", (request, context, input) -> RequestCookies.of(request, context).value(input))
             .build();
     private final Condition condition;
 
@@ -49,4 +51,38 @@ public final class AntlrMatcher implements Matcher {
     public boolean apply(LiveHttpRequest request, HttpInterceptor.Context context) {
         return this.condition.evaluate(request, context);
     }
+
+    /**
+     * Request cookies, decoded at most once per request. The decoded cookies are shared between all
+     * route conditions via the request context.
+     */
+    private static final class RequestCookies {
+        private static final String CONTEXT_KEY = RequestCookies.class.getName();
+
+        private final LiveHttpRequest request;
+        private final Map<String, String> values = new HashMap<>();
+
+        private RequestCookies(LiveHttpRequest request) {
+            this.request = request;
+            request.cookies().forEach(cookie -> values.putIfAbsent(cookie.name(), cookie.value()));
+        }
+
+        static RequestCookies of(LiveHttpRequest request, HttpInterceptor.Context context) {
+            if (context == null) {
+                return new RequestCookies(request);
+            }
+
+            RequestCookies cookies = context.getIfAvailable(CONTEXT_KEY, RequestCookies.class).orElse(null);
+            // Interceptors may have replaced the request since the cookies were decoded:
+            if (cookies == null || cookies.request != request) {
+                cookies = new RequestCookies(request);
+                context.add(CONTEXT_KEY, cookies);
+            }
+            return cookies;
+        }
+
+        String value(String name) {
+            return values.getOrDefault(name, "");
+        }
+    }
 }
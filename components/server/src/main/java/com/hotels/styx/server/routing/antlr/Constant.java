@@ -0,0 +1,51 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.server.routing.antlr;
+
+import com.hotels.styx.api.HttpInterceptor;
+import com.hotels.styx.api.LiveHttpRequest;
+
+/**
+ * An expression whose value is known when the condition is compiled.
+ * Allows the enclosing expressions to be folded at compile time.
+ *
+ * @param <T> value type
+ */
+final class Constant<T> implements Expression<T> {
+    private final T value;
+
+    Constant(T value) {
+        this.value = value;
+    }
+
+    T value() {
+        return value;
+    }
+
+    @Override
+    public T evaluate(LiveHttpRequest request, HttpInterceptor.Context context) {
+        return value;
+    }
+
+    static boolean isConstant(Expression<?> expression) {
+        return expression instanceof Constant;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T valueOf(Expression<T> expression) {
+        return ((Constant<T>) expression).value;
+    }
+}
@@ -23,9 +23,21 @@ import java.util.Map;
 import java.util.regex.Pattern;
 
 import static com.hotels.styx.common.Strings.isNotEmpty;
+import static com.hotels.styx.server.routing.antlr.Constant.isConstant;
+import static com.hotels.styx.server.routing.antlr.Constant.valueOf;
 import static com.hotels.styx.server.routing.antlr.Strings.stripFirstAndLastCharacter;
 
+/**
+ * Compiles a parsed condition into an expression tree.
+ * <p/>
+ * Sub-expressions that do not depend on the request are folded into constants, string literals are
+ * interned, and regular expressions are compiled once. Therefore nothing from the parse tree is
+ * consulted when the condition is evaluated.
+ */
 class ExpressionVisitor extends ConditionBaseVisitor<Expression<Boolean>> {
+    private static final Constant<Boolean> TRUE = new Constant<>(true);
+    private static final Constant<Boolean> FALSE = new Constant<>(false);
+
     private final StringCompareVisitor stringVisitor;
 
     public ExpressionVisitor(Map<String, Function0> zeroArgumentFunctions, Map<String, Function1> oneArgumentFunctions) {
@@ -37,6 +49,13 @@ class ExpressionVisitor extends ConditionBaseVisitor<Expression<Boolean>> {
     public Expression<Boolean> visitAndExpression(ConditionParser.AndExpressionContext ctx) {
         Expression<Boolean> left = visit(ctx.expression(0));
         Expression<Boolean> right = visit(ctx.expression(1));
+
+        if (isConstant(left)) {
+            return valueOf(left) ? right : FALSE;
+        }
+        if (isConstant(right) && valueOf(right)) {
+            return left;
+        }
         return (request, context) -> left.evaluate(request, context) && right.evaluate(request, context);
     }
 
@@ -44,24 +63,38 @@ class ExpressionVisitor extends ConditionBaseVisitor<Expression<Boolean>> {
     public Expression<Boolean> visitOrExpression(ConditionParser.OrExpressionContext ctx) {
         Expression<Boolean> left = visit(ctx.expression(0));
         Expression<Boolean> right = visit(ctx.expression(1));
+
+        if (isConstant(left)) {
+            return valueOf(left) ? TRUE : right;
+        }
+        if (isConstant(right) && !valueOf(right)) {
+            return left;
+        }
         return (request, context) -> left.evaluate(request, context) || right.evaluate(request, context);
     }
 
     @Override
     public Expression<Boolean> visitNotExpression(ConditionParser.NotExpressionContext ctx) {
         Expression<Boolean> expression = visit(ctx.expression());
+
+        if (isConstant(expression)) {
+            return constant(!valueOf(expression));
+        }
         return (request, context) -> !expression.evaluate(request, context);
     }
 
     @Override
     public Expression<Boolean> visitSubExpression(ConditionParser.SubExpressionContext ctx) {
-        Expression<Boolean> expression = visit(ctx.expression());
-        return expression::evaluate;
+        return visit(ctx.expression());
     }
 
     @Override
     public Expression<Boolean> visitStringIsPresent(StringIsPresentContext ctx) {
         Expression<String> stringExpression = stringVisitor.visitStringExpression(ctx.stringExpression());
+
+        if (isConstant(stringExpression)) {
+            return constant(isNotEmpty(valueOf(stringExpression)));
+        }
         return (request, context) -> isNotEmpty(stringExpression.evaluate(request, context));
     }
 
@@ -69,6 +102,17 @@ class ExpressionVisitor extends ConditionBaseVisitor<Expression<Boolean>> {
     public Expression<Boolean> visitStringEqualsString(ConditionParser.StringEqualsStringContext ctx) {
         Expression<String> left = stringVisitor.visitStringExpression(ctx.stringExpression(0));
         Expression<String> right = stringVisitor.visitStringExpression(ctx.stringExpression(1));
+
+        if (isConstant(left) && isConstant(right)) {
+            return constant(valueOf(left).equals(valueOf(right)));
+        }
+        if (isConstant(right)) {
+            String expected = valueOf(right);
+            return (request, context) -> {
+                String leftValue = left.evaluate(request, context);
+                return leftValue == null ? expected.isEmpty() : expected.equals(leftValue);
+            };
+        }
         return (request, context) -> {
             String leftValue = left.evaluate(request, context);
             return (leftValue == null ? "" : leftValue).equals(right.evaluate(request, context));
@@ -79,9 +123,17 @@ class ExpressionVisitor extends ConditionBaseVisitor<Expression<Boolean>> {
     public Expression<Boolean> visitStringMatchesRegexp(ConditionParser.StringMatchesRegexpContext ctx) {
         Expression<String> stringExpression = stringVisitor.visitStringExpression(ctx.stringExpression());
         Pattern pattern = Pattern.compile(stripFirstAndLastCharacter(ctx.string().getText()));
+
+        if (isConstant(stringExpression)) {
+            return constant(pattern.matcher(valueOf(stringExpression)).matches());
+        }
         return (request, context) -> {
             String evaluate = stringExpression.evaluate(request, context);
             return pattern.matcher(evaluate).matches();
         };
     }
+
+    private static Expression<Boolean> constant(boolean value) {
+        return value ? TRUE : FALSE;
+    }
 }
@@ -25,7 +25,7 @@ import com.hotels.styx.api.LiveHttpRequest;
  * Bean that represent the current request.
  */
 public class CurrentRequest {
-    private final String request;
+    private final LiveHttpRequest request;
     private final long startingTimeMillies;
     private final Supplier<String> stateSupplier;
 
@@ -35,7 +35,7 @@ public class CurrentRequest {
     CurrentRequest(LiveHttpRequest request, Supplier<String> stateSupplier) {
         this.startingTimeMillies = currentTimeMillis();
         this.currentThread = Thread.currentThread();
-        this.request = request.toString();
+        this.request = request;
         this.stateSupplier = stateSupplier;
     }
 
@@ -43,8 +43,13 @@ public class CurrentRequest {
         return currentThread;
     }
 
+    /**
+     * Renders the request. The rendering is done on demand, rather than when tracking starts.
+     *
+     * @return the request as a string
+     */
     public String request() {
-        return request;
+        return request.toString();
     }
 
     public long startingTimeMillies() {
@@ -60,7 +65,10 @@ public class CurrentRequest {
     }
 
     void setCurrentThread(Thread currentThread) {
-        this.currentThread = currentThread;
+        // Avoid a volatile write when the request stays on the same thread, which is the common case.
+        if (this.currentThread != currentThread) {
+            this.currentThread = currentThread;
+        }
     }
 
     void requestSent() {
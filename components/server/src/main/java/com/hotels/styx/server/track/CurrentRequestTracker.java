@@ -23,31 +23,34 @@ import java.util.function.Supplier;
 
 /**
  * Manger class to manage the current requests.
+ * <p>
+ * Only a reference to each request is kept while it is in flight. The requests are rendered
+ * when the current requests are queried, so that tracking can be left enabled.
  */
 public class CurrentRequestTracker implements RequestTracker {
     public static final CurrentRequestTracker INSTANCE = new CurrentRequestTracker();
 
+    private static final Supplier<String> NO_STATE = () -> "Status NOT Available.";
+
     private final ConcurrentHashMap<Object, CurrentRequest> currentRequests = new ConcurrentHashMap<>();
 
     public void trackRequest(LiveHttpRequest request, Supplier<String> state) {
-        if (currentRequests.containsKey(request.id())) {
-            currentRequests.get(request.id()).setCurrentThread(Thread.currentThread());
+        CurrentRequest current = currentRequests.get(request.id());
+        if (current != null) {
+            current.setCurrentThread(Thread.currentThread());
         } else {
-            currentRequests.put(request.id(), new CurrentRequest(request, state));
+            currentRequests.putIfAbsent(request.id(), new CurrentRequest(request, state));
         }
     }
 
     public void trackRequest(LiveHttpRequest request) {
-        if (currentRequests.containsKey(request.id())) {
-            currentRequests.get(request.id()).setCurrentThread(Thread.currentThread());
-        } else {
-            trackRequest(request, () -> "Status NOT Available.");
-        }
+        trackRequest(request, NO_STATE);
     }
 
     public void markRequestAsSent(LiveHttpRequest request) {
-        if (currentRequests.containsKey(request.id())) {
-            currentRequests.get(request.id()).requestSent();
+        CurrentRequest current = currentRequests.get(request.id());
+        if (current != null) {
+            current.requestSent();
         }
     }
 
@@ -248,6 +248,17 @@ public class RequestStatsCollectorTest {
         assertThat(counterValue(RESPONSE_SENT, Tags.empty()), is(1.0));
     }
 
+    @Test
+    public void registersOnlyObservedStatusCodes() {
+        sink.onRequest(requestId);
+        sink.onComplete(requestId, 200);
+        sink.onRequest(requestId2);
+        sink.onComplete(requestId2, 200);
+
+        assertThat(metrics.find(name(PREFIX, RESPONSE_STATUS)).counters().size(), is(1));
+        assertThat(counterValue(RESPONSE_STATUS, Tags.of(STATUS_TAG, "200")), is(2.0));
+    }
+
     private static final class TestClock implements Clock {
         private long nanoTime;
 
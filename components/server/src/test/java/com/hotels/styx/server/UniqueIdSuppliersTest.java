@@ -0,0 +1,132 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.server;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.hotels.styx.server.UniqueIdSuppliers.EVENT_LOOP_SEQUENCE_SUPPLIER;
+import static com.hotels.styx.server.UniqueIdSuppliers.UUID_VERSION_ONE_SUPPLIER;
+import static com.hotels.styx.server.UniqueIdSuppliers.UUID_VERSION_SEVEN_SUPPLIER;
+import static com.hotels.styx.server.UniqueIdSuppliers.uniqueIdSupplier;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class UniqueIdSuppliersTest {
+
+    @Test
+    public void eventLoopSequenceIdsIncreaseWithinAThread() {
+        RequestId first = (RequestId) EVENT_LOOP_SEQUENCE_SUPPLIER.nextId();
+        RequestId second = (RequestId) EVENT_LOOP_SEQUENCE_SUPPLIER.nextId();
+
+        assertThat(second.mostSignificantBits(), is(first.mostSignificantBits()));
+        assertThat(second.leastSignificantBits(), is(first.leastSignificantBits() + 1));
+    }
+
+    @Test
+    public void eventLoopSequenceIdsAreUniqueAcrossThreads() throws Exception {
+        assertUniqueAcrossThreads(EVENT_LOOP_SEQUENCE_SUPPLIER);
+    }
+
+    @Test
+    public void uuidVersionSevenIdsAreValidUuids() {
+        long before = System.currentTimeMillis();
+        UUID uuid = UUID.fromString(UUID_VERSION_SEVEN_SUPPLIER.get());
+        long after = System.currentTimeMillis();
+
+        assertThat(uuid.version(), is(7));
+        assertThat(uuid.variant(), is(2));
+
+        long timestamp = uuid.getMostSignificantBits() >>> 16;
+        assertThat(timestamp, greaterThan(before - 1));
+        assertThat(timestamp, lessThanOrEqualTo(after));
+    }
+
+    @Test
+    public void uuidVersionSevenIdsAreUniqueAcrossThreads() throws Exception {
+        assertUniqueAcrossThreads(UUID_VERSION_SEVEN_SUPPLIER);
+    }
+
+    @Test
+    public void looksUpSuppliersByName() {
+        assertThat(uniqueIdSupplier("uuid-v1"), is(sameInstance(UUID_VERSION_ONE_SUPPLIER)));
+        assertThat(uniqueIdSupplier("uuid-v7"), is(sameInstance(UUID_VERSION_SEVEN_SUPPLIER)));
+        assertThat(uniqueIdSupplier("event-loop"), is(sameInstance(EVENT_LOOP_SEQUENCE_SUPPLIER)));
+        assertThrows(IllegalArgumentException.class, () -> uniqueIdSupplier("uuid-v4"));
+    }
+
+    @Test
+    public void rendersIdsLazilyInUuidFormat() {
+        RequestId id = new RequestId(0x0123456789abcdefL, 0xfedcba9876543210L);
+
+        assertThat(id.toString(), is(new UUID(0x0123456789abcdefL, 0xfedcba9876543210L).toString()));
+        assertThat(id.toString(), is(sameInstance(id.toString())));
+    }
+
+    @Test
+    public void requestIdsAreComparedByValue() {
+        assertThat(new RequestId(1, 2), is(new RequestId(1, 2)));
+        assertThat(new RequestId(1, 2).hashCode(), is(new RequestId(1, 2).hashCode()));
+        assertThat(new RequestId(1, 2), is(not(new RequestId(2, 1))));
+    }
+
+    @Test
+    public void stringSuppliersReturnTheirStringAsId() {
+        Object id = UniqueIdSuppliers.fixedUniqueIdSupplier("abc").nextId();
+
+        assertThat(id, is(instanceOf(String.class)));
+        assertThat(id, is("abc"));
+    }
+
+    private static void assertUniqueAcrossThreads(UniqueIdSupplier supplier) throws Exception {
+        int threads = 8;
+        int idsPerThread = 10_000;
+        Set<Object> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            for (int i = 0; i < threads; i++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < idsPerThread; j++) {
+                        ids.add(supplier.nextId());
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        assertThat(ids.size(), is(threads * idsPerThread));
+    }
+}
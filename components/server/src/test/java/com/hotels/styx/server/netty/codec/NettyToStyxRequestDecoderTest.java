@@ -60,6 +60,7 @@ import static com.hotels.styx.support.netty.HttpMessageSupport.httpMessageToByte
 import static com.hotels.styx.support.netty.HttpMessageSupport.httpRequest;
 import static com.hotels.styx.support.netty.HttpMessageSupport.httpRequestAsBuf;
 import static io.netty.buffer.Unpooled.copiedBuffer;
+import static io.netty.handler.codec.http.HttpHeaders.Names.CONTENT_LENGTH;
 import static io.netty.handler.codec.http.HttpHeaders.Names.EXPECT;
 import static io.netty.handler.codec.http.HttpHeaders.Names.HOST;
 import static io.netty.handler.codec.http.HttpHeaders.Names.TRANSFER_ENCODING;
@@ -75,6 +76,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.matchesPattern;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.core.Is.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -194,6 +196,45 @@ public class NettyToStyxRequestDecoderTest {
                 .verifyComplete();
     }
 
+    @Test
+    public void bodilessRequestsShareAnEmptyBodyWithoutFlowControl() {
+        HttpRequest first = new DefaultHttpRequest(HTTP_1_1, GET, "/foo");
+        first.headers().set(HOST, "foo.com");
+        HttpRequest second = new DefaultHttpRequest(HTTP_1_1, GET, "/bar");
+        second.headers().set(HOST, "foo.com");
+
+        channel.writeInbound(first, EMPTY_LAST_CONTENT);
+        LiveHttpRequest firstRequest = channel.readInbound();
+        assertThat(channel.config().isAutoRead(), is(true));
+
+        channel.writeInbound(second, EMPTY_LAST_CONTENT);
+        LiveHttpRequest secondRequest = channel.readInbound();
+
+        StepVerifier.create(firstRequest.body()).verifyComplete();
+        assertThat(secondRequest.body(), sameInstance(firstRequest.body()));
+    }
+
+    @Test
+    public void treatsZeroContentLengthRequestsAsBodiless() {
+        HttpRequest request = new DefaultHttpRequest(HTTP_1_1, POST, "/foo");
+        request.headers().set(HOST, "foo.com");
+        request.headers().set(CONTENT_LENGTH, 0);
+
+        channel.writeInbound(request, EMPTY_LAST_CONTENT);
+        LiveHttpRequest styxRequest = channel.readInbound();
+
+        assertThat(channel.config().isAutoRead(), is(true));
+        StepVerifier.create(styxRequest.body()).verifyComplete();
+    }
+
+    @Test
+    public void appliesFlowControlToRequestsWithBody() {
+        channel.writeInbound(chunkedRequestHeaders);
+        channel.readInbound();
+
+        assertThat(channel.config().isAutoRead(), is(false));
+    }
+
     @Test
     public void overridesTheHostHeaderWithTheHostAndPortInTheAbsoluteURI() {
         HttpRequest request = newHttpRequest(URI.create("http://example.net/foo").toString());
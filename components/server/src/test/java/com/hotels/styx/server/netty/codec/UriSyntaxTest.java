@@ -0,0 +1,215 @@
+/*
+  Copyright (C) 2013-2021 Expedia Inc.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+package com.hotels.styx.server.netty.codec;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Random;
+
+import static com.hotels.styx.server.netty.codec.UriSyntax.isValidHost;
+import static java.util.Arrays.copyOfRange;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class UriSyntaxTest {
+    private static final String REG_NAME_CHARS = "abcxyzABCXYZ0189-._~!$&'()*+,;=";
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "example.com",
+            "example.com:8080",
+            "example.com:",
+            "EXAMPLE.com:65535",
+            "under_score.example",
+            "xn--bcher-kva.example",
+            "caf%C3%A9.example",
+            "127.0.0.1:80",
+            "[::1]",
+            "[::1]:8443",
+            "[::]",
+            "[2001:db8::7]",
+            "[2001:db8:0:0:0:0:2:1]",
+            "[fe80::1:2:3:4:5:6]",
+            "[::ffff:192.0.2.128]",
+            "[1:2:3:4:5:6:1.2.3.4]",
+            "[fe80::1%eth0]",
+            "[::01.1.1.1]"
+    })
+    public void acceptsValidHosts(String host) {
+        assertThat(host, isValidHost(host), is(true));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "http://foo.com/",
+            "example.com/path",
+            "example.com?query",
+            "example.com#fragment",
+            "example.com:8080/path",
+            "user@example.com",
+            "a@b@c:http",
+            "exa mple.com",
+            "café.example",
+            "example.com:65536",
+            "example.com:-1",
+            "example.com:+80",
+            "example.com:80 "
+    })
+    public void acceptsHostsThatJavaNetUrlAccepts(String host) {
+        assertThat(host, isValidHost(host), is(true));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "example.com:80a",
+            "example.com:-2",
+            "example.com:+",
+            "example.com:2147483648",
+            "example.com:80:80",
+            "user@example.com:http",
+            "[::1",
+            "::1",
+            "[::1]x",
+            "[::1]:http",
+            "[1:2:3:4:5:6:7:8:9]",
+            "[1:2:3:4:5:6:7]",
+            "[1::2::3]",
+            "[:1:2:3:4:5:6:7]",
+            "[1:2:3:4:5:6:7:]",
+            "[12345::1]",
+            "[::g]",
+            "[::1.2.3]",
+            "[::256.1.1.1]",
+            "[1:2:3:4:5:6:7:1.2.3.4]",
+            "[fe80::1%]",
+            "[v1.fe80::a+en1]",
+            "[:]",
+            "[]"
+    })
+    public void rejectsInvalidHosts(String host) {
+        assertThat(host, isValidHost(host), is(false));
+    }
+
+    @Test
+    public void acceptsRandomlyGeneratedValidHosts() {
+        Random random = new Random(3986);
+
+        for (int n = 0; n < 10_000; n++) {
+            String host = randomHost(random);
+            assertThat(host, isValidHost(host), is(true));
+        }
+    }
+
+    @Test
+    public void agreesWithJavaNetUrlOnArbitraryInput() {
+        Random random = new Random(42);
+        String alphabet = "[]:.%v0123456789abcdefABCDEFg@/?#+- é";
+
+        for (int n = 0; n < 50_000; n++) {
+            StringBuilder host = new StringBuilder();
+            int length = random.nextInt(48);
+            for (int i = 0; i < length; i++) {
+                host.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            assertAgreesWithJavaNetUrl(host.toString());
+        }
+    }
+
+    @Test
+    public void agreesWithJavaNetUrlOnCorruptedHosts() {
+        Random random = new Random(7230);
+        String corruptions = ":.%[]@/?#+- 0fg";
+
+        for (int n = 0; n < 50_000; n++) {
+            StringBuilder host = new StringBuilder(randomHost(random));
+            int changes = 1 + random.nextInt(3);
+            for (int i = 0; i < changes; i++) {
+                int position = random.nextInt(host.length() + 1);
+                char c = corruptions.charAt(random.nextInt(corruptions.length()));
+                if (position < host.length() && random.nextBoolean()) {
+                    host.setCharAt(position, c);
+                } else {
+                    host.insert(position, c);
+                }
+            }
+            assertAgreesWithJavaNetUrl(host.toString());
+        }
+    }
+
+    private static void assertAgreesWithJavaNetUrl(String host) {
+        assertThat(host, isValidHost(host), is(isValidUrlHost(host)));
+    }
+
+    private static boolean isValidUrlHost(String host) {
+        try {
+            new URL("http://" + host);
+            return true;
+        } catch (MalformedURLException e) {
+            return false;
+        }
+    }
+
+    private static String randomHost(Random random) {
+        String host;
+        switch (random.nextInt(3)) {
+            case 0:
+                host = randomRegName(random);
+                break;
+            case 1:
+                host = random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(256);
+                break;
+            default:
+                host = "[" + randomIpv6(random) + "]";
+                break;
+        }
+        return random.nextBoolean() ? host : host + ":" + random.nextInt(65536);
+    }
+
+    private static String randomRegName(Random random) {
+        StringBuilder name = new StringBuilder();
+        int length = 1 + random.nextInt(20);
+        for (int i = 0; i < length; i++) {
+            if (random.nextInt(10) == 0) {
+                name.append(String.format("%%%02X", random.nextInt(256)));
+            } else {
+                name.append(REG_NAME_CHARS.charAt(random.nextInt(REG_NAME_CHARS.length())));
+            }
+        }
+        return name.toString();
+    }
+
+    // Renders eight random groups, then collapses a random run of groups into "::".
+    private static String randomIpv6(Random random) {
+        String[] groups = new String[8];
+        for (int i = 0; i < groups.length; i++) {
+            groups[i] = Integer.toHexString(random.nextInt(0x10000));
+        }
+
+        int from = random.nextInt(9);
+        int to = from + random.nextInt(9 - from);
+        if (from == to) {
+            return String.join(":", groups);
+        }
+        return String.join(":", copyOfRange(groups, 0, from))
+                + "::"
+                + String.join(":", copyOfRange(groups, to, groups.length));
+    }
+}
@@ -19,14 +19,18 @@ import com.hotels.styx.api.Url;
 import io.netty.handler.codec.http.DefaultFullHttpRequest;
 import org.junit.jupiter.api.Test;
 
+import java.net.URI;
 import java.util.Optional;
+import java.util.Random;
 
 import static io.netty.handler.codec.http.HttpHeaders.Names.HOST;
 import static io.netty.handler.codec.http.HttpMethod.GET;
 import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
 import static java.util.Collections.emptyMap;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 
 public class UrlDecoderTest {
     @Test
@@ -99,5 +103,59 @@ public class UrlDecoderTest {
         assertThat(url.scheme(), is("http"));
     }
 
+    @Test
+    public void decodesOriginFormWithQuery() {
+        DefaultFullHttpRequest request = new DefaultFullHttpRequest(HTTP_1_1, GET, "/foo/bar%20baz?a=1&b=%2F?x");
+        request.headers().add(HOST, "example.com");
+
+        Url url = UrlDecoder.decodeUrl(x -> x, request);
+
+        assertThat(url.path(), is("/foo/bar%20baz"));
+        assertThat(url.getRawQuery(), is(Optional.of("a=1&b=%2F?x")));
+        assertThat(url.encodedUri(), is("/foo/bar%20baz?a=1&b=%2F?x"));
+    }
 
-}
\ No newline at end of file
+    @Test
+    public void leavesTargetsWithFragmentsOrIllegalCharactersToTheLenientParser() {
+        assertThat(UrlDecoder.decodeOriginForm("/foo#bar"), is(nullValue()));
+        assertThat(UrlDecoder.decodeOriginForm("/foo bar"), is(nullValue()));
+        assertThat(UrlDecoder.decodeOriginForm("/foo%2"), is(nullValue()));
+        assertThat(UrlDecoder.decodeOriginForm("/foo%zz"), is(nullValue()));
+        assertThat(UrlDecoder.decodeOriginForm("/caf\u00e9"), is(nullValue()));
+        assertThat(UrlDecoder.decodeOriginForm("/foo?a={b}"), is(nullValue()));
+    }
+
+    @Test
+    public void decodesOriginFormLikeJavaNetUri() {
+        String alphabet = "/?#%aZ09-._~!$&'()*+,;=:@ [|{\u00e9";
+        Random random = new Random(3986);
+        int fastPathed = 0;
+
+        for (int n = 0; n < 20_000; n++) {
+            StringBuilder target = new StringBuilder("/");
+            int length = random.nextInt(16);
+            for (int i = 0; i < length; i++) {
+                if (random.nextInt(8) == 0) {
+                    target.append(String.format("%%%02x", random.nextInt(256)));
+                } else {
+                    target.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+            }
+
+            Url decoded = UrlDecoder.decodeOriginForm(target.toString());
+            if (decoded != null) {
+                URI uri = URI.create("http://example.com" + target);
+                Url expected = new Url.Builder()
+                        .path(uri.getRawPath())
+                        .rawQuery(uri.getRawQuery())
+                        .fragment(uri.getFragment())
+                        .build();
+
+                assertThat(target.toString(), decoded, is(expected));
+                fastPathed++;
+            }
+        }
+
+        assertThat(fastPathed, is(greaterThan(1000)));
+    }
+}
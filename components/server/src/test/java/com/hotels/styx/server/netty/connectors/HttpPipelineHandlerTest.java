@@ -93,6 +93,7 @@ import static java.util.Arrays.asList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.collection.IsEmptyCollection.empty;
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Matchers.any;
@@ -720,6 +721,25 @@ public class HttpPipelineHandlerTest {
         assertThat(handler.state(), is(TERMINATED));
     }
 
+    @Test
+    public void countsCancellationsWithSharedCounters() throws Exception {
+        MeterRegistry sharedRegistry = new SimpleMeterRegistry();
+        HttpPipelineHandler.CancellationCounters counters = new HttpPipelineHandler.CancellationCounters(sharedRegistry, "shared");
+
+        metrics = new SimpleMeterRegistry();
+        handler = handlerWithMocks(pipeline)
+                .cancellationCounters(counters)
+                .responseWriterFactory(responseWriterFactory)
+                .build();
+        handler.channelActive(ctx);
+
+        handler.channelRead0(ctx, request);
+        handler.channelInactive(ctx);
+
+        assertThat(sharedRegistry.counter("shared.request.cancelled.channelInactive").count(), is(1.0));
+        assertThat(metrics.find("test.request.cancelled.channelInactive").counter(), is(nullValue()));
+    }
+
     @Test
     public void ioExceptionInWaitingForResponseState() throws Exception {
         // In Waiting for Response state,
@@ -15,12 +15,14 @@
  */
 package com.hotels.styx.server.routing;
 
+import com.hotels.styx.api.LiveHttpRequest;
 import com.hotels.styx.server.HttpInterceptorContext;
 import org.junit.jupiter.api.Test;
 
 import java.util.concurrent.Executors;
 
 import static com.hotels.styx.api.LiveHttpRequest.get;
+import static com.hotels.styx.api.RequestCookie.requestCookie;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 
@@ -36,4 +38,27 @@ public class AntlrMatcherTest {
         assertThat(matcher.apply(get("/path").build(), contextHttp), is(false));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void matchesCookies() {
+        AntlrMatcher matchesFoo = AntlrMatcher.antlrMatcher("cookie('foo') == 'x'");
+        AntlrMatcher matchesBar = AntlrMatcher.antlrMatcher("cookie('bar') == 'y'");
+
+        HttpInterceptorContext context = new HttpInterceptorContext(false, null, Runnable::run);
+        LiveHttpRequest request = get("/path").cookies(requestCookie("foo", "x"), requestCookie("bar", "y")).build();
+
+        assertThat(matchesFoo.apply(request, context), is(true));
+        assertThat(matchesBar.apply(request, context), is(true));
+    }
+
+    @Test
+    public void decodesCookiesAgainForModifiedRequest() {
+        AntlrMatcher matcher = AntlrMatcher.antlrMatcher("cookie('foo') == 'x'");
+
+        HttpInterceptorContext context = new HttpInterceptorContext(false, null, Runnable::run);
+        LiveHttpRequest request = get("/path").cookies(requestCookie("foo", "x")).build();
+        LiveHttpRequest modified = request.newBuilder().removeCookies("foo").build();
+
+        assertThat(matcher.apply(request, context), is(true));
+        assertThat(matcher.apply(modified, context), is(false));
+    }
+}
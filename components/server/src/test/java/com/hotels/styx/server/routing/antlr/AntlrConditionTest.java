@@ -519,4 +519,34 @@ public class AntlrConditionTest {
     public void throwsIllegalArgumentExceptionWhenTooManyArgumentsAreProvided() {
         assertThrows(IllegalArgumentException.class, () -> condition("queryString('foobar', 'blah')"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void evaluatesConstantExpressions() {
+        LiveHttpRequest request = newRequest("/foo").build();
+
+        assertThat(condition("'abc' == 'abc'").evaluate(request, context), is(true));
+        assertThat(condition("'abc' == 'abd'").evaluate(request, context), is(false));
+        assertThat(condition("'abc' =~ 'a.*'").evaluate(request, context), is(true));
+        assertThat(condition("NOT ''").evaluate(request, context), is(true));
+    }
+
+    @Test
+    public void evaluatesRequestDependentOperandOfFoldedExpressions() {
+        Condition condition = condition("'a' == 'a' AND path() == '/foo'");
+        assertThat(condition.evaluate(newRequest("/foo").build(), context), is(true));
+        assertThat(condition.evaluate(newRequest("/bar").build(), context), is(false));
+
+        condition = condition("'a' == 'b' OR (path() == '/foo')");
+        assertThat(condition.evaluate(newRequest("/foo").build(), context), is(true));
+        assertThat(condition.evaluate(newRequest("/bar").build(), context), is(false));
+
+        condition = condition("path() == '/foo' OR 'a' == 'a'");
+        assertThat(condition.evaluate(newRequest("/bar").build(), context), is(true));
+    }
+
+    @Test
+    public void absentHeaderEqualsEmptyString() {
+        Condition condition = condition("header('X-Missing') == ''");
+        assertThat(condition.evaluate(newRequest().build(), context), is(true));
+    }
+}
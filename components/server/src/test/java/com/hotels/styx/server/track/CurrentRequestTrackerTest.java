@@ -19,9 +19,17 @@ import com.hotels.styx.api.LiveHttpRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static com.hotels.styx.api.LiveHttpRequest.get;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class CurrentRequestTrackerTest {
 
@@ -87,4 +95,70 @@ public class CurrentRequestTrackerTest {
         tracker.endTrack(req1);
         assertThat(tracker.currentRequests().iterator().next().request(), is(req2.toString()));
     }
+
+    @Test
+    public void keepsTheFirstEntryWhenTheSameRequestIsTrackedAgain() {
+        tracker.trackRequest(req1, () -> "first");
+        CurrentRequest first = tracker.currentRequests().iterator().next();
+
+        tracker.trackRequest(req1, () -> "second");
+
+        assertThat(tracker.currentRequests().size(), is(1));
+        assertThat(tracker.currentRequests().iterator().next(), is(sameInstance(first)));
+        assertThat(first.state(), is("first"));
+    }
+
+    @Test
+    public void tracksTheSameRequestOnceWhenTrackedConcurrently() throws Exception {
+        int numberOfThreads = 8;
+        CyclicBarrier barrier = new CyclicBarrier(numberOfThreads);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < numberOfThreads; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    barrier.await();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+                tracker.trackRequest(req1);
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(tracker.currentRequests().size(), is(1));
+        assertThat(tracker.currentRequests().iterator().next().request(), is(req1.toString()));
+    }
+
+    @Test
+    public void rendersRequestAndStateOnlyWhenRead() {
+        AtomicInteger requestRenders = new AtomicInteger();
+        AtomicInteger stateRenders = new AtomicInteger();
+        LiveHttpRequest request = mock(LiveHttpRequest.class);
+        when(request.id()).thenReturn("requestId3");
+        when(request.toString()).thenAnswer(invocation -> {
+            requestRenders.incrementAndGet();
+            return "rendered request";
+        });
+
+        tracker.trackRequest(request, () -> {
+            stateRenders.incrementAndGet();
+            return "rendered state";
+        });
+        tracker.trackRequest(request);
+        tracker.markRequestAsSent(request);
+
+        assertThat(requestRenders.get(), is(0));
+        assertThat(stateRenders.get(), is(0));
+
+        CurrentRequest current = tracker.currentRequests().iterator().next();
+        assertThat(current.request(), is("rendered request"));
+        assertThat(current.state(), is("rendered state"));
+        assertThat(requestRenders.get(), is(1));
+        assertThat(stateRenders.get(), is(1));
+    }
 }